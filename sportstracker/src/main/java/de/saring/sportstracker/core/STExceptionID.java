@@ -44,6 +44,24 @@ public enum STExceptionID {
      */
     XMLSTORAGE_STORE_WEIGHT_LIST,
 
+    /**
+     * failed to read a data list from the journal files
+     */
+    JOURNALSTORAGE_READ_LIST,
+    /**
+     * failed to write a data list to the journal files
+     */
+    JOURNALSTORAGE_STORE_LIST,
+
+    /**
+     * failed to read a data list from the SQLite database
+     */
+    SQLITESTORAGE_READ_LIST,
+    /**
+     * failed to write a data list to the SQLite database
+     */
+    SQLITESTORAGE_STORE_LIST,
+
     /**
      * failed to create application directory
      */
@@ -57,6 +57,12 @@ public class STOptions implements EVOptions, Serializable {
      */
     private boolean saveOnExit;
 
+    /**
+     * If this flag is true, then the data will be saved automatically in
+     * background after each modification.
+     */
+    private boolean autoSave;
+
     /**
      * If this flag is true, then the second diagram graph will always be
      * displayed in the ExerciseViewer diagram panel (data must be available).
@@ -105,6 +111,7 @@ public class STOptions implements EVOptions, Serializable {
         this.speedView = SpeedView.DistancePerHour;
         this.defaultAutoCalcuation = AutoCalculation.Duration;
         this.saveOnExit = false;
+        this.autoSave = false;
         this.displaySecondDiagram = false;
         this.weekStartSunday = false;
         this.listViewShowAvgHeartrate = true;
@@ -159,6 +166,14 @@ public class STOptions implements EVOptions, Serializable {
         this.saveOnExit = saveOnExit;
     }
 
+    public boolean isAutoSave() {
+        return autoSave;
+    }
+
+    public void setAutoSave(boolean autoSave) {
+        this.autoSave = autoSave;
+    }
+
     public boolean isDisplaySecondDiagram() {
         return displaySecondDiagram;
     }
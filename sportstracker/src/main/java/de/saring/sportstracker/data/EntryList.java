@@ -1,9 +1,11 @@
 package de.saring.sportstracker.data;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
 
 import de.saring.util.StringUtils;
 import de.saring.util.data.IdDateObjectList;
@@ -40,9 +42,13 @@ public class EntryList<T extends Entry> extends IdDateObjectList<T> {
             return this;
         }
 
+        // this list is sorted by date, so the found entries can be stored without sorting or searching
+        final List<T> lFoundEntries = stream()
+                .filter(entry -> filterEntry(entry, filter))
+                .collect(Collectors.toList());
+
         final EntryList<T> foundEntries = new EntryList<>();
-        stream().filter(note -> filterEntry(note, filter))
-                .forEach(foundEntries::set);
+        foundEntries.replaceAllEntries(lFoundEntries);
         return foundEntries;
     }
 
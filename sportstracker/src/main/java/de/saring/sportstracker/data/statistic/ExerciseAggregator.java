@@ -0,0 +1,246 @@
+package de.saring.sportstracker.data.statistic;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.Equipment;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+
+/**
+ * This class calculates the sums of the exercise values (distance, duration, ascent,
+ * calories and the exercise count) for a sequence of time steps, e.g. for all months
+ * of a year. The sums are calculated for all exercises of a time step and also separately
+ * for each sport type, sport subtype and equipment.<br/>
+ * All sums are calculated in a single pass over the date sorted exercise list, so
+ * diagrams with many time steps and graphs don't need to filter the exercises for each
+ * value.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseAggregator {
+
+    /**
+     * Start dates of all time steps, ascending and not overlapping.
+     */
+    private final List<LocalDate> lTimeStepStarts = new ArrayList<>();
+
+    /**
+     * End dates (inclusive) of all time steps.
+     */
+    private final List<LocalDate> lTimeStepEnds = new ArrayList<>();
+
+    /**
+     * Sums of all exercises for each time step.
+     */
+    private final List<Sums> lTotalSums = new ArrayList<>();
+
+    /**
+     * Sums for each sport type for each time step.
+     */
+    private final List<Map<SportType, SportTypeSums>> lSportTypeSums = new ArrayList<>();
+
+    /**
+     * Creates an ExerciseAggregator for the specified time steps. The time range of each step
+     * is defined by the start and end date of the passed EntryFilter, all other filter attributes
+     * are ignored. The time steps must be sorted ascending and must not overlap.
+     *
+     * @param timeSteps list of filters with the time ranges of all steps
+     */
+    public ExerciseAggregator(List<EntryFilter> timeSteps) {
+        Objects.requireNonNull(timeSteps, "List of time steps must not be null!");
+
+        for (EntryFilter timeStep : timeSteps) {
+            if (!lTimeStepEnds.isEmpty() && !timeStep.getDateStart().isAfter(lTimeStepEnds.get(lTimeStepEnds.size() - 1))) {
+                throw new IllegalArgumentException("The time steps must be sorted and must not overlap!");
+            }
+
+            lTimeStepStarts.add(timeStep.getDateStart());
+            lTimeStepEnds.add(timeStep.getDateEnd());
+            lTotalSums.add(new Sums());
+            lSportTypeSums.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Returns the number of time steps.
+     *
+     * @return number of time steps
+     */
+    public int getTimeStepCount() {
+        return lTimeStepStarts.size();
+    }
+
+    /**
+     * Adds the values of the specified exercises to the sums of their time steps. The exercises
+     * must be sorted ascending by date (e.g. an ExerciseList or the result of an exercise filter),
+     * exercises outside of all time steps will be ignored.
+     *
+     * @param exercises the date sorted exercises to add
+     */
+    public void aggregate(Iterable<Exercise> exercises) {
+        int timeStep = 0;
+
+        for (Exercise exercise : exercises) {
+            LocalDate exerciseDate = exercise.getDateTime().toLocalDate();
+
+            // move to the time step which can contain the exercise (exercises are sorted by date)
+            while (timeStep < lTimeStepEnds.size() && exerciseDate.isAfter(lTimeStepEnds.get(timeStep))) {
+                timeStep++;
+            }
+            if (timeStep == lTimeStepEnds.size()) {
+                break;
+            }
+
+            if (!exerciseDate.isBefore(lTimeStepStarts.get(timeStep))) {
+                lTotalSums.get(timeStep).add(exercise);
+                lSportTypeSums.get(timeStep)
+                        .computeIfAbsent(exercise.getSportType(), sportType -> new SportTypeSums())
+                        .add(exercise);
+            }
+        }
+    }
+
+    /**
+     * Returns the sums of all exercises in the specified time step.
+     *
+     * @param timeStep index of the time step
+     * @return the sums
+     */
+    public Sums getSums(int timeStep) {
+        return lTotalSums.get(timeStep);
+    }
+
+    /**
+     * Returns the sums of all exercises of the specified sport type in the specified time step.
+     *
+     * @param timeStep index of the time step
+     * @param sportType the sport type
+     * @return the sums (0 when no exercises found)
+     */
+    public Sums getSumsForSportType(int timeStep, SportType sportType) {
+        SportTypeSums sportTypeSums = lSportTypeSums.get(timeStep).get(sportType);
+        return sportTypeSums != null ? sportTypeSums.sums : Sums.EMPTY;
+    }
+
+    /**
+     * Returns the sums of all exercises of the specified sport type and subtype in the specified
+     * time step.
+     *
+     * @param timeStep index of the time step
+     * @param sportType the sport type
+     * @param sportSubType the sport subtype of this sport type
+     * @return the sums (0 when no exercises found)
+     */
+    public Sums getSumsForSportSubType(int timeStep, SportType sportType, SportSubType sportSubType) {
+        SportTypeSums sportTypeSums = lSportTypeSums.get(timeStep).get(sportType);
+        return sportTypeSums != null ? sportTypeSums.mSportSubTypeSums.getOrDefault(sportSubType, Sums.EMPTY)
+                : Sums.EMPTY;
+    }
+
+    /**
+     * Returns the sums of all exercises of the specified sport type and equipment in the specified
+     * time step.
+     *
+     * @param timeStep index of the time step
+     * @param sportType the sport type
+     * @param equipment the equipment of this sport type or null for the exercises without equipment
+     * @return the sums (0 when no exercises found)
+     */
+    public Sums getSumsForEquipment(int timeStep, SportType sportType, Equipment equipment) {
+        SportTypeSums sportTypeSums = lSportTypeSums.get(timeStep).get(sportType);
+        return sportTypeSums != null ? sportTypeSums.mEquipmentSums.getOrDefault(equipment, Sums.EMPTY)
+                : Sums.EMPTY;
+    }
+
+    /**
+     * Sums of the exercise values of one group of exercises.
+     */
+    public static final class Sums {
+
+        private static final Sums EMPTY = new Sums();
+
+        private int exerciseCount;
+        private double distance;
+        private long duration;
+        private long ascent;
+        private long calories;
+
+        private void add(Exercise exercise) {
+            exerciseCount++;
+            distance += exercise.getDistance();
+            duration += exercise.getDuration();
+            ascent += exercise.getAscent();
+            calories += exercise.getCalories();
+        }
+
+        /**
+         * Returns the number of exercises.
+         *
+         * @return number of exercises
+         */
+        public int getExerciseCount() {
+            return exerciseCount;
+        }
+
+        /**
+         * Returns the sum of the distance in kilometers.
+         *
+         * @return distance sum
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * Returns the sum of the duration in seconds.
+         *
+         * @return duration sum
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the sum of the ascent in meters.
+         *
+         * @return ascent sum
+         */
+        public long getAscent() {
+            return ascent;
+        }
+
+        /**
+         * Returns the sum of the calorie consumption in kCal.
+         *
+         * @return calorie sum
+         */
+        public long getCalories() {
+            return calories;
+        }
+    }
+
+    /**
+     * Sums of the exercises of one sport type in one time step, also separately for all the
+     * sport subtypes and equipments. The subtypes and equipments need to be stored per sport type,
+     * their IDs are only unique inside the sport type.
+     */
+    private static final class SportTypeSums {
+
+        private final Sums sums = new Sums();
+        private final Map<SportSubType, Sums> mSportSubTypeSums = new HashMap<>();
+        private final Map<Equipment, Sums> mEquipmentSums = new HashMap<>();
+
+        private void add(Exercise exercise) {
+            sums.add(exercise);
+            mSportSubTypeSums.computeIfAbsent(exercise.getSportSubType(), sportSubType -> new Sums()).add(exercise);
+            mEquipmentSums.computeIfAbsent(exercise.getEquipment(), equipment -> new Sums()).add(exercise);
+        }
+    }
+}
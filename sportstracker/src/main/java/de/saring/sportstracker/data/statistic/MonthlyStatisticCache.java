@@ -0,0 +1,194 @@
+package de.saring.sportstracker.data.statistic;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.util.StringUtils;
+import de.saring.util.data.IdObject;
+import de.saring.util.data.IdObjectListChangeListener;
+
+/**
+ * This class caches the accumulated statistic values (StatisticAccumulator) of all exercises
+ * for each month and sport type. The statistic for a filtered date range can then be created
+ * by combining the cached values of the contained months, only the exercises of partially
+ * included months at the start and end of the date range need to be processed.<br/>
+ * The cache is registered as listener of the exercise list and removes the cached values of
+ * all months affected by a list change. These months will be calculated again on next usage.
+ *
+ * @author Stefan Saring
+ */
+public class MonthlyStatisticCache implements IdObjectListChangeListener {
+
+    private final ExerciseList exerciseList;
+
+    /**
+     * The cached statistic values of each month, mapped by the sport type ID.
+     */
+    private final Map<YearMonth, Map<Integer, StatisticAccumulator>> mMonthStatistics = new HashMap<>();
+
+    /**
+     * All exercises of the list (mapped by ID) at the time of the last list change, needed
+     * for detecting the changed exercises when the listeners don't get the changed object.
+     */
+    private final Map<Integer, Exercise> mKnownExercises = new HashMap<>();
+
+    /**
+     * The months of the known exercises (mapped by ID), the date of the exercise object
+     * could have been changed before it was stored again.
+     */
+    private final Map<Integer, YearMonth> mKnownExerciseMonths = new HashMap<>();
+
+    /**
+     * Creates the cache for the specified exercise list and registers it as list change listener.
+     *
+     * @param exerciseList the exercise list to cache the statistic for
+     */
+    public MonthlyStatisticCache(ExerciseList exerciseList) {
+        this.exerciseList = Objects.requireNonNull(exerciseList, "Exercise list must not be null!");
+        resetKnownExercises();
+        exerciseList.addListChangeListener(this);
+    }
+
+    /**
+     * Returns the accumulated statistic values for all exercises matching the specified filter.
+     * This is only possible when the filter contains just the date range and optionally the sport
+     * type. For all other filter criteria an empty Optional is returned, the statistic must be
+     * calculated for the filter result then.
+     *
+     * @param filter the exercise filter
+     * @return the accumulated statistic values or an empty Optional when the filter is not supported
+     */
+    public Optional<StatisticAccumulator> getStatisticForFilter(EntryFilter filter) {
+        if (!isSupportedFilter(filter)) {
+            return Optional.empty();
+        }
+
+        StatisticAccumulator result = new StatisticAccumulator();
+        if (exerciseList.size() == 0 || filter.getDateStart().isAfter(filter.getDateEnd())) {
+            return Optional.of(result);
+        }
+
+        // there's no need to process the months before the first and after the last exercise
+        LocalDate dateStart = max(filter.getDateStart(), exerciseList.getAt(0).getDateTime().toLocalDate());
+        LocalDate dateEnd = min(filter.getDateEnd(),
+                exerciseList.getAt(exerciseList.size() - 1).getDateTime().toLocalDate());
+        if (dateStart.isAfter(dateEnd)) {
+            return Optional.of(result);
+        }
+        Integer sportTypeId = filter.getSportType() == null ? null : filter.getSportType().getId();
+
+        YearMonth month = YearMonth.from(dateStart);
+        while (!month.atDay(1).isAfter(dateEnd)) {
+            LocalDate monthStart = month.atDay(1);
+            LocalDate monthEnd = month.atEndOfMonth();
+
+            if (dateStart.isAfter(monthStart) || dateEnd.isBefore(monthEnd)) {
+                // month is included partially => process its exercises in the date range
+                exerciseList.getEntriesInDateRange(max(dateStart, monthStart), min(dateEnd, monthEnd)).stream()
+                        .filter(exercise -> sportTypeId == null || exercise.getSportType().getId() == sportTypeId)
+                        .forEach(result::add);
+            } else {
+                Map<Integer, StatisticAccumulator> mSportTypeStatistics = getMonthStatistics(month);
+                if (sportTypeId == null) {
+                    mSportTypeStatistics.values().forEach(result::combine);
+                } else if (mSportTypeStatistics.containsKey(sportTypeId)) {
+                    result.combine(mSportTypeStatistics.get(sportTypeId));
+                }
+            }
+            month = month.plusMonths(1);
+        }
+        return Optional.of(result);
+    }
+
+    @Override
+    public void listChanged(IdObject changedObject) {
+        if (changedObject != null) {
+            // an exercise was added or updated => remove its previous and current month
+            Exercise exercise = (Exercise) changedObject;
+            YearMonth previousMonth = mKnownExerciseMonths.get(exercise.getId());
+            if (previousMonth != null) {
+                mMonthStatistics.remove(previousMonth);
+            }
+            YearMonth month = YearMonth.from(exercise.getDateTime());
+            mMonthStatistics.remove(month);
+            mKnownExercises.put(exercise.getId(), exercise);
+            mKnownExerciseMonths.put(exercise.getId(), month);
+        } else {
+            processUnknownChanges();
+        }
+    }
+
+    /**
+     * Detects the changes when the changed exercise is unknown, e.g. on removal. The months of
+     * all removed and replaced exercises will be removed from cache. When new exercises were
+     * added too, the complete cache needs to be cleared.
+     */
+    private void processUnknownChanges() {
+        Iterator<Map.Entry<Integer, Exercise>> knownExercises = mKnownExercises.entrySet().iterator();
+        while (knownExercises.hasNext()) {
+            Map.Entry<Integer, Exercise> knownExercise = knownExercises.next();
+            Exercise exercise = exerciseList.getByID(knownExercise.getKey());
+            YearMonth previousMonth = mKnownExerciseMonths.get(knownExercise.getKey());
+
+            if (exercise == null) {
+                mMonthStatistics.remove(previousMonth);
+                mKnownExerciseMonths.remove(knownExercise.getKey());
+                knownExercises.remove();
+            } else if (exercise != knownExercise.getValue()
+                    || !previousMonth.equals(YearMonth.from(exercise.getDateTime()))) {
+                mMonthStatistics.remove(previousMonth);
+                mMonthStatistics.remove(YearMonth.from(exercise.getDateTime()));
+                knownExercise.setValue(exercise);
+                mKnownExerciseMonths.put(exercise.getId(), YearMonth.from(exercise.getDateTime()));
+            }
+        }
+
+        if (mKnownExercises.size() != exerciseList.size()) {
+            mMonthStatistics.clear();
+            resetKnownExercises();
+        }
+    }
+
+    private void resetKnownExercises() {
+        mKnownExercises.clear();
+        mKnownExerciseMonths.clear();
+        exerciseList.forEach(exercise -> {
+            mKnownExercises.put(exercise.getId(), exercise);
+            mKnownExerciseMonths.put(exercise.getId(), YearMonth.from(exercise.getDateTime()));
+        });
+    }
+
+    private Map<Integer, StatisticAccumulator> getMonthStatistics(YearMonth month) {
+        return mMonthStatistics.computeIfAbsent(month, m -> {
+            Map<Integer, StatisticAccumulator> mSportTypeStatistics = new HashMap<>();
+            exerciseList.getEntriesInDateRange(m.atDay(1), m.atEndOfMonth()).forEach(exercise ->
+                    mSportTypeStatistics.computeIfAbsent(exercise.getSportType().getId(),
+                            sportTypeId -> new StatisticAccumulator()).add(exercise));
+            return mSportTypeStatistics;
+        });
+    }
+
+    private static boolean isSupportedFilter(EntryFilter filter) {
+        return filter.getEntryType() == EntryFilter.EntryType.EXERCISE
+                && filter.getSportSubType() == null
+                && filter.getIntensity() == null
+                && filter.getEquipment() == null
+                && StringUtils.isNullOrEmpty(filter.getCommentSubString());
+    }
+
+    private static LocalDate max(LocalDate date1, LocalDate date2) {
+        return date1.isAfter(date2) ? date1 : date2;
+    }
+
+    private static LocalDate min(LocalDate date1, LocalDate date2) {
+        return date1.isBefore(date2) ? date1 : date2;
+    }
+}
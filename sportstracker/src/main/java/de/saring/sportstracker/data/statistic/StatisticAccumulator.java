@@ -0,0 +1,374 @@
+package de.saring.sportstracker.data.statistic;
+
+import de.saring.sportstracker.data.Exercise;
+import de.saring.util.data.IdObjectList;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * This class accumulates the partial values for the exercise statistic (counts, sums,
+ * minimum and maximum values). Exercises can be added and removed, partial results of
+ * different exercise lists (e.g. of different months) can be combined. The final statistic
+ * values (e.g. averages) are calculated by the StatisticCalculator.<br/>
+ * The minimum and maximum values can't be restored when an exercise containing such a value
+ * gets removed. These values are invalid afterwards, this can be checked by isMinMaxValid().
+ *
+ * @author Stefan Saring
+ */
+public class StatisticAccumulator {
+
+    /**
+     * Minimum number of exercises for the parallel processing in ofParallel().
+     */
+    public static final int PARALLEL_THRESHOLD = 10000;
+
+    /**
+     * Number of exercises which are summed up in one chunk by of() and ofParallel().
+     */
+    static final int CHUNK_SIZE = 1000;
+
+    private int exerciseCount;
+    private int exercisesWithDistanceCount;
+    private int exercisesWithHeartRateCount;
+    private int exercisesWithCaloriesCount;
+
+    private double totalDistance;
+    private double totalAvgSpeed;
+    private long totalDuration;
+    private long totalAscent;
+    private long totalHeartRate;
+    private long totalCalories;
+
+    private float minDistance;
+    private float minAvgSpeed;
+    private int minDuration;
+    private int minAscent;
+    // minimum heartrate and calories are 0 when not specified in any exercise
+    private int minAvgHeartRate;
+    private int minCalories;
+
+    private float maxDistance;
+    private float maxAvgSpeed;
+    private int maxDuration;
+    private int maxAscent;
+    private int maxAvgHeartRate;
+    private int maxCalories;
+
+    private boolean minMaxValid = true;
+
+    /**
+     * Creates a StatisticAccumulator which contains the values of all specified exercises.
+     * The exercises are summed up in chunks of CHUNK_SIZE exercises, the chunks are combined
+     * in list order. So the floating point totals are exactly the same as in ofParallel(),
+     * the summation order is the same. Lists up to CHUNK_SIZE exercises are summed up like
+     * by adding all exercises.
+     *
+     * @param exercises the exercises to add
+     * @return the created StatisticAccumulator
+     */
+    public static StatisticAccumulator of(Iterable<Exercise> exercises) {
+        StatisticAccumulator accumulator = new StatisticAccumulator();
+        StatisticAccumulator chunk = new StatisticAccumulator();
+
+        for (Exercise exercise : exercises) {
+            chunk.add(exercise);
+            if (chunk.exerciseCount == CHUNK_SIZE) {
+                accumulator.combine(chunk);
+                chunk = new StatisticAccumulator();
+            }
+        }
+        accumulator.combine(chunk);
+        return accumulator;
+    }
+
+    /**
+     * Creates a StatisticAccumulator which contains the values of all specified exercises.
+     * Large lists will be split into chunks of CHUNK_SIZE exercises which are processed in
+     * parallel, the partial values of the chunks are combined in list order afterwards. So
+     * the results are exactly the same as the results of of(). Lists below the size of
+     * PARALLEL_THRESHOLD are processed sequentially, the parallelization overhead would be
+     * bigger than the benefit.
+     *
+     * @param exercises the exercises to add
+     * @return the created StatisticAccumulator
+     */
+    public static StatisticAccumulator ofParallel(IdObjectList<Exercise> exercises) {
+        if (exercises.size() < PARALLEL_THRESHOLD) {
+            return of(exercises);
+        }
+
+        int chunkCount = (exercises.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<StatisticAccumulator> chunks = IntStream.range(0, chunkCount).parallel()
+                .mapToObj(chunkIndex -> ofChunk(exercises, chunkIndex))
+                .collect(Collectors.toList());
+
+        StatisticAccumulator accumulator = new StatisticAccumulator();
+        chunks.forEach(accumulator::combine);
+        return accumulator;
+    }
+
+    private static StatisticAccumulator ofChunk(IdObjectList<Exercise> exercises, int chunkIndex) {
+        StatisticAccumulator chunk = new StatisticAccumulator();
+        int end = Math.min(exercises.size(), (chunkIndex + 1) * CHUNK_SIZE);
+        for (int i = chunkIndex * CHUNK_SIZE; i < end; i++) {
+            chunk.add(exercises.getAt(i));
+        }
+        return chunk;
+    }
+
+    /**
+     * Adds the values of the specified exercise.
+     *
+     * @param exercise the exercise to add
+     */
+    public void add(Exercise exercise) {
+
+        // the values of the first exercise are the initial minimum values
+        if (exerciseCount == 0) {
+            minDistance = exercise.getDistance();
+            minAvgSpeed = exercise.getAvgSpeed();
+            minDuration = exercise.getDuration();
+            minAscent = exercise.getAscent();
+        } else {
+            minDistance = Math.min(minDistance, exercise.getDistance());
+            minAvgSpeed = Math.min(minAvgSpeed, exercise.getAvgSpeed());
+            minDuration = Math.min(minDuration, exercise.getDuration());
+            minAscent = Math.min(minAscent, exercise.getAscent());
+        }
+
+        // avg heartrate and calories value '0' needs to be ignored, it's not entered by user
+        minAvgHeartRate = minOfSpecified(minAvgHeartRate, exercise.getAvgHeartRate());
+        minCalories = minOfSpecified(minCalories, exercise.getCalories());
+
+        maxDistance = Math.max(maxDistance, exercise.getDistance());
+        maxAvgSpeed = Math.max(maxAvgSpeed, exercise.getAvgSpeed());
+        maxDuration = Math.max(maxDuration, exercise.getDuration());
+        maxAscent = Math.max(maxAscent, exercise.getAscent());
+        maxAvgHeartRate = Math.max(maxAvgHeartRate, exercise.getAvgHeartRate());
+        maxCalories = Math.max(maxCalories, exercise.getCalories());
+
+        updateCountsAndTotals(exercise, 1);
+    }
+
+    /**
+     * Removes the values of the specified exercise, it must be added before. The minimum and
+     * maximum values are invalid afterwards when the exercise contains one of them.
+     *
+     * @param exercise the exercise to remove
+     */
+    public void remove(Exercise exercise) {
+        if (exerciseCount == 0) {
+            throw new IllegalStateException("There are no exercises to remove!");
+        }
+
+        if (exercise.getDistance() <= minDistance || exercise.getDistance() >= maxDistance
+                || exercise.getAvgSpeed() <= minAvgSpeed || exercise.getAvgSpeed() >= maxAvgSpeed
+                || exercise.getDuration() <= minDuration || exercise.getDuration() >= maxDuration
+                || exercise.getAscent() <= minAscent || exercise.getAscent() >= maxAscent
+                || exercise.getAvgHeartRate() == minAvgHeartRate || exercise.getAvgHeartRate() >= maxAvgHeartRate
+                || exercise.getCalories() == minCalories || exercise.getCalories() >= maxCalories) {
+            minMaxValid = false;
+        }
+
+        updateCountsAndTotals(exercise, -1);
+    }
+
+    /**
+     * Adds all the values of the specified StatisticAccumulator, e.g. the partial values of
+     * another time range.
+     *
+     * @param other the StatisticAccumulator to combine with
+     */
+    public void combine(StatisticAccumulator other) {
+        if (other.exerciseCount == 0) {
+            return;
+        }
+
+        if (exerciseCount == 0) {
+            minDistance = other.minDistance;
+            minAvgSpeed = other.minAvgSpeed;
+            minDuration = other.minDuration;
+            minAscent = other.minAscent;
+        } else {
+            minDistance = Math.min(minDistance, other.minDistance);
+            minAvgSpeed = Math.min(minAvgSpeed, other.minAvgSpeed);
+            minDuration = Math.min(minDuration, other.minDuration);
+            minAscent = Math.min(minAscent, other.minAscent);
+        }
+
+        minAvgHeartRate = minOfSpecified(minAvgHeartRate, other.minAvgHeartRate);
+        minCalories = minOfSpecified(minCalories, other.minCalories);
+
+        maxDistance = Math.max(maxDistance, other.maxDistance);
+        maxAvgSpeed = Math.max(maxAvgSpeed, other.maxAvgSpeed);
+        maxDuration = Math.max(maxDuration, other.maxDuration);
+        maxAscent = Math.max(maxAscent, other.maxAscent);
+        maxAvgHeartRate = Math.max(maxAvgHeartRate, other.maxAvgHeartRate);
+        maxCalories = Math.max(maxCalories, other.maxCalories);
+        minMaxValid &= other.minMaxValid;
+
+        exerciseCount += other.exerciseCount;
+        exercisesWithDistanceCount += other.exercisesWithDistanceCount;
+        exercisesWithHeartRateCount += other.exercisesWithHeartRateCount;
+        exercisesWithCaloriesCount += other.exercisesWithCaloriesCount;
+
+        totalDistance += other.totalDistance;
+        totalAvgSpeed += other.totalAvgSpeed;
+        totalDuration += other.totalDuration;
+        totalAscent += other.totalAscent;
+        totalHeartRate += other.totalHeartRate;
+        totalCalories += other.totalCalories;
+    }
+
+    private void updateCountsAndTotals(Exercise exercise, int sign) {
+        exerciseCount += sign;
+
+        // count number of exercises with recorded distance
+        if (exercise.getDistance() > 0 && exercise.getAvgSpeed() > 0) {
+            exercisesWithDistanceCount += sign;
+        }
+
+        totalDistance += sign * exercise.getDistance();
+        totalAvgSpeed += sign * exercise.getAvgSpeed();
+        totalDuration += sign * exercise.getDuration();
+        totalAscent += sign * exercise.getAscent();
+
+        // include heartrate and calories in statistic only when specified
+        if (exercise.getAvgHeartRate() > 0) {
+            totalHeartRate += sign * exercise.getAvgHeartRate();
+            exercisesWithHeartRateCount += sign;
+        }
+        if (exercise.getCalories() > 0) {
+            totalCalories += sign * exercise.getCalories();
+            exercisesWithCaloriesCount += sign;
+        }
+
+        // the minimum and maximum values are valid again when no exercises are left
+        if (exerciseCount == 0) {
+            resetMinMax();
+        }
+    }
+
+    private void resetMinMax() {
+        minDistance = 0;
+        minAvgSpeed = 0;
+        minDuration = 0;
+        minAscent = 0;
+        minAvgHeartRate = 0;
+        minCalories = 0;
+        maxDistance = 0;
+        maxAvgSpeed = 0;
+        maxDuration = 0;
+        maxAscent = 0;
+        maxAvgHeartRate = 0;
+        maxCalories = 0;
+        minMaxValid = true;
+    }
+
+    private static int minOfSpecified(int currentMin, int value) {
+        if (currentMin <= 0) {
+            return value;
+        }
+        return value > 0 ? Math.min(currentMin, value) : currentMin;
+    }
+
+    public int getExerciseCount() {
+        return exerciseCount;
+    }
+
+    public int getExercisesWithDistanceCount() {
+        return exercisesWithDistanceCount;
+    }
+
+    public int getExercisesWithHeartRateCount() {
+        return exercisesWithHeartRateCount;
+    }
+
+    public int getExercisesWithCaloriesCount() {
+        return exercisesWithCaloriesCount;
+    }
+
+    public double getTotalDistance() {
+        return totalDistance;
+    }
+
+    public double getTotalAvgSpeed() {
+        return totalAvgSpeed;
+    }
+
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    public long getTotalAscent() {
+        return totalAscent;
+    }
+
+    public long getTotalHeartRate() {
+        return totalHeartRate;
+    }
+
+    public long getTotalCalories() {
+        return totalCalories;
+    }
+
+    public float getMinDistance() {
+        return minDistance;
+    }
+
+    public float getMinAvgSpeed() {
+        return minAvgSpeed;
+    }
+
+    public int getMinDuration() {
+        return minDuration;
+    }
+
+    public int getMinAscent() {
+        return minAscent;
+    }
+
+    public int getMinAvgHeartRate() {
+        return minAvgHeartRate;
+    }
+
+    public int getMinCalories() {
+        return minCalories;
+    }
+
+    public float getMaxDistance() {
+        return maxDistance;
+    }
+
+    public float getMaxAvgSpeed() {
+        return maxAvgSpeed;
+    }
+
+    public int getMaxDuration() {
+        return maxDuration;
+    }
+
+    public int getMaxAscent() {
+        return maxAscent;
+    }
+
+    public int getMaxAvgHeartRate() {
+        return maxAvgHeartRate;
+    }
+
+    public int getMaxCalories() {
+        return maxCalories;
+    }
+
+    /**
+     * Returns true when the minimum and maximum values are valid. They are invalid when an
+     * exercise containing one of these values has been removed.
+     *
+     * @return true when the minimum and maximum values are valid
+     */
+    public boolean isMinMaxValid() {
+        return minMaxValid;
+    }
+}
@@ -135,115 +135,62 @@ public class StatisticCalculator {
      * @param exercises list of Exercise objects for statistic calculation
      */
     public StatisticCalculator(IdObjectList<Exercise> exercises) {
+        this(StatisticAccumulator.of(exercises));
+    }
 
-        exerciseCount = exercises.size();
+    /**
+     * Creates a new StatisticCalculator instance. The statistic will be
+     * calculated immediately for the specified exercises, large exercise
+     * lists can be processed in parallel. The results are exactly the same
+     * as in the sequential mode, the values are summed up in the same order
+     * (see StatisticAccumulator.ofParallel()).
+     *
+     * @param exercises list of Exercise objects for statistic calculation
+     * @param parallel true for the parallel processing of large lists
+     */
+    public StatisticCalculator(IdObjectList<Exercise> exercises, boolean parallel) {
+        this(parallel ? StatisticAccumulator.ofParallel(exercises) : StatisticAccumulator.of(exercises));
+    }
+
+    /**
+     * Creates a new StatisticCalculator instance for the accumulated values of
+     * the exercises (e.g. combined partial values of multiple time ranges).
+     * The results can be retrieved from the class properties.
+     *
+     * @param accumulator the accumulated values of all exercises
+     */
+    public StatisticCalculator(StatisticAccumulator accumulator) {
+
+        exerciseCount = accumulator.getExerciseCount();
         if (exerciseCount == 0) {
             return;
         }
 
-        double totalAvgSpeed = 0;
-        long totalHeartRate = 0;
-
-        int numberOfExerciseWithDistance = 0;
-        int numberOfExercisesWithHeartRate = 0;
-        int numberOfExercisesWithCalories = 0;
-
-        // start with 1st exercise for minimum values
-        Exercise firstExercise = exercises.getAt(0);
-        minDistance = firstExercise.getDistance();
-        minAvgSpeed = firstExercise.getAvgSpeed();
-        minDuration = firstExercise.getDuration();
-        minAscent = firstExercise.getAscent();
-        minAvgHeartRate = firstExercise.getAvgHeartRate();
-
-        // process all exercises
-        for (Exercise currExercise : exercises) {
-
-            // count number of exercises with recorded distance
-            boolean fDistanceRecorded = currExercise.getDistance() > 0 && currExercise.getAvgSpeed() > 0;
-            if (fDistanceRecorded) {
-                numberOfExerciseWithDistance++;
-            }
-
-            // calculate total values
-            totalDistance += currExercise.getDistance();
-            totalAvgSpeed += currExercise.getAvgSpeed();
-            totalDuration += currExercise.getDuration();
-            totalAscent += currExercise.getAscent();
-
-            // include heartrate in statistic only when specified
-            if (currExercise.getAvgHeartRate() > 0) {
-                totalHeartRate += currExercise.getAvgHeartRate();
-                numberOfExercisesWithHeartRate++;
-            }
-
-            // include calories in statistic only when specified
-            if (currExercise.getCalories() > 0) {
-                totalCalories += currExercise.getCalories();
-                numberOfExercisesWithCalories++;
-            }
-
-            // check for minimum values
-            if (currExercise.getDistance() < minDistance) {
-                minDistance = currExercise.getDistance();
-            }
-
-            if (currExercise.getAvgSpeed() < minAvgSpeed) {
-                minAvgSpeed = currExercise.getAvgSpeed();
-            }
-
-            if (currExercise.getDuration() < minDuration) {
-                minDuration = currExercise.getDuration();
-            }
-
-            if (currExercise.getAscent() < minAscent) {
-                minAscent = currExercise.getAscent();
-            }
-
-            // avg heartrate value '0' needs to be ignored, it's not entered by user
-            if ((minAvgHeartRate <= 0) ||
-                    ((currExercise.getAvgHeartRate() > 0) &&
-                            (currExercise.getAvgHeartRate() < minAvgHeartRate))) {
-                minAvgHeartRate = currExercise.getAvgHeartRate();
-            }
-
-            // calories value '0' needs to be ignored, it's not entered by user
-            if ((minCalories <= 0) ||
-                    ((currExercise.getCalories() > 0) &&
-                            (currExercise.getCalories() < minCalories))) {
-                minCalories = currExercise.getCalories();
-            }
-
-            // check for maximum values
-            if (currExercise.getDistance() > maxDistance) {
-                maxDistance = currExercise.getDistance();
-            }
-
-            if (currExercise.getAvgSpeed() > maxAvgSpeed) {
-                maxAvgSpeed = currExercise.getAvgSpeed();
-            }
-
-            if (currExercise.getDuration() > maxDuration) {
-                maxDuration = currExercise.getDuration();
-            }
-
-            if (currExercise.getAscent() > maxAscent) {
-                maxAscent = currExercise.getAscent();
-            }
-
-            if (currExercise.getAvgHeartRate() > maxAvgHeartRate) {
-                maxAvgHeartRate = currExercise.getAvgHeartRate();
-            }
-
-            if (currExercise.getCalories() > maxCalories) {
-                maxCalories = currExercise.getCalories();
-            }
-        }
+        // calculate total values
+        totalDistance = accumulator.getTotalDistance();
+        totalDuration = (int) accumulator.getTotalDuration();
+        totalAscent = (int) accumulator.getTotalAscent();
+        totalCalories = (int) accumulator.getTotalCalories();
+
+        minDistance = accumulator.getMinDistance();
+        minAvgSpeed = accumulator.getMinAvgSpeed();
+        minDuration = accumulator.getMinDuration();
+        minAscent = accumulator.getMinAscent();
+        minAvgHeartRate = accumulator.getMinAvgHeartRate();
+        minCalories = accumulator.getMinCalories();
+
+        maxDistance = accumulator.getMaxDistance();
+        maxAvgSpeed = accumulator.getMaxAvgSpeed();
+        maxDuration = accumulator.getMaxDuration();
+        maxAscent = accumulator.getMaxAscent();
+        maxAvgHeartRate = accumulator.getMaxAvgHeartRate();
+        maxCalories = accumulator.getMaxCalories();
 
         // compute AVG distance values when such exercises were in the list
+        int numberOfExerciseWithDistance = accumulator.getExercisesWithDistanceCount();
         if (numberOfExerciseWithDistance > 0) {
             avgDistance = (float) (totalDistance / numberOfExerciseWithDistance);
-            avgSpeed = (float) (totalAvgSpeed / numberOfExerciseWithDistance);
+            avgSpeed = (float) (accumulator.getTotalAvgSpeed() / numberOfExerciseWithDistance);
         } else {
             avgDistance = 0;
             avgSpeed = 0;
@@ -254,13 +201,13 @@ public class StatisticCalculator {
         avgAscent = totalAscent / exerciseCount;
 
         // compute AVG heartrate only when it was specified in at least one exercise
-        if (numberOfExercisesWithHeartRate > 0) {
-            avgHeartRate = (int) (totalHeartRate / numberOfExercisesWithHeartRate);
+        if (accumulator.getExercisesWithHeartRateCount() > 0) {
+            avgHeartRate = (int) (accumulator.getTotalHeartRate() / accumulator.getExercisesWithHeartRateCount());
         }
 
         // compute average calories only when it was specified in at least one exercise
-        if (numberOfExercisesWithCalories > 0) {
-            avgCalories = totalCalories / numberOfExercisesWithCalories;
+        if (accumulator.getExercisesWithCaloriesCount() > 0) {
+            avgCalories = totalCalories / accumulator.getExercisesWithCaloriesCount();
         }
     }
 
@@ -1,9 +1,13 @@
 package de.saring.sportstracker.gui;
 
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.saring.sportstracker.storage.IStorage;
+import de.saring.sportstracker.storage.JournalStorage;
+import de.saring.sportstracker.storage.SQLiteStorage;
 import de.saring.sportstracker.storage.XMLStorage;
 import eu.lestard.easydi.EasyDI;
 import javafx.application.Application;
@@ -12,6 +16,7 @@ import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 
 import de.saring.exerciseviewer.gui.EVContext;
+import de.saring.exerciseviewer.parser.ExerciseParserFactory;
 import de.saring.sportstracker.core.STException;
 import de.saring.sportstracker.core.STOptions;
 import de.saring.util.gui.javafx.WindowBoundsPersistence;
@@ -27,6 +32,12 @@ public class STApplication extends Application {
 
     private static final Logger LOGGER = Logger.getLogger(STApplication.class.getName());
 
+    /** Name of the directory for the cached parsed exercise files (in the data directory). */
+    private static final String EXERCISE_CACHE_DIRECTORY = "exercise-cache";
+
+    /** Command line parameter for selecting the storage of the application data (optional). */
+    private static final String PARAMETER_STORAGE = "--storage=";
+
     private STDocument document;
     private STContext context;
     private STController controller;
@@ -39,7 +50,7 @@ public class STApplication extends Application {
         // setup EasyDI for dependency injection
         final EasyDI easyDI = new EasyDI();
         easyDI.bindInstance(STApplication.class, this);
-        easyDI.bindInterface(IStorage.class, XMLStorage.class);
+        easyDI.bindInterface(IStorage.class, getStorageClass(getParameters().getRaw()));
         easyDI.bindInterface(STContext.class, STContextImpl.class);
         easyDI.bindInterface(EVContext.class, STContextImpl.class);
         easyDI.bindInterface(STDocument.class, STDocumentImpl.class);
@@ -50,6 +61,9 @@ public class STApplication extends Application {
         document.evaluateCommandLineParameters(getParameters().getRaw());
         document.loadOptions();
 
+        // store the parsed exercise files in the cache directory of the user data
+        ExerciseParserFactory.setDiskCacheDirectory(Paths.get(document.getDataDirectory(), EXERCISE_CACHE_DIRECTORY));
+
         // initialize the context (set format utils for current configuration)
         context = easyDI.getInstance(STContext.class);
         final STOptions options = document.getOptions();
@@ -77,6 +91,32 @@ public class STApplication extends Application {
         super.stop();
     }
 
+    /**
+     * Returns the storage implementation selected by the command line parameter '--storage'.
+     * Supported values are 'xml' (default), 'journal' and 'sqlite'.
+     *
+     * @param parameters list of command line parameters
+     * @return the storage implementation class
+     */
+    private static Class<? extends IStorage> getStorageClass(final List<String> parameters) {
+        for (String parameter : parameters) {
+            if (parameter.startsWith(PARAMETER_STORAGE)) {
+                final String storage = parameter.substring(PARAMETER_STORAGE.length()).trim();
+                switch (storage) {
+                    case "xml":
+                        return XMLStorage.class;
+                    case "journal":
+                        return JournalStorage.class;
+                    case "sqlite":
+                        return SQLiteStorage.class;
+                    default:
+                        LOGGER.warning("Unknown storage '" + storage + "', using the XML storage...");
+                }
+            }
+        }
+        return XMLStorage.class;
+    }
+
     /**
      * Returns the primary Stage of the JavaFX application.
      *
@@ -14,6 +14,7 @@ import java.util.logging.Logger;
 import de.saring.sportstracker.data.Entry;
 import de.saring.sportstracker.data.EntryList;
 import de.saring.sportstracker.storage.SQLiteExporter;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.concurrent.Task;
@@ -69,9 +70,13 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
 
     private static final String URL_PROJECT_WEBSITE = "http://www.saring.de/sportstracker";
 
+    /** Quiet period in milliseconds after the last data change before the automatic save starts. */
+    private static final long AUTOSAVE_QUIET_PERIOD_MILLIS = 2000;
+
     private final STContext context;
     private final STDocument document;
     private final SQLiteExporter exporter;
+    private final SaveScheduler saveScheduler;
 
     private CalendarViewController calendarViewController;
     private ExerciseListViewController exerciseListViewController;
@@ -195,6 +200,10 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
         this.weightListViewController = weightListViewController;
         this.statusBarController = statusBarController;
         this.dialogProvider = dialogProvider;
+
+        saveScheduler = new SaveScheduler(document::createStoreOperation, Platform::runLater,
+                AUTOSAVE_QUIET_PERIOD_MILLIS);
+        saveScheduler.setScheduledSaveResultHandler(this::onSaveFinished);
     }
 
     @Override
@@ -265,8 +274,7 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
 
     @Override
     public void onSave(final ActionEvent event) {
-        context.blockMainWindow(true);
-        new Thread(new SaveTask(false)).start();
+        saveApplicationData(false);
     }
 
     @Override
@@ -654,14 +662,26 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
     }
 
     /**
-     * Checks for unsaved application data and exits the application. When there is unsaved data then
-     * the user will be asked to save the data before (can also be saved without user confirmation when
-     * the 'save on exit' option is enabled in the preferences).<br/>
+     * Checks for unsaved application data and exits the application. The pending and running
+     * automatic saves will be finished before, the main window is blocked until then. When there
+     * is unsaved data (e.g. after a failed automatic save) then the user will be asked to save the
+     * data before (can also be saved without user confirmation when the 'save on exit' option is
+     * enabled in the preferences).<br/>
      * The application will not be exited when the save action fails or when the user cancels the
      * confirmation.<br/>
      * When there is no unsaved data, the application will be exited immediately.
      */
     private void saveChangesAndExitApplication() {
+        context.blockMainWindow(true);
+
+        // the results of the finished saves have been processed in the UI thread before
+        saveScheduler.finishSaves().thenRun(() -> Platform.runLater(() -> {
+            context.blockMainWindow(false);
+            checkUnsavedChangesAndExitApplication();
+        }));
+    }
+
+    private void checkUnsavedChangesAndExitApplication() {
 
         if (document.isDirtyData()) {
             if (!document.getOptions().isSaveOnExit()) {
@@ -681,8 +701,7 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
             }
 
             // save unsaved changes and exit on success
-            context.blockMainWindow(true);
-            new Thread(new SaveTask(true)).start();
+            saveApplicationData(true);
         } else {
             exitApplication();
         }
@@ -692,15 +711,55 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
      * Exits the SportsTracker application and releases the resources before.
      */
     private void exitApplication() {
+        saveScheduler.shutdown();
         context.getPrimaryStage().close();
     }
 
+    /**
+     * Saves the application data in the background thread of the save scheduler, the main window
+     * is blocked until the save has been finished.
+     *
+     * @param exitOnSuccess flag for exiting the application after successful save
+     */
+    private void saveApplicationData(final boolean exitOnSuccess) {
+        LOGGER.info("Saving application data...");
+        context.blockMainWindow(true);
+
+        saveScheduler.saveNow().whenComplete((result, throwable) -> Platform.runLater(() -> {
+            context.blockMainWindow(false);
+            final Throwable cause = SaveScheduler.unwrap(throwable);
+            onSaveFinished(cause);
+
+            if (cause == null && exitOnSuccess) {
+                exitApplication();
+            }
+        }));
+    }
+
+    /**
+     * Updates the UI after a save of the application data has been finished (immediate or automatic).
+     *
+     * @param throwable the failure cause or null on success
+     */
+    private void onSaveFinished(final Throwable throwable) {
+        updateActionsAndStatusBar();
+
+        if (throwable != null) {
+            LOGGER.log(Level.SEVERE, "Failed to store application data!", throwable);
+            context.showMessageDialog(context.getPrimaryStage(), Alert.AlertType.ERROR, //
+                    "common.error", "st.main.error.save_data");
+        }
+    }
+
     /**
      * Registers a listener which updates the view after each data change and selects the changed
      * object in the current view, if specified.
      */
     private void registerListenerForDataChanges() {
         document.registerListChangeListener(changedObject -> {
+            if (document.getOptions().isAutoSave()) {
+                saveScheduler.requestSave();
+            }
             updateView();
             if (changedObject != null) {
                 currentViewController.selectEntry(changedObject);
@@ -909,51 +968,6 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
         }
     }
 
-    /**
-     * This class executes the save action inside a background task without blocking the UI thread.
-     */
-    private class SaveTask extends Task<Void> {
-
-        private boolean exitOnSuccess;
-
-        /**
-         * Standard c'tor.
-         *
-         * @param exitOnSuccess flag for exiting the application after successful save
-         */
-        public SaveTask(final boolean exitOnSuccess) {
-            this.exitOnSuccess = exitOnSuccess;
-        }
-
-        @Override
-        protected Void call() throws Exception {
-            LOGGER.info("Saving application data...");
-            document.storeApplicationData();
-            return null;
-        }
-
-        @Override
-        protected void succeeded() {
-            super.succeeded();
-            context.blockMainWindow(false);
-            updateActionsAndStatusBar();
-
-            if (exitOnSuccess) {
-                exitApplication();
-            }
-        }
-
-        @Override
-        protected void failed() {
-            super.failed();
-            context.blockMainWindow(false);
-
-            LOGGER.log(Level.SEVERE, "Failed to store application data!", getException());
-            context.showMessageDialog(context.getPrimaryStage(), Alert.AlertType.ERROR, //
-                    "common.error", "st.main.error.save_data");
-        }
-    }
-
     /**
      * This class executes the Export to SQLite action inside a background task without blocking the UI thread.
      */
@@ -962,7 +976,7 @@ public class STControllerImpl implements STController, EntryViewEventHandler {
         @Override
         protected Void call() throws Exception {
             LOGGER.info("Exporting application data to SQLite...");
-            exporter.exportToSqlite();
+            exporter.exportToSqlite(true);
             return null;
         }
 
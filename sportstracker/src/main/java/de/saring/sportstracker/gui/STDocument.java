@@ -13,6 +13,7 @@ import de.saring.sportstracker.data.NoteList;
 import de.saring.sportstracker.data.SportTypeList;
 import de.saring.sportstracker.data.Weight;
 import de.saring.sportstracker.data.WeightList;
+import de.saring.sportstracker.data.statistic.MonthlyStatisticCache;
 import de.saring.util.data.IdObjectListChangeListener;
 
 /**
@@ -103,6 +104,25 @@ public interface STDocument extends IdObjectListChangeListener {
      */
     EntryList<Weight> getFilterableWeightList();
 
+    /**
+     * Returns all exercises matching the specified filter, e.g. for statistics. When the
+     * storage supports the reading of filtered exercises and all exercise changes have been
+     * stored, the exercises are read by the storage. Otherwise (or on read problems) the
+     * filter is applied to the exercise list.
+     *
+     * @param filter the exercise filter criteria
+     * @return list of the found exercises
+     */
+    EntryList<Exercise> getExercisesForFilter(EntryFilter filter);
+
+    /**
+     * Returns the cache of the monthly exercise statistic values. It's kept up to date
+     * on all exercise list changes and gets replaced when the application data is read.
+     *
+     * @return the monthly statistic cache for the exercise list
+     */
+    MonthlyStatisticCache getMonthlyStatisticCache();
+
     /**
      * This method reads both the exercise and the sport-type list from the
      * storage (e.g. XML files). On read problems empty lists will be created.
@@ -119,6 +139,18 @@ public interface STDocument extends IdObjectListChangeListener {
      */
     void storeApplicationData() throws STException;
 
+    /**
+     * Creates the store operation for the current state of all modified lists. The operation
+     * stores copies of these lists, so it can be executed in a background thread while the
+     * lists are modified in the UI thread. The dirty flags of the copied lists are reset
+     * immediately, they will be set again when the operation fails. The data is reported as
+     * dirty until the operation has been finished.<br/>
+     * This method must be called in the UI thread.
+     *
+     * @return the store operation or null when there are no modified lists
+     */
+    StoreOperation createStoreOperation();
+
     /**
      * Checks all exercises for the existence of the attached exercise files
      * (if there is one).
@@ -134,4 +166,18 @@ public interface STDocument extends IdObjectListChangeListener {
      * @param listener the IdObjectListChangeListener to register
      */
     void registerListChangeListener(IdObjectListChangeListener listener);
+
+    /**
+     * Operation for storing application data, see createStoreOperation().
+     */
+    @FunctionalInterface
+    interface StoreOperation {
+
+        /**
+         * Stores the application data.
+         *
+         * @throws STException thrown on store problems
+         */
+        void store() throws STException;
+    }
 }
@@ -3,7 +3,15 @@ package de.saring.sportstracker.gui;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -23,6 +31,7 @@ import de.saring.sportstracker.data.NoteList;
 import de.saring.sportstracker.data.SportTypeList;
 import de.saring.sportstracker.data.Weight;
 import de.saring.sportstracker.data.WeightList;
+import de.saring.sportstracker.data.statistic.MonthlyStatisticCache;
 import de.saring.sportstracker.storage.IStorage;
 import de.saring.util.XmlBeanStorage;
 import de.saring.util.data.IdObject;
@@ -77,8 +86,37 @@ public class STDocumentImpl implements STDocument {
      */
     private String dataDirectory;
 
-    /** This flag is true when data has been modified but not saved yet. */
-    private boolean dirtyData;
+    /**
+     * These flags are true when the according list has been modified but not saved yet. They
+     * are volatile, failed store operations are setting them in a background thread.
+     */
+    private volatile boolean dirtySportTypeList;
+    private volatile boolean dirtyExerciseList;
+    private volatile boolean dirtyNoteList;
+    private volatile boolean dirtyWeightList;
+
+    /**
+     * IDs of the entries which have been added or modified since the last storing of the
+     * according list, the storage can write these changes only. They are null when the
+     * modified entries are unknown (e.g. after failed storing), then all entries are stored.
+     */
+    private volatile Set<Integer> modifiedExerciseIds;
+    private volatile Set<Integer> modifiedNoteIds;
+    private volatile Set<Integer> modifiedWeightIds;
+
+    /**
+     * Counter of the exercise list modifications and the counter value of the last successful
+     * storing. When they are equal, the storage contains the current exercises. The stored
+     * value is volatile, it's set by store operations in a background thread.
+     */
+    private long exerciseListVersion;
+    private volatile long storedExerciseListVersion;
+
+    /**
+     * Number of created store operations which are not finished yet. The data is unsaved until
+     * they have been finished successfully, even when the dirty flags have been reset already.
+     */
+    private final AtomicInteger unfinishedStoreOperationCount = new AtomicInteger();
 
     /**
      * The application settings.
@@ -94,6 +132,29 @@ public class STDocumentImpl implements STDocument {
      */
     private EntryFilter currentFilter;
 
+    /**
+     * Cached result of the exercise list for the current filter, it's null when
+     * the filter needs to be applied again (the list or the filter has changed).
+     */
+    private EntryList<Exercise> filteredExerciseList;
+
+    /**
+     * Cached result of the note list for the current filter, it's null when
+     * the filter needs to be applied again (the list or the filter has changed).
+     */
+    private EntryList<Note> filteredNoteList;
+
+    /**
+     * Cached result of the weight list for the current filter, it's null when
+     * the filter needs to be applied again (the list or the filter has changed).
+     */
+    private EntryList<Weight> filteredWeightList;
+
+    /**
+     * Cache of the monthly statistic values of the current exercise list.
+     */
+    private MonthlyStatisticCache monthlyStatisticCache;
+
     /**
      * Standard c'tor.
      *
@@ -116,7 +177,9 @@ public class STDocumentImpl implements STDocument {
         exerciseList = new ExerciseList();
         noteList = new NoteList();
         weightList = new WeightList();
-        dirtyData = false;
+        registerFilterCacheListeners();
+        monthlyStatisticCache = new MonthlyStatisticCache(exerciseList);
+        setDirtyData(false);
 
         // create default filter for current month, but it is disabled
         filterEnabled = false;
@@ -150,7 +213,8 @@ public class STDocumentImpl implements STDocument {
 
     @Override
     public boolean isDirtyData() {
-        return dirtyData;
+        // the counter is read first, the dirty flags of failed operations are set before it gets decremented
+        return unfinishedStoreOperationCount.get() > 0 || dirtySportTypeList || dirtyExerciseList || dirtyNoteList || dirtyWeightList;
     }
 
     @Override
@@ -161,6 +225,7 @@ public class STDocumentImpl implements STDocument {
     @Override
     public void setFilterEnabled(boolean filterEnabled) {
         this.filterEnabled = filterEnabled;
+        clearFilterCache();
     }
 
     @Override
@@ -171,6 +236,7 @@ public class STDocumentImpl implements STDocument {
     @Override
     public void setCurrentFilter(EntryFilter currentFilter) {
         this.currentFilter = currentFilter;
+        clearFilterCache();
     }
 
     @Override
@@ -240,8 +306,11 @@ public class STDocumentImpl implements STDocument {
     public EntryList<Exercise> getFilterableExerciseList() {
 
         if ((filterEnabled) && (currentFilter != null)) {
-            // use current filter to get list
-            return exerciseList.getEntriesForFilter(currentFilter);
+            // use current filter to get list, the result is cached until the list or the filter changes
+            if (filteredExerciseList == null) {
+                filteredExerciseList = exerciseList.getEntriesForFilter(currentFilter);
+            }
+            return filteredExerciseList;
         } else {
             // no filter: return list of all exercises
             return exerciseList;
@@ -252,8 +321,11 @@ public class STDocumentImpl implements STDocument {
     public EntryList<Note> getFilterableNoteList() {
 
         if ((filterEnabled) && (currentFilter != null)) {
-            // use current filter to get list
-            return noteList.getEntriesForFilter(currentFilter);
+            // use current filter to get list, the result is cached until the list or the filter changes
+            if (filteredNoteList == null) {
+                filteredNoteList = noteList.getEntriesForFilter(currentFilter);
+            }
+            return filteredNoteList;
         } else {
             // no filter: return list of all notes
             return noteList;
@@ -264,38 +336,201 @@ public class STDocumentImpl implements STDocument {
     public EntryList<Weight> getFilterableWeightList() {
 
         if ((filterEnabled) && (currentFilter != null)) {
-            // use current filter to get list
-            return weightList.getEntriesForFilter(currentFilter);
+            // use current filter to get list, the result is cached until the list or the filter changes
+            if (filteredWeightList == null) {
+                filteredWeightList = weightList.getEntriesForFilter(currentFilter);
+            }
+            return filteredWeightList;
         } else {
             // no filter: return list of all weights
             return weightList;
         }
     }
 
+    @Override
+    public EntryList<Exercise> getExercisesForFilter(final EntryFilter filter) {
+
+        // the storage can be used only when it contains all exercise changes
+        if (storage.isExerciseFilterSupported() && storedExerciseListVersion == exerciseListVersion) {
+            try {
+                return storage.readExerciseList(dataDirectory + "/" + FILENAME_EXERCISE_LIST, sportTypeList, filter);
+            } catch (STException e) {
+                LOGGER.log(Level.WARNING, "Failed to read the exercises for the filter from the storage, " +
+                        "the exercise list will be filtered instead ...", e);
+            }
+        }
+        return exerciseList.getEntriesForFilter(filter);
+    }
+
+    @Override
+    public MonthlyStatisticCache getMonthlyStatisticCache() {
+        return monthlyStatisticCache;
+    }
+
     @Override
     public void readApplicationData() throws STException {
+        // the notes and weights are independent of the other lists, so they will be read
+        // in parallel to the sport types and exercises (which depend on the sport types)
+        ExecutorService executor = Executors.newFixedThreadPool(2);
         try {
-            // read application data from XML files
+            Future<NoteList> fNoteList = executor.submit(() ->
+                    storage.readNoteList(dataDirectory + "/" + FILENAME_NOTE_LIST));
+            Future<WeightList> fWeightList = executor.submit(() ->
+                    storage.readWeightList(dataDirectory + "/" + FILENAME_WEIGHT_LIST));
+
+            // read application data from XML files, the lists are assigned in the same
+            // order as before, so the first failure stops the assignment of the others
             sportTypeList = storage.readSportTypeList(dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST);
             exerciseList = storage.readExerciseList(dataDirectory + "/" + FILENAME_EXERCISE_LIST, sportTypeList);
-            noteList = storage.readNoteList(dataDirectory + "/" + FILENAME_NOTE_LIST);
-            weightList = storage.readWeightList(dataDirectory + "/" + FILENAME_WEIGHT_LIST);
+            noteList = getReadResult(fNoteList, STExceptionID.XMLSTORAGE_READ_NOTE_LIST);
+            weightList = getReadResult(fWeightList, STExceptionID.XMLSTORAGE_READ_WEIGHT_LIST);
         } finally {
-            // register this document as a listener for list content changes
-            // (also when reading data has failed)
-            registerListChangeListener(this);
-            dirtyData = false;
+            executor.shutdownNow();
+
+            // register the listeners for list content changes (also when reading data has failed)
+            registerDirtyDataListeners();
+            registerFilterCacheListeners();
+            clearFilterCache();
+            monthlyStatisticCache = new MonthlyStatisticCache(exerciseList);
+            setDirtyData(false);
+        }
+    }
+
+    /**
+     * Waits for the result of the list reading executed in background. Exceptions thrown
+     * while reading are passed unchanged to the caller.
+     *
+     * @param fList the future result of the list reading
+     * @param readExceptionID the exception ID used when reading was interrupted
+     * @return the read list
+     * @throws STException thrown on read problems
+     */
+    private static <T> T getReadResult(Future<T> fList, STExceptionID readExceptionID) throws STException {
+        try {
+            return fList.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof STException) {
+                throw (STException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            // other checked exceptions are not declared by the storage
+            throw new IllegalStateException("Unexpected exception while reading the list ...", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new STException(readExceptionID, "Reading of the list has been interrupted ...", e);
         }
     }
 
     @Override
     public void storeApplicationData() throws STException {
-        // store application data in XML files
-        storage.storeSportTypeList(sportTypeList, dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST);
-        storage.storeExerciseList(exerciseList, dataDirectory + "/" + FILENAME_EXERCISE_LIST);
-        storage.storeNoteList(noteList, dataDirectory + "/" + FILENAME_NOTE_LIST);
-        storage.storeWeightList(weightList, dataDirectory + "/" + FILENAME_WEIGHT_LIST);
-        dirtyData = false;
+        // store only the modified lists in XML files, the dirty flag of each list will
+        // be reset directly after storing, so failed lists will be stored on next try
+        if (dirtySportTypeList) {
+            storage.storeSportTypeList(sportTypeList, dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST);
+            dirtySportTypeList = false;
+        }
+        if (dirtyExerciseList) {
+            storage.storeExerciseList(exerciseList, dataDirectory + "/" + FILENAME_EXERCISE_LIST,
+                    modifiedExerciseIds);
+            dirtyExerciseList = false;
+            storedExerciseListVersion = exerciseListVersion;
+            modifiedExerciseIds = new HashSet<>();
+        }
+        if (dirtyNoteList) {
+            storage.storeNoteList(noteList, dataDirectory + "/" + FILENAME_NOTE_LIST, modifiedNoteIds);
+            dirtyNoteList = false;
+            modifiedNoteIds = new HashSet<>();
+        }
+        if (dirtyWeightList) {
+            storage.storeWeightList(weightList, dataDirectory + "/" + FILENAME_WEIGHT_LIST, modifiedWeightIds);
+            dirtyWeightList = false;
+            modifiedWeightIds = new HashSet<>();
+        }
+    }
+
+    @Override
+    public StoreOperation createStoreOperation() {
+        // the lists are copied in the order of storeApplicationData(), the dirty flag setters
+        // have the same index as the store operation of the list
+        final List<StoreOperation> listStoreOperations = new ArrayList<>();
+        final List<Runnable> dirtyFlagSetters = new ArrayList<>();
+
+        if (dirtySportTypeList) {
+            final SportTypeList sportTypeListCopy = new SportTypeList();
+            sportTypeListCopy.clearAndAddAll(sportTypeList.stream().collect(Collectors.toList()));
+            listStoreOperations.add(() -> storage.storeSportTypeList(sportTypeListCopy,
+                    dataDirectory + "/" + FILENAME_SPORT_TYPE_LIST));
+            dirtyFlagSetters.add(() -> dirtySportTypeList = true);
+            dirtySportTypeList = false;
+        }
+        if (dirtyExerciseList) {
+            final ExerciseList exerciseListCopy = new ExerciseList();
+            exerciseListCopy.clearAndAddAll(exerciseList.stream().collect(Collectors.toList()));
+            final Set<Integer> exerciseIdsToStore = modifiedExerciseIds;
+            final long exerciseListVersionToStore = exerciseListVersion;
+            listStoreOperations.add(() -> {
+                storage.storeExerciseList(exerciseListCopy,
+                        dataDirectory + "/" + FILENAME_EXERCISE_LIST, exerciseIdsToStore);
+                storedExerciseListVersion = exerciseListVersionToStore;
+            });
+            dirtyFlagSetters.add(() -> {
+                modifiedExerciseIds = null;
+                dirtyExerciseList = true;
+            });
+            dirtyExerciseList = false;
+            modifiedExerciseIds = new HashSet<>();
+        }
+        if (dirtyNoteList) {
+            final NoteList noteListCopy = new NoteList();
+            noteListCopy.clearAndAddAll(noteList.stream().collect(Collectors.toList()));
+            final Set<Integer> noteIdsToStore = modifiedNoteIds;
+            listStoreOperations.add(() -> storage.storeNoteList(noteListCopy,
+                    dataDirectory + "/" + FILENAME_NOTE_LIST, noteIdsToStore));
+            dirtyFlagSetters.add(() -> {
+                modifiedNoteIds = null;
+                dirtyNoteList = true;
+            });
+            dirtyNoteList = false;
+            modifiedNoteIds = new HashSet<>();
+        }
+        if (dirtyWeightList) {
+            final WeightList weightListCopy = new WeightList();
+            weightListCopy.clearAndAddAll(weightList.stream().collect(Collectors.toList()));
+            final Set<Integer> weightIdsToStore = modifiedWeightIds;
+            listStoreOperations.add(() -> storage.storeWeightList(weightListCopy,
+                    dataDirectory + "/" + FILENAME_WEIGHT_LIST, weightIdsToStore));
+            dirtyFlagSetters.add(() -> {
+                modifiedWeightIds = null;
+                dirtyWeightList = true;
+            });
+            dirtyWeightList = false;
+            modifiedWeightIds = new HashSet<>();
+        }
+
+        if (listStoreOperations.isEmpty()) {
+            return null;
+        }
+
+        unfinishedStoreOperationCount.incrementAndGet();
+        return () -> {
+            try {
+                for (int i = 0; i < listStoreOperations.size(); i++) {
+                    try {
+                        listStoreOperations.get(i).store();
+                    } catch (STException | RuntimeException e) {
+                        // the failed and all following lists have not been stored
+                        dirtyFlagSetters.subList(i, dirtyFlagSetters.size()).forEach(Runnable::run);
+                        throw e;
+                    }
+                }
+            } finally {
+                unfinishedStoreOperationCount.decrementAndGet();
+            }
+        };
     }
 
     @Override
@@ -307,8 +542,8 @@ public class STDocumentImpl implements STDocument {
 
     @Override
     public void listChanged(IdObject changedObject) {
-        // one of the data lists has been changed => set dirty data flag
-        dirtyData = true;
+        // an unknown data list has been changed => all lists need to be stored
+        setDirtyData(true);
     }
 
     @Override
@@ -318,4 +553,86 @@ public class STDocumentImpl implements STDocument {
         noteList.addListChangeListener(listener);
         weightList.addListChangeListener(listener);
     }
+
+    /**
+     * Registers the listeners which set the dirty flag of the according list when
+     * its content has been changed.
+     */
+    private void registerDirtyDataListeners() {
+        // the exercises are updated directly on sport type changes (e.g. removed equipment,
+        // see ExerciseList.updateSportTypes()), so they need to be stored too
+        sportTypeList.addListChangeListener(changedObject -> {
+            dirtySportTypeList = true;
+            dirtyExerciseList = true;
+            modifiedExerciseIds = null;
+            exerciseListVersion++;
+        });
+        exerciseList.addListChangeListener(changedObject -> {
+            dirtyExerciseList = true;
+            addModifiedId(modifiedExerciseIds, changedObject);
+            exerciseListVersion++;
+        });
+        noteList.addListChangeListener(changedObject -> {
+            dirtyNoteList = true;
+            addModifiedId(modifiedNoteIds, changedObject);
+        });
+        weightList.addListChangeListener(changedObject -> {
+            dirtyWeightList = true;
+            addModifiedId(modifiedWeightIds, changedObject);
+        });
+    }
+
+    /**
+     * Adds the ID of the changed entry to the specified modified IDs. The changed entry is null
+     * when entries were removed (the lists are only replaced completely on reading), removed
+     * entries are detected by the storage.
+     *
+     * @param modifiedIds the modified IDs of the list (nothing to do when null)
+     * @param changedObject the added or updated entry or null
+     */
+    private static void addModifiedId(Set<Integer> modifiedIds, IdObject changedObject) {
+        if (modifiedIds != null && changedObject != null) {
+            modifiedIds.add(changedObject.getId());
+        }
+    }
+
+    private void setDirtyData(boolean dirty) {
+        dirtySportTypeList = dirty;
+        dirtyExerciseList = dirty;
+        dirtyNoteList = dirty;
+        dirtyWeightList = dirty;
+
+        // the modified entries are unknown when all lists are dirty
+        modifiedExerciseIds = dirty ? null : new HashSet<>();
+        modifiedNoteIds = dirty ? null : new HashSet<>();
+        modifiedWeightIds = dirty ? null : new HashSet<>();
+
+        if (dirty) {
+            exerciseListVersion++;
+        } else {
+            storedExerciseListVersion = exerciseListVersion;
+        }
+    }
+
+    /**
+     * Registers the listeners which remove the cached filter results when the
+     * content of the according list has changed. Changes of sport types also
+     * affect the exercises and the current filter, so the exercise filter result
+     * will be removed too.
+     */
+    private void registerFilterCacheListeners() {
+        sportTypeList.addListChangeListener(changedObject -> filteredExerciseList = null);
+        exerciseList.addListChangeListener(changedObject -> filteredExerciseList = null);
+        noteList.addListChangeListener(changedObject -> filteredNoteList = null);
+        weightList.addListChangeListener(changedObject -> filteredWeightList = null);
+    }
+
+    /**
+     * Removes all cached filter results, the filters need to be applied again.
+     */
+    private void clearFilterCache() {
+        filteredExerciseList = null;
+        filteredNoteList = null;
+        filteredWeightList = null;
+    }
 }
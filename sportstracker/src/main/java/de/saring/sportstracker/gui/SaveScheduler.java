@@ -0,0 +1,282 @@
+package de.saring.sportstracker.gui;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import de.saring.sportstracker.core.STException;
+
+/**
+ * Scheduler for storing the application data in a background thread, so the UI thread will
+ * never be blocked by storing. Bursts of save requests (e.g. on each data change) are coalesced
+ * into one save, which starts after a quiet period without further requests.<br/>
+ * The store operations are created by the factory in the UI thread (they contain copies of the
+ * modified data) and are executed sequentially in a single background thread. The scheduler
+ * provides the latency and the queue depth of the saves for monitoring.
+ *
+ * @author Stefan Saring
+ */
+public class SaveScheduler {
+    private static final Logger LOGGER = Logger.getLogger(SaveScheduler.class.getName());
+
+    /** Time in seconds after which the idle save thread gets terminated. */
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 10;
+
+    private final Supplier<STDocument.StoreOperation> storeOperationFactory;
+    private final Executor uiExecutor;
+    private final long quietPeriodMillis;
+    private final ScheduledThreadPoolExecutor executor;
+
+    /** Handler for the results of the scheduled saves, it's executed in the UI thread (can be null). */
+    private volatile Consumer<Throwable> scheduledSaveResultHandler;
+
+    /** The pending save of the last request, it's null when no save is scheduled. */
+    private ScheduledFuture<?> scheduledSave;
+
+    /** Number of save requests since the last started save. */
+    private int pendingRequestCount;
+
+    /** Time (System.nanoTime()) of the first save request since the last started save. */
+    private long firstPendingRequestTime;
+
+    /**
+     * Future of the last started save, it completes normally after the save has been finished
+     * and its result has been passed to the UI thread. It's accessed in the UI thread only.
+     */
+    private CompletableFuture<Void> lastSave = CompletableFuture.completedFuture(null);
+
+    /** Number of submitted saves which are not finished yet. */
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    /** Execution time of the last save in milliseconds, -1 when there was no save yet. */
+    private volatile long lastSaveDuration = -1;
+
+    /** Time in milliseconds from the first request to the end of the last save, -1 when there was no save yet. */
+    private volatile long lastSaveLatency = -1;
+
+    /**
+     * Creates the SaveScheduler.
+     *
+     * @param storeOperationFactory the factory for the store operations, it returns null when there
+     * is nothing to store (e.g. STDocument::createStoreOperation)
+     * @param uiExecutor the executor of the UI thread (e.g. Platform::runLater)
+     * @param quietPeriodMillis the quiet period in milliseconds before a requested save starts
+     */
+    public SaveScheduler(final Supplier<STDocument.StoreOperation> storeOperationFactory,
+                         final Executor uiExecutor, final long quietPeriodMillis) {
+        this.storeOperationFactory = storeOperationFactory;
+        this.uiExecutor = uiExecutor;
+        this.quietPeriodMillis = quietPeriodMillis;
+
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            // not a daemon thread, a running save must be finished before the application exits
+            final Thread thread = new Thread(runnable, "SportsTracker-Save");
+            thread.setDaemon(false);
+            return thread;
+        });
+        executor.setKeepAliveTime(THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Sets the handler for the results of the scheduled saves. It will be called in the UI thread
+     * after each scheduled save with the failure cause or with null on success.
+     *
+     * @param scheduledSaveResultHandler the result handler (can be null)
+     */
+    public void setScheduledSaveResultHandler(final Consumer<Throwable> scheduledSaveResultHandler) {
+        this.scheduledSaveResultHandler = scheduledSaveResultHandler;
+    }
+
+    /**
+     * Requests the save of the application data. The save starts when there are no further
+     * requests for the quiet period, so multiple requests will be coalesced.
+     */
+    public synchronized void requestSave() {
+        if (executor.isShutdown()) {
+            return;
+        }
+
+        if (pendingRequestCount == 0) {
+            firstPendingRequestTime = System.nanoTime();
+        }
+        pendingRequestCount++;
+
+        if (scheduledSave != null) {
+            scheduledSave.cancel(false);
+        }
+        scheduledSave = executor.schedule(() -> uiExecutor.execute(this::startScheduledSave),
+                quietPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts the save of the application data immediately, a scheduled save is not needed
+     * anymore. This method must be called in the UI thread.
+     *
+     * @return the future of the save, it completes exceptionally with the STException on failures
+     */
+    public CompletableFuture<Void> saveNow() {
+        final CompletableFuture<Void> save = startSave();
+        addLastSave(save.handle((result, throwable) -> null));
+        return save;
+    }
+
+    /**
+     * Starts the save for the pending requests immediately and returns a future, which completes
+     * when all started saves have been finished. The results of the saves have been passed to the
+     * UI thread before, so a task submitted to the UI executor after completion will see the
+     * state of the saved data (e.g. the dirty flags after a failed save). This method must be
+     * called in the UI thread.
+     *
+     * @return the future for the end of all saves, it always completes normally
+     */
+    public CompletableFuture<Void> finishSaves() {
+        final boolean savePending;
+        synchronized (this) {
+            savePending = pendingRequestCount > 0 && !executor.isShutdown();
+        }
+        if (savePending) {
+            startScheduledSave();
+        }
+        return lastSave;
+    }
+
+    /**
+     * Returns the number of save requests, which are waiting for the start of the save.
+     *
+     * @return number of pending save requests
+     */
+    public synchronized int getPendingRequestCount() {
+        return pendingRequestCount;
+    }
+
+    /**
+     * Returns the number of started saves, which are queued or running.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Returns the execution time of the last save.
+     *
+     * @return the duration in milliseconds, -1 when there was no save yet
+     */
+    public long getLastSaveDuration() {
+        return lastSaveDuration;
+    }
+
+    /**
+     * Returns the time from the first save request (or from the start of the immediate save)
+     * to the end of the last save.
+     *
+     * @return the latency in milliseconds, -1 when there was no save yet
+     */
+    public long getLastSaveLatency() {
+        return lastSaveLatency;
+    }
+
+    /**
+     * Shuts down the scheduler, further requests are ignored. The save for pending requests is
+     * started immediately, so no requested save gets lost. The started saves will be finished,
+     * the background thread keeps the application alive until then. The caller should wait for
+     * the saves by using finishSaves() before, otherwise the save results can't be displayed
+     * anymore. This method must be called in the UI thread.
+     */
+    public void shutdown() {
+        finishSaves();
+        synchronized (this) {
+            executor.shutdown();
+        }
+    }
+
+    private void startScheduledSave() {
+        if (executor.isShutdown()) {
+            return;
+        }
+
+        addLastSave(startSave().handle((result, throwable) -> {
+            final Consumer<Throwable> resultHandler = scheduledSaveResultHandler;
+            if (resultHandler != null) {
+                uiExecutor.execute(() -> resultHandler.accept(unwrap(throwable)));
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Adds the specified save to the future of the last started save. The saves are executed
+     * sequentially, but a save without data to store is completed immediately.
+     */
+    private void addLastSave(final CompletableFuture<?> save) {
+        lastSave = lastSave.isDone() ? CompletableFuture.allOf(save) : CompletableFuture.allOf(lastSave, save);
+    }
+
+    /**
+     * Creates the store operation in the current (UI) thread and submits it to the background
+     * thread. The scheduled save gets cancelled, the created operation contains all changes.
+     */
+    private CompletableFuture<Void> startSave() {
+        final long requestTime;
+        synchronized (this) {
+            if (scheduledSave != null) {
+                scheduledSave.cancel(false);
+                scheduledSave = null;
+            }
+            requestTime = pendingRequestCount > 0 ? firstPendingRequestTime : System.nanoTime();
+            pendingRequestCount = 0;
+        }
+
+        final STDocument.StoreOperation storeOperation = storeOperationFactory.get();
+        if (storeOperation == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        queueDepth.incrementAndGet();
+        try {
+            return CompletableFuture.runAsync(() -> executeSave(storeOperation, requestTime), executor);
+        } catch (RuntimeException e) {
+            queueDepth.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void executeSave(final STDocument.StoreOperation storeOperation, final long requestTime) {
+        final long startTime = System.nanoTime();
+        try {
+            storeOperation.store();
+        } catch (STException e) {
+            throw new CompletionException(e);
+        } finally {
+            final long endTime = System.nanoTime();
+            lastSaveDuration = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
+            lastSaveLatency = TimeUnit.NANOSECONDS.toMillis(endTime - requestTime);
+            queueDepth.decrementAndGet();
+            LOGGER.info("Finished save of application data in " + lastSaveDuration + " ms (latency " +
+                    lastSaveLatency + " ms, queue depth " + queueDepth.get() + ")");
+        }
+    }
+
+    /**
+     * Returns the cause of the CompletionException thrown by the save futures, so the original
+     * STException will be passed to the result handlers.
+     *
+     * @param throwable the throwable of the completed future (can be null)
+     * @return the unwrapped throwable or null
+     */
+    static Throwable unwrap(final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+    }
+}
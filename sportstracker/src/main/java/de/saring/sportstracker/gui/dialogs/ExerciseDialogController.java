@@ -30,7 +30,6 @@ import org.controlsfx.validation.ValidationResult;
 import org.controlsfx.validation.Validator;
 
 import de.saring.exerciseviewer.data.EVExercise;
-import de.saring.exerciseviewer.parser.ExerciseParser;
 import de.saring.exerciseviewer.parser.ExerciseParserFactory;
 import de.saring.sportstracker.data.Equipment;
 import de.saring.sportstracker.data.Exercise;
@@ -437,8 +436,7 @@ public class ExerciseDialogController extends AbstractDialogController {
         // parse exercise file
         EVExercise pvExercise = null;
         try {
-            ExerciseParser parser = ExerciseParserFactory.getParser(hrmFile);
-            pvExercise = parser.parseExercise(hrmFile);
+            pvExercise = ExerciseParserFactory.parseExercise(hrmFile);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to parse exercise file!", e);
             context.showMessageDialog(getWindow(tfHrmFile), Alert.AlertType.ERROR, "common.error",
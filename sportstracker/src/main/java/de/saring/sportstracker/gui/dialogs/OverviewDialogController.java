@@ -12,7 +12,6 @@ import java.util.Date;
 import javax.inject.Inject;
 
 import de.saring.sportstracker.data.EntryFilter;
-import de.saring.sportstracker.data.EntryList;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
@@ -35,10 +34,10 @@ import org.jfree.ui.TextAnchor;
 
 import de.saring.sportstracker.core.STOptions;
 import de.saring.sportstracker.data.Equipment;
-import de.saring.sportstracker.data.Exercise;
 import de.saring.sportstracker.data.SportSubType;
 import de.saring.sportstracker.data.SportType;
 import de.saring.sportstracker.data.Weight;
+import de.saring.sportstracker.data.statistic.ExerciseAggregator;
 import de.saring.sportstracker.gui.STContext;
 import de.saring.sportstracker.gui.STDocument;
 import de.saring.util.AppResources;
@@ -188,15 +187,18 @@ public class OverviewDialogController extends AbstractDialogController {
         TimeTableXYDataset dataset = new TimeTableXYDataset();
         java.util.List<java.awt.Color> lGraphColors = new ArrayList<>();
 
+        // calculate the exercise values of all time steps and graphs at once (not needed for weight)
+        ExerciseAggregator aggregator = vType != ValueType.WEIGHT ? aggregateExercises(timeType, year) : null;
+
         // setup TimeSeries in the diagram (done in different ways for all the value types)
         if (vType == ValueType.SPORTSUBTYPE) {
-            setupSportSubTypeDiagram(dataset, lGraphColors);
+            setupSportSubTypeDiagram(dataset, lGraphColors, aggregator);
         } else if (vType == ValueType.EQUIPMENT) {
-            setupEquipmentDiagram(dataset, lGraphColors);
+            setupEquipmentDiagram(dataset, lGraphColors, aggregator);
         } else if (vType == ValueType.WEIGHT) {
             setupWeightDiagram(dataset, lGraphColors);
         } else {
-            setupExerciseDiagram(dataset, lGraphColors);
+            setupExerciseDiagram(dataset, lGraphColors, aggregator);
         }
 
         // create chart
@@ -276,7 +278,7 @@ public class OverviewDialogController extends AbstractDialogController {
 
             // create a separate graph for each sport type
             for (SportType sportType : document.getSportTypeList()) {
-                addExerciseTimeSeries(dataset, timeType, year, vType, sportType);
+                addExerciseTimeSeries(dataset, aggregator, timeType, year, vType, sportType);
                 lGraphColors.add(ColorUtils.toAwtColor(sportType.getColor()));
             }
             plot.setDataset(1, dataset);
@@ -367,13 +369,44 @@ public class OverviewDialogController extends AbstractDialogController {
         }
     }
 
+    /**
+     * Calculates the sums of the exercise values for all time steps of the specified time range.
+     * The exercises of the whole time range are filtered only once (merged with the exercise
+     * filter of the view when enabled), all graphs of the diagram will use these sums.
+     *
+     * @param timeType time range for calculated values
+     * @param year the year for calculation
+     * @return the aggregator containing the sums for all time steps
+     */
+    private ExerciseAggregator aggregateExercises(TimeRangeType timeType, int year) {
+
+        // create the time ranges of all time steps
+        int timeStepCount = getTimeStepCount(timeType, year);
+        java.util.List<EntryFilter> timeSteps = new ArrayList<>();
+        for (int timeStep = 0; timeStep < timeStepCount; timeStep++) {
+            timeSteps.add(createExerciseFilterForTimeStep(timeType, year, timeStep));
+        }
+        ExerciseAggregator aggregator = new ExerciseAggregator(timeSteps);
+
+        // create the EntryFilter for the time range of all time steps
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(timeSteps.get(0).getDateStart());
+        filter.setDateEnd(timeSteps.get(timeStepCount - 1).getDateEnd());
+        mergeExerciseFilterIfEnabled(filter);
+
+        aggregator.aggregate(document.getExercisesForFilter(filter));
+        return aggregator;
+    }
+
     /**
      * Sets up the diagram for exercise data.
      *
      * @param dataset the XY dataset to be filled
      * @param graphColors list of graph colors, can be filled with preferred colors
+     * @param aggregator the calculated exercise sums for all time steps
      */
-    private void setupExerciseDiagram(TimeTableXYDataset dataset, java.util.List<java.awt.Color> graphColors) {
+    private void setupExerciseDiagram(TimeTableXYDataset dataset, java.util.List<java.awt.Color> graphColors,
+            ExerciseAggregator aggregator) {
 
         // get time range and value type to display
         TimeRangeType timeType = cbTimeRange.getValue();
@@ -384,68 +417,55 @@ public class OverviewDialogController extends AbstractDialogController {
         // which sport type mode is selected by user ?
         if (overviewType != OverviewType.EACH_SPLITTED) {
             // create one graph for sum of all sport types
-            addExerciseTimeSeries(dataset, timeType, year, vType, null);
+            addExerciseTimeSeries(dataset, aggregator, timeType, year, vType, null);
             graphColors.add(new java.awt.Color(0xff0000));
         } else {
             // create a separate graph for each sport type
             for (SportType sportType : document.getSportTypeList()) {
-                addExerciseTimeSeries(dataset, timeType, year, vType, sportType);
+                addExerciseTimeSeries(dataset, aggregator, timeType, year, vType, sportType);
                 graphColors.add(ColorUtils.toAwtColor(sportType.getColor()));
             }
         }
     }
 
     /**
-     * This method calculates the specified exercise values (distance, duration, ascent,
-     * avarage speed or calories concumption) and adds them to a TimeTableXYDataset.
-     * The calculation can be done for the exercises of all sport types (sum) or for a
-     * single sport type.
+     * This method adds the specified exercise values (distance, duration, ascent,
+     * avarage speed or calories concumption) to a TimeTableXYDataset. The values
+     * can be used for the exercises of all sport types (sum) or for a single sport type.
      *
      * @param dataset the timetable dataset
+     * @param aggregator the calculated exercise sums for all time steps
      * @param timeType time range for calculated values
      * @param year the year for calculation
      * @param valueType the type of values needs to be calculated
      * @param sportType the specific sport type to be calculated or null for the sum of all sport types
      */
-    private void addExerciseTimeSeries(TimeTableXYDataset dataset, TimeRangeType timeType, int year,
-            ValueType valueType, SportType sportType) {
+    private void addExerciseTimeSeries(TimeTableXYDataset dataset, ExerciseAggregator aggregator,
+            TimeRangeType timeType, int year, ValueType valueType, SportType sportType) {
 
         // create the time series for specified time range and sport type
         String seriesName = sportType != null ? sportType.getName() : context.getResources().getString(
                 "st.dlg.overview.graph.all_types");
 
         // process value calculation for each step of time range
-        int timeStepCount = getTimeStepCount(timeType, year);
-        for (int timeStep = 0; timeStep < timeStepCount; timeStep++) {
+        for (int timeStep = 0; timeStep < aggregator.getTimeStepCount(); timeStep++) {
 
             // create time period for current time step
             RegularTimePeriod timePeriod = createTimePeriodForTimeStep(timeType, year, timeStep);
 
-            // create the EntryFilter for the time range of the current time step
-            EntryFilter filter = createExerciseFilterForTimeStep(timeType, year, timeStep);
-            filter.setSportType(sportType);
-            mergeExerciseFilterIfEnabled(filter);
-
-            // get exercises for defined filter
+            // get the sums of the exercises in the current time step
             // (add value 0 and skip to next time step when no exercises found)
-            EntryList<Exercise> lExercises = document.getExerciseList().getEntriesForFilter(filter);
-            if (lExercises.size() == 0) {
+            ExerciseAggregator.Sums sums = sportType != null ? aggregator.getSumsForSportType(timeStep, sportType)
+                    : aggregator.getSums(timeStep);
+            if (sums.getExerciseCount() == 0) {
                 dataset.add(timePeriod, 0, seriesName);
                 continue;
             }
 
-            // create sums of all exercises
-            double sumDistance = 0d;
-            double sumDuration = 0d;
-            double sumAscent = 0d;
-            double sumCalories = 0d;
-
-            for (Exercise tempExercise : lExercises) {
-                sumDistance += tempExercise.getDistance();
-                sumDuration += tempExercise.getDuration();
-                sumAscent += tempExercise.getAscent();
-                sumCalories += tempExercise.getCalories();
-            }
+            double sumDistance = sums.getDistance();
+            double sumDuration = sums.getDuration();
+            double sumAscent = sums.getAscent();
+            double sumCalories = sums.getCalories();
 
             // set value of time step depending on value type
             // (convert to english unit mode when enabled)
@@ -478,7 +498,7 @@ public class OverviewDialogController extends AbstractDialogController {
 
                 case EXERCISES:
                     // set number of exercises
-                    dataset.add(timePeriod, lExercises.size(), seriesName);
+                    dataset.add(timePeriod, sums.getExerciseCount(), seriesName);
                     break;
 
                 case AVG_SPEED:
@@ -511,8 +531,10 @@ public class OverviewDialogController extends AbstractDialogController {
      *
      * @param dataset the XY dataset to be filled
      * @param graphColors list of graph colors, can be filled with preferred colors
+     * @param aggregator the calculated exercise sums for all time steps
      */
-    private void setupSportSubTypeDiagram(TimeTableXYDataset dataset, java.util.List<java.awt.Color> graphColors) {
+    private void setupSportSubTypeDiagram(TimeTableXYDataset dataset, java.util.List<java.awt.Color> graphColors,
+            ExerciseAggregator aggregator) {
 
         // get time range to display
         TimeRangeType timeType = cbTimeRange.getValue();
@@ -523,52 +545,36 @@ public class OverviewDialogController extends AbstractDialogController {
 
         // display a graph for each sport subtype
         for (SportSubType sportSubType : sportType.getSportSubTypeList()) {
-            addSportSubTypeTimeSeries(dataset, timeType, year, sportType, sportSubType);
+            addSportSubTypeTimeSeries(dataset, aggregator, timeType, year, sportType, sportSubType);
         }
 
         addCustomGraphColors(graphColors);
     }
 
     /**
-     * This method calculates the distance per sport subtype values and adds them to a TimeTableXYDataset.
-     * The calculation is always done for the sport type selected by the user.
+     * This method adds the distance per sport subtype values to a TimeTableXYDataset.
+     * The values are always used for the sport type selected by the user.
      *
      * @param dataset the timetable dataset
+     * @param aggregator the calculated exercise sums for all time steps
      * @param timeType time range for calculated values
      * @param year the year for calculation
      * @param sportType the sport type to be shown
      * @param sportSubType the sport subtype to be shown in this series
      */
-    private void addSportSubTypeTimeSeries(TimeTableXYDataset dataset, TimeRangeType timeType, int year,
-            SportType sportType, SportSubType sportSubType) {
+    private void addSportSubTypeTimeSeries(TimeTableXYDataset dataset, ExerciseAggregator aggregator,
+            TimeRangeType timeType, int year, SportType sportType, SportSubType sportSubType) {
 
         String seriesName = sportSubType.getName();
 
         // process value calculation for each step of time range
-        int timeStepCount = getTimeStepCount(timeType, year);
-        for (int timeStep = 0; timeStep < timeStepCount; timeStep++) {
+        for (int timeStep = 0; timeStep < aggregator.getTimeStepCount(); timeStep++) {
 
             // create time period for current time step
             RegularTimePeriod timePeriod = createTimePeriodForTimeStep(timeType, year, timeStep);
 
-            // create the EntryFilter for the time range of the current time step
-            EntryFilter filter = createExerciseFilterForTimeStep(timeType, year, timeStep);
-            filter.setSportType(sportType);
-            filter.setSportSubType(sportSubType);
-            mergeExerciseFilterIfEnabled(filter);
-
-            // get exercises for defined filter
-            EntryList<Exercise> lExercises = document.getExerciseList().getEntriesForFilter(filter);
-
-            // create distance sum of all found exercises
-            double sumDistance = 0d;
-            for (Exercise tempExercise : lExercises) {
-                // sum only exercises with same sport subtype (otherwise conflicts with the merged filter set in the
-                // view)
-                if (sportSubType.equals(tempExercise.getSportSubType())) {
-                    sumDistance += tempExercise.getDistance();
-                }
-            }
+            // get distance sum of all exercises with this sport subtype
+            double sumDistance = aggregator.getSumsForSportSubType(timeStep, sportType, sportSubType).getDistance();
 
             // convert to english unit mode when enabled
             if (document.getOptions().getUnitSystem() != FormatUtils.UnitSystem.Metric) {
@@ -585,8 +591,10 @@ public class OverviewDialogController extends AbstractDialogController {
      *
      * @param dataset the XY dataset to be filled
      * @param graphColors list of graph colors, can be filled with preferred colors
+     * @param aggregator the calculated exercise sums for all time steps
      */
-    private void setupEquipmentDiagram(TimeTableXYDataset dataset, java.util.List<java.awt.Color> graphColors) {
+    private void setupEquipmentDiagram(TimeTableXYDataset dataset, java.util.List<java.awt.Color> graphColors,
+            ExerciseAggregator aggregator) {
 
         // get time range to display
         TimeRangeType timeType = cbTimeRange.getValue();
@@ -597,55 +605,39 @@ public class OverviewDialogController extends AbstractDialogController {
 
         // display a graph for each equipment and one for not specified equipment
         for (Equipment equipment : sportType.getEquipmentList()) {
-            addEquipmentTimeSeries(dataset, timeType, year, sportType, equipment);
+            addEquipmentTimeSeries(dataset, aggregator, timeType, year, sportType, equipment);
         }
-        addEquipmentTimeSeries(dataset, timeType, year, sportType, null);
+        addEquipmentTimeSeries(dataset, aggregator, timeType, year, sportType, null);
 
         addCustomGraphColors(graphColors);
     }
 
     /**
-     * This method calculates the distance per equipment values and adds them to a TimeTableXYDataset.
-     * The calculation is always done for the sport type selected by the user.
+     * This method adds the distance per equipment values to a TimeTableXYDataset.
+     * The values are always used for the sport type selected by the user.
      *
      * @param dataset the timetable dataset
+     * @param aggregator the calculated exercise sums for all time steps
      * @param timeType time range for calculated values
      * @param year the year for calculation
      * @param sportType the sport type to be shown
-     * @param equipment the equipment to be shown in this series (when null, then calculate exercises with no equipment
+     * @param equipment the equipment to be shown in this series (when null, then use exercises with no equipment
      *            assigned only)
      */
-    private void addEquipmentTimeSeries(TimeTableXYDataset dataset, TimeRangeType timeType, int year,
-            SportType sportType, Equipment equipment) {
+    private void addEquipmentTimeSeries(TimeTableXYDataset dataset, ExerciseAggregator aggregator,
+            TimeRangeType timeType, int year, SportType sportType, Equipment equipment) {
 
         String seriesName = equipment != null ? equipment.getName() : context.getResources().getString(
                 "st.dlg.overview.equipment.not_specified");
 
         // process value calculation for each step of time range
-        int timeStepCount = getTimeStepCount(timeType, year);
-        for (int timeStep = 0; timeStep < timeStepCount; timeStep++) {
+        for (int timeStep = 0; timeStep < aggregator.getTimeStepCount(); timeStep++) {
 
             // create time period for current time step
             RegularTimePeriod timePeriod = createTimePeriodForTimeStep(timeType, year, timeStep);
 
-            // create the EntryFilter for the time range of the current time step
-            EntryFilter filter = createExerciseFilterForTimeStep(timeType, year, timeStep);
-            filter.setSportType(sportType);
-            filter.setEquipment(equipment);
-            mergeExerciseFilterIfEnabled(filter);
-
-            // get exercises for defined filter
-            EntryList<Exercise> lExercises = document.getExerciseList().getEntriesForFilter(filter);
-
-            // create distance sum of all found exercises
-            double sumDistance = 0d;
-            for (Exercise tempExercise : lExercises) {
-                // when displaying series for no equipment assigned then skip exercises with assigned equipment
-                if (equipment == null && tempExercise.getEquipment() != null) {
-                    continue;
-                }
-                sumDistance += tempExercise.getDistance();
-            }
+            // get distance sum of all exercises with this equipment
+            double sumDistance = aggregator.getSumsForEquipment(timeStep, sportType, equipment).getDistance();
 
             // convert to english unit mode when enabled
             if (document.getOptions().getUnitSystem() != FormatUtils.UnitSystem.Metric) {
@@ -38,6 +38,8 @@ public class PreferencesDialogController extends AbstractDialogController {
     private ChoiceBox<STOptions.AutoCalculation> cbAutomaticCalculation;
     @FXML
     private CheckBox cbSaveOnExit;
+    @FXML
+    private CheckBox cbAutoSave;
 
     // tab pane "Units"
     @FXML
@@ -112,6 +114,7 @@ public class PreferencesDialogController extends AbstractDialogController {
         BindingUtils.bindToggleGroupToProperty(tgInitialView, preferencesViewModel.initialView);
         cbAutomaticCalculation.valueProperty().bindBidirectional(preferencesViewModel.defaultAutoCalculation);
         cbSaveOnExit.selectedProperty().bindBidirectional(preferencesViewModel.saveOnExit);
+        cbAutoSave.selectedProperty().bindBidirectional(preferencesViewModel.autoSave);
 
         BindingUtils.bindToggleGroupToProperty(tgUnitSystem, preferencesViewModel.unitSystem);
         BindingUtils.bindToggleGroupToProperty(tgSpeedView, preferencesViewModel.speedView);
@@ -30,6 +30,7 @@ public class PreferencesViewModel {
     public final ObjectProperty<STOptions.View> initialView;
     public final ObjectProperty<STOptions.AutoCalculation> defaultAutoCalculation;
     public final BooleanProperty saveOnExit;
+    public final BooleanProperty autoSave;
 
     public final ObjectProperty<FormatUtils.UnitSystem> unitSystem;
     public final ObjectProperty<FormatUtils.SpeedView> speedView;
@@ -53,6 +54,7 @@ public class PreferencesViewModel {
         this.initialView = new SimpleObjectProperty<>(options.getInitialView());
         this.defaultAutoCalculation = new SimpleObjectProperty<>(options.getDefaultAutoCalcuation());
         this.saveOnExit = new SimpleBooleanProperty(options.isSaveOnExit());
+        this.autoSave = new SimpleBooleanProperty(options.isAutoSave());
 
         this.unitSystem = new SimpleObjectProperty<>(options.getUnitSystem());
         this.speedView = new SimpleObjectProperty<>(options.getSpeedView());
@@ -77,6 +79,7 @@ public class PreferencesViewModel {
         options.setInitialView(initialView.get());
         options.setDefaultAutoCalcuation(defaultAutoCalculation.get());
         options.setSaveOnExit(saveOnExit.get());
+        options.setAutoSave(autoSave.get());
 
         options.setUnitSystem(unitSystem.get());
         options.setSpeedView(speedView.get());
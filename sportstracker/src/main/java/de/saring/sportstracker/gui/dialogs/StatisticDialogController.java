@@ -4,7 +4,6 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 
 import de.saring.sportstracker.data.EntryFilter;
-import de.saring.sportstracker.data.EntryList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -18,7 +17,7 @@ import javafx.stage.Window;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
-import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.statistic.StatisticAccumulator;
 import de.saring.sportstracker.data.statistic.StatisticCalculator;
 import de.saring.sportstracker.gui.STContext;
 import de.saring.sportstracker.gui.STDocument;
@@ -174,19 +173,22 @@ public class StatisticDialogController extends AbstractDialogController {
      */
     private void onCalculate(final ActionEvent event) {
 
-        // search for exercises with the selected filter criteria
-        final EntryList<Exercise> lFoundExercises =
-                document.getExerciseList().getEntriesForFilter(statisticFilter);
+        // use the cached monthly statistic values when possible, otherwise search for exercises
+        // with the selected filter criteria
+        final StatisticAccumulator accumulator = document.getMonthlyStatisticCache()
+                .getStatisticForFilter(statisticFilter)
+                .orElseGet(() -> StatisticAccumulator.ofParallel(
+                        document.getExercisesForFilter(statisticFilter)));
 
         // make sure that at least one exercise was found
-        if (lFoundExercises.size() == 0) {
+        if (accumulator.getExerciseCount() == 0) {
             context.showMessageDialog(getWindow(laTimespanValue), Alert.AlertType.INFORMATION,
                     "common.info", "st.dlg.statistic.info.no_exercises_found");
             return;
         }
 
         // calculate statistic
-        final StatisticCalculator statistic = new StatisticCalculator(lFoundExercises);
+        final StatisticCalculator statistic = new StatisticCalculator(accumulator);
 
         // finally display results in dialog
         prStatisticResultDialogController.get().show(getWindow(laTimespanValue), statistic);
@@ -0,0 +1,497 @@
+package de.saring.sportstracker.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.Note;
+import de.saring.sportstracker.data.NoteList;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.Weight;
+import de.saring.sportstracker.data.WeightList;
+import de.saring.sportstracker.storage.EntryFields.FieldReader;
+import de.saring.sportstracker.storage.EntryFields.FieldWriter;
+
+/**
+ * This class reads and writes binary snapshots of the application data lists. A snapshot
+ * is written beside the XML file of a list (with the additional suffix ".bin") each time
+ * the XML file gets stored. On reading it's used instead of the much slower parsing of the
+ * XML file, but only when the XML file has not been modified since (the snapshot contains
+ * the size and the CRC32 checksum of the XML file). The XML files are still the primary
+ * data format, the snapshots are just a cache and will be ignored when missing or invalid.
+ * <br/>
+ * Snapshot format (big endian): magic number, format version, list type, XML file size and
+ * checksum, payload length and checksum, payload. The payload contains the entry count and
+ * all entries, each entry is prefixed by its length. The entry fields are written by
+ * EntryFields, so the texts are normalized like in the XML file. Strings are stored as
+ * UTF-8 bytes prefixed by the length (-1 for null).
+ *
+ * @author Stefan Saring
+ */
+final class BinarySnapshotCodec {
+
+    private static final Logger LOGGER = Logger.getLogger(BinarySnapshotCodec.class.getName());
+
+    /** Suffix of the snapshot files, appended to the XML filename. */
+    static final String FILE_SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x5354534E; // "STSN"
+    static final short VERSION = 2;
+    private static final int HEADER_LENGTH = 4 + 2 + 1 + 8 + 4 + 4 + 4;
+
+    private static final byte TYPE_SPORT_TYPES = 1;
+    private static final byte TYPE_EXERCISES = 2;
+    private static final byte TYPE_NOTES = 3;
+    private static final byte TYPE_WEIGHTS = 4;
+
+    private static final int XML_CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Reads the sport type list from the snapshot of the specified XML file.
+     *
+     * @param xmlFilename name of the XML file
+     * @return the read list or null when there is no valid snapshot for the XML file
+     */
+    SportTypeList readSportTypeList(String xmlFilename) {
+        List<SportType> sportTypes = readEntries(xmlFilename, TYPE_SPORT_TYPES, EntryFields::readSportType);
+        if (sportTypes == null) {
+            return null;
+        }
+
+        SportTypeList sportTypeList = new SportTypeList();
+        sportTypeList.clearAndAddAll(sportTypes);
+        return sportTypeList;
+    }
+
+    /**
+     * Reads the exercise list from the snapshot of the specified XML file.
+     *
+     * @param xmlFilename name of the XML file
+     * @param sportTypeList the sport type list for assigning sport types to exercises
+     * @return the read list or null when there is no valid snapshot for the XML file
+     */
+    ExerciseList readExerciseList(String xmlFilename, SportTypeList sportTypeList) {
+        List<Exercise> exercises = readEntries(xmlFilename, TYPE_EXERCISES,
+                reader -> EntryFields.readExercise(reader, sportTypeList));
+        if (exercises == null) {
+            return null;
+        }
+
+        ExerciseList exerciseList = new ExerciseList();
+        exerciseList.clearAndAddAll(exercises);
+        return exerciseList;
+    }
+
+    /**
+     * Reads the note list from the snapshot of the specified XML file.
+     *
+     * @param xmlFilename name of the XML file
+     * @return the read list or null when there is no valid snapshot for the XML file
+     */
+    NoteList readNoteList(String xmlFilename) {
+        List<Note> notes = readEntries(xmlFilename, TYPE_NOTES, EntryFields::readNote);
+        if (notes == null) {
+            return null;
+        }
+
+        NoteList noteList = new NoteList();
+        noteList.clearAndAddAll(notes);
+        return noteList;
+    }
+
+    /**
+     * Reads the weight list from the snapshot of the specified XML file.
+     *
+     * @param xmlFilename name of the XML file
+     * @return the read list or null when there is no valid snapshot for the XML file
+     */
+    WeightList readWeightList(String xmlFilename) {
+        List<Weight> weights = readEntries(xmlFilename, TYPE_WEIGHTS, EntryFields::readWeight);
+        if (weights == null) {
+            return null;
+        }
+
+        WeightList weightList = new WeightList();
+        weightList.clearAndAddAll(weights);
+        return weightList;
+    }
+
+    /**
+     * Writes the snapshot of the sport type list for the specified (already written) XML file.
+     * Errors are logged only, the snapshot is not needed for the application data.
+     *
+     * @param sportTypeList the sport type list
+     * @param xmlFilename name of the XML file
+     */
+    void writeSportTypeList(SportTypeList sportTypeList, String xmlFilename) {
+        writeSnapshot(xmlFilename, TYPE_SPORT_TYPES, sportTypeList, sportTypeList.size(),
+                EntryFields::writeSportType);
+    }
+
+    /**
+     * Writes the snapshot of the exercise list for the specified (already written) XML file.
+     * Errors are logged only, the snapshot is not needed for the application data.
+     *
+     * @param exerciseList the exercise list
+     * @param xmlFilename name of the XML file
+     */
+    void writeExerciseList(ExerciseList exerciseList, String xmlFilename) {
+        writeSnapshot(xmlFilename, TYPE_EXERCISES, exerciseList, exerciseList.size(), EntryFields::writeExercise);
+    }
+
+    /**
+     * Writes the snapshot of the note list for the specified (already written) XML file.
+     * Errors are logged only, the snapshot is not needed for the application data.
+     *
+     * @param noteList the note list
+     * @param xmlFilename name of the XML file
+     */
+    void writeNoteList(NoteList noteList, String xmlFilename) {
+        writeSnapshot(xmlFilename, TYPE_NOTES, noteList, noteList.size(), EntryFields::writeNote);
+    }
+
+    /**
+     * Writes the snapshot of the weight list for the specified (already written) XML file.
+     * Errors are logged only, the snapshot is not needed for the application data.
+     *
+     * @param weightList the weight list
+     * @param xmlFilename name of the XML file
+     */
+    void writeWeightList(WeightList weightList, String xmlFilename) {
+        writeSnapshot(xmlFilename, TYPE_WEIGHTS, weightList, weightList.size(), EntryFields::writeWeight);
+    }
+
+    /**
+     * Reads all entries of the snapshot of the specified XML file.
+     *
+     * @param xmlFilename name of the XML file
+     * @param listType the expected list type
+     * @param entryReader the reader for creating an entry from its fields
+     * @return the read entries or null when there is no valid snapshot for the XML file
+     */
+    private <T> List<T> readEntries(String xmlFilename, byte listType, Function<FieldReader, T> entryReader) {
+        ByteBuffer payload = readPayload(xmlFilename, listType);
+        if (payload == null) {
+            return null;
+        }
+
+        try {
+            int count = payload.getInt();
+            if (count < 0 || count > payload.remaining()) {
+                throw new IllegalArgumentException("Invalid entry count " + count + "!");
+            }
+
+            PayloadFieldReader fieldReader = new PayloadFieldReader(payload);
+            List<T> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int entryEnd = getEntryEnd(payload);
+                entries.add(entryReader.apply(fieldReader));
+                payload.position(entryEnd);
+            }
+            return entries;
+        } catch (RuntimeException e) {
+            logInvalidSnapshot(xmlFilename, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the snapshot of the specified XML file and returns the validated payload.
+     *
+     * @param xmlFilename name of the XML file
+     * @param listType the expected list type
+     * @return the payload buffer positioned at the entry count or null when there is no
+     * valid and up-to-date snapshot
+     */
+    private ByteBuffer readPayload(String xmlFilename, byte listType) {
+        Path xmlFile = Paths.get(xmlFilename);
+        Path snapshotFile = Paths.get(xmlFilename + FILE_SUFFIX);
+        if (!Files.exists(snapshotFile) || !Files.exists(xmlFile)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer snapshot;
+            try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+                    logInvalidSnapshot(xmlFilename, null);
+                    return null;
+                }
+                snapshot = ByteBuffer.allocate((int) channel.size());
+                while (snapshot.hasRemaining() && channel.read(snapshot) >= 0) {
+                }
+                snapshot.flip();
+            }
+
+            if (snapshot.getInt() != MAGIC || snapshot.getShort() != VERSION || snapshot.get() != listType) {
+                logInvalidSnapshot(xmlFilename, null);
+                return null;
+            }
+
+            // the snapshot is outdated when the XML file was modified afterwards
+            long xmlSize = snapshot.getLong();
+            int xmlChecksum = snapshot.getInt();
+            if (xmlSize != Files.size(xmlFile) || xmlChecksum != getFileChecksum(xmlFile)) {
+                LOGGER.info("The snapshot of XML file '" + xmlFilename + "' is outdated, ignoring it ...");
+                return null;
+            }
+
+            int payloadLength = snapshot.getInt();
+            int payloadChecksum = snapshot.getInt();
+            if (payloadLength != snapshot.remaining()) {
+                logInvalidSnapshot(xmlFilename, null);
+                return null;
+            }
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(snapshot.array(), snapshot.position(), payloadLength);
+            if ((int) crc32.getValue() != payloadChecksum) {
+                logInvalidSnapshot(xmlFilename, null);
+                return null;
+            }
+            return snapshot.slice();
+        } catch (IOException | BufferUnderflowException e) {
+            logInvalidSnapshot(xmlFilename, e);
+            return null;
+        }
+    }
+
+    private <T> void writeSnapshot(String xmlFilename, byte listType, Iterable<T> entries, int entryCount,
+            BiConsumer<T, FieldWriter> entryWriter) {
+        Path snapshotFile = Paths.get(xmlFilename + FILE_SUFFIX);
+        Path tempFile = Paths.get(xmlFilename + FILE_SUFFIX + ".tmp");
+
+        try {
+            // create payload with the entry count and all length-prefixed entries
+            ByteArrayOutputStream baosPayload = new ByteArrayOutputStream();
+            DataOutputStream dosPayload = new DataOutputStream(baosPayload);
+            ByteArrayOutputStream baosEntry = new ByteArrayOutputStream();
+            StreamFieldWriter fieldWriter = new StreamFieldWriter(new DataOutputStream(baosEntry));
+
+            dosPayload.writeInt(entryCount);
+            for (T entry : entries) {
+                entryWriter.accept(entry, fieldWriter);
+                dosPayload.writeInt(baosEntry.size());
+                baosEntry.writeTo(dosPayload);
+                baosEntry.reset();
+            }
+            dosPayload.flush();
+            byte[] payload = baosPayload.toByteArray();
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(payload);
+
+            Path xmlFile = Paths.get(xmlFilename);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            header.putInt(MAGIC);
+            header.putShort(VERSION);
+            header.put(listType);
+            header.putLong(Files.size(xmlFile));
+            header.putInt(getFileChecksum(xmlFile));
+            header.putInt(payload.length);
+            header.putInt((int) crc32.getValue());
+            header.flip();
+
+            try (FileChannel channel = FileChannel.open(tempFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer[] buffers = {header, ByteBuffer.wrap(payload)};
+                while (buffers[1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+            }
+
+            try {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to write the snapshot of XML file '" + xmlFilename + "'!", e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ioe) {
+                LOGGER.log(Level.WARNING, "Failed to delete the temporary snapshot file '" + tempFile + "'!", ioe);
+            }
+        }
+    }
+
+    /**
+     * Calculates the CRC32 checksum of the specified file content.
+     */
+    private static int getFileChecksum(Path file) throws IOException {
+        CRC32 crc32 = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(XML_CHECKSUM_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc32.update(buffer);
+                buffer.clear();
+            }
+        }
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * Reads the length prefix of the next entry and returns the payload position after this entry.
+     */
+    private static int getEntryEnd(ByteBuffer payload) {
+        int entryLength = payload.getInt();
+        if (entryLength < 0 || entryLength > payload.remaining()) {
+            throw new IllegalArgumentException("Invalid entry length " + entryLength + "!");
+        }
+        return payload.position() + entryLength;
+    }
+
+    private static void logInvalidSnapshot(String xmlFilename, Exception e) {
+        LOGGER.log(Level.WARNING, "The snapshot of XML file '" + xmlFilename + "' is invalid, ignoring it ...", e);
+    }
+
+    /**
+     * Writes the entry fields to a data output stream. Strings are stored as UTF-8 bytes
+     * prefixed by the length (-1 for null), the date and time as epoch seconds and nanos.
+     */
+    private static final class StreamFieldWriter implements FieldWriter {
+
+        private final DataOutputStream dos;
+
+        StreamFieldWriter(DataOutputStream dos) {
+            this.dos = dos;
+        }
+
+        @Override
+        public void putInt(int value) {
+            try {
+                dos.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void putOptionalInt(Integer value) {
+            putBoolean(value != null);
+            if (value != null) {
+                putInt(value);
+            }
+        }
+
+        @Override
+        public void putFloat(float value) {
+            try {
+                dos.writeFloat(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void putBoolean(boolean value) {
+            try {
+                dos.writeBoolean(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void putString(String value) {
+            try {
+                if (value == null) {
+                    dos.writeInt(-1);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    dos.writeInt(bytes.length);
+                    dos.write(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void putDateTime(LocalDateTime value) {
+            try {
+                dos.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+                dos.writeInt(value.getNano());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads the entry fields from the snapshot payload, in the format of the StreamFieldWriter.
+     */
+    private static final class PayloadFieldReader implements FieldReader {
+
+        private final ByteBuffer payload;
+
+        PayloadFieldReader(ByteBuffer payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public int nextInt() {
+            return payload.getInt();
+        }
+
+        @Override
+        public Integer nextOptionalInt() {
+            return nextBoolean() ? payload.getInt() : null;
+        }
+
+        @Override
+        public float nextFloat() {
+            return payload.getFloat();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return payload.get() != 0;
+        }
+
+        @Override
+        public String nextString() {
+            int length = payload.getInt();
+            if (length < 0) {
+                return null;
+            }
+            if (length > payload.remaining()) {
+                throw new IllegalArgumentException("Invalid string length " + length + "!");
+            }
+
+            String value = new String(payload.array(), payload.arrayOffset() + payload.position(), length,
+                    StandardCharsets.UTF_8);
+            payload.position(payload.position() + length);
+            return value;
+        }
+
+        @Override
+        public LocalDateTime nextDateTime() {
+            return LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(), ZoneOffset.UTC);
+        }
+    }
+}
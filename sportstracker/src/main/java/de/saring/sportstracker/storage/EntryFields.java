@@ -0,0 +1,309 @@
+package de.saring.sportstracker.storage;
+
+import java.time.LocalDateTime;
+
+import javafx.scene.paint.Color;
+
+import de.saring.sportstracker.data.Equipment;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.Note;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.Weight;
+import de.saring.util.gui.javafx.ColorUtils;
+
+/**
+ * Helper class for the conversion of the application data entries to a sequence of field
+ * values and back. It's used by the storage formats which are not based on XML (the journal
+ * records and the binary snapshots), so all of them store the same fields in the same order.
+ * <br/>
+ * The texts are normalized like by storing in XML files: they are trimmed and missing texts
+ * of required elements are stored as empty strings. So reading the fields results in the
+ * same entries as reading the XML file.
+ *
+ * @author Stefan Saring
+ */
+final class EntryFields {
+
+    private EntryFields() {
+    }
+
+    /**
+     * Writes the fields of the sport type including all subtypes and equipment.
+     *
+     * @param sportType the sport type
+     * @param writer the field writer
+     */
+    static void writeSportType(SportType sportType, FieldWriter writer) {
+        writer.putInt(sportType.getId());
+        writer.putString(normalizeText(sportType.getName()));
+        writer.putString(normalizeText(sportType.getIcon()));
+        writer.putBoolean(sportType.isRecordDistance());
+
+        java.awt.Color awtColor = ColorUtils.toAwtColor(sportType.getColor());
+        writer.putInt(awtColor.getRed());
+        writer.putInt(awtColor.getGreen());
+        writer.putInt(awtColor.getBlue());
+
+        writer.putInt(sportType.getSportSubTypeList().size());
+        for (SportSubType sportSubType : sportType.getSportSubTypeList()) {
+            writer.putInt(sportSubType.getId());
+            writer.putString(normalizeText(sportSubType.getName()));
+        }
+
+        writer.putInt(sportType.getEquipmentList().size());
+        for (Equipment equipment : sportType.getEquipmentList()) {
+            writer.putInt(equipment.getId());
+            writer.putString(normalizeText(equipment.getName()));
+        }
+    }
+
+    /**
+     * Reads the fields of a sport type and creates the SportType object.
+     *
+     * @param reader the field reader
+     * @return the created SportType
+     */
+    static SportType readSportType(FieldReader reader) {
+        SportType sportType = new SportType(reader.nextInt());
+        sportType.setName(reader.nextString());
+        sportType.setIcon(reader.nextString());
+        sportType.setRecordDistance(reader.nextBoolean());
+        sportType.setColor(Color.rgb(reader.nextInt(), reader.nextInt(), reader.nextInt()));
+
+        int sportSubTypeCount = reader.nextInt();
+        for (int i = 0; i < sportSubTypeCount; i++) {
+            SportSubType sportSubType = new SportSubType(reader.nextInt());
+            sportSubType.setName(reader.nextString());
+            sportType.getSportSubTypeList().set(sportSubType);
+        }
+
+        int equipmentCount = reader.nextInt();
+        for (int i = 0; i < equipmentCount; i++) {
+            Equipment equipment = new Equipment(reader.nextInt());
+            equipment.setName(reader.nextString());
+            sportType.getEquipmentList().set(equipment);
+        }
+        return sportType;
+    }
+
+    /**
+     * Writes the fields of the exercise, the sport type, subtype and equipment are stored by their IDs.
+     *
+     * @param exercise the exercise
+     * @param writer the field writer
+     */
+    static void writeExercise(Exercise exercise, FieldWriter writer) {
+        writer.putInt(exercise.getId());
+        writer.putInt(exercise.getSportType().getId());
+        writer.putInt(exercise.getSportSubType().getId());
+        writer.putDateTime(exercise.getDateTime());
+        writer.putInt(exercise.getDuration());
+        writer.putString(exercise.getIntensity().toStringEnum());
+        writer.putFloat(exercise.getDistance());
+        writer.putFloat(exercise.getAvgSpeed());
+        writer.putInt(exercise.getAvgHeartRate());
+        writer.putInt(exercise.getAscent());
+        writer.putInt(exercise.getCalories());
+        writer.putString(normalizeOptionalText(exercise.getHrmFile()));
+        writer.putOptionalInt(exercise.getEquipment() == null ? null : exercise.getEquipment().getId());
+        writer.putString(normalizeOptionalText(exercise.getComment()));
+    }
+
+    /**
+     * Reads the fields of an exercise and creates the Exercise object. The sport type, subtype
+     * and equipment are assigned by using the specified sport type list.
+     *
+     * @param reader the field reader
+     * @param sportTypeList the sport type list for assigning sport types to exercises
+     * @return the created Exercise
+     */
+    static Exercise readExercise(FieldReader reader, SportTypeList sportTypeList) {
+        Exercise exercise = new Exercise(reader.nextInt());
+        SportType sportType = getSportType(exercise, sportTypeList, reader.nextInt());
+        exercise.setSportType(sportType);
+        exercise.setSportSubType(getSportSubType(exercise, sportType, reader.nextInt()));
+        exercise.setDateTime(reader.nextDateTime());
+        exercise.setDuration(reader.nextInt());
+        exercise.setIntensity(Exercise.IntensityType.valueOf(reader.nextString()));
+        exercise.setDistance(reader.nextFloat());
+        exercise.setAvgSpeed(reader.nextFloat());
+        exercise.setAvgHeartRate(reader.nextInt());
+        exercise.setAscent(reader.nextInt());
+        exercise.setCalories(reader.nextInt());
+        exercise.setHrmFile(reader.nextString());
+
+        Integer equipmentID = reader.nextOptionalInt();
+        if (equipmentID != null) {
+            exercise.setEquipment(getEquipment(exercise, sportType, equipmentID));
+        }
+
+        exercise.setComment(reader.nextString());
+        return exercise;
+    }
+
+    /**
+     * Writes the fields of the note.
+     *
+     * @param note the note
+     * @param writer the field writer
+     */
+    static void writeNote(Note note, FieldWriter writer) {
+        writer.putInt(note.getId());
+        writer.putDateTime(note.getDateTime());
+        writer.putString(normalizeText(note.getComment()));
+    }
+
+    /**
+     * Reads the fields of a note and creates the Note object.
+     *
+     * @param reader the field reader
+     * @return the created Note
+     */
+    static Note readNote(FieldReader reader) {
+        Note note = new Note(reader.nextInt());
+        note.setDateTime(reader.nextDateTime());
+        note.setComment(reader.nextString());
+        return note;
+    }
+
+    /**
+     * Writes the fields of the weight.
+     *
+     * @param weight the weight
+     * @param writer the field writer
+     */
+    static void writeWeight(Weight weight, FieldWriter writer) {
+        writer.putInt(weight.getId());
+        writer.putDateTime(weight.getDateTime());
+        writer.putFloat(weight.getValue());
+        writer.putString(normalizeText(weight.getComment()));
+    }
+
+    /**
+     * Reads the fields of a weight and creates the Weight object.
+     *
+     * @param reader the field reader
+     * @return the created Weight
+     */
+    static Weight readWeight(FieldReader reader) {
+        Weight weight = new Weight(reader.nextInt());
+        weight.setDateTime(reader.nextDateTime());
+        weight.setValue(reader.nextFloat());
+        weight.setComment(reader.nextString());
+        return weight;
+    }
+
+    /**
+     * Returns the sport type with the specified ID for the exercise.
+     *
+     * @param exercise the exercise to be read
+     * @param sportTypeList the sport type list
+     * @param sportTypeID the sport type ID
+     * @return the sport type
+     * @throws IllegalArgumentException when the sport type is unknown
+     */
+    static SportType getSportType(Exercise exercise, SportTypeList sportTypeList, int sportTypeID) {
+        SportType sportType = sportTypeList.getByID(sportTypeID);
+        if (sportType == null) {
+            throw new IllegalArgumentException("Failed to read exercise with ID '" + exercise.getId() +
+                    "', the sport type ID '" + sportTypeID + "' is unknown!");
+        }
+        return sportType;
+    }
+
+    /**
+     * Returns the sport subtype with the specified ID of the sport type for the exercise.
+     *
+     * @param exercise the exercise to be read
+     * @param sportType the sport type of the exercise
+     * @param sportSubTypeID the sport subtype ID
+     * @return the sport subtype
+     * @throws IllegalArgumentException when the sport subtype is unknown
+     */
+    static SportSubType getSportSubType(Exercise exercise, SportType sportType, int sportSubTypeID) {
+        SportSubType sportSubType = sportType.getSportSubTypeList().getByID(sportSubTypeID);
+        if (sportSubType == null) {
+            throw new IllegalArgumentException("Failed to read exercise with ID '" + exercise.getId() +
+                    "', the sport subtype ID '" + sportSubTypeID + "' is unknown!");
+        }
+        return sportSubType;
+    }
+
+    /**
+     * Returns the equipment with the specified ID of the sport type for the exercise.
+     *
+     * @param exercise the exercise to be read
+     * @param sportType the sport type of the exercise
+     * @param equipmentID the equipment ID
+     * @return the equipment
+     * @throws IllegalArgumentException when the equipment is unknown
+     */
+    static Equipment getEquipment(Exercise exercise, SportType sportType, int equipmentID) {
+        Equipment equipment = sportType.getEquipmentList().getByID(equipmentID);
+        if (equipment == null) {
+            throw new IllegalArgumentException("Failed to read exercise with ID '" + exercise.getId() +
+                    "', the equipment ID '" + equipmentID + "' is unknown!");
+        }
+        return equipment;
+    }
+
+    /**
+     * Normalizes the text of a required element like the XML storage: it's trimmed, null
+     * will be an empty string.
+     *
+     * @param text the text (can be null)
+     * @return the normalized text
+     */
+    static String normalizeText(String text) {
+        return text == null ? "" : XMLStreamingWriter.trim(text);
+    }
+
+    /**
+     * Normalizes the text of an optional element like the XML storage: it's trimmed, null
+     * stays null (the element is missing then).
+     *
+     * @param text the text (can be null)
+     * @return the normalized text or null
+     */
+    static String normalizeOptionalText(String text) {
+        return text == null ? null : XMLStreamingWriter.trim(text);
+    }
+
+    /**
+     * Writer for the field values of an entry.
+     */
+    interface FieldWriter {
+
+        void putInt(int value);
+
+        void putOptionalInt(Integer value);
+
+        void putFloat(float value);
+
+        void putBoolean(boolean value);
+
+        void putString(String value);
+
+        void putDateTime(LocalDateTime value);
+    }
+
+    /**
+     * Reader for the field values of an entry, in the same order as they were written.
+     */
+    interface FieldReader {
+
+        int nextInt();
+
+        Integer nextOptionalInt();
+
+        float nextFloat();
+
+        boolean nextBoolean();
+
+        String nextString();
+
+        LocalDateTime nextDateTime();
+    }
+}
@@ -0,0 +1,409 @@
+package de.saring.sportstracker.storage;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * The append-only change journal of one data list (e.g. of all exercises). The list entries
+ * are stored as text records (see JournalRecord), the first field must be the entry ID.<br/>
+ * The persistent list content consists of a snapshot file with the records of all entries
+ * and a journal file with all changes since the snapshot creation (updated or added records
+ * and the IDs of deleted entries). On storing, only the changes are appended to the journal.
+ * When the journal becomes too big, it will be compacted in background: the current content
+ * gets written to a new snapshot file (atomic replacement) and the journal will be removed.<br/>
+ * Each line of both files contains the CRC32 checksum of its content. An incomplete or invalid
+ * record at the journal end (e.g. after a crash while writing) is ignored and removed on reading,
+ * the previous changes are still valid. When appending fails, the journal is truncated to its
+ * previous valid length, so the following changes can be appended and read again. Replaying the
+ * journal on a snapshot which already contains its changes (crash during compaction) results in
+ * the same content.
+ *
+ * @author Stefan Saring
+ */
+final class EntryJournal {
+
+    private static final Logger LOGGER = Logger.getLogger(EntryJournal.class.getName());
+
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+    static final String JOURNAL_SUFFIX = ".journal";
+
+    /** Minimum number of journal records before compaction. */
+    static final int MIN_COMPACTION_RECORDS = 1000;
+
+    private static final char OPERATION_UPDATE = 'U';
+    private static final char OPERATION_DELETE = 'D';
+    private static final int CHECKSUM_LENGTH = 8;
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Executor compactionExecutor;
+
+    /** The current persistent records mapped by entry ID in list order, null when not loaded yet. */
+    private Map<Integer, String> records;
+
+    /** Flag whether the current records are persistent (false after initialize()). */
+    private boolean recordsPersistent;
+
+    /** Number of records in the journal file. */
+    private int journalRecordCount;
+
+    /** Length of the valid journal content in bytes, the changes are appended at this position. */
+    private long journalLength;
+
+    private boolean compactionScheduled;
+
+    /**
+     * Creates the journal for the specified list data source.
+     *
+     * @param source name of the list data source (e.g. the XML file), it's the base name for
+     * the snapshot and journal files
+     * @param compactionExecutor the executor for the compaction in background
+     */
+    EntryJournal(String source, Executor compactionExecutor) {
+        this.snapshotFile = Paths.get(source + SNAPSHOT_SUFFIX);
+        this.journalFile = Paths.get(source + JOURNAL_SUFFIX);
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /**
+     * Reads the persistent records of all entries in list order. Returns null when there are
+     * no snapshot or journal files yet.
+     *
+     * @return list of entry records or null
+     * @throws IOException thrown on read problems
+     */
+    synchronized List<String> read() throws IOException {
+        if (!Files.exists(snapshotFile) && !Files.exists(journalFile)) {
+            records = null;
+            return null;
+        }
+
+        load();
+        return new ArrayList<>(records.values());
+    }
+
+    /**
+     * Initializes the journal with the specified records (e.g. imported from a previous data
+     * format). They are not persistent yet, so the next store will create a new snapshot.
+     *
+     * @param newRecords records of all entries, mapped by entry ID in list order
+     */
+    synchronized void initialize(Map<Integer, String> newRecords) {
+        records = new LinkedHashMap<>(newRecords);
+        recordsPersistent = false;
+    }
+
+    /**
+     * Stores the specified records of all entries. Only the differences to the current
+     * persistent records will be appended to the journal.
+     *
+     * @param newRecords records of all entries, mapped by entry ID in list order
+     * @throws IOException thrown on write problems
+     */
+    synchronized void store(Map<Integer, String> newRecords) throws IOException {
+        loadIfNeeded();
+
+        if (!recordsPersistent) {
+            records = new LinkedHashMap<>(newRecords);
+            writeSnapshot();
+            return;
+        }
+
+        // get all deleted and all added or modified entries
+        List<Integer> deletedIds = new ArrayList<>();
+        for (Integer id : records.keySet()) {
+            if (!newRecords.containsKey(id)) {
+                deletedIds.add(id);
+            }
+        }
+        Map<Integer, String> modifiedRecords = new LinkedHashMap<>();
+        for (Map.Entry<Integer, String> newRecord : newRecords.entrySet()) {
+            if (!newRecord.getValue().equals(records.get(newRecord.getKey()))) {
+                modifiedRecords.put(newRecord.getKey(), newRecord.getValue());
+            }
+        }
+
+        appendChanges(deletedIds, modifiedRecords);
+        records = new LinkedHashMap<>(newRecords);
+    }
+
+    /**
+     * Stores the specified changes without comparing the records of all entries. The records
+     * of all added or modified entries must be passed, entries which don't exist anymore will
+     * be deleted. This is only possible when the current records are persistent already,
+     * otherwise the records of all entries are needed for creating a new snapshot.
+     *
+     * @param modifiedRecords records of the added or modified entries, mapped by entry ID in list order
+     * @param entryExists predicate for checking whether the entry with the specified ID still exists
+     * @return true when the changes have been stored, false when the records of all entries are needed
+     * @throws IOException thrown on write problems
+     */
+    synchronized boolean storeChanges(Map<Integer, String> modifiedRecords, Predicate<Integer> entryExists)
+            throws IOException {
+        loadIfNeeded();
+        if (!recordsPersistent) {
+            return false;
+        }
+
+        List<Integer> deletedIds = records.keySet().stream()
+                .filter(id -> !entryExists.test(id))
+                .collect(Collectors.toList());
+        Map<Integer, String> changedRecords = new LinkedHashMap<>();
+        modifiedRecords.forEach((id, record) -> {
+            if (!record.equals(records.get(id))) {
+                changedRecords.put(id, record);
+            }
+        });
+
+        appendChanges(deletedIds, changedRecords);
+        deletedIds.forEach(records::remove);
+        records.putAll(changedRecords);
+        return true;
+    }
+
+    /**
+     * Writes all current records to a new snapshot file and removes the journal.
+     *
+     * @throws IOException thrown on write problems
+     */
+    synchronized void compact() throws IOException {
+        compactionScheduled = false;
+        if (records != null && recordsPersistent) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Returns the number of records in the journal file.
+     *
+     * @return number of journal records
+     */
+    synchronized int getJournalRecordCount() {
+        return journalRecordCount;
+    }
+
+    private void loadIfNeeded() throws IOException {
+        if (records == null) {
+            if (Files.exists(snapshotFile) || Files.exists(journalFile)) {
+                load();
+            } else {
+                initialize(new LinkedHashMap<>());
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        records = new LinkedHashMap<>();
+
+        if (Files.exists(snapshotFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!applyLine(line)) {
+                        throw new IOException("The snapshot file '" + snapshotFile + "' contains an invalid record!");
+                    }
+                }
+            }
+        }
+
+        journalRecordCount = 0;
+        journalLength = 0;
+        if (Files.exists(journalFile)) {
+            byte[] journalContent = Files.readAllBytes(journalFile);
+            int validLength = 0;
+            int lineStart = 0;
+            for (int i = 0; i < journalContent.length; i++) {
+                if (journalContent[i] == '\n') {
+                    String line = new String(journalContent, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                    if (!applyLine(line)) {
+                        break;
+                    }
+                    journalRecordCount++;
+                    validLength = i + 1;
+                    lineStart = i + 1;
+                }
+            }
+
+            // remove the incomplete or invalid journal end, otherwise it would corrupt the next changes
+            if (validLength < journalContent.length) {
+                LOGGER.warning("Removing invalid records at the end of journal file '" + journalFile + "' ...");
+                try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                    channel.force(true);
+                }
+            }
+            journalLength = validLength;
+        }
+
+        recordsPersistent = true;
+    }
+
+    /**
+     * Validates the line checksum and applies the contained operation to the records.
+     *
+     * @param line the snapshot or journal line
+     * @return true when the line is valid
+     */
+    private boolean applyLine(String line) {
+        if (line.length() < CHECKSUM_LENGTH + 2 || line.charAt(CHECKSUM_LENGTH) != ' ') {
+            return false;
+        }
+
+        String content = line.substring(CHECKSUM_LENGTH + 1);
+        if (!line.substring(0, CHECKSUM_LENGTH).equals(getChecksum(content))) {
+            return false;
+        }
+
+        try {
+            String operand = content.substring(1);
+            switch (content.charAt(0)) {
+                case OPERATION_UPDATE:
+                    int separatorIndex = operand.indexOf('\t');
+                    int id = Integer.parseInt(separatorIndex < 0 ? operand : operand.substring(0, separatorIndex));
+                    records.put(id, operand);
+                    return true;
+                case OPERATION_DELETE:
+                    records.remove(Integer.parseInt(operand));
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream osSnapshot = Channels.newOutputStream(channel);
+            ByteArrayOutputStream baosLines = new ByteArrayOutputStream();
+            for (String record : records.values()) {
+                writeLine(baosLines, OPERATION_UPDATE + record);
+                if (baosLines.size() > 64 * 1024) {
+                    baosLines.writeTo(osSnapshot);
+                    baosLines.reset();
+                }
+            }
+            baosLines.writeTo(osSnapshot);
+            channel.force(true);
+        }
+
+        try {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // the journal changes are contained in the snapshot now
+        Files.deleteIfExists(journalFile);
+        journalRecordCount = 0;
+        journalLength = 0;
+        recordsPersistent = true;
+    }
+
+    /**
+     * Appends the journal lines for the specified changes. An invalid content after the valid
+     * journal length (e.g. from a previous failed append) is removed before, the appended lines
+     * are removed again when writing fails.
+     *
+     * @param deletedIds IDs of the deleted entries
+     * @param modifiedRecords records of the added or modified entries
+     * @throws IOException thrown on write problems
+     */
+    private void appendChanges(List<Integer> deletedIds, Map<Integer, String> modifiedRecords) throws IOException {
+        int changeCount = deletedIds.size() + modifiedRecords.size();
+        if (changeCount == 0) {
+            return;
+        }
+
+        ByteArrayOutputStream baosChanges = new ByteArrayOutputStream();
+        for (Integer id : deletedIds) {
+            writeLine(baosChanges, OPERATION_DELETE + String.valueOf(id));
+        }
+        for (String record : modifiedRecords.values()) {
+            writeLine(baosChanges, OPERATION_UPDATE + record);
+        }
+
+        try (FileChannel channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() < journalLength) {
+                throw new IOException("The journal file '" + journalFile + "' has been truncated externally!");
+            }
+
+            try {
+                if (channel.size() > journalLength) {
+                    channel.truncate(journalLength);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(baosChanges.toByteArray());
+                long position = journalLength;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                channel.force(true);
+            } catch (IOException e) {
+                try {
+                    channel.truncate(journalLength);
+                } catch (IOException eTruncate) {
+                    // the invalid content will be removed before the next append or on reading
+                    e.addSuppressed(eTruncate);
+                }
+                throw e;
+            }
+        }
+
+        journalLength += baosChanges.size();
+        journalRecordCount += changeCount;
+        scheduleCompactionIfNeeded();
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        if (!compactionScheduled && journalRecordCount >= Math.max(MIN_COMPACTION_RECORDS, records.size())) {
+            compactionScheduled = true;
+            compactionExecutor.execute(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to compact the journal file '" + journalFile + "'!", e);
+                }
+            });
+        }
+    }
+
+    private static void writeLine(ByteArrayOutputStream baosLines, String content) throws IOException {
+        baosLines.write(getChecksum(content).getBytes(StandardCharsets.US_ASCII));
+        baosLines.write(' ');
+        baosLines.write(content.getBytes(StandardCharsets.UTF_8));
+        baosLines.write('\n');
+    }
+
+    private static String getChecksum(String content) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(content.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc32.getValue());
+    }
+}
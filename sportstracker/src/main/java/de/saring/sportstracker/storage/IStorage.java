@@ -1,6 +1,10 @@
 package de.saring.sportstracker.storage;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.data.EntryFilter;
 import de.saring.sportstracker.data.ExerciseList;
 import de.saring.sportstracker.data.NoteList;
 import de.saring.sportstracker.data.SportTypeList;
@@ -9,6 +13,7 @@ import de.saring.sportstracker.data.WeightList;
 /**
  * This interface defines methods for reading / storing of the application
  * data from / to different data sources (files, database, ...).
+ * The methods for reading the different lists can be called concurrently.
  *
  * @author Stefan Saring
  * @version 1.0
@@ -44,6 +49,37 @@ public interface IStorage {
      */
     ExerciseList readExerciseList(String source, SportTypeList sportTypeList) throws STException;
 
+    /**
+     * Returns true when the storage reads the exercises for a filter much faster than the
+     * complete exercise list (e.g. by a database query), see readExerciseList(String,
+     * SportTypeList, EntryFilter).
+     *
+     * @return true when the storage supports the reading of filtered exercises
+     */
+    default boolean isExerciseFilterSupported() {
+        return false;
+    }
+
+    /**
+     * Reads all exercises matching the specified filter from the data source. The result
+     * contains the exercises of the last storing. The default implementation reads the
+     * complete exercise list and filters it.
+     *
+     * @param source name of data source
+     * @param sportTypeList the sport type list for assigning sport types to exercises.
+     * @param filter the exercise filter criteria
+     * @return list of the found exercises
+     * @throws STException thrown on read problems
+     */
+    default ExerciseList readExerciseList(String source, SportTypeList sportTypeList, EntryFilter filter)
+            throws STException {
+        ExerciseList filteredExerciseList = new ExerciseList();
+        filteredExerciseList.clearAndAddAll(readExerciseList(source, sportTypeList)
+                .getEntriesForFilter(filter).stream()
+                .collect(Collectors.toList()));
+        return filteredExerciseList;
+    }
+
     /**
      * Writes the exercise list to the data destination.
      *
@@ -53,6 +89,22 @@ public interface IStorage {
      */
     void storeExerciseList(ExerciseList exerciseList, String destination) throws STException;
 
+    /**
+     * Writes the exercise list to the data destination. The IDs of the exercises which have
+     * been added or modified since the last storing can be used for writing the changes only.
+     * The default implementation writes the complete list.
+     *
+     * @param exerciseList the exercise list to store
+     * @param destination name of data destination
+     * @param modifiedIds IDs of the added or modified exercises, null when unknown (removed
+     * exercises are not contained)
+     * @throws STException thrown on store problems
+     */
+    default void storeExerciseList(ExerciseList exerciseList, String destination, Set<Integer> modifiedIds)
+            throws STException {
+        storeExerciseList(exerciseList, destination);
+    }
+
     /**
      * Reads the note list from the data source.
      *
@@ -71,6 +123,22 @@ public interface IStorage {
      */
     void storeNoteList(NoteList noteList, String destination) throws STException;
 
+    /**
+     * Writes the note list to the data destination. The IDs of the notes which have been
+     * added or modified since the last storing can be used for writing the changes only.
+     * The default implementation writes the complete list.
+     *
+     * @param noteList the note list to store
+     * @param destination name of data destination
+     * @param modifiedIds IDs of the added or modified notes, null when unknown (removed
+     * notes are not contained)
+     * @throws STException thrown on store problems
+     */
+    default void storeNoteList(NoteList noteList, String destination, Set<Integer> modifiedIds)
+            throws STException {
+        storeNoteList(noteList, destination);
+    }
+
     /**
      * Reads the weight list from the data source.
      *
@@ -88,4 +156,20 @@ public interface IStorage {
      * @throws STException thrown on store problems
      */
     void storeWeightList(WeightList weightList, String destination) throws STException;
+
+    /**
+     * Writes the weight list to the data destination. The IDs of the weights which have been
+     * added or modified since the last storing can be used for writing the changes only.
+     * The default implementation writes the complete list.
+     *
+     * @param weightList the weight list to store
+     * @param destination name of data destination
+     * @param modifiedIds IDs of the added or modified weights, null when unknown (removed
+     * weights are not contained)
+     * @throws STException thrown on store problems
+     */
+    default void storeWeightList(WeightList weightList, String destination, Set<Integer> modifiedIds)
+            throws STException {
+        storeWeightList(weightList, destination);
+    }
 }
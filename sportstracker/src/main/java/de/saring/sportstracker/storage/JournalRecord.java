@@ -0,0 +1,207 @@
+package de.saring.sportstracker.storage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.saring.sportstracker.storage.EntryFields.FieldReader;
+import de.saring.sportstracker.storage.EntryFields.FieldWriter;
+
+/**
+ * Helper class for the creation and parsing of the single line text records stored by
+ * the JournalStorage. A record contains a list of text fields separated by tabs, the
+ * tab, line break and backslash characters inside the fields are escaped. Null values
+ * are supported too. The entry fields are written and read in the order defined by
+ * EntryFields.
+ *
+ * @author Stefan Saring
+ */
+final class JournalRecord implements FieldWriter, FieldReader {
+
+    private static final char SEPARATOR = '\t';
+    private static final String NULL_VALUE = "\\N";
+
+    private final List<String> fields;
+    private int readIndex = 0;
+
+    private JournalRecord(List<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Creates an empty record for adding fields.
+     *
+     * @return the created record
+     */
+    static JournalRecord create() {
+        return new JournalRecord(new ArrayList<>());
+    }
+
+    /**
+     * Parses the specified record text for reading the fields in the stored order.
+     *
+     * @param text the record text
+     * @return the parsed record
+     */
+    static JournalRecord parse(String text) {
+        List<String> fields = new ArrayList<>();
+        int fieldStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == SEPARATOR) {
+                fields.add(unescape(text.substring(fieldStart, i)));
+                fieldStart = i + 1;
+            }
+        }
+        return new JournalRecord(fields);
+    }
+
+    @Override
+    public void putInt(int value) {
+        fields.add(String.valueOf(value));
+    }
+
+    @Override
+    public void putOptionalInt(Integer value) {
+        fields.add(value == null ? null : String.valueOf(value));
+    }
+
+    @Override
+    public void putFloat(float value) {
+        fields.add(String.valueOf(value));
+    }
+
+    @Override
+    public void putBoolean(boolean value) {
+        fields.add(String.valueOf(value));
+    }
+
+    @Override
+    public void putString(String value) {
+        fields.add(value);
+    }
+
+    @Override
+    public void putDateTime(LocalDateTime value) {
+        fields.add(value.format(XMLUtils.DATE_TIME_FORMAT));
+    }
+
+    @Override
+    public int nextInt() {
+        return Integer.parseInt(next());
+    }
+
+    @Override
+    public Integer nextOptionalInt() {
+        String value = next();
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    @Override
+    public float nextFloat() {
+        return Float.parseFloat(next());
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return Boolean.parseBoolean(next());
+    }
+
+    @Override
+    public String nextString() {
+        return next();
+    }
+
+    @Override
+    public LocalDateTime nextDateTime() {
+        return LocalDateTime.parse(next(), XMLUtils.DATE_TIME_FORMAT);
+    }
+
+    /**
+     * Returns the next field value of the parsed record.
+     *
+     * @return the field value (can be null)
+     */
+    private String next() {
+        if (readIndex >= fields.size()) {
+            throw new IllegalArgumentException("The journal record contains only " + fields.size() + " fields!");
+        }
+        return fields.get(readIndex++);
+    }
+
+    /**
+     * Returns the text representation of this record, it doesn't contain any line breaks.
+     *
+     * @return the record text
+     */
+    @Override
+    public String toString() {
+        StringBuilder sbRecord = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                sbRecord.append(SEPARATOR);
+            }
+            escape(fields.get(i), sbRecord);
+        }
+        return sbRecord.toString();
+    }
+
+    private static void escape(String value, StringBuilder sbRecord) {
+        if (value == null) {
+            sbRecord.append(NULL_VALUE);
+            return;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\':
+                    sbRecord.append("\\\\");
+                    break;
+                case '\t':
+                    sbRecord.append("\\t");
+                    break;
+                case '\n':
+                    sbRecord.append("\\n");
+                    break;
+                case '\r':
+                    sbRecord.append("\\r");
+                    break;
+                default:
+                    sbRecord.append(ch);
+            }
+        }
+    }
+
+    private static String unescape(String text) {
+        if (NULL_VALUE.equals(text)) {
+            return null;
+        }
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+
+        StringBuilder sbValue = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '\\' && i + 1 < text.length()) {
+                char escaped = text.charAt(++i);
+                switch (escaped) {
+                    case 't':
+                        sbValue.append('\t');
+                        break;
+                    case 'n':
+                        sbValue.append('\n');
+                        break;
+                    case 'r':
+                        sbValue.append('\r');
+                        break;
+                    default:
+                        sbValue.append(escaped);
+                }
+            } else {
+                sbValue.append(ch);
+            }
+        }
+        return sbValue.toString();
+    }
+}
@@ -0,0 +1,245 @@
+package de.saring.sportstracker.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+import javax.inject.Singleton;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.core.STExceptionID;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.Note;
+import de.saring.sportstracker.data.NoteList;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.Weight;
+import de.saring.sportstracker.data.WeightList;
+import de.saring.sportstracker.storage.EntryFields.FieldWriter;
+import de.saring.util.data.IdObject;
+import de.saring.util.data.IdObjectList;
+
+/**
+ * This class is for reading / storing of the application data by using an append-only
+ * change journal for each list (see EntryJournal). On storing, only the added, modified
+ * and removed entries are appended to the journal. When the caller passes the IDs of the
+ * modified entries, only their records are created, so the costs of storing depend mainly
+ * on the number of changes. Otherwise the records of all entries are compared with the
+ * persistent records. The journals are compacted into snapshot files in background.<br/>
+ * The snapshot and journal files are named by the list data source with an additional
+ * suffix (e.g. "exercises.xml.snapshot" and "exercises.xml.journal"). When there are no
+ * journal files yet, the lists are imported from the XML files of the XMLStorage. These
+ * XML files are not updated anymore.
+ *
+ * @author Stefan Saring
+ */
+@Singleton
+public class JournalStorage implements IStorage {
+
+    private final XMLStorage xmlStorage = new XMLStorage();
+
+    /** The journals of all list data sources, mapped by the source name. */
+    private final Map<String, EntryJournal> journals = new ConcurrentHashMap<>();
+
+    private final ExecutorService compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "JournalStorage-Compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public SportTypeList readSportTypeList(String source) throws STException {
+        try {
+            List<String> records = getJournal(source).read();
+            if (records == null) {
+                SportTypeList sportTypeList = xmlStorage.readSportTypeList(source);
+                getJournal(source).initialize(createRecords(sportTypeList, EntryFields::writeSportType));
+                return sportTypeList;
+            }
+
+            List<SportType> sportTypes = new ArrayList<>(records.size());
+            for (String record : records) {
+                sportTypes.add(EntryFields.readSportType(JournalRecord.parse(record)));
+            }
+            SportTypeList sportTypeList = new SportTypeList();
+            sportTypeList.clearAndAddAll(sportTypes);
+            return sportTypeList;
+        } catch (IOException | RuntimeException e) {
+            throw new STException(STExceptionID.JOURNALSTORAGE_READ_LIST,
+                    "Failed to read sport type list from journal '" + source + "' ...", e);
+        }
+    }
+
+    @Override
+    public void storeSportTypeList(SportTypeList sportTypeList, String destination) throws STException {
+        store(destination, sportTypeList, null, EntryFields::writeSportType, "sport type list");
+    }
+
+    @Override
+    public ExerciseList readExerciseList(String source, SportTypeList sportTypeList) throws STException {
+        try {
+            List<String> records = getJournal(source).read();
+            if (records == null) {
+                ExerciseList exerciseList = xmlStorage.readExerciseList(source, sportTypeList);
+                getJournal(source).initialize(createRecords(exerciseList, EntryFields::writeExercise));
+                return exerciseList;
+            }
+
+            List<Exercise> exercises = new ArrayList<>(records.size());
+            for (String record : records) {
+                exercises.add(EntryFields.readExercise(JournalRecord.parse(record), sportTypeList));
+            }
+            ExerciseList exerciseList = new ExerciseList();
+            exerciseList.clearAndAddAll(exercises);
+            return exerciseList;
+        } catch (IOException | RuntimeException e) {
+            throw new STException(STExceptionID.JOURNALSTORAGE_READ_LIST,
+                    "Failed to read exercise list from journal '" + source + "' ...", e);
+        }
+    }
+
+    @Override
+    public void storeExerciseList(ExerciseList exerciseList, String destination) throws STException {
+        storeExerciseList(exerciseList, destination, null);
+    }
+
+    @Override
+    public void storeExerciseList(ExerciseList exerciseList, String destination, Set<Integer> modifiedIds)
+            throws STException {
+        store(destination, exerciseList, modifiedIds, EntryFields::writeExercise, "exercise list");
+    }
+
+    @Override
+    public NoteList readNoteList(String source) throws STException {
+        try {
+            List<String> records = getJournal(source).read();
+            if (records == null) {
+                NoteList noteList = xmlStorage.readNoteList(source);
+                getJournal(source).initialize(createRecords(noteList, EntryFields::writeNote));
+                return noteList;
+            }
+
+            List<Note> notes = new ArrayList<>(records.size());
+            for (String record : records) {
+                notes.add(EntryFields.readNote(JournalRecord.parse(record)));
+            }
+            NoteList noteList = new NoteList();
+            noteList.clearAndAddAll(notes);
+            return noteList;
+        } catch (IOException | RuntimeException e) {
+            throw new STException(STExceptionID.JOURNALSTORAGE_READ_LIST,
+                    "Failed to read note list from journal '" + source + "' ...", e);
+        }
+    }
+
+    @Override
+    public void storeNoteList(NoteList noteList, String destination) throws STException {
+        storeNoteList(noteList, destination, null);
+    }
+
+    @Override
+    public void storeNoteList(NoteList noteList, String destination, Set<Integer> modifiedIds)
+            throws STException {
+        store(destination, noteList, modifiedIds, EntryFields::writeNote, "note list");
+    }
+
+    @Override
+    public WeightList readWeightList(String source) throws STException {
+        try {
+            List<String> records = getJournal(source).read();
+            if (records == null) {
+                WeightList weightList = xmlStorage.readWeightList(source);
+                getJournal(source).initialize(createRecords(weightList, EntryFields::writeWeight));
+                return weightList;
+            }
+
+            List<Weight> weights = new ArrayList<>(records.size());
+            for (String record : records) {
+                weights.add(EntryFields.readWeight(JournalRecord.parse(record)));
+            }
+            WeightList weightList = new WeightList();
+            weightList.clearAndAddAll(weights);
+            return weightList;
+        } catch (IOException | RuntimeException e) {
+            throw new STException(STExceptionID.JOURNALSTORAGE_READ_LIST,
+                    "Failed to read weight list from journal '" + source + "' ...", e);
+        }
+    }
+
+    @Override
+    public void storeWeightList(WeightList weightList, String destination) throws STException {
+        storeWeightList(weightList, destination, null);
+    }
+
+    @Override
+    public void storeWeightList(WeightList weightList, String destination, Set<Integer> modifiedIds)
+            throws STException {
+        store(destination, weightList, modifiedIds, EntryFields::writeWeight, "weight list");
+    }
+
+    /**
+     * Returns the journal for the specified list data source, it will be created on first access.
+     *
+     * @param source name of the list data source
+     * @return the journal
+     */
+    EntryJournal getJournal(String source) {
+        return journals.computeIfAbsent(source, s -> new EntryJournal(s, compactionExecutor));
+    }
+
+    /**
+     * Stores the specified list in the journal. When the modified entries are known, only their
+     * records will be created, otherwise the records of all entries are compared with the
+     * persistent records.
+     */
+    private <T extends IdObject> void store(String destination, IdObjectList<T> entries, Set<Integer> modifiedIds,
+            BiConsumer<T, FieldWriter> entryWriter, String listName) throws STException {
+        try {
+            EntryJournal journal = getJournal(destination);
+            if (modifiedIds == null || !journal.storeChanges(
+                    createRecords(modifiedIds, entries, entryWriter), id -> entries.getByID(id) != null)) {
+                journal.store(createRecords(entries, entryWriter));
+            }
+        } catch (IOException e) {
+            throw new STException(STExceptionID.JOURNALSTORAGE_STORE_LIST,
+                    "Failed to write " + listName + " to journal '" + destination + "' ...", e);
+        }
+    }
+
+    private static <T extends IdObject> Map<Integer, String> createRecords(
+            Iterable<T> entries, BiConsumer<T, FieldWriter> entryWriter) {
+
+        Map<Integer, String> records = new LinkedHashMap<>();
+        entries.forEach(entry -> records.put(entry.getId(), toRecord(entry, entryWriter)));
+        return records;
+    }
+
+    private static <T extends IdObject> Map<Integer, String> createRecords(Set<Integer> ids,
+            IdObjectList<T> entries, BiConsumer<T, FieldWriter> entryWriter) {
+
+        // keep the list order, new entries are appended at the end of the journal records
+        Map<Integer, String> records = new LinkedHashMap<>();
+        ids.stream()
+                .map(entries::getByID)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingInt(entries::indexOf))
+                .forEach(entry -> records.put(entry.getId(), toRecord(entry, entryWriter)));
+        return records;
+    }
+
+    private static <T extends IdObject> String toRecord(T entry, BiConsumer<T, FieldWriter> entryWriter) {
+        JournalRecord record = JournalRecord.create();
+        entryWriter.accept(entry, record);
+        return record.toString();
+    }
+}
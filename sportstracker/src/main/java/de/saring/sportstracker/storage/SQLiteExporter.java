@@ -1,44 +1,46 @@
 package de.saring.sportstracker.storage;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.inject.Singleton;
 
 import de.saring.sportstracker.core.STException;
 import de.saring.sportstracker.core.STExceptionID;
-import de.saring.sportstracker.data.Equipment;
-import de.saring.sportstracker.data.Exercise;
-import de.saring.sportstracker.data.Note;
-import de.saring.sportstracker.data.SportSubType;
-import de.saring.sportstracker.data.SportType;
-import de.saring.sportstracker.data.Weight;
 import de.saring.sportstracker.gui.STDocument;
-import de.saring.util.Date310Utils;
-import de.saring.util.StringUtils;
-import de.saring.util.gui.javafx.ColorUtils;
 
 /**
  * Exporter for the SportsTracker application data to a SQLite database. The exporter uses the plain
- * JDBC API (no ORM) and the xerial/sqlite-jdbc library (contains the native SQLite libraries).
+ * JDBC API (no ORM) and the xerial/sqlite-jdbc library (contains the native SQLite libraries).<br/>
+ * All rows are written in one transaction by using JDBC batches. The exporter stores a content hash
+ * for each exported row in the table EXPORT_ROW_HASH, so an incremental export only needs to write the
+ * rows of the entries which have been added, modified or removed since the last export.
  *
  * @author Stefan Saring
  */
 @Singleton
 public class SQLiteExporter {
 
-    private static final String SCHEMA_FILE = "/sql/st-export.sql";
     private static final String DATABASE_FILE = System.getProperty("user.home") + "/st-export.sqlite";
 
+    private static final String TABLE_ROW_HASH = "EXPORT_ROW_HASH";
+
     private STDocument document;
 
     /**
@@ -65,28 +67,94 @@ public class SQLiteExporter {
      * @throws STException on export errors
      */
     public void exportToSqlite() throws STException {
+        exportToSqlite(false);
+    }
+
+    /**
+     * Exports the application data to the SQLite database. On an incremental export only the rows of the
+     * entries added, modified or removed since the last export are written to the existing database. A new
+     * database will be created for a full export or when there is no database of a previous export.
+     *
+     * @param incremental flag for an incremental export
+     * @throws STException on export errors
+     */
+    public void exportToSqlite(final boolean incremental) throws STException {
 
-        deleteExistingDatabase();
+        final boolean fullExport = !incremental || !isIncrementalExportPossible();
+        if (fullExport) {
+            deleteExistingDatabase();
+        }
 
         // create database connection
         try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + DATABASE_FILE)) {
 
-            // create database schema
-            final String dbSchema = readDatabaseSchema();
-            final Statement statement = connection.createStatement();
-            statement.setQueryTimeout(10);
-            statement.executeUpdate(dbSchema);
-
-            // export data
-            exportSportTypes(connection);
-            exportExercises(connection);
-            exportNotes(connection);
-            exportWeights(connection);
-        } catch (SQLException e) {
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(10);
+
+                // create database schema
+                if (fullExport) {
+                    statement.executeUpdate(readDatabaseSchema());
+                }
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + TABLE_ROW_HASH + " (" +
+                        "TABLE_NAME TEXT NOT NULL, ID INTEGER NOT NULL, HASH TEXT NOT NULL, " +
+                        "PRIMARY KEY (TABLE_NAME, ID))");
+            }
+
+            // export data, the sport types first because of the foreign keys
+            connection.setAutoCommit(false);
+            try {
+                exportRows(connection, SQLiteStorage.TABLE_SPORT_TYPE,
+                        SQLiteStorage.createSportTypeRows(document.getSportTypeList()),
+                        (conn, ids) -> SQLiteStorage.writeSportTypeRows(conn, document.getSportTypeList(), ids));
+                exportRows(connection, SQLiteStorage.TABLE_EXERCISE,
+                        SQLiteStorage.createRows(document.getExerciseList(), SQLiteStorage::toExerciseRow),
+                        (conn, ids) -> SQLiteStorage.writeExerciseRows(conn, document.getExerciseList(), ids));
+                exportRows(connection, SQLiteStorage.TABLE_NOTE,
+                        SQLiteStorage.createRows(document.getNoteList(), SQLiteStorage::toNoteRow),
+                        (conn, ids) -> SQLiteStorage.writeNoteRows(conn, document.getNoteList(), ids));
+                exportRows(connection, SQLiteStorage.TABLE_WEIGHT,
+                        SQLiteStorage.createRows(document.getWeightList(), SQLiteStorage::toWeightRow),
+                        (conn, ids) -> SQLiteStorage.writeWeightRows(conn, document.getWeightList(), ids));
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
             throw new STException(STExceptionID.SQLITE_EXPORT, "Failed to export application data to SQLite!", e);
         }
     }
 
+    /**
+     * Checks whether the database of a previous export exists, has the current schema version and
+     * contains the row hashes (the databases of older exports need to be recreated).
+     */
+    private boolean isIncrementalExportPossible() throws STException {
+        if (!Files.exists(Paths.get(DATABASE_FILE))) {
+            return false;
+        }
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + DATABASE_FILE)) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("PRAGMA user_version")) {
+                if (!rs.next() || rs.getInt(1) != SQLiteStorage.SCHEMA_VERSION) {
+                    return false;
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+                statement.setString(1, TABLE_ROW_HASH);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return rs.next() && rs.getInt(1) > 0;
+                }
+            }
+        } catch (SQLException e) {
+            throw new STException(STExceptionID.SQLITE_EXPORT, //
+                    "Failed to read the already existing database '" + DATABASE_FILE + "'!", e);
+        }
+    }
+
     private void deleteExistingDatabase() throws STException {
         try {
             Files.deleteIfExists(Paths.get(DATABASE_FILE));
@@ -97,139 +165,94 @@ public class SQLiteExporter {
     }
 
     private String readDatabaseSchema() throws STException {
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                this.getClass().getResourceAsStream(SCHEMA_FILE)))) {
-
-            StringBuffer fileContent = new StringBuffer();
-            String line;
-            while((line = reader.readLine()) != null) {
-                fileContent.append(line).append('\n');
-            }
-
-            return fileContent.toString();
+        try {
+            return SQLiteStorage.readDatabaseSchema();
         } catch (IOException e) {
             throw new STException(STExceptionID.SQLITE_EXPORT, //
-                    "Failed to read the database schema file '" + SCHEMA_FILE + "'!", e);
-        }
-    }
-
-    private void exportSportTypes(final Connection connection) throws SQLException {
-
-        final PreparedStatement statement = connection.prepareStatement( //
-                "INSERT INTO SPORT_TYPE (ID, NAME, RECORD_DISTANCE, COLOR, ICON) VALUES (?, ?, ?, ?, ?)");
-
-        for (SportType sportType : document.getSportTypeList()) {
-            statement.clearParameters();
-
-            statement.setInt(1, sportType.getId());
-            statement.setString(2, sportType.getName());
-            statement.setInt(3, sportType.isRecordDistance() ? 1 : 0);
-            statement.setString(4, sportType.getColor() == null ? null : ColorUtils.toRGBCode(sportType.getColor()));
-            if (!StringUtils.isNullOrEmpty(sportType.getIcon())) {
-                statement.setString(5, sportType.getIcon());
-            }
-            statement.executeUpdate();
-
-            exportSportSubTypes(connection, sportType);
-            exportEquipments(connection, sportType);
-        }
-    }
-
-    private void exportSportSubTypes(final Connection connection, final SportType sportType) throws SQLException {
-
-        final PreparedStatement statement = connection.prepareStatement( //
-                "INSERT INTO SPORT_SUBTYPE (SPORT_SUBTYPE_ID, SPORT_TYPE_ID, NAME) VALUES (?, ?, ?)");
-
-        for (SportSubType sportSubType : sportType.getSportSubTypeList()) {
-            statement.clearParameters();
-
-            statement.setInt(1, sportSubType.getId());
-            statement.setInt(2, sportType.getId());
-            statement.setString(3, sportSubType.getName());
-            statement.executeUpdate();
-        }
-    }
-
-    private void exportEquipments(final Connection connection, final SportType sportType) throws SQLException {
-
-        final PreparedStatement statement = connection.prepareStatement( //
-                "INSERT INTO EQUIPMENT (EQUIPMENT_ID, SPORT_TYPE_ID, NAME) VALUES (?, ?, ?)");
-
-        for (Equipment equipment : sportType.getEquipmentList()) {
-            statement.clearParameters();
-
-            statement.setInt(1, equipment.getId());
-            statement.setInt(2, sportType.getId());
-            statement.setString(3, equipment.getName());
-            statement.executeUpdate();
+                    "Failed to read the database schema file '" + SQLiteStorage.SCHEMA_FILE + "'!", e);
         }
     }
 
-    private void exportExercises(final Connection connection) throws SQLException {
-
-        final PreparedStatement statement = connection.prepareStatement( //
-                "INSERT INTO EXERCISE (ID, DATE_TIME, SPORT_TYPE_ID, SPORT_SUBTYPE_ID, INTENSITY, DURATION, DISTANCE, " +
-                        "AVG_SPEED, AVG_HEARTRATE, ASCENT, CALORIES, HRM_FILE, EQUIPMENT_ID, COMMENT) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-
-        for (Exercise exercise : document.getExerciseList()) {
-            statement.clearParameters();
-
-            statement.setInt(1, exercise.getId());
-            statement.setLong(2, Date310Utils.localDateTimeToUnixTime(exercise.getDateTime()));
-            statement.setInt(3, exercise.getSportType().getId());
-            statement.setInt(4, exercise.getSportSubType().getId());
-            statement.setString(5, exercise.getIntensity().toStringEnum());
-            statement.setInt(6, exercise.getDuration());
-            statement.setFloat(7, exercise.getDistance());
-            statement.setFloat(8, exercise.getAvgSpeed());
-            statement.setInt(9, exercise.getAvgHeartRate());
-            statement.setInt(10, exercise.getAscent());
-            statement.setInt(11, exercise.getCalories());
-            if (!StringUtils.isNullOrEmpty(exercise.getHrmFile())) {
-                statement.setString(12, exercise.getHrmFile());
-            }
-            if (exercise.getEquipment() != null) {
-                statement.setInt(13, exercise.getEquipment().getId());
+    /**
+     * Exports the specified rows of a list table. The rows are compared with the row hashes of the
+     * previous export, only the rows of removed, added and modified entries are deleted or written.
+     */
+    private void exportRows(final Connection connection, final String table, final Map<Integer, List<Object>> rows,
+                            final SQLiteStorage.RowWriter rowWriter) throws SQLException {
+
+        final Map<Integer, String> previousHashes = readRowHashes(connection, table);
+        final Map<Integer, String> hashes = new HashMap<>();
+        rows.forEach((id, row) -> hashes.put(id, computeRowHash(row)));
+
+        final List<Integer> removedIds = new ArrayList<>();
+        previousHashes.keySet().stream()
+                .filter(id -> !hashes.containsKey(id))
+                .forEach(removedIds::add);
+
+        final List<Integer> changedIds = new ArrayList<>();
+        rows.keySet().stream()
+                .filter(id -> !hashes.get(id).equals(previousHashes.get(id)))
+                .forEach(changedIds::add);
+
+        SQLiteStorage.deleteEntryRows(connection, table, removedIds);
+        rowWriter.writeRows(connection, changedIds);
+
+        try (PreparedStatement stmtDelete = connection.prepareStatement(
+                "DELETE FROM " + TABLE_ROW_HASH + " WHERE TABLE_NAME = ? AND ID = ?");
+             PreparedStatement stmtInsert = connection.prepareStatement(
+                     "INSERT OR REPLACE INTO " + TABLE_ROW_HASH + " (TABLE_NAME, ID, HASH) VALUES (?, ?, ?)")) {
+
+            for (Integer id : removedIds) {
+                stmtDelete.setString(1, table);
+                stmtDelete.setInt(2, id);
+                stmtDelete.addBatch();
             }
-            if (!StringUtils.isNullOrEmpty(exercise.getComment())) {
-                statement.setString(14, exercise.getComment());
+            for (Integer id : changedIds) {
+                stmtInsert.setString(1, table);
+                stmtInsert.setInt(2, id);
+                stmtInsert.setString(3, hashes.get(id));
+                stmtInsert.addBatch();
             }
-            statement.executeUpdate();
+            stmtDelete.executeBatch();
+            stmtInsert.executeBatch();
         }
     }
 
-    private void exportNotes(final Connection connection) throws SQLException {
-
-        final PreparedStatement statement = connection.prepareStatement( //
-                "INSERT INTO NOTE (ID, DATE_TIME, COMMENT) VALUES (?, ?, ?)");
-
-        for (Note note : document.getNoteList()) {
-            statement.clearParameters();
-
-            statement.setInt(1, note.getId());
-            statement.setLong(2, Date310Utils.localDateTimeToUnixTime(note.getDateTime()));
-            statement.setString(3, note.getComment());
-            statement.executeUpdate();
+    private static Map<Integer, String> readRowHashes(final Connection connection, final String table)
+            throws SQLException {
+
+        final Map<Integer, String> hashes = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT ID, HASH FROM " + TABLE_ROW_HASH + " WHERE TABLE_NAME = ?")) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    hashes.put(rs.getInt(1), rs.getString(2));
+                }
+            }
         }
+        return hashes;
     }
 
-    private void exportWeights(final Connection connection) throws SQLException {
-
-        final PreparedStatement statement = connection.prepareStatement( //
-                "INSERT INTO WEIGHT (ID, DATE_TIME, VALUE, COMMENT) VALUES (?, ?, ?, ?)");
-
-        for (Weight weight : document.getWeightList()) {
-            statement.clearParameters();
-
-            statement.setInt(1, weight.getId());
-            statement.setLong(2, Date310Utils.localDateTimeToUnixTime(weight.getDateTime()));
-            statement.setFloat(3, weight.getValue());
-            if (!StringUtils.isNullOrEmpty(weight.getComment())) {
-                statement.setString(4, weight.getComment());
+    /**
+     * Computes the SHA-256 hash of the row values, which is used for the detection of modified rows.
+     */
+    private static String computeRowHash(final List<Object> row) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object value : row) {
+                // the value class is part of the hash, so e.g. null and "null" are different
+                final String strValue = value == null ? "" : value.getClass().getSimpleName() + ':' + value;
+                final byte[] bytes = strValue.getBytes(StandardCharsets.UTF_8);
+                digest.update((byte) (bytes.length >>> 24));
+                digest.update((byte) (bytes.length >>> 16));
+                digest.update((byte) (bytes.length >>> 8));
+                digest.update((byte) bytes.length);
+                digest.update(bytes);
             }
-            statement.executeUpdate();
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available!", e);
         }
     }
 }
@@ -0,0 +1,783 @@
+package de.saring.sportstracker.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javafx.scene.paint.Color;
+
+import javax.inject.Singleton;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.core.STExceptionID;
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.Equipment;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.Note;
+import de.saring.sportstracker.data.NoteList;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.Weight;
+import de.saring.sportstracker.data.WeightList;
+import de.saring.sportstracker.storage.EntryFields.FieldReader;
+import de.saring.sportstracker.storage.EntryFields.FieldWriter;
+import de.saring.util.Date310Utils;
+import de.saring.util.data.IdObject;
+import de.saring.util.gui.javafx.ColorUtils;
+
+/**
+ * This class is for reading / storing of the application data from / to a SQLite database. It uses the
+ * same schema as the SQLiteExporter (the plain JDBC API and the xerial/sqlite-jdbc library).<br/>
+ * All lists are stored in the database file "sportstracker.sqlite" in the directory of the specified
+ * list data sources. Each list is imported from the XML file of the XMLStorage until it has been stored
+ * in the database, the database will be created on the first storage. The stored lists are registered
+ * in the table STORED_LIST (it's not part of the export schema), the XML files of these lists are not
+ * updated anymore.<br/>
+ * The storage remembers the rows of all lists at the last reading or storing, so only the added,
+ * modified and removed rows are written to the database (each list in one transaction). The foreign
+ * keys of the schema are not enforced, the lists are stored independently of each other. The row
+ * values of the entries are created and read by EntryFields, like the records of the JournalStorage.
+ *
+ * @author Stefan Saring
+ */
+@Singleton
+public class SQLiteStorage implements IStorage {
+
+    static final String DATABASE_FILENAME = "sportstracker.sqlite";
+    static final String SCHEMA_FILE = "/sql/st-export.sql";
+    /** The version of the schema, it's stored as user version in the database. */
+    static final int SCHEMA_VERSION = 1;
+
+    static final String TABLE_SPORT_TYPE = "SPORT_TYPE";
+    static final String TABLE_EXERCISE = "EXERCISE";
+    static final String TABLE_NOTE = "NOTE";
+    static final String TABLE_WEIGHT = "WEIGHT";
+    /** Contains the names of all list tables, which have been stored in the database. */
+    static final String TABLE_STORED_LIST = "STORED_LIST";
+
+    /** The columns of the entry tables are listed in the field order of EntryFields. */
+    private static final String EXERCISE_COLUMNS = "ID, SPORT_TYPE_ID, SPORT_SUBTYPE_ID, DATE_TIME, DURATION, " +
+            "INTENSITY, DISTANCE, AVG_SPEED, AVG_HEARTRATE, ASCENT, CALORIES, HRM_FILE, EQUIPMENT_ID, COMMENT";
+    private static final String NOTE_COLUMNS = "ID, DATE_TIME, COMMENT";
+    private static final String WEIGHT_COLUMNS = "ID, DATE_TIME, VALUE, COMMENT";
+
+    private final XMLStorage xmlStorage = new XMLStorage();
+
+    /**
+     * The row values of all lists at the last reading or storing. The key is the database path
+     * and the table name, the rows are mapped by the entry ID.
+     */
+    private final Map<String, Map<Integer, List<Object>>> persistedRows = new ConcurrentHashMap<>();
+
+    @Override
+    public SportTypeList readSportTypeList(String source) throws STException {
+        Path databasePath = getDatabasePath(source);
+        if (!isListStored(databasePath, TABLE_SPORT_TYPE)) {
+            return xmlStorage.readSportTypeList(source);
+        }
+
+        try (Connection connection = openConnection(databasePath)) {
+            Map<Integer, SportType> mSportTypes = new LinkedHashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                         "SELECT ID, NAME, RECORD_DISTANCE, COLOR, ICON FROM SPORT_TYPE ORDER BY POSITION, ID")) {
+                while (rs.next()) {
+                    SportType sportType = new SportType(rs.getInt(1));
+                    sportType.setName(rs.getString(2));
+                    sportType.setRecordDistance(rs.getInt(3) != 0);
+                    sportType.setColor(Color.web(rs.getString(4)));
+                    sportType.setIcon(rs.getString(5));
+                    mSportTypes.put(sportType.getId(), sportType);
+                }
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT SPORT_SUBTYPE_ID, SPORT_TYPE_ID, NAME " +
+                         "FROM SPORT_SUBTYPE ORDER BY SPORT_TYPE_ID, SPORT_SUBTYPE_ID")) {
+                while (rs.next()) {
+                    SportSubType sportSubType = new SportSubType(rs.getInt(1));
+                    sportSubType.setName(rs.getString(3));
+                    getSportType(mSportTypes, rs.getInt(2)).getSportSubTypeList().set(sportSubType);
+                }
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT EQUIPMENT_ID, SPORT_TYPE_ID, NAME " +
+                         "FROM EQUIPMENT ORDER BY SPORT_TYPE_ID, EQUIPMENT_ID")) {
+                while (rs.next()) {
+                    Equipment equipment = new Equipment(rs.getInt(1));
+                    equipment.setName(rs.getString(3));
+                    getSportType(mSportTypes, rs.getInt(2)).getEquipmentList().set(equipment);
+                }
+            }
+
+            SportTypeList sportTypeList = new SportTypeList();
+            sportTypeList.clearAndAddAll(new ArrayList<>(mSportTypes.values()));
+            persistedRows.put(getRowsKey(databasePath, TABLE_SPORT_TYPE), createSportTypeRows(sportTypeList));
+            return sportTypeList;
+        } catch (SQLException | IOException | RuntimeException e) {
+            throw new STException(STExceptionID.SQLITESTORAGE_READ_LIST,
+                    "Failed to read sport type list from database '" + databasePath + "' ...", e);
+        }
+    }
+
+    @Override
+    public void storeSportTypeList(SportTypeList sportTypeList, String destination) throws STException {
+        storeRows(destination, TABLE_SPORT_TYPE, createSportTypeRows(sportTypeList),
+                (connection, changedIds) -> writeSportTypeRows(connection, sportTypeList, changedIds));
+    }
+
+    @Override
+    public ExerciseList readExerciseList(String source, SportTypeList sportTypeList) throws STException {
+        Path databasePath = getDatabasePath(source);
+        if (!isListStored(databasePath, TABLE_EXERCISE)) {
+            return xmlStorage.readExerciseList(source, sportTypeList);
+        }
+
+        ExerciseList exerciseList = queryExercises(databasePath, sportTypeList, "", Collections.emptyList());
+        persistedRows.put(getRowsKey(databasePath, TABLE_EXERCISE),
+                createRows(exerciseList, SQLiteStorage::toExerciseRow));
+        return exerciseList;
+    }
+
+    @Override
+    public boolean isExerciseFilterSupported() {
+        return true;
+    }
+
+    /**
+     * Reads all exercises matching the specified filter from the database. The date range, sport
+     * type, sport subtype, intensity and equipment criteria are evaluated by the database by using
+     * the appropriate indexes, the other criteria will be checked for the query result.<br/>
+     * The result contains the exercises of the last storage, the unsaved changes of the application
+     * data are not included. When the exercise list has not been stored in the database yet, the
+     * exercises are read from the XML file.
+     *
+     * @param source name of data source
+     * @param sportTypeList the sport type list for assigning sport types to exercises.
+     * @param filter the exercise filter criteria
+     * @return list of the found exercises
+     * @throws STException thrown on read problems
+     */
+    @Override
+    public ExerciseList readExerciseList(String source, SportTypeList sportTypeList, EntryFilter filter)
+            throws STException {
+
+        Path databasePath = getDatabasePath(source);
+        if (!isListStored(databasePath, TABLE_EXERCISE)) {
+            return IStorage.super.readExerciseList(source, sportTypeList, filter);
+        }
+
+        StringBuilder sbWhere = new StringBuilder(" WHERE DATE_TIME >= ? AND DATE_TIME < ?");
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(Date310Utils.localDateTimeToUnixTime(filter.getDateStart().atStartOfDay()));
+        parameters.add(Date310Utils.localDateTimeToUnixTime(filter.getDateEnd().plusDays(1).atStartOfDay()));
+
+        if (filter.getSportType() != null) {
+            sbWhere.append(" AND SPORT_TYPE_ID = ?");
+            parameters.add(filter.getSportType().getId());
+
+            // the IDs of sport subtypes and equipment are unique per sport type only
+            if (filter.getSportSubType() != null) {
+                sbWhere.append(" AND SPORT_SUBTYPE_ID = ?");
+                parameters.add(filter.getSportSubType().getId());
+            }
+            if (filter.getEquipment() != null) {
+                sbWhere.append(" AND EQUIPMENT_ID = ?");
+                parameters.add(filter.getEquipment().getId());
+            }
+        }
+        if (filter.getIntensity() != null) {
+            sbWhere.append(" AND INTENSITY = ?");
+            parameters.add(filter.getIntensity().toStringEnum());
+        }
+
+        ExerciseList exerciseList = queryExercises(databasePath, sportTypeList, sbWhere.toString(), parameters);
+
+        // the remaining criteria (e.g. the comment, SQLite can't compare case insensitive for all
+        // characters) are checked by the filter of the much smaller query result
+        ExerciseList filteredExerciseList = new ExerciseList();
+        filteredExerciseList.clearAndAddAll(exerciseList.getEntriesForFilter(filter).stream()
+                .collect(Collectors.toList()));
+        return filteredExerciseList;
+    }
+
+    @Override
+    public void storeExerciseList(ExerciseList exerciseList, String destination) throws STException {
+        storeRows(destination, TABLE_EXERCISE, createRows(exerciseList, SQLiteStorage::toExerciseRow),
+                (connection, changedIds) -> writeExerciseRows(connection, exerciseList, changedIds));
+    }
+
+    @Override
+    public NoteList readNoteList(String source) throws STException {
+        Path databasePath = getDatabasePath(source);
+        if (!isListStored(databasePath, TABLE_NOTE)) {
+            return xmlStorage.readNoteList(source);
+        }
+
+        try (Connection connection = openConnection(databasePath);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT " + NOTE_COLUMNS + " FROM NOTE ORDER BY DATE_TIME, ID")) {
+
+            List<Note> notes = new ArrayList<>();
+            while (rs.next()) {
+                notes.add(EntryFields.readNote(new ResultSetFieldReader(rs)));
+            }
+
+            NoteList noteList = new NoteList();
+            noteList.clearAndAddAll(notes);
+            persistedRows.put(getRowsKey(databasePath, TABLE_NOTE), createRows(noteList, SQLiteStorage::toNoteRow));
+            return noteList;
+        } catch (SQLException | IOException | RuntimeException e) {
+            throw new STException(STExceptionID.SQLITESTORAGE_READ_LIST,
+                    "Failed to read note list from database '" + databasePath + "' ...", e);
+        }
+    }
+
+    @Override
+    public void storeNoteList(NoteList noteList, String destination) throws STException {
+        storeRows(destination, TABLE_NOTE, createRows(noteList, SQLiteStorage::toNoteRow),
+                (connection, changedIds) -> writeNoteRows(connection, noteList, changedIds));
+    }
+
+    @Override
+    public WeightList readWeightList(String source) throws STException {
+        Path databasePath = getDatabasePath(source);
+        if (!isListStored(databasePath, TABLE_WEIGHT)) {
+            return xmlStorage.readWeightList(source);
+        }
+
+        try (Connection connection = openConnection(databasePath);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT " + WEIGHT_COLUMNS + " FROM WEIGHT ORDER BY DATE_TIME, ID")) {
+
+            List<Weight> weights = new ArrayList<>();
+            while (rs.next()) {
+                weights.add(EntryFields.readWeight(new ResultSetFieldReader(rs)));
+            }
+
+            WeightList weightList = new WeightList();
+            weightList.clearAndAddAll(weights);
+            persistedRows.put(getRowsKey(databasePath, TABLE_WEIGHT),
+                    createRows(weightList, SQLiteStorage::toWeightRow));
+            return weightList;
+        } catch (SQLException | IOException | RuntimeException e) {
+            throw new STException(STExceptionID.SQLITESTORAGE_READ_LIST,
+                    "Failed to read weight list from database '" + databasePath + "' ...", e);
+        }
+    }
+
+    @Override
+    public void storeWeightList(WeightList weightList, String destination) throws STException {
+        storeRows(destination, TABLE_WEIGHT, createRows(weightList, SQLiteStorage::toWeightRow),
+                (connection, changedIds) -> writeWeightRows(connection, weightList, changedIds));
+    }
+
+    /**
+     * Returns the path of the database file for the specified list data source.
+     *
+     * @param source name of the list data source
+     * @return the database path
+     */
+    static Path getDatabasePath(String source) {
+        return Paths.get(source).toAbsolutePath().resolveSibling(DATABASE_FILENAME);
+    }
+
+    /**
+     * Reads the SQL schema definition, which is used for the SQLiteStorage and the SQLiteExporter.
+     *
+     * @return the schema definition statements
+     * @throws IOException on read problems
+     */
+    static String readDatabaseSchema() throws IOException {
+        InputStream isSchema = SQLiteStorage.class.getResourceAsStream(SCHEMA_FILE);
+        if (isSchema == null) {
+            throw new IOException("The database schema file '" + SCHEMA_FILE + "' does not exist!");
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(isSchema, StandardCharsets.UTF_8))) {
+            StringBuilder sbContent = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sbContent.append(line).append('\n');
+            }
+            return sbContent.toString();
+        }
+    }
+
+    /**
+     * Opens the connection to the specified database, the database will be created with the
+     * schema when it does not exist yet.
+     */
+    private static Connection openConnection(Path databasePath) throws SQLException, IOException {
+        createDatabaseIfMissing(databasePath);
+        return DriverManager.getConnection("jdbc:sqlite:" + databasePath);
+    }
+
+    private static synchronized void createDatabaseIfMissing(Path databasePath) throws SQLException, IOException {
+        if (Files.exists(databasePath)) {
+            return;
+        }
+
+        // the schema is created in a separate connection, it enables the foreign key support
+        Path tempDatabasePath = databasePath.resolveSibling(DATABASE_FILENAME + ".tmp");
+        Files.deleteIfExists(tempDatabasePath);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + tempDatabasePath);
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(readDatabaseSchema());
+            statement.executeUpdate("CREATE TABLE " + TABLE_STORED_LIST + " (TABLE_NAME TEXT PRIMARY KEY)");
+        }
+        Files.move(tempDatabasePath, databasePath);
+    }
+
+    /**
+     * Returns true when the specified list table has been stored in the database. Otherwise the list
+     * needs to be read from the XML file, the database contains only the lists stored so far.
+     */
+    private static boolean isListStored(Path databasePath, String table) throws STException {
+        if (!Files.exists(databasePath)) {
+            return false;
+        }
+
+        try (Connection connection = openConnection(databasePath);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM " + TABLE_STORED_LIST + " WHERE TABLE_NAME = ?")) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        } catch (SQLException | IOException e) {
+            throw new STException(STExceptionID.SQLITESTORAGE_READ_LIST,
+                    "Failed to read the stored lists from database '" + databasePath + "' ...", e);
+        }
+    }
+
+    private ExerciseList queryExercises(Path databasePath, SportTypeList sportTypeList, String where,
+                                        List<Object> parameters) throws STException {
+
+        try (Connection connection = openConnection(databasePath);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT " + EXERCISE_COLUMNS + " FROM EXERCISE" + where + " ORDER BY DATE_TIME, ID")) {
+
+            bindValues(statement, parameters);
+            List<Exercise> exercises = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    exercises.add(EntryFields.readExercise(new ResultSetFieldReader(rs), sportTypeList));
+                }
+            }
+
+            ExerciseList exerciseList = new ExerciseList();
+            exerciseList.clearAndAddAll(exercises);
+            return exerciseList;
+        } catch (SQLException | IOException | RuntimeException e) {
+            throw new STException(STExceptionID.SQLITESTORAGE_READ_LIST,
+                    "Failed to read exercise list from database '" + databasePath + "' ...", e);
+        }
+    }
+
+    /**
+     * Stores the changes of the specified rows compared to the rows of the last reading or storing. The
+     * rows of removed entries are deleted, the rows of added and modified entries are written by the
+     * RowWriter. All changes are stored in one transaction. When the previous rows are unknown, all rows
+     * of the table will be replaced. The table is registered as stored list in the same transaction.
+     */
+    private void storeRows(String destination, String table, Map<Integer, List<Object>> rows,
+                           RowWriter rowWriter) throws STException {
+
+        Path databasePath = getDatabasePath(destination);
+        String rowsKey = getRowsKey(databasePath, table);
+        Map<Integer, List<Object>> previousRows = Files.exists(databasePath) ? persistedRows.get(rowsKey) : null;
+
+        List<Integer> removedIds = new ArrayList<>();
+        List<Integer> changedIds = new ArrayList<>();
+        if (previousRows == null) {
+            changedIds.addAll(rows.keySet());
+        } else {
+            previousRows.keySet().stream()
+                    .filter(id -> !rows.containsKey(id))
+                    .forEach(removedIds::add);
+            rows.entrySet().stream()
+                    .filter(row -> !row.getValue().equals(previousRows.get(row.getKey())))
+                    .forEach(row -> changedIds.add(row.getKey()));
+        }
+
+        if (previousRows != null && removedIds.isEmpty() && changedIds.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = openConnection(databasePath)) {
+            connection.setAutoCommit(false);
+            try {
+                if (previousRows == null) {
+                    deleteAllRows(connection, table);
+                } else {
+                    deleteEntryRows(connection, table, removedIds);
+                }
+
+                rowWriter.writeRows(connection, changedIds);
+                if (previousRows == null) {
+                    markListStored(connection, table);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            persistedRows.put(rowsKey, rows);
+        } catch (SQLException | IOException | RuntimeException e) {
+            persistedRows.remove(rowsKey);
+            throw new STException(STExceptionID.SQLITESTORAGE_STORE_LIST,
+                    "Failed to write the " + table + " rows to database '" + databasePath + "' ...", e);
+        }
+    }
+
+    private static void markListStored(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR IGNORE INTO " + TABLE_STORED_LIST + " (TABLE_NAME) VALUES (?)")) {
+            statement.setString(1, table);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes the rows of all entries of the specified list table (for sport types including all
+     * subtypes and equipment).
+     */
+    static void deleteAllRows(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (TABLE_SPORT_TYPE.equals(table)) {
+                statement.executeUpdate("DELETE FROM SPORT_SUBTYPE");
+                statement.executeUpdate("DELETE FROM EQUIPMENT");
+            }
+            statement.executeUpdate("DELETE FROM " + table);
+        }
+    }
+
+    /**
+     * Deletes the rows of the specified entries of a list table (for sport types including their
+     * subtypes and equipment), all statements are executed in one batch.
+     */
+    static void deleteEntryRows(Connection connection, String table, List<Integer> ids) throws SQLException {
+        if (TABLE_SPORT_TYPE.equals(table)) {
+            deleteRows(connection, "SPORT_SUBTYPE", "SPORT_TYPE_ID", ids);
+            deleteRows(connection, "EQUIPMENT", "SPORT_TYPE_ID", ids);
+        }
+        deleteRows(connection, table, "ID", ids);
+    }
+
+    /**
+     * Inserts or replaces the rows of the specified sport types. The subtypes and equipment of these
+     * sport types are deleted before and inserted again. The position column contains the index in
+     * the sport type list.
+     */
+    static void writeSportTypeRows(Connection connection, SportTypeList sportTypeList, List<Integer> ids)
+            throws SQLException {
+
+        try (PreparedStatement stmtSportType = connection.prepareStatement(
+                "INSERT OR REPLACE INTO SPORT_TYPE (ID, NAME, RECORD_DISTANCE, COLOR, ICON, POSITION) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement stmtSportSubType = connection.prepareStatement(
+                     "INSERT INTO SPORT_SUBTYPE (SPORT_SUBTYPE_ID, SPORT_TYPE_ID, NAME) VALUES (?, ?, ?)");
+             PreparedStatement stmtEquipment = connection.prepareStatement(
+                     "INSERT INTO EQUIPMENT (EQUIPMENT_ID, SPORT_TYPE_ID, NAME) VALUES (?, ?, ?)")) {
+
+            deleteRows(connection, "SPORT_SUBTYPE", "SPORT_TYPE_ID", ids);
+            deleteRows(connection, "EQUIPMENT", "SPORT_TYPE_ID", ids);
+
+            for (Integer sportTypeId : ids) {
+                SportType sportType = sportTypeList.getByID(sportTypeId);
+                bindValues(stmtSportType, Arrays.asList(sportTypeId, EntryFields.normalizeText(sportType.getName()),
+                        sportType.isRecordDistance() ? 1 : 0, ColorUtils.toRGBCode(sportType.getColor()),
+                        EntryFields.normalizeText(sportType.getIcon()), sportTypeList.indexOf(sportType)));
+                stmtSportType.addBatch();
+
+                for (SportSubType sportSubType : sportType.getSportSubTypeList()) {
+                    bindValues(stmtSportSubType, Arrays.asList(
+                            sportSubType.getId(), sportTypeId, EntryFields.normalizeText(sportSubType.getName())));
+                    stmtSportSubType.addBatch();
+                }
+                for (Equipment equipment : sportType.getEquipmentList()) {
+                    bindValues(stmtEquipment, Arrays.asList(
+                            equipment.getId(), sportTypeId, EntryFields.normalizeText(equipment.getName())));
+                    stmtEquipment.addBatch();
+                }
+            }
+            stmtSportType.executeBatch();
+            stmtSportSubType.executeBatch();
+            stmtEquipment.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts or replaces the rows of the specified exercises.
+     */
+    static void writeExerciseRows(Connection connection, ExerciseList exerciseList, List<Integer> ids)
+            throws SQLException {
+        upsertRows(connection, "INSERT OR REPLACE INTO EXERCISE (" + EXERCISE_COLUMNS + ") " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                ids, id -> toExerciseRow(exerciseList.getByID(id)));
+    }
+
+    /**
+     * Inserts or replaces the rows of the specified notes.
+     */
+    static void writeNoteRows(Connection connection, NoteList noteList, List<Integer> ids) throws SQLException {
+        upsertRows(connection, "INSERT OR REPLACE INTO NOTE (" + NOTE_COLUMNS + ") VALUES (?, ?, ?)",
+                ids, id -> toNoteRow(noteList.getByID(id)));
+    }
+
+    /**
+     * Inserts or replaces the rows of the specified weights.
+     */
+    static void writeWeightRows(Connection connection, WeightList weightList, List<Integer> ids)
+            throws SQLException {
+        upsertRows(connection, "INSERT OR REPLACE INTO WEIGHT (" + WEIGHT_COLUMNS + ") VALUES (?, ?, ?, ?)",
+                ids, id -> toWeightRow(weightList.getByID(id)));
+    }
+
+    private static void deleteRows(Connection connection, String table, String idColumn, List<Integer> ids)
+            throws SQLException {
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM " + table + " WHERE " + idColumn + " = ?")) {
+            for (Integer id : ids) {
+                statement.setInt(1, id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void upsertRows(Connection connection, String sql, List<Integer> ids,
+                                   Function<Integer, List<Object>> rowCreator) throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Integer id : ids) {
+                bindValues(statement, rowCreator.apply(id));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void bindValues(PreparedStatement statement, List<Object> values) throws SQLException {
+        statement.clearParameters();
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i));
+        }
+    }
+
+    private static String getRowsKey(Path databasePath, String table) {
+        return databasePath + ":" + table;
+    }
+
+    private static SportType getSportType(Map<Integer, SportType> mSportTypes, int sportTypeId) {
+        SportType sportType = mSportTypes.get(sportTypeId);
+        if (sportType == null) {
+            throw new IllegalArgumentException("The sport type ID '" + sportTypeId + "' is unknown!");
+        }
+        return sportType;
+    }
+
+    /**
+     * Creates the row values of all specified entries, mapped by the entry ID.
+     */
+    static <T extends IdObject> Map<Integer, List<Object>> createRows(
+            Iterable<T> entries, Function<T, List<Object>> rowCreator) {
+
+        Map<Integer, List<Object>> rows = new LinkedHashMap<>();
+        entries.forEach(entry -> rows.put(entry.getId(), rowCreator.apply(entry)));
+        return rows;
+    }
+
+    /**
+     * Creates the row values of all sport types, mapped by the ID. The rows contain the position
+     * in the list too, so the sport types are written again when their position has changed.
+     */
+    static Map<Integer, List<Object>> createSportTypeRows(SportTypeList sportTypeList) {
+        Map<Integer, List<Object>> rows = createRows(sportTypeList, SQLiteStorage::toSportTypeRow);
+        int position = 0;
+        for (List<Object> row : rows.values()) {
+            row.add(position++);
+        }
+        return rows;
+    }
+
+    /**
+     * Creates the row values of the sport type, these are the fields written by EntryFields
+     * including all subtypes and equipment (needed for the detection of changes).
+     */
+    static List<Object> toSportTypeRow(SportType sportType) {
+        return toRow(sportType, EntryFields::writeSportType);
+    }
+
+    /**
+     * Creates the EXERCISE row values of the exercise in the order of the EXERCISE_COLUMNS.
+     */
+    static List<Object> toExerciseRow(Exercise exercise) {
+        return toRow(exercise, EntryFields::writeExercise);
+    }
+
+    /**
+     * Creates the NOTE row values of the note in the order of the NOTE_COLUMNS.
+     */
+    static List<Object> toNoteRow(Note note) {
+        return toRow(note, EntryFields::writeNote);
+    }
+
+    /**
+     * Creates the WEIGHT row values of the weight in the order of the WEIGHT_COLUMNS.
+     */
+    static List<Object> toWeightRow(Weight weight) {
+        return toRow(weight, EntryFields::writeWeight);
+    }
+
+    private static <T> List<Object> toRow(T entry, BiConsumer<T, FieldWriter> entryWriter) {
+        RowFieldWriter rowWriter = new RowFieldWriter();
+        entryWriter.accept(entry, rowWriter);
+        return rowWriter.values;
+    }
+
+    /**
+     * Writer for the rows of the added and modified entries of a list.
+     */
+    @FunctionalInterface
+    interface RowWriter {
+        void writeRows(Connection connection, List<Integer> changedIds) throws SQLException;
+    }
+
+    /**
+     * Collects the entry fields as row values, the date and time is stored as Unix time and
+     * booleans as 0 or 1 (see the database schema).
+     */
+    private static final class RowFieldWriter implements FieldWriter {
+
+        private final List<Object> values = new ArrayList<>();
+
+        @Override
+        public void putInt(int value) {
+            values.add(value);
+        }
+
+        @Override
+        public void putOptionalInt(Integer value) {
+            values.add(value);
+        }
+
+        @Override
+        public void putFloat(float value) {
+            values.add(value);
+        }
+
+        @Override
+        public void putBoolean(boolean value) {
+            values.add(value ? 1 : 0);
+        }
+
+        @Override
+        public void putString(String value) {
+            values.add(value);
+        }
+
+        @Override
+        public void putDateTime(LocalDateTime value) {
+            values.add(Date310Utils.localDateTimeToUnixTime(value));
+        }
+    }
+
+    /**
+     * Reads the entry fields from the columns of the current result set row, in the format
+     * of the RowFieldWriter.
+     */
+    private static final class ResultSetFieldReader implements FieldReader {
+
+        private final ResultSet rs;
+        private int column = 0;
+
+        ResultSetFieldReader(ResultSet rs) {
+            this.rs = rs;
+        }
+
+        @Override
+        public int nextInt() {
+            try {
+                return rs.getInt(++column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read column " + column + "!", e);
+            }
+        }
+
+        @Override
+        public Integer nextOptionalInt() {
+            try {
+                int value = rs.getInt(++column);
+                return rs.wasNull() ? null : value;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read column " + column + "!", e);
+            }
+        }
+
+        @Override
+        public float nextFloat() {
+            try {
+                return rs.getFloat(++column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read column " + column + "!", e);
+            }
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return nextInt() != 0;
+        }
+
+        @Override
+        public String nextString() {
+            try {
+                return rs.getString(++column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read column " + column + "!", e);
+            }
+        }
+
+        @Override
+        public LocalDateTime nextDateTime() {
+            try {
+                return Date310Utils.unixTimeToLocalDateTime(rs.getLong(++column));
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read column " + column + "!", e);
+            }
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package de.saring.sportstracker.storage;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-
-import org.jdom2.Document;
-import org.jdom2.Element;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import de.saring.sportstracker.core.STException;
 import de.saring.sportstracker.core.STExceptionID;
@@ -26,14 +38,129 @@ import de.saring.sportstracker.data.SportTypeList;
  */
 public class XMLExerciseList {
 
+    private static final Logger LOGGER = Logger.getLogger(XMLExerciseList.class.getName());
+
+    /**
+     * The modes of the XSD validation of the read XML files.
+     */
+    public enum ValidationMode {
+        /** The XML files are not validated, only the parsing checks the exercise data. */
+        NONE,
+        /**
+         * The XML files are validated in a background thread, the read exercise list is
+         * returned without waiting for the result. Validation failures are reported afterwards.
+         */
+        BACKGROUND,
+        /** The reading waits for the validation and fails when the XML file is not valid. */
+        STRICT
+    }
+
     /**
      * The XSD filename with the structure of the exercise list.
      */
     private static final String XSD_EXERCISES = "exercises.xsd";
 
+    /**
+     * Estimated size of an exercise element in the XML file, used for pre-sizing the
+     * list of read exercises.
+     */
+    private static final int ESTIMATED_EXERCISE_XML_SIZE = 400;
+
+    /**
+     * Number of exercises which are created together in one background task.
+     */
+    static final int EXERCISE_CHUNK_SIZE = 1000;
+
+    /**
+     * The executor of the background tasks for creating exercises, it's the common ForkJoinPool.
+     * It must not be passed directly to CompletableFuture, this would start a new thread for each
+     * task when the parallelism of the common pool is 1 (on machines with 1 or 2 processors).
+     */
+    private static final Executor CHUNK_EXECUTOR = ForkJoinPool.commonPool()::execute;
+
+    /**
+     * The child elements of an exercise element in the order of the XSD sequence, the
+     * required elements first. The ordinal is the index of the element text in the
+     * exercise values read from the XML file.
+     */
+    private enum ExerciseElement {
+        ID("id"), SPORT_TYPE_ID("sport-type-id"), SPORT_SUBTYPE_ID("sport-subtype-id"), DATE("date"),
+        DURATION("duration"), INTENSITY("intensity"), DISTANCE("distance"), AVG_SPEED("avg-speed"),
+        AVG_HEARTRATE("avg-heartrate"), ASCENT("ascent"), CALORIES("calories"), HRM_FILE("hrm-file"),
+        EQUIPMENT_ID("equipment-id"), COMMENT("comment");
+
+        private static final ExerciseElement[] ELEMENTS = values();
+        private static final ExerciseElement LAST_REQUIRED = AVG_SPEED;
+
+        private final String elementName;
+
+        ExerciseElement(String elementName) {
+            this.elementName = elementName;
+        }
+
+        /**
+         * Returns the optional element with the specified name or null when it's unknown.
+         */
+        static ExerciseElement getOptional(String elementName) {
+            for (int i = LAST_REQUIRED.ordinal() + 1; i < ELEMENTS.length; i++) {
+                if (ELEMENTS[i].elementName.equals(elementName)) {
+                    return ELEMENTS[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The mode of the XSD validation of the read XML files.
+     */
+    private final ValidationMode validationMode;
+
+    /**
+     * The handler of the validation failures in mode BACKGROUND.
+     */
+    private final Consumer<Exception> validationFailureHandler;
+
+    /**
+     * Creates the XMLExerciseList with XSD validation of the read XML files in background.
+     */
+    public XMLExerciseList() {
+        this(ValidationMode.BACKGROUND);
+    }
+
+    /**
+     * Creates the XMLExerciseList. The failures of the validation in background will be logged.
+     *
+     * @param validationMode the mode of the XSD validation of the read XML files
+     */
+    public XMLExerciseList(ValidationMode validationMode) {
+        this(validationMode, e -> LOGGER.log(Level.WARNING,
+                "The exercise XML file is not valid, the exercises have been read nevertheless!", e));
+    }
+
+    /**
+     * Creates the XMLExerciseList.
+     *
+     * @param validationMode the mode of the XSD validation of the read XML files
+     * @param validationFailureHandler the handler of the failures of the validation in background,
+     * it's called in the validation thread (or in the reading thread, when the validation has
+     * been finished before the parsing)
+     */
+    public XMLExerciseList(ValidationMode validationMode, Consumer<Exception> validationFailureHandler) {
+        this.validationMode = validationMode;
+        this.validationFailureHandler = validationFailureHandler;
+    }
+
     /**
      * Reads the exercise list from the specified XML file and maps the sport types
-     * by using the specified sport type list.
+     * by using the specified sport type list. The file is processed as a stream, the
+     * exercise objects of each chunk of read exercise elements are created in background
+     * tasks of the common ForkJoinPool, concurrently to the parsing of the following
+     * elements. The XSD validation is a separate
+     * pass, which runs in a background thread concurrently to the parsing. Depending on
+     * the validation mode, the list is returned without waiting for the validation or
+     * the reading fails when the file is not valid. The parsing fails on missing or
+     * invalid exercise data nevertheless.
      * Returns an empty list when the file doesn't exists yet.
      *
      * @param source name of the XML file to read from
@@ -50,15 +177,26 @@ public class XMLExerciseList {
                 return new ExerciseList();
             }
 
-            // create JDOM Document from XML with XSD validation
-            Document document = XMLUtils.getJDOMDocument(fSource, XSD_EXERCISES);
+            CompletableFuture<Void> fValidation = validationMode != ValidationMode.NONE ?
+                    XMLUtils.validateXMLFileAsync(fSource, XSD_EXERCISES) : null;
 
-            // get root element and read all the contained exercises
-            Element eExerciseList = document.getRootElement();
-            ArrayList<Exercise> tempExercises = new ArrayList<>();
+            ArrayList<Exercise> tempExercises = new ArrayList<>(
+                    (int) Math.min(Integer.MAX_VALUE, fSource.length() / ESTIMATED_EXERCISE_XML_SIZE + 1));
 
-            eExerciseList.getChildren("exercise").forEach(eExercise ->
-                tempExercises.add(readExercise(eExercise, sportTypeList)));
+            try (InputStream isSource = new BufferedInputStream(new FileInputStream(fSource))) {
+                XMLStreamReader reader = XMLUtils.createXMLStreamReader(isSource);
+                try {
+                    readExercises(reader, sportTypeList, tempExercises);
+                } finally {
+                    reader.close();
+                }
+            }
+
+            if (validationMode == ValidationMode.STRICT) {
+                joinValidation(fValidation);
+            } else if (fValidation != null) {
+                reportValidationFailure(fValidation);
+            }
 
             ExerciseList exerciseList = new ExerciseList();
             exerciseList.clearAndAddAll(tempExercises);
@@ -70,20 +208,160 @@ public class XMLExerciseList {
     }
 
     /**
-     * Reads the data from the specified sport-type element and returns the created
-     * Exercise object.
+     * Passes the exception of a failed validation in background to the validation failure
+     * handler, when the validation has been finished.
+     *
+     * @param fValidation the future of the validation
+     */
+    private void reportValidationFailure(CompletableFuture<Void> fValidation) {
+        fValidation.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                validationFailureHandler.accept(cause instanceof Exception ?
+                        (Exception) cause : new CompletionException(cause));
+            }
+        });
+    }
+
+    /**
+     * Waits for the validation of the XML file in background. The exception of a failed
+     * validation is passed unchanged to the caller.
+     *
+     * @param fValidation the future of the validation
+     * @throws Exception thrown when the XML file is not valid or can't be read
+     */
+    private static void joinValidation(CompletableFuture<Void> fValidation) throws Exception {
+        try {
+            fValidation.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Reads all the exercises contained in the root element and adds them to the specified
+     * list in file order. The parsing is sequential, the exercise objects of full chunks are
+     * created in background tasks. When the parsing or the creation of exercises fails, the
+     * failure of the first invalid exercise in the file is passed to the caller (same as in
+     * sequential processing).
      *
-     * @param eExercise exercise JDOM element
+     * @param reader the XML stream reader, positioned before the root element
+     * @param sportTypeList the sport type list for assigning sport types to exercises.
+     * @param exercises the list for adding the created Exercise objects
+     * @throws XMLStreamException thrown on parsing problems
+     */
+    private static void readExercises(XMLStreamReader reader, SportTypeList sportTypeList,
+                                      List<Exercise> exercises) throws XMLStreamException {
+
+        List<CompletableFuture<List<Exercise>>> fChunkExercises = new ArrayList<>();
+        List<String[]> chunkValues = new ArrayList<>(EXERCISE_CHUNK_SIZE);
+
+        try {
+            reader.nextTag();
+            reader.require(XMLStreamConstants.START_ELEMENT, null, "exercise-list");
+
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                reader.require(XMLStreamConstants.START_ELEMENT, null, "exercise");
+                chunkValues.add(readExerciseValues(reader));
+
+                if (chunkValues.size() == EXERCISE_CHUNK_SIZE) {
+                    final List<String[]> fullChunkValues = chunkValues;
+                    fChunkExercises.add(CompletableFuture.supplyAsync(
+                            () -> createExercises(fullChunkValues, sportTypeList), CHUNK_EXECUTOR));
+                    chunkValues = new ArrayList<>(EXERCISE_CHUNK_SIZE);
+                }
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            // the exercises of the previous chunks are located before the parsing failure
+            for (CompletableFuture<List<Exercise>> fExercises : fChunkExercises) {
+                joinChunk(fExercises);
+            }
+            throw e;
+        }
+
+        for (CompletableFuture<List<Exercise>> fExercises : fChunkExercises) {
+            exercises.addAll(joinChunk(fExercises));
+        }
+        exercises.addAll(createExercises(chunkValues, sportTypeList));
+    }
+
+    /**
+     * Waits for the exercises of a chunk created in background. Exceptions thrown while
+     * creating the exercises are passed unchanged to the caller.
+     *
+     * @param fExercises the future of the chunk exercises
+     * @return list of the created Exercise objects
+     */
+    private static List<Exercise> joinChunk(CompletableFuture<List<Exercise>> fExercises) {
+        try {
+            return fExercises.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the texts of the child elements of the current exercise element, the index is the
+     * ordinal of the ExerciseElement. The elements are read in the order of the XSD sequence,
+     * the required elements first. The reader is positioned at the end of the exercise element
+     * afterwards.
+     *
+     * @param reader the XML stream reader, positioned at the start of the exercise element
+     * @return the texts of the exercise elements, null for missing optional elements
+     * @throws XMLStreamException thrown on parsing problems
+     */
+    private static String[] readExerciseValues(XMLStreamReader reader) throws XMLStreamException {
+
+        String[] values = new String[ExerciseElement.ELEMENTS.length];
+        for (int i = 0; i <= ExerciseElement.LAST_REQUIRED.ordinal(); i++) {
+            values[i] = readRequiredElementText(reader, ExerciseElement.ELEMENTS[i].elementName);
+        }
+
+        // get all the optional exercise data
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String elementName = reader.getLocalName();
+            ExerciseElement element = ExerciseElement.getOptional(elementName);
+            if (element == null) {
+                throw new IllegalArgumentException("Failed to parse exercise with ID '" +
+                        values[ExerciseElement.ID.ordinal()] + "', the element '" + elementName + "' is unknown!");
+            }
+            values[element.ordinal()] = reader.getElementText();
+        }
+        return values;
+    }
+
+    /**
+     * Creates the Exercise objects for all the specified exercise element texts.
+     *
+     * @param lExerciseValues list of the exercise element texts
+     * @param sportTypeList the sport type list for assigning sport types to exercises.
+     * @return list of the created Exercise objects
+     */
+    private static List<Exercise> createExercises(List<String[]> lExerciseValues, SportTypeList sportTypeList) {
+        List<Exercise> exercises = new ArrayList<>(lExerciseValues.size());
+        for (String[] values : lExerciseValues) {
+            exercises.add(createExercise(values, sportTypeList));
+        }
+        return exercises;
+    }
+
+    /**
+     * Creates an Exercise object from the specified exercise element texts.
+     *
+     * @param values the texts of the exercise elements, the index is the ordinal of the ExerciseElement
      * @param sportTypeList the sport type list for assigning sport types to exercises.
      * @return the created Exercise object
      */
-    private Exercise readExercise(Element eExercise, SportTypeList sportTypeList) {
+    private static Exercise createExercise(String[] values, SportTypeList sportTypeList) {
 
         Exercise exercise = new Exercise(
-                Integer.parseInt(eExercise.getChildText("id")));
+                Integer.parseInt(values[ExerciseElement.ID.ordinal()]));
 
         // get sport type by parsed ID
-        int sportTypeID = Integer.parseInt(eExercise.getChildText("sport-type-id"));
+        int sportTypeID = Integer.parseInt(values[ExerciseElement.SPORT_TYPE_ID.ordinal()]);
         SportType sportType = sportTypeList.getByID(sportTypeID);
         if (sportType == null) {
             throw new IllegalArgumentException("Failed to parse exercise with ID '" + exercise.getId() +
@@ -92,7 +370,7 @@ public class XMLExerciseList {
         exercise.setSportType(sportType);
 
         // get sport subtype by parsed ID
-        int sportSubTypeID = Integer.parseInt(eExercise.getChildText("sport-subtype-id"));
+        int sportSubTypeID = Integer.parseInt(values[ExerciseElement.SPORT_SUBTYPE_ID.ordinal()]);
         SportSubType sportSubType = sportType.getSportSubTypeList().getByID(sportSubTypeID);
         if (sportSubType == null) {
             throw new IllegalArgumentException("Failed to parse exercise with ID '" + exercise.getId() +
@@ -100,8 +378,8 @@ public class XMLExerciseList {
         }
         exercise.setSportSubType(sportSubType);
 
-        // get and convert date (format allready checked by XSD schema)
-        String strDate = eExercise.getChildText("date");
+        // get and convert date
+        String strDate = values[ExerciseElement.DATE.ordinal()];
         try {
             exercise.setDateTime(LocalDateTime.parse(strDate, XMLUtils.DATE_TIME_FORMAT));
         } catch (Exception e) {
@@ -109,12 +387,10 @@ public class XMLExerciseList {
                     "', the date format '" + strDate + "' is not valid!");
         }
 
-        exercise.setDuration(Integer.parseInt(eExercise.getChildText("duration")));
-        exercise.setDistance(Float.parseFloat(eExercise.getChildText("distance")));
-        exercise.setAvgSpeed(Float.parseFloat(eExercise.getChildText("avg-speed")));
+        exercise.setDuration(Integer.parseInt(values[ExerciseElement.DURATION.ordinal()]));
 
         // get and parse intensity type
-        String strIntensity = eExercise.getChildText("intensity");
+        String strIntensity = values[ExerciseElement.INTENSITY.ordinal()];
         try {
             exercise.setIntensity(Exercise.IntensityType.valueOf(strIntensity));
         } catch (Exception e) {
@@ -122,27 +398,30 @@ public class XMLExerciseList {
                     "', the intensity '" + strIntensity + "' is not valid!");
         }
 
+        exercise.setDistance(Float.parseFloat(values[ExerciseElement.DISTANCE.ordinal()]));
+        exercise.setAvgSpeed(Float.parseFloat(values[ExerciseElement.AVG_SPEED.ordinal()]));
+
         // get all the optional exercise data
-        String strAvgHeartRate = eExercise.getChildText("avg-heartrate");
+        String strAvgHeartRate = values[ExerciseElement.AVG_HEARTRATE.ordinal()];
         if (strAvgHeartRate != null) {
             exercise.setAvgHeartRate(Integer.parseInt(strAvgHeartRate));
         }
 
-        String strAscent = eExercise.getChildText("ascent");
+        String strAscent = values[ExerciseElement.ASCENT.ordinal()];
         if (strAscent != null) {
             exercise.setAscent(Integer.parseInt(strAscent));
         }
 
-        String strCalories = eExercise.getChildText("calories");
+        String strCalories = values[ExerciseElement.CALORIES.ordinal()];
         if (strCalories != null) {
             exercise.setCalories(Integer.parseInt(strCalories));
         }
 
-        exercise.setHrmFile(eExercise.getChildText("hrm-file"));
-        exercise.setComment(eExercise.getChildText("comment"));
+        exercise.setHrmFile(values[ExerciseElement.HRM_FILE.ordinal()]);
+        exercise.setComment(values[ExerciseElement.COMMENT.ordinal()]);
 
         // get equipment by parsed ID (optional)
-        String strEquipmentID = eExercise.getChildText("equipment-id");
+        String strEquipmentID = values[ExerciseElement.EQUIPMENT_ID.ordinal()];
         if (strEquipmentID != null) {
             int equipmentID = Integer.parseInt(strEquipmentID);
             Equipment equipment = sportType.getEquipmentList().getByID(equipmentID);
@@ -157,7 +436,26 @@ public class XMLExerciseList {
     }
 
     /**
-     * Writes the exercise list to the specified XML file..
+     * Moves to the next child element, which must be the specified required element, and
+     * returns its text.
+     *
+     * @param reader the XML stream reader, positioned before the required element
+     * @param elementName name of the required element
+     * @return the element text
+     * @throws XMLStreamException thrown on parsing problems
+     */
+    private static String readRequiredElementText(XMLStreamReader reader, String elementName)
+            throws XMLStreamException {
+        if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !elementName.equals(reader.getLocalName())) {
+            throw new IllegalArgumentException("Failed to parse exercise, the required element '" +
+                    elementName + "' is missing!");
+        }
+        return reader.getElementText();
+    }
+
+    /**
+     * Writes the exercise list to the specified XML file. The exercise elements are
+     * written directly, without creating a document tree for the whole list.
      *
      * @param exerciseList the exercise list to store
      * @param destination name of the XML file to write to
@@ -165,12 +463,8 @@ public class XMLExerciseList {
      */
     public void storeExerciseList(ExerciseList exerciseList, String destination) throws STException {
 
-        // create JDOM element with all exercises
-        Element eExerciseList = createExerciseListElement(exerciseList);
-
-        // write the element to XML file
-        try {
-            XMLUtils.writeXMLFile(eExerciseList, destination);
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(destination)) {
+            writeExerciseList(writer, exerciseList);
         } catch (IOException e) {
             throw new STException(STExceptionID.XMLSTORAGE_STORE_EXERCISE_LIST,
                     "Failed to write exercise list to XML file '" + destination + "' ...", e);
@@ -178,48 +472,48 @@ public class XMLExerciseList {
     }
 
     /**
-     * Creates the "exercise-list" element with all exercises for the specified
+     * Writes the "exercise-list" element with all exercises for the specified
      * exercise list.
      */
-    private Element createExerciseListElement(ExerciseList exerciseList) {
-        Element eExerciseList = new Element("exercise-list");
-
-        // append an exercise element for each exercise
-        exerciseList.forEach(exercise -> {
-            Element eExercise = new Element("exercise");
-            eExerciseList.addContent(eExercise);
-
-            // create required exercise elements
-            XMLUtils.addElement(eExercise, "id", String.valueOf(exercise.getId()));
-            XMLUtils.addElement(eExercise, "sport-type-id", String.valueOf(exercise.getSportType().getId()));
-            XMLUtils.addElement(eExercise, "sport-subtype-id", String.valueOf(exercise.getSportSubType().getId()));
-            XMLUtils.addElement(eExercise, "date", exercise.getDateTime().format(XMLUtils.DATE_TIME_FORMAT));
-            XMLUtils.addElement(eExercise, "duration", String.valueOf(exercise.getDuration()));
-            XMLUtils.addElement(eExercise, "intensity", exercise.getIntensity().toStringEnum());
-            XMLUtils.addElement(eExercise, "distance", String.valueOf(exercise.getDistance()));
-            XMLUtils.addElement(eExercise, "avg-speed", String.valueOf(exercise.getAvgSpeed()));
-
-            // create optional exercise elements
+    private void writeExerciseList(XMLStreamingWriter writer, ExerciseList exerciseList) throws IOException {
+        writer.startElement("exercise-list");
+
+        // write an exercise element for each exercise
+        for (Exercise exercise : exerciseList) {
+            writer.startElement("exercise");
+
+            // write required exercise elements
+            writer.addElement("id", String.valueOf(exercise.getId()));
+            writer.addElement("sport-type-id", String.valueOf(exercise.getSportType().getId()));
+            writer.addElement("sport-subtype-id", String.valueOf(exercise.getSportSubType().getId()));
+            writer.addElement("date", exercise.getDateTime().format(XMLUtils.DATE_TIME_FORMAT));
+            writer.addElement("duration", String.valueOf(exercise.getDuration()));
+            writer.addElement("intensity", exercise.getIntensity().toStringEnum());
+            writer.addElement("distance", String.valueOf(exercise.getDistance()));
+            writer.addElement("avg-speed", String.valueOf(exercise.getAvgSpeed()));
+
+            // write optional exercise elements
             if (exercise.getAvgHeartRate() != 0) {
-                XMLUtils.addElement(eExercise, "avg-heartrate", String.valueOf(exercise.getAvgHeartRate()));
+                writer.addElement("avg-heartrate", String.valueOf(exercise.getAvgHeartRate()));
             }
             if (exercise.getAscent() != 0) {
-                XMLUtils.addElement(eExercise, "ascent", String.valueOf(exercise.getAscent()));
+                writer.addElement("ascent", String.valueOf(exercise.getAscent()));
             }
             if (exercise.getCalories() != 0) {
-                XMLUtils.addElement(eExercise, "calories", String.valueOf(exercise.getCalories()));
+                writer.addElement("calories", String.valueOf(exercise.getCalories()));
             }
             if (exercise.getHrmFile() != null) {
-                XMLUtils.addElement(eExercise, "hrm-file", exercise.getHrmFile());
+                writer.addElement("hrm-file", exercise.getHrmFile());
             }
             if (exercise.getEquipment() != null) {
-                XMLUtils.addElement(eExercise, "equipment-id", String.valueOf(exercise.getEquipment().getId()));
+                writer.addElement("equipment-id", String.valueOf(exercise.getEquipment().getId()));
             }
             if (exercise.getComment() != null) {
-                XMLUtils.addElement(eExercise, "comment", exercise.getComment());
+                writer.addElement("comment", exercise.getComment());
             }
-        });
+            writer.endElement();
+        }
 
-        return eExerciseList;
+        writer.endElement();
     }
 }
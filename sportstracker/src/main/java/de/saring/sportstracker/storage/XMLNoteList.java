@@ -84,20 +84,17 @@ public class XMLNoteList {
     }
 
     /**
-     * Writes the NoteList to the specified XML file.
+     * Writes the note list to the specified XML file. The note elements are
+     * written directly, without creating a document tree for the whole list.
      *
-     * @param noteList the NoteList to store
-     * @param destination name of xml file to write to
+     * @param noteList the note list to store
+     * @param destination name of the XML file to write to
      * @throws STException thrown on store problems
      */
     public void storeNoteList(NoteList noteList, String destination) throws STException {
 
-        // create JDOM element with all notes
-        Element eNoteList = createNoteListElement(noteList);
-
-        // write the element to XML file
-        try {
-            XMLUtils.writeXMLFile(eNoteList, destination);
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(destination)) {
+            writeNoteList(writer, noteList);
         } catch (IOException e) {
             throw new STException(STExceptionID.XMLSTORAGE_STORE_NOTE_LIST,
                     "Failed to write note list to XML file '" + destination + "' ...", e);
@@ -105,23 +102,24 @@ public class XMLNoteList {
     }
 
     /**
-     * Creates the "note-list" element with all notes for the specified
+     * Writes the "note-list" element with all notes for the specified
      * note list.
      *
+     * @param writer the XML writer
      * @param noteList the NoteList to store
-     * @return the created Element
+     * @throws IOException
      */
-    private Element createNoteListElement(NoteList noteList) {
-        Element eNoteList = new Element("note-list");
-
-        noteList.forEach(note -> {
-            Element eNote = new Element("note");
-            eNoteList.addContent(eNote);
-
-            XMLUtils.addElement(eNote, "id", String.valueOf(note.getId()));
-            XMLUtils.addElement(eNote, "date", note.getDateTime().format(XMLUtils.DATE_TIME_FORMAT));
-            XMLUtils.addElement(eNote, "text", note.getComment());
-        });
-        return eNoteList;
+    private void writeNoteList(XMLStreamingWriter writer, NoteList noteList) throws IOException {
+        writer.startElement("note-list");
+
+        for (Note note : noteList) {
+            writer.startElement("note");
+            writer.addElement("id", String.valueOf(note.getId()));
+            writer.addElement("date", note.getDateTime().format(XMLUtils.DATE_TIME_FORMAT));
+            writer.addElement("text", note.getComment());
+            writer.endElement();
+        }
+
+        writer.endElement();
     }
-}
\ No newline at end of file
+}
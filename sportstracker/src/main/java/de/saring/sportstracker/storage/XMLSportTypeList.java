@@ -128,17 +128,13 @@ public class XMLSportTypeList {
      * Writes the sport type list to the specified XML file.
      *
      * @param sportTypeList the sport type list to store
-     * @param destination name of xml file to write to
+     * @param destination name of the XML file to write to
      * @throws STException thrown on store problems
      */
     public void storeSportTypeList(SportTypeList sportTypeList, String destination) throws STException {
 
-        // create JDOM element with all sport types
-        Element eSportTypeList = createSportTypeListElement(sportTypeList);
-
-        // write the element to XML file
-        try {
-            XMLUtils.writeXMLFile(eSportTypeList, destination);
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(destination)) {
+            writeSportTypeList(writer, sportTypeList);
         } catch (IOException e) {
             throw new STException(STExceptionID.XMLSTORAGE_STORE_SPORT_TYPE_LIST,
                     "Failed to write sport type list to XML file '" + destination + "' ...", e);
@@ -146,54 +142,53 @@ public class XMLSportTypeList {
     }
 
     /**
-     * Creates the "sport-type-list" element with all exercises for the specified
+     * Writes the "sport-type-list" element with all sport types for the specified
      * sport type list.
      */
-    private Element createSportTypeListElement(SportTypeList sportTypeList) {
+    private void writeSportTypeList(XMLStreamingWriter writer, SportTypeList sportTypeList) throws IOException {
 
-        Element eSportTypeList = new Element("sport-type-list");
+        writer.startElement("sport-type-list");
 
-        // append an "sport-type" element for each sport type
-        sportTypeList.forEach(sportType -> {
-            Element eSportType = new Element("sport-type");
-            eSportTypeList.addContent(eSportType);
+        // write a "sport-type" element for each sport type
+        for (SportType sportType : sportTypeList) {
+            writer.startElement("sport-type");
 
-            // create sport type attributes and elements
-            eSportType.setAttribute("record-distance", String.valueOf(sportType.isRecordDistance()));
-            XMLUtils.addElement(eSportType, "id", String.valueOf(sportType.getId()));
-            XMLUtils.addElement(eSportType, "name", sportType.getName());
-            XMLUtils.addElement(eSportType, "icon", sportType.getIcon());
+            // write sport type attributes and elements
+            writer.addAttribute("record-distance", String.valueOf(sportType.isRecordDistance()));
+            writer.addElement("id", String.valueOf(sportType.getId()));
+            writer.addElement("name", sportType.getName());
+            writer.addElement("icon", sportType.getIcon());
 
-            Element eColor = new Element("color");
+            writer.startElement("color");
             java.awt.Color awtColor = ColorUtils.toAwtColor(sportType.getColor());
-            eColor.setAttribute("red", String.valueOf(awtColor.getRed()));
-            eColor.setAttribute("green", String.valueOf(awtColor.getGreen()));
-            eColor.setAttribute("blue", String.valueOf(awtColor.getBlue()));
-            eSportType.addContent(eColor);
-
-            // append an "sport-subtype" element for each sport subtype
-            Element eSportSubTypeList = new Element("sport-subtype-list");
-            eSportType.addContent(eSportSubTypeList);
-
-            sportType.getSportSubTypeList().forEach(sportSubType -> {
-                Element eSportSubType = new Element("sport-subtype");
-                eSportSubTypeList.addContent(eSportSubType);
-                XMLUtils.addElement(eSportSubType, "id", String.valueOf(sportSubType.getId()));
-                XMLUtils.addElement(eSportSubType, "name", sportSubType.getName());
-            });
-
-            // append an "equipment" element for each equipment
-            Element eEquipmentList = new Element("equipment-list");
-            eSportType.addContent(eEquipmentList);
+            writer.addAttribute("red", String.valueOf(awtColor.getRed()));
+            writer.addAttribute("green", String.valueOf(awtColor.getGreen()));
+            writer.addAttribute("blue", String.valueOf(awtColor.getBlue()));
+            writer.endElement();
+
+            // write a "sport-subtype" element for each sport subtype
+            writer.startElement("sport-subtype-list");
+            for (SportSubType sportSubType : sportType.getSportSubTypeList()) {
+                writer.startElement("sport-subtype");
+                writer.addElement("id", String.valueOf(sportSubType.getId()));
+                writer.addElement("name", sportSubType.getName());
+                writer.endElement();
+            }
+            writer.endElement();
+
+            // write an "equipment" element for each equipment
+            writer.startElement("equipment-list");
+            for (Equipment equipment : sportType.getEquipmentList()) {
+                writer.startElement("equipment");
+                writer.addElement("id", String.valueOf(equipment.getId()));
+                writer.addElement("name", equipment.getName());
+                writer.endElement();
+            }
+            writer.endElement();
 
-            sportType.getEquipmentList().forEach(equipment-> {
-                Element eEquipment = new Element("equipment");
-                eEquipmentList.addContent(eEquipment);
-                XMLUtils.addElement(eEquipment, "id", String.valueOf(equipment.getId()));
-                XMLUtils.addElement(eEquipment, "name", equipment.getName());
-            });
-        });
+            writer.endElement();
+        }
 
-        return eSportTypeList;
+        writer.endElement();
     }
-}
\ No newline at end of file
+}
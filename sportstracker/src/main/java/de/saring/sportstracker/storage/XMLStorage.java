@@ -13,7 +13,10 @@ import javax.inject.Singleton;
  * different XML files. It does not contain the appropriate functionality,
  * this is done by delegates. This interface defines methods for reading /
  * storing of the application data from / to different data sources
- * (files, database, ...).
+ * (files, database, ...).<br/>
+ * A binary snapshot is written beside each stored XML file, it will be read
+ * instead of the XML file as long as the XML file is unchanged (see
+ * BinarySnapshotCodec). This is much faster than parsing the XML file.
  *
  * @author Stefan Saring
  * @version 1.0
@@ -25,6 +28,7 @@ public class XMLStorage implements IStorage {
     private final XMLExerciseList xmlExerciseList;
     private final XMLNoteList xmlNoteList;
     private final XMLWeightList xmlWeightList;
+    private final BinarySnapshotCodec binarySnapshotCodec;
 
     /**
      * Standard c'tor.
@@ -34,45 +38,54 @@ public class XMLStorage implements IStorage {
         xmlExerciseList = new XMLExerciseList();
         xmlNoteList = new XMLNoteList();
         xmlWeightList = new XMLWeightList();
+        binarySnapshotCodec = new BinarySnapshotCodec();
     }
 
     @Override
     public SportTypeList readSportTypeList(String source) throws STException {
-        return xmlSportTypeList.readSportTypeList(source);
+        SportTypeList sportTypeList = binarySnapshotCodec.readSportTypeList(source);
+        return sportTypeList != null ? sportTypeList : xmlSportTypeList.readSportTypeList(source);
     }
 
     @Override
     public void storeSportTypeList(SportTypeList sportTypeList, String destination) throws STException {
         xmlSportTypeList.storeSportTypeList(sportTypeList, destination);
+        binarySnapshotCodec.writeSportTypeList(sportTypeList, destination);
     }
 
     @Override
     public ExerciseList readExerciseList(String source, SportTypeList sportTypeList) throws STException {
-        return xmlExerciseList.readExerciseList(source, sportTypeList);
+        ExerciseList exerciseList = binarySnapshotCodec.readExerciseList(source, sportTypeList);
+        return exerciseList != null ? exerciseList : xmlExerciseList.readExerciseList(source, sportTypeList);
     }
 
     @Override
     public void storeExerciseList(ExerciseList exerciseList, String destination) throws STException {
         xmlExerciseList.storeExerciseList(exerciseList, destination);
+        binarySnapshotCodec.writeExerciseList(exerciseList, destination);
     }
 
     @Override
     public NoteList readNoteList(String source) throws STException {
-        return xmlNoteList.readNoteList(source);
+        NoteList noteList = binarySnapshotCodec.readNoteList(source);
+        return noteList != null ? noteList : xmlNoteList.readNoteList(source);
     }
 
     @Override
     public void storeNoteList(NoteList noteList, String destination) throws STException {
         xmlNoteList.storeNoteList(noteList, destination);
+        binarySnapshotCodec.writeNoteList(noteList, destination);
     }
 
     @Override
     public WeightList readWeightList(String source) throws STException {
-        return xmlWeightList.readWeightList(source);
+        WeightList weightList = binarySnapshotCodec.readWeightList(source);
+        return weightList != null ? weightList : xmlWeightList.readWeightList(source);
     }
 
     @Override
     public void storeWeightList(WeightList weightList, String destination) throws STException {
         xmlWeightList.storeWeightList(weightList, destination);
+        binarySnapshotCodec.writeWeightList(weightList, destination);
     }
 }
@@ -0,0 +1,297 @@
+package de.saring.sportstracker.storage;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writer for the streaming creation of XML files, the elements are written directly
+ * without creating a document tree before. The output uses the same format as the
+ * previously used JDOM pretty format: UTF-8 encoding, 4-space indentation, system
+ * line separators, trimmed texts and empty elements written as {@code <name />}.<br/>
+ * The XMLStreamWriter of the JDK can't be used, it does not support indentation and
+ * writes empty elements in another format.<br/>
+ * The XML is written to a temporary file, which replaces the XML file by an atomic rename
+ * when the complete document has been written. So the previous file content stays intact
+ * when the application crashes while writing.
+ *
+ * @author Stefan Saring
+ */
+final class XMLStreamingWriter implements Closeable {
+
+    private static final String INDENT = "    ";
+
+    /** Suffix of the temporary file, which is written before it replaces the XML file. */
+    static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final String lineSeparator = System.getProperty("line.separator");
+    private final Path file;
+    private final Path tempFile;
+    private final FileOutputStream outputStream;
+    private final Writer writer;
+
+    /** Names of all currently open elements. */
+    private final Deque<String> openElements = new ArrayDeque<>();
+
+    /** Flag whether the start tag of the current element is not closed yet (attributes can be added). */
+    private boolean startTagOpen = false;
+
+    /** Flag whether the root element has been written. */
+    private boolean rootWritten = false;
+
+    /**
+     * Creates the writer for the specified XML file and writes the XML declaration.
+     *
+     * @param filename filename of the XML file to create
+     * @throws IOException
+     */
+    XMLStreamingWriter(String filename) throws IOException {
+        file = Paths.get(filename);
+        tempFile = Paths.get(filename + TEMP_FILE_SUFFIX);
+
+        // FileWriter can't be used here, because default encoding on Win32 isn't UTF-8
+        outputStream = new FileOutputStream(tempFile.toFile());
+        writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        writer.write(lineSeparator);
+    }
+
+    /**
+     * Writes the start of a new element, it's the child of the current open element.
+     * Attributes can be added until the next content gets written.
+     *
+     * @param name name of the element
+     * @throws IOException
+     */
+    void startElement(String name) throws IOException {
+        if (openElements.isEmpty() && rootWritten) {
+            throw new IllegalStateException("The XML document must contain only one root element!");
+        }
+
+        writeChildStart();
+        writer.write('<');
+        writer.write(name);
+        openElements.push(name);
+        startTagOpen = true;
+        rootWritten = true;
+    }
+
+    /**
+     * Adds the attribute to the current element, it must be called directly after startElement().
+     *
+     * @param name attribute name
+     * @param value attribute value
+     * @throws IOException
+     */
+    void addAttribute(String name, String value) throws IOException {
+        if (!startTagOpen) {
+            throw new IllegalStateException("Attributes can only be added directly after the element start!");
+        }
+
+        writer.write(' ');
+        writer.write(name);
+        writer.write("=\"");
+        writeEscapedAttribute(value);
+        writer.write('"');
+    }
+
+    /**
+     * Writes a complete child element with the specified text to the current element.
+     *
+     * @param name name of the element
+     * @param text text of the element (can be null)
+     * @throws IOException
+     */
+    void addElement(String name, String text) throws IOException {
+        if (openElements.isEmpty()) {
+            throw new IllegalStateException("There is no parent element for the text element!");
+        }
+
+        writeChildStart();
+        String trimmedText = trim(text);
+        writer.write('<');
+        writer.write(name);
+        if (trimmedText.isEmpty()) {
+            writer.write(" />");
+        } else {
+            writer.write('>');
+            writeEscapedText(trimmedText);
+            writer.write("</");
+            writer.write(name);
+            writer.write('>');
+        }
+    }
+
+    /**
+     * Writes the end of the current element.
+     *
+     * @throws IOException
+     */
+    void endElement() throws IOException {
+        String name = openElements.pop();
+        if (startTagOpen) {
+            writer.write(" />");
+            startTagOpen = false;
+        } else {
+            writeLineBreakAndIndent();
+            writer.write("</");
+            writer.write(name);
+            writer.write('>');
+        }
+    }
+
+    /**
+     * Ends the XML document and closes the file. All elements must be ended before, the
+     * written file replaces the XML file then. The XML file is not modified when the
+     * document is incomplete (e.g. after write errors), the temporary file gets deleted.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        boolean complete = rootWritten && openElements.isEmpty();
+        try {
+            try {
+                if (complete) {
+                    writer.write(lineSeparator);
+                    writer.flush();
+                    // the content must be on disk before the rename
+                    outputStream.getFD().sync();
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            complete = false;
+            throw e;
+        } finally {
+            if (complete) {
+                replaceFile();
+            } else {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    private void replaceFile() throws IOException {
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Prepares the writing of a new child in the current element: closes the start tag
+     * of the parent element when needed and writes the line break and indentation.
+     */
+    private void writeChildStart() throws IOException {
+        if (startTagOpen) {
+            writer.write('>');
+            startTagOpen = false;
+        }
+        if (!openElements.isEmpty()) {
+            writeLineBreakAndIndent();
+        }
+    }
+
+    private void writeLineBreakAndIndent() throws IOException {
+        writer.write(lineSeparator);
+        for (int i = 0; i < openElements.size(); i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private void writeEscapedText(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '\r':
+                    writer.write("&#xD;");
+                    break;
+                case '\n':
+                    writer.write(lineSeparator);
+                    break;
+                default:
+                    writer.write(ch);
+            }
+        }
+    }
+
+    private void writeEscapedAttribute(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '\r':
+                    writer.write("&#xD;");
+                    break;
+                case '\t':
+                    writer.write("&#x9;");
+                    break;
+                case '\n':
+                    writer.write("&#xA;");
+                    break;
+                default:
+                    writer.write(ch);
+            }
+        }
+    }
+
+    /**
+     * Removes the leading and trailing XML whitespace characters of the text.
+     *
+     * @param text text to trim (can be null)
+     * @return the trimmed text, an empty string for null
+     */
+    static String trim(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        int start = 0;
+        int end = text.length();
+        while (start < end && isXMLWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && isXMLWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(start, end);
+    }
+
+    private static boolean isXMLWhitespace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r';
+    }
+}
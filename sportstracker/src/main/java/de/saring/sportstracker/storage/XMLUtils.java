@@ -1,24 +1,35 @@
 package de.saring.sportstracker.storage;
 
 import org.jdom2.Document;
-import org.jdom2.Element;
 import org.jdom2.JDOMException;
 import org.jdom2.input.SAXBuilder;
-import org.jdom2.input.sax.XMLReaders;
-import org.jdom2.output.Format;
-import org.jdom2.output.XMLOutputter;
-import org.xml.sax.EntityResolver;
-import org.xml.sax.InputSource;
+import org.jdom2.input.sax.XMLReaderJDOMFactory;
+import org.jdom2.input.sax.XMLReaderSchemaFactory;
 import org.xml.sax.SAXException;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.InputStream;
+import java.net.URL;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 
 /**
- * Helper class for common functions when reading and writing XML files.
+ * Helper class for common functions when reading and writing XML files.<br/>
+ * Each XSD schema is compiled only once into a thread-safe Schema instance, so the validation of
+ * XML files does not need to load and compile the XSD again. The StAX input factories are not
+ * guaranteed to be thread-safe, so each thread uses its own instance.
  *
  * @author Stefan Saring
  * @version 1.0
@@ -28,9 +39,48 @@ public final class XMLUtils {
     /** The date and time parser and formatter instance. */
     public static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    /** The compiled XSD schemas, the key is the XSD filename. */
+    private static final Map<String, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
+    /** The JDOM reader factories with validation by the compiled schema, the key is the XSD filename. */
+    private static final Map<String, XMLReaderJDOMFactory> READER_FACTORIES = new ConcurrentHashMap<>();
+
+    /** The StAX input factory of each thread, it's created on first use in the thread. */
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY =
+            ThreadLocal.withInitial(XMLUtils::createXMLInputFactory);
+
     private XMLUtils() {
     }
 
+    /**
+     * Returns the compiled schema of the specified XSD (will be read from classpath). The
+     * schema is compiled on the first call only, the returned instance is thread-safe.
+     *
+     * @param xsdFilename the name of the XSD (just the filename)
+     * @return the compiled Schema
+     * @throws org.xml.sax.SAXException thrown when the XSD can't be read or compiled
+     */
+    public static Schema getSchema(final String xsdFilename) throws SAXException {
+        try {
+            return SCHEMAS.computeIfAbsent(xsdFilename, XMLUtils::compileSchema);
+        } catch (CompletionException e) {
+            throw (SAXException) e.getCause();
+        }
+    }
+
+    private static Schema compileSchema(final String xsdFilename) {
+        URL xsdUrl = XMLUtils.class.getResource("/xml/" + xsdFilename);
+        try {
+            if (xsdUrl == null) {
+                throw new SAXException("The XSD schema '" + xsdFilename + "' does not exist!");
+            }
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(xsdUrl);
+        } catch (SAXException e) {
+            // needs to be unchecked inside of Map.computeIfAbsent()
+            throw new CompletionException(e);
+        }
+    }
+
     /**
      * Parses the specified XML file and creates the JDOM document. The XML will
      * be verified against the specified XSD schema (will be read from classpath).
@@ -43,61 +93,72 @@ public final class XMLUtils {
      */
     public static Document getJDOMDocument(final File xmlFile, final String xsdFilename) throws IOException, JDOMException {
 
-        // create a SAX parser with XSD validation
-        SAXBuilder builder = new SAXBuilder(XMLReaders.DTDVALIDATING);
-        builder.setFeature("http://apache.org/xml/features/validation/schema", true);
-        builder.setProperty("http://apache.org/xml/properties/schema/external-noNamespaceSchemaLocation", "file://" + xsdFilename);
-
-        // define the EntityResolver for loading the XSD schema as a resource
-        // from the classpath instead from filesystem
-        builder.setEntityResolver(new EntityResolver() {
-            public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
-                if (systemId.toLowerCase().endsWith(xsdFilename)) {
-                    return new InputSource(this.getClass().getResourceAsStream("/xml/" + xsdFilename));
-                } else {
-                    return null;
-                }
+        // create a SAX parser with XSD validation by the compiled schema
+        XMLReaderJDOMFactory readerFactory = READER_FACTORIES.get(xsdFilename);
+        if (readerFactory == null) {
+            try {
+                readerFactory = new XMLReaderSchemaFactory(getSchema(xsdFilename));
+            } catch (SAXException e) {
+                throw new JDOMException("Failed to compile the XSD schema '" + xsdFilename + "'!", e);
             }
-        });
+            READER_FACTORIES.putIfAbsent(xsdFilename, readerFactory);
+        }
 
         // create JDOM Document
-        return builder.build(xmlFile);
+        return new SAXBuilder(readerFactory).build(xmlFile);
     }
 
     /**
-     * Creates the element with the specified name and comment and adds it to the parent.
+     * Validates the specified XML file against the specified XSD schema (will be read
+     * from classpath). This can be used as a separate pass before the XML file gets
+     * parsed without validation.
      *
-     * @param eParent the parent element
-     * @param name name of the new element
-     * @param comment comment of the new element
+     * @param xmlFile the XML file to validate
+     * @param xsdFilename the name of the XSD (just the filename)
+     * @throws java.io.IOException
+     * @throws org.xml.sax.SAXException thrown when the XML file is not valid
      */
-    public static void addElement(Element eParent, String name, String comment) {
-        Element element = new Element(name);
-        element.setText(comment);
-        eParent.addContent(element);
+    public static void validateXMLFile(final File xmlFile, final String xsdFilename) throws IOException, SAXException {
+        getSchema(xsdFilename).newValidator().validate(new StreamSource(xmlFile));
     }
 
     /**
-     * Writes the specified JDOM element to the XML file specified by filename.
-     * The file will use UTF-8 encoding and has 4-space indentation.
+     * Validates the specified XML file against the specified XSD schema in a background
+     * thread. This can be used when the XML file gets parsed without validation, the
+     * parsing and the validation can be executed concurrently then.
      *
-     * @param eRoot root element of the XML document
-     * @param filename filename of the XML file to create
-     * @throws IOException
+     * @param xmlFile the XML file to validate
+     * @param xsdFilename the name of the XSD (just the filename)
+     * @return the future of the validation, it completes exceptionally with the IOException
+     * or SAXException when the validation has failed
      */
-    public static void writeXMLFile(Element eRoot, String filename) throws IOException {
-
-        Document document = new Document(eRoot);
-        XMLOutputter outputter = new XMLOutputter();
-        Format format = Format.getPrettyFormat();
-        format.setLineSeparator(System.getProperty("line.separator"));
-        format.setIndent("    ");
-        outputter.setFormat(format);
-
-        // FileWriter can't be used here, because default encoding on Win32 isn't UTF-8
-        try (OutputStreamWriter osWriter = new OutputStreamWriter(new FileOutputStream(filename), "UTF-8")) {
-            outputter.output(document, osWriter);
-            osWriter.flush();
-        }
+    public static CompletableFuture<Void> validateXMLFileAsync(final File xmlFile, final String xsdFilename) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                validateXMLFile(xmlFile, xsdFilename);
+            } catch (IOException | SAXException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Creates a StAX stream reader for the streaming parsing of the specified XML input.
+     * DTDs and external entities are not supported, they are not used in the application
+     * XML files.
+     *
+     * @param isXml the XML input stream
+     * @return the created XMLStreamReader
+     * @throws javax.xml.stream.XMLStreamException
+     */
+    public static XMLStreamReader createXMLStreamReader(final InputStream isXml) throws XMLStreamException {
+        return INPUT_FACTORY.get().createXMLStreamReader(isXml);
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return inputFactory;
     }
 }
@@ -84,20 +84,17 @@ public class XMLWeightList {
     }
 
     /**
-     * Writes the WeightList to the specified XML file.
+     * Writes the weight list to the specified XML file. The weight elements are
+     * written directly, without creating a document tree for the whole list.
      *
-     * @param weightList the WeightList to store
-     * @param destination name of xml file to write to
+     * @param weightList the weight list to store
+     * @param destination name of the XML file to write to
      * @throws STException thrown on store problems
      */
     public void storeWeightList(WeightList weightList, String destination) throws STException {
 
-        // create JDOM element with all weights
-        Element eWeightList = createWeightListElement(weightList);
-
-        // write the element to XML file
-        try {
-            XMLUtils.writeXMLFile(eWeightList, destination);
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(destination)) {
+            writeWeightList(writer, weightList);
         } catch (IOException e) {
             throw new STException(STExceptionID.XMLSTORAGE_STORE_WEIGHT_LIST,
                     "Failed to write weight list to XML file '" + destination + "' ...", e);
@@ -105,24 +102,25 @@ public class XMLWeightList {
     }
 
     /**
-     * Creates the "weight-list" element with all weights for the specified
+     * Writes the "weight-list" element with all weights for the specified
      * weight list.
      *
+     * @param writer the XML writer
      * @param weightList the WeightList to store
-     * @return the created Element
+     * @throws IOException
      */
-    private Element createWeightListElement(WeightList weightList) {
-        Element eWeightList = new Element("weight-list");
-
-        weightList.forEach(weight -> {
-            Element eWeight = new Element("weight");
-            eWeightList.addContent(eWeight);
-
-            XMLUtils.addElement(eWeight, "id", String.valueOf(weight.getId()));
-            XMLUtils.addElement(eWeight, "date", weight.getDateTime().format(XMLUtils.DATE_TIME_FORMAT));
-            XMLUtils.addElement(eWeight, "value", String.valueOf(weight.getValue()));
-            XMLUtils.addElement(eWeight, "comment", weight.getComment());
-        });
-        return eWeightList;
+    private void writeWeightList(XMLStreamingWriter writer, WeightList weightList) throws IOException {
+        writer.startElement("weight-list");
+
+        for (Weight weight : weightList) {
+            writer.startElement("weight");
+            writer.addElement("id", String.valueOf(weight.getId()));
+            writer.addElement("date", weight.getDateTime().format(XMLUtils.DATE_TIME_FORMAT));
+            writer.addElement("value", String.valueOf(weight.getValue()));
+            writer.addElement("comment", weight.getComment());
+            writer.endElement();
+        }
+
+        writer.endElement();
     }
-}
\ No newline at end of file
+}
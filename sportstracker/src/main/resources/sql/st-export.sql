@@ -7,12 +7,17 @@
 -- enable Foreign Key Support (disabled by default)
 PRAGMA foreign_keys = ON;
 
+-- version of this schema, databases with other versions need to be recreated
+PRAGMA user_version = 1;
+
 CREATE TABLE SPORT_TYPE (
     ID INTEGER PRIMARY KEY NOT NULL,
     NAME TEXT NOT NULL,
     RECORD_DISTANCE INTEGER NOT NULL,
     COLOR TEXT NOT NULL,
-    ICON TEXT
+    ICON TEXT,
+    -- position in the sport type list, the sport types are not sorted by ID
+    POSITION INTEGER NOT NULL
 );
 
 CREATE TABLE SPORT_SUBTYPE (
@@ -37,7 +42,7 @@ CREATE TABLE EQUIPMENT (
 
 CREATE TABLE EXERCISE (
     ID INTEGER PRIMARY KEY NOT NULL,
-    DATE_TIME TEXT NOT NULL,
+    DATE_TIME INTEGER NOT NULL,
     SPORT_TYPE_ID INTEGER NOT NULL,
     SPORT_SUBTYPE_ID INTEGER NOT NULL,
     INTENSITY TEXT NOT NULL,
@@ -63,14 +68,21 @@ CREATE TABLE EXERCISE (
 
 CREATE TABLE NOTE (
     ID INTEGER PRIMARY KEY NOT NULL,
-    DATE_TIME TEXT NOT NULL,
+    DATE_TIME INTEGER NOT NULL,
     COMMENT TEXT NOT NULL
 );
 
 CREATE TABLE WEIGHT (
     ID INTEGER PRIMARY KEY NOT NULL,
-    DATE_TIME TEXT NOT NULL,
+    DATE_TIME INTEGER NOT NULL,
     -- weight value in kilograms
     VALUE REAL NOT NULL,
     COMMENT TEXT
 );
+
+-- indexes for the queries by date range, sport type and equipment
+CREATE INDEX EXERCISE_DATE_TIME_IDX ON EXERCISE (DATE_TIME);
+CREATE INDEX EXERCISE_SPORT_TYPE_IDX ON EXERCISE (SPORT_TYPE_ID, SPORT_SUBTYPE_ID);
+CREATE INDEX EXERCISE_EQUIPMENT_IDX ON EXERCISE (EQUIPMENT_ID);
+CREATE INDEX NOTE_DATE_TIME_IDX ON NOTE (DATE_TIME);
+CREATE INDEX WEIGHT_DATE_TIME_IDX ON WEIGHT (DATE_TIME);
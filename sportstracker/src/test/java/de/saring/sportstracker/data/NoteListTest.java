@@ -60,6 +60,13 @@ public class NoteListTest {
 
         EntryList<Note> entryList = list.getEntriesForFilter(filter);
         assertEquals(3, entryList.size());
+
+        // the found notes must be sorted by date and accessible by ID
+        assertEquals(2, entryList.getAt(0).getId());
+        assertEquals(1, entryList.getAt(1).getId());
+        assertEquals(3, entryList.getAt(2).getId());
+        assertEquals("Dummy note 3", entryList.getByID(3).getComment());
+        assertEquals(4, entryList.getNewID());
     }
 
     /**
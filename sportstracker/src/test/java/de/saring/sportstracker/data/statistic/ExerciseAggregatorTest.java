@@ -0,0 +1,153 @@
+package de.saring.sportstracker.data.statistic;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.Equipment;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+
+/**
+ * This class contains all unit tests for the ExerciseAggregator class.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseAggregatorTest {
+
+    private SportType sportType1;
+    private SportType sportType2;
+    private SportSubType sportSubType11;
+    private SportSubType sportSubType12;
+    private SportSubType sportSubType21;
+    private Equipment equipment11;
+
+    private ExerciseList exerciseList;
+
+    private ExerciseAggregator aggregator;
+
+    /**
+     * Creates two sport types with subtypes and an aggregator for the months January to March 2015.
+     */
+    @Before
+    public void setUp() {
+        sportType1 = new SportType(1);
+        sportSubType11 = new SportSubType(1);
+        sportSubType12 = new SportSubType(2);
+        equipment11 = new Equipment(1);
+        sportType1.getSportSubTypeList().set(sportSubType11);
+        sportType1.getSportSubTypeList().set(sportSubType12);
+        sportType1.getEquipmentList().set(equipment11);
+
+        // the subtype of the second sport type has the same ID as the first subtype of the first sport type
+        sportType2 = new SportType(2);
+        sportSubType21 = new SportSubType(1);
+        sportType2.getSportSubTypeList().set(sportSubType21);
+
+        exerciseList = new ExerciseList();
+
+        List<EntryFilter> timeSteps = new ArrayList<>();
+        for (int month = 1; month <= 3; month++) {
+            EntryFilter timeStep = new EntryFilter();
+            timeStep.setDateStart(LocalDate.of(2015, month, 1));
+            timeStep.setDateEnd(LocalDate.of(2015, month, 1).plusMonths(1).minusDays(1));
+            timeSteps.add(timeStep);
+        }
+        aggregator = new ExerciseAggregator(timeSteps);
+    }
+
+    /**
+     * Tests the calculation of the sums for all exercises of a time step.
+     */
+    @Test
+    public void testSums() {
+        addExercise(1, LocalDateTime.of(2014, 12, 31, 23, 0), sportType1, sportSubType11, null, 100);
+        addExercise(2, LocalDateTime.of(2015, 1, 1, 0, 0), sportType1, sportSubType11, null, 20);
+        addExercise(3, LocalDateTime.of(2015, 1, 31, 23, 0), sportType2, sportSubType21, null, 10.5f);
+        addExercise(4, LocalDateTime.of(2015, 3, 10, 10, 0), sportType1, sportSubType12, equipment11, 30);
+        addExercise(5, LocalDateTime.of(2015, 4, 1, 10, 0), sportType1, sportSubType12, null, 200);
+        aggregator.aggregate(exerciseList);
+
+        assertEquals(3, aggregator.getTimeStepCount());
+
+        ExerciseAggregator.Sums sumsJanuary = aggregator.getSums(0);
+        assertEquals(2, sumsJanuary.getExerciseCount());
+        assertEquals(30.5d, sumsJanuary.getDistance(), 0.001d);
+        assertEquals(2 * 3600, sumsJanuary.getDuration());
+        assertEquals(2 * 100, sumsJanuary.getAscent());
+        assertEquals(2 * 500, sumsJanuary.getCalories());
+
+        assertEquals(0, aggregator.getSums(1).getExerciseCount());
+        assertEquals(0d, aggregator.getSums(1).getDistance(), 0d);
+
+        assertEquals(1, aggregator.getSums(2).getExerciseCount());
+        assertEquals(30d, aggregator.getSums(2).getDistance(), 0.001d);
+    }
+
+    /**
+     * Tests the calculation of the sums for sport types, sport subtypes and equipments.
+     */
+    @Test
+    public void testSumsForGroups() {
+        addExercise(1, LocalDateTime.of(2015, 1, 2, 10, 0), sportType1, sportSubType11, null, 20);
+        addExercise(2, LocalDateTime.of(2015, 1, 3, 10, 0), sportType1, sportSubType12, equipment11, 30);
+        addExercise(3, LocalDateTime.of(2015, 1, 4, 10, 0), sportType1, sportSubType11, equipment11, 40);
+        addExercise(4, LocalDateTime.of(2015, 1, 5, 10, 0), sportType2, sportSubType21, null, 5);
+        aggregator.aggregate(exerciseList);
+
+        assertEquals(90d, aggregator.getSumsForSportType(0, sportType1).getDistance(), 0.001d);
+        assertEquals(5d, aggregator.getSumsForSportType(0, sportType2).getDistance(), 0.001d);
+        assertEquals(0, aggregator.getSumsForSportType(1, sportType1).getExerciseCount());
+
+        // the subtypes with the same ID must be summed separately for each sport type
+        assertEquals(60d, aggregator.getSumsForSportSubType(0, sportType1, sportSubType11).getDistance(), 0.001d);
+        assertEquals(30d, aggregator.getSumsForSportSubType(0, sportType1, sportSubType12).getDistance(), 0.001d);
+        assertEquals(5d, aggregator.getSumsForSportSubType(0, sportType2, sportSubType21).getDistance(), 0.001d);
+
+        assertEquals(70d, aggregator.getSumsForEquipment(0, sportType1, equipment11).getDistance(), 0.001d);
+        assertEquals(20d, aggregator.getSumsForEquipment(0, sportType1, null).getDistance(), 0.001d);
+        assertEquals(5d, aggregator.getSumsForEquipment(0, sportType2, null).getDistance(), 0.001d);
+        assertEquals(0d, aggregator.getSumsForEquipment(0, sportType2, equipment11).getDistance(), 0d);
+    }
+
+    /**
+     * Tests the creation: must fail when the time steps are overlapping.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlappingTimeSteps() {
+        List<EntryFilter> timeSteps = new ArrayList<>();
+        EntryFilter timeStep1 = new EntryFilter();
+        timeStep1.setDateStart(LocalDate.of(2015, 1, 1));
+        timeStep1.setDateEnd(LocalDate.of(2015, 1, 31));
+        timeSteps.add(timeStep1);
+        EntryFilter timeStep2 = new EntryFilter();
+        timeStep2.setDateStart(LocalDate.of(2015, 1, 31));
+        timeStep2.setDateEnd(LocalDate.of(2015, 2, 28));
+        timeSteps.add(timeStep2);
+
+        new ExerciseAggregator(timeSteps);
+    }
+
+    private void addExercise(int id, LocalDateTime dateTime, SportType sportType, SportSubType sportSubType,
+            Equipment equipment, float distance) {
+        Exercise exercise = new Exercise(id);
+        exercise.setDateTime(dateTime);
+        exercise.setSportType(sportType);
+        exercise.setSportSubType(sportSubType);
+        exercise.setEquipment(equipment);
+        exercise.setDistance(distance);
+        exercise.setDuration(3600);
+        exercise.setAscent(100);
+        exercise.setCalories(500);
+        exerciseList.set(exercise);
+    }
+}
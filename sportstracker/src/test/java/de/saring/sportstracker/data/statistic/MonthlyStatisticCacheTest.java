@@ -0,0 +1,146 @@
+package de.saring.sportstracker.data.statistic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+
+/**
+ * This class contains all unit tests for the MonthlyStatisticCache class.
+ *
+ * @author Stefan Saring
+ */
+public class MonthlyStatisticCacheTest {
+
+    private SportType sportType1;
+    private SportType sportType2;
+    private SportSubType sportSubType1;
+
+    private ExerciseList exerciseList;
+    private MonthlyStatisticCache cache;
+
+    /**
+     * Creates an exercise list with exercises of two sport types from December 2014 to March 2015.
+     */
+    @Before
+    public void setUp() {
+        sportType1 = new SportType(1);
+        sportSubType1 = new SportSubType(1);
+        sportType1.getSportSubTypeList().set(sportSubType1);
+        sportType2 = new SportType(2);
+
+        exerciseList = new ExerciseList();
+        exerciseList.set(createExercise(1, LocalDateTime.of(2014, 12, 31, 10, 0), sportType1, 10));
+        exerciseList.set(createExercise(2, LocalDateTime.of(2015, 1, 1, 10, 0), sportType1, 20));
+        exerciseList.set(createExercise(3, LocalDateTime.of(2015, 1, 15, 10, 0), sportType2, 30));
+        exerciseList.set(createExercise(4, LocalDateTime.of(2015, 2, 10, 10, 0), sportType1, 40));
+        exerciseList.set(createExercise(5, LocalDateTime.of(2015, 3, 20, 10, 0), sportType2, 50));
+
+        cache = new MonthlyStatisticCache(exerciseList);
+    }
+
+    /**
+     * Tests the statistic for date ranges with complete and partial months, the results
+     * must be the same as the statistic of the filtered exercise list.
+     */
+    @Test
+    public void testGetStatisticForFilter() {
+        assertStatisticForFilter(createFilter(LocalDate.of(2015, 1, 1), LocalDate.of(2015, 2, 28), null), 3, 90);
+        assertStatisticForFilter(createFilter(LocalDate.of(2014, 12, 15), LocalDate.of(2015, 3, 19), null), 4, 100);
+        assertStatisticForFilter(createFilter(LocalDate.of(2000, 1, 1), LocalDate.of(2020, 12, 31), null), 5, 150);
+        assertStatisticForFilter(createFilter(LocalDate.of(2014, 1, 1), LocalDate.of(2015, 12, 31), sportType2), 2, 80);
+        assertStatisticForFilter(createFilter(LocalDate.of(2016, 1, 1), LocalDate.of(2016, 12, 31), null), 0, 0);
+    }
+
+    /**
+     * Tests that filters with unsupported criteria are not processed by the cache.
+     */
+    @Test
+    public void testGetStatisticForUnsupportedFilter() {
+        EntryFilter filter = createFilter(LocalDate.of(2015, 1, 1), LocalDate.of(2015, 2, 28), sportType1);
+        filter.setSportSubType(sportSubType1);
+        assertFalse(cache.getStatisticForFilter(filter).isPresent());
+
+        filter = createFilter(LocalDate.of(2015, 1, 1), LocalDate.of(2015, 2, 28), null);
+        filter.setCommentSubString("foo");
+        assertFalse(cache.getStatisticForFilter(filter).isPresent());
+    }
+
+    /**
+     * Tests that the cached values are updated on all kinds of exercise list changes.
+     */
+    @Test
+    public void testListChanges() {
+        EntryFilter filter = createFilter(LocalDate.of(2015, 1, 1), LocalDate.of(2015, 2, 28), null);
+        assertStatisticForFilter(filter, 3, 90);
+
+        // add a new exercise
+        exerciseList.set(createExercise(6, LocalDateTime.of(2015, 2, 11, 10, 0), sportType1, 5));
+        assertStatisticForFilter(filter, 4, 95);
+
+        // move an existing exercise (same object) out of the date range
+        Exercise exercise = exerciseList.getByID(4);
+        exercise.setDateTime(LocalDateTime.of(2015, 3, 1, 10, 0));
+        exerciseList.set(exercise);
+        assertStatisticForFilter(filter, 3, 55);
+
+        // replace an exercise by a new object with the same ID
+        exerciseList.set(createExercise(2, LocalDateTime.of(2015, 1, 1, 10, 0), sportType1, 25));
+        assertStatisticForFilter(filter, 3, 60);
+
+        // remove an exercise
+        exerciseList.removeByID(3);
+        assertStatisticForFilter(filter, 2, 30);
+
+        // replace the complete content
+        List<Exercise> exercises = new ArrayList<>();
+        exercises.add(createExercise(10, LocalDateTime.of(2015, 1, 20, 10, 0), sportType1, 100));
+        exercises.add(createExercise(11, LocalDateTime.of(2015, 2, 20, 10, 0), sportType2, 200));
+        exercises.add(createExercise(12, LocalDateTime.of(2015, 5, 20, 10, 0), sportType2, 300));
+        exerciseList.clearAndAddAll(exercises);
+        assertStatisticForFilter(filter, 2, 300);
+    }
+
+    private void assertStatisticForFilter(EntryFilter filter, int expectedCount, double expectedDistance) {
+        StatisticAccumulator accumulator = cache.getStatisticForFilter(filter).get();
+        StatisticAccumulator expected = StatisticAccumulator.of(exerciseList.getEntriesForFilter(filter));
+
+        assertEquals(expectedCount, accumulator.getExerciseCount());
+        assertEquals(expected.getExerciseCount(), accumulator.getExerciseCount());
+        assertEquals(expectedDistance, accumulator.getTotalDistance(), 0.01d);
+        assertEquals(expected.getTotalDistance(), accumulator.getTotalDistance(), 0.01d);
+        assertEquals(expected.getTotalDuration(), accumulator.getTotalDuration());
+        assertEquals(expected.getMaxDistance(), accumulator.getMaxDistance(), 0f);
+        assertEquals(expected.getMinDistance(), accumulator.getMinDistance(), 0f);
+    }
+
+    private static EntryFilter createFilter(LocalDate dateStart, LocalDate dateEnd, SportType sportType) {
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(dateStart);
+        filter.setDateEnd(dateEnd);
+        filter.setSportType(sportType);
+        return filter;
+    }
+
+    private static Exercise createExercise(int id, LocalDateTime dateTime, SportType sportType, float distance) {
+        Exercise exercise = new Exercise(id);
+        exercise.setDateTime(dateTime);
+        exercise.setSportType(sportType);
+        exercise.setDistance(distance);
+        exercise.setAvgSpeed(20);
+        exercise.setDuration(3600);
+        return exercise;
+    }
+}
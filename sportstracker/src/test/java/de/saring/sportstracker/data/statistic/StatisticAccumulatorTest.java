@@ -0,0 +1,177 @@
+package de.saring.sportstracker.data.statistic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.saring.sportstracker.data.Exercise;
+import de.saring.util.data.IdObjectList;
+
+/**
+ * This class contains all unit tests for the StatisticAccumulator class.
+ *
+ * @author Stefan Saring
+ */
+public class StatisticAccumulatorTest {
+
+    private Exercise exercise1;
+    private Exercise exercise2;
+    private Exercise exercise3;
+
+    /**
+     * This method initializes the environment for testing.
+     */
+    @Before
+    public void setUp() {
+        exercise1 = createExercise(1, 20, 20, 3600, 350, 138, 0);
+        exercise2 = createExercise(2, 6, 8.2f, 2634, 0, 140, 890);
+        exercise3 = createExercise(3, 31, 19, 5873, 310, 0, 620);
+    }
+
+    /**
+     * Tests the adding of exercises.
+     */
+    @Test
+    public void testAdd() {
+        StatisticAccumulator accumulator = new StatisticAccumulator();
+        accumulator.add(exercise1);
+        accumulator.add(exercise2);
+        accumulator.add(exercise3);
+
+        assertEquals(3, accumulator.getExerciseCount());
+        assertEquals(3, accumulator.getExercisesWithDistanceCount());
+        assertEquals(2, accumulator.getExercisesWithHeartRateCount());
+        assertEquals(2, accumulator.getExercisesWithCaloriesCount());
+        assertEquals(57d, accumulator.getTotalDistance(), 0.01d);
+        assertEquals(12107, accumulator.getTotalDuration());
+        assertEquals(660, accumulator.getTotalAscent());
+        assertEquals(278, accumulator.getTotalHeartRate());
+        assertEquals(1510, accumulator.getTotalCalories());
+
+        assertEquals(6f, accumulator.getMinDistance(), 0f);
+        assertEquals(0, accumulator.getMinAscent());
+        assertEquals(138, accumulator.getMinAvgHeartRate());
+        assertEquals(620, accumulator.getMinCalories());
+        assertEquals(31f, accumulator.getMaxDistance(), 0f);
+        assertEquals(5873, accumulator.getMaxDuration());
+        assertEquals(140, accumulator.getMaxAvgHeartRate());
+        assertTrue(accumulator.isMinMaxValid());
+    }
+
+    /**
+     * Tests the removal of exercises: the sums must be updated, the min and max values
+     * are invalid when the removed exercise contained one of them.
+     */
+    @Test
+    public void testRemove() {
+        StatisticAccumulator accumulator = new StatisticAccumulator();
+        accumulator.add(exercise1);
+        accumulator.add(exercise2);
+        accumulator.add(exercise3);
+
+        accumulator.remove(exercise3);
+        assertEquals(2, accumulator.getExerciseCount());
+        assertEquals(26d, accumulator.getTotalDistance(), 0.01d);
+        assertEquals(6234, accumulator.getTotalDuration());
+        assertEquals(1, accumulator.getExercisesWithCaloriesCount());
+        assertFalse(accumulator.isMinMaxValid());
+
+        // the min and max values are valid again when all exercises are removed
+        accumulator.remove(exercise1);
+        accumulator.remove(exercise2);
+        assertEquals(0, accumulator.getExerciseCount());
+        assertEquals(0f, accumulator.getMaxDistance(), 0f);
+        assertTrue(accumulator.isMinMaxValid());
+    }
+
+    /**
+     * Tests the removal of exercises from an empty accumulator, this must fail.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRemoveFromEmpty() {
+        new StatisticAccumulator().remove(exercise1);
+    }
+
+    /**
+     * Tests the combination of partial values, the results must be the same as when
+     * all exercises were added to one accumulator.
+     */
+    @Test
+    public void testCombine() {
+        StatisticAccumulator accumulator1 = new StatisticAccumulator();
+        accumulator1.add(exercise1);
+        StatisticAccumulator accumulator2 = new StatisticAccumulator();
+        accumulator2.add(exercise2);
+        accumulator2.add(exercise3);
+
+        StatisticAccumulator combined = new StatisticAccumulator();
+        combined.combine(accumulator1);
+        combined.combine(new StatisticAccumulator());
+        combined.combine(accumulator2);
+
+        StatisticCalculator expected = new StatisticCalculator(StatisticAccumulator.of(
+                Arrays.asList(exercise1, exercise2, exercise3)));
+        StatisticCalculator actual = new StatisticCalculator(combined);
+
+        assertEquals(expected.getExerciseCount(), actual.getExerciseCount());
+        assertEquals(expected.getTotalDistance(), actual.getTotalDistance(), 0.01d);
+        assertEquals(expected.getAvgSpeed(), actual.getAvgSpeed(), 0.01f);
+        assertEquals(expected.getAvgHeartRate(), actual.getAvgHeartRate());
+        assertEquals(expected.getAvgCalories(), actual.getAvgCalories());
+        assertEquals(expected.getMinDuration(), actual.getMinDuration());
+        assertEquals(expected.getMinAvgHeartRate(), actual.getMinAvgHeartRate());
+        assertEquals(expected.getMinCalories(), actual.getMinCalories());
+        assertEquals(expected.getMaxAscent(), actual.getMaxAscent());
+        assertEquals(expected.getMaxAvgSpeed(), actual.getMaxAvgSpeed(), 0f);
+    }
+
+    /**
+     * Tests of() and ofParallel() for a list which is processed in parallel, the floating
+     * point totals must be exactly the same. The totals of a list with only one chunk must
+     * be exactly the same as when all exercises were added to one accumulator.
+     */
+    @Test
+    public void testOfParallel() {
+        IdObjectList<Exercise> exercises = new IdObjectList<>();
+        for (int i = 1; i <= StatisticAccumulator.PARALLEL_THRESHOLD * 2 + 123; i++) {
+            Exercise exercise = new Exercise(i);
+            exercise.setDistance((i % 97) * 0.37f + 1f / i);
+            exercise.setAvgSpeed(5 + (i % 31) * 0.83f + 1f / i);
+            exercise.setDuration(600 + (i % 173) * 31);
+            exercises.set(exercise);
+        }
+
+        StatisticAccumulator sequential = StatisticAccumulator.of(exercises);
+        StatisticAccumulator parallel = StatisticAccumulator.ofParallel(exercises);
+        assertEquals(sequential.getExerciseCount(), parallel.getExerciseCount());
+        assertEquals(sequential.getTotalDistance(), parallel.getTotalDistance(), 0d);
+        assertEquals(sequential.getTotalAvgSpeed(), parallel.getTotalAvgSpeed(), 0d);
+        assertEquals(sequential.getTotalDuration(), parallel.getTotalDuration());
+
+        StatisticAccumulator added = new StatisticAccumulator();
+        exercises.stream().limit(StatisticAccumulator.CHUNK_SIZE).forEach(added::add);
+        StatisticAccumulator oneChunk = StatisticAccumulator.of(
+                () -> exercises.stream().limit(StatisticAccumulator.CHUNK_SIZE).iterator());
+        assertEquals(added.getTotalDistance(), oneChunk.getTotalDistance(), 0d);
+        assertEquals(added.getTotalAvgSpeed(), oneChunk.getTotalAvgSpeed(), 0d);
+    }
+
+    private static Exercise createExercise(int id, float distance, float avgSpeed, int duration, int ascent,
+            int avgHeartRate, int calories) {
+        Exercise exercise = new Exercise(id);
+        exercise.setDateTime(LocalDateTime.of(2015, 1, id, 10, 0));
+        exercise.setDistance(distance);
+        exercise.setAvgSpeed(avgSpeed);
+        exercise.setDuration(duration);
+        exercise.setAscent(ascent);
+        exercise.setAvgHeartRate(avgHeartRate);
+        exercise.setCalories(calories);
+        return exercise;
+    }
+}
@@ -0,0 +1,79 @@
+package de.saring.sportstracker.data.statistic;
+
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+import de.saring.util.data.IdObjectList;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simple benchmark which compares the sequential and the parallel statistic calculation for
+ * 10k, 100k and 1M synthetic exercises. It's not a unit test, start it by the main() method
+ * (the 1M exercises need a heap size of about 1 GB).
+ *
+ * @author Stefan Saring
+ */
+public class StatisticCalculatorBenchmark {
+
+    private static final int[] EXERCISE_COUNTS = {10_000, 100_000, 1_000_000};
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        for (int exerciseCount : EXERCISE_COUNTS) {
+            IdObjectList<Exercise> exercises = createExercises(exerciseCount);
+
+            double sequentialTime = measure(() -> new StatisticCalculator(exercises, false));
+            double parallelTime = measure(() -> new StatisticCalculator(exercises, true));
+
+            System.out.printf("%,9d exercises: sequential %8.2f ms, parallel %8.2f ms (%d cores)%n",
+                    exerciseCount, sequentialTime, parallelTime, Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private static IdObjectList<Exercise> createExercises(int exerciseCount) {
+        SportType sportType = new SportType(1);
+        SportSubType sportSubType = new SportSubType(1);
+        sportType.getSportSubTypeList().set(sportSubType);
+
+        Random random = new Random(42);
+        LocalDateTime dateTime = LocalDateTime.of(2000, 1, 1, 10, 0);
+        List<Exercise> entries = new ArrayList<>(exerciseCount);
+
+        for (int i = 1; i <= exerciseCount; i++) {
+            Exercise exercise = new Exercise(i);
+            exercise.setSportType(sportType);
+            exercise.setSportSubType(sportSubType);
+            exercise.setDateTime(dateTime.plusHours(i * 6L));
+            exercise.setIntensity(Exercise.IntensityType.NORMAL);
+            exercise.setDistance(random.nextInt(200) + random.nextInt(10) / 10f);
+            exercise.setAvgSpeed(10 + random.nextInt(300) / 10f);
+            exercise.setDuration(600 + random.nextInt(20000));
+            exercise.setAscent(random.nextInt(2000));
+            exercise.setAvgHeartRate(random.nextInt(4) == 0 ? 0 : 100 + random.nextInt(80));
+            exercise.setCalories(random.nextInt(4) == 0 ? 0 : random.nextInt(3000));
+            entries.add(exercise);
+        }
+
+        IdObjectList<Exercise> exercises = new IdObjectList<>();
+        exercises.clearAndAddAll(entries);
+        return exercises;
+    }
+
+    /**
+     * Runs the task for warmup and returns the best execution time of the following rounds in milliseconds.
+     */
+    private static double measure(Runnable task) {
+        task.run();
+        long bestTime = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startTime = System.nanoTime();
+            task.run();
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+        }
+        return bestTime / 1_000_000d;
+    }
+}
@@ -120,4 +120,60 @@ public class StatisticCalculatorTest {
         assertEquals(140, calculator.getMaxAvgHeartRate());
         assertEquals(890, calculator.getMaxCalories());
     }
+
+    /**
+     * Tests the parallel calculation for a large list of exercises, the results must be
+     * exactly the same as for the sequential calculation.
+     */
+    @Test
+    public void testStatisticCalculatorParallel() {
+        IdObjectList<Exercise> lLargeExercises = new IdObjectList<>();
+        SportType sportType = lExercises.getAt(0).getSportType();
+        LocalDateTime dateTime = LocalDateTime.of(2000, 1, 1, 10, 0);
+
+        for (int i = 1; i <= StatisticAccumulator.PARALLEL_THRESHOLD * 3 + 17; i++) {
+            Exercise exercise = new Exercise(i);
+            exercise.setSportType(sportType);
+            exercise.setSportSubType(sportType.getSportSubTypeList().getAt(0));
+            exercise.setDateTime(dateTime.plusHours(i));
+            exercise.setIntensity(Exercise.IntensityType.NORMAL);
+            exercise.setDistance(i % 50 == 0 ? 0 : (i % 97) * 0.37f + 1f / i);
+            exercise.setAvgSpeed(i % 50 == 0 ? 0 : 5 + (i % 31) * 0.83f + 1f / i);
+            exercise.setDuration(600 + (i % 173) * 31);
+            exercise.setAscent((i * 7) % 1200);
+            exercise.setAvgHeartRate(i % 3 == 0 ? 0 : 90 + (i % 91));
+            exercise.setCalories(i % 5 == 0 ? 0 : 100 + (i % 1013));
+            lLargeExercises.set(exercise);
+        }
+
+        StatisticCalculator sequential = new StatisticCalculator(lLargeExercises);
+        StatisticCalculator parallel = new StatisticCalculator(lLargeExercises, true);
+
+        assertEquals(sequential.getExerciseCount(), parallel.getExerciseCount());
+        assertEquals(sequential.getTotalDistance(), parallel.getTotalDistance(), 0d);
+        assertEquals(sequential.getTotalDuration(), parallel.getTotalDuration());
+        assertEquals(sequential.getTotalAscent(), parallel.getTotalAscent());
+        assertEquals(sequential.getTotalCalories(), parallel.getTotalCalories());
+
+        assertEquals(sequential.getAvgDistance(), parallel.getAvgDistance(), 0f);
+        assertEquals(sequential.getAvgSpeed(), parallel.getAvgSpeed(), 0f);
+        assertEquals(sequential.getAvgDuration(), parallel.getAvgDuration());
+        assertEquals(sequential.getAvgAscent(), parallel.getAvgAscent());
+        assertEquals(sequential.getAvgHeartRate(), parallel.getAvgHeartRate());
+        assertEquals(sequential.getAvgCalories(), parallel.getAvgCalories());
+
+        assertEquals(sequential.getMinDistance(), parallel.getMinDistance(), 0f);
+        assertEquals(sequential.getMinAvgSpeed(), parallel.getMinAvgSpeed(), 0f);
+        assertEquals(sequential.getMinDuration(), parallel.getMinDuration());
+        assertEquals(sequential.getMinAscent(), parallel.getMinAscent());
+        assertEquals(sequential.getMinAvgHeartRate(), parallel.getMinAvgHeartRate());
+        assertEquals(sequential.getMinCalories(), parallel.getMinCalories());
+
+        assertEquals(sequential.getMaxDistance(), parallel.getMaxDistance(), 0f);
+        assertEquals(sequential.getMaxAvgSpeed(), parallel.getMaxAvgSpeed(), 0f);
+        assertEquals(sequential.getMaxDuration(), parallel.getMaxDuration());
+        assertEquals(sequential.getMaxAscent(), parallel.getMaxAscent());
+        assertEquals(sequential.getMaxAvgHeartRate(), parallel.getMaxAvgHeartRate());
+        assertEquals(sequential.getMaxCalories(), parallel.getMaxCalories());
+    }
 }
@@ -2,12 +2,43 @@ package de.saring.sportstracker.gui;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.core.STExceptionID;
+import de.saring.sportstracker.data.EntryFilter;
+import de.saring.sportstracker.data.EntryList;
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.NoteList;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+import de.saring.sportstracker.data.Weight;
+import de.saring.sportstracker.data.WeightList;
+import de.saring.sportstracker.storage.IStorage;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anySetOf;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.same;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests of class STDocument/Impl. All the involved components will be
@@ -46,4 +77,182 @@ public class STDocumentTest {
         document.evaluateCommandLineParameters(Arrays.asList("--foo", "--datadir=temp"));
         assertEquals("temp", documentImpl.getDataDirectory());
     }
+
+    /**
+     * Test of method getFilterableExerciseList(): the filter result must be reused until the
+     * exercise list or the filter has been changed.
+     */
+    @Test
+    public void testGetFilterableExerciseListCached() {
+        document.getExerciseList().set(createExercise(1, LocalDateTime.now()));
+        assertSame(document.getExerciseList(), document.getFilterableExerciseList());
+
+        // the filter result must be reused
+        document.setCurrentFilter(EntryFilter.createDefaultExerciseFilter());
+        document.setFilterEnabled(true);
+        EntryList<Exercise> filteredExercises = document.getFilterableExerciseList();
+        assertEquals(1, filteredExercises.size());
+        assertSame(filteredExercises, document.getFilterableExerciseList());
+
+        // the filter result must be created again after the exercise list has been changed
+        document.getExerciseList().set(createExercise(2, LocalDateTime.now()));
+        filteredExercises = document.getFilterableExerciseList();
+        assertEquals(2, filteredExercises.size());
+        assertSame(filteredExercises, document.getFilterableExerciseList());
+
+        // the filter result must be created again after the filter has been changed
+        EntryFilter filter = EntryFilter.createDefaultExerciseFilter();
+        filter.setDateEnd(LocalDate.now().minusYears(1));
+        filter.setDateStart(LocalDate.now().minusYears(2));
+        document.setCurrentFilter(filter);
+        assertEquals(0, document.getFilterableExerciseList().size());
+
+        document.setFilterEnabled(false);
+        assertSame(document.getExerciseList(), document.getFilterableExerciseList());
+    }
+
+    /**
+     * Test of method getExercisesForFilter(): the storage must be used only when it supports
+     * the reading of filtered exercises and when all exercise changes have been stored.
+     */
+    @Test
+    public void testGetExercisesForFilter() throws STException {
+        IStorage storageMock = mock(IStorage.class);
+        ExerciseList storedExercises = new ExerciseList();
+        when(storageMock.readSportTypeList(anyString())).thenReturn(new SportTypeList());
+        when(storageMock.readExerciseList(anyString(), any(SportTypeList.class))).thenReturn(new ExerciseList());
+        when(storageMock.readNoteList(anyString())).thenReturn(new NoteList());
+        when(storageMock.readWeightList(anyString())).thenReturn(new WeightList());
+        when(storageMock.isExerciseFilterSupported()).thenReturn(true);
+        when(storageMock.readExerciseList(anyString(), any(SportTypeList.class), any(EntryFilter.class)))
+                .thenReturn(storedExercises);
+
+        STDocument document = new STDocumentImpl(mock(STContext.class), storageMock);
+        document.readApplicationData();
+        EntryFilter filter = EntryFilter.createDefaultExerciseFilter();
+        assertSame(storedExercises, document.getExercisesForFilter(filter));
+
+        // the unsaved exercise must be found in the exercise list
+        document.getExerciseList().set(createExercise(1, LocalDateTime.now()));
+        EntryList<Exercise> exercises = document.getExercisesForFilter(filter);
+        assertEquals(1, exercises.size());
+        assertEquals(1, exercises.getAt(0).getId());
+
+        document.storeApplicationData();
+        assertSame(storedExercises, document.getExercisesForFilter(filter));
+    }
+
+    private Exercise createExercise(int id, LocalDateTime dateTime) {
+        Exercise exercise = new Exercise(id);
+        exercise.setDateTime(dateTime);
+        return exercise;
+    }
+
+    /**
+     * Test of method storeApplicationData(): only the modified lists must be stored.
+     */
+    @Test
+    public void testStoreApplicationDataModifiedListsOnly() throws STException {
+        IStorage storageMock = mock(IStorage.class);
+        when(storageMock.readSportTypeList(anyString())).thenReturn(new SportTypeList());
+        when(storageMock.readExerciseList(anyString(), any(SportTypeList.class))).thenReturn(new ExerciseList());
+        when(storageMock.readNoteList(anyString())).thenReturn(new NoteList());
+        when(storageMock.readWeightList(anyString())).thenReturn(new WeightList());
+
+        STDocument document = new STDocumentImpl(mock(STContext.class), storageMock);
+        document.readApplicationData();
+        assertFalse(document.isDirtyData());
+
+        Weight weight = new Weight(1);
+        weight.setDateTime(LocalDateTime.of(2015, 1, 10, 12, 0));
+        weight.setValue(70);
+        document.getWeightList().set(weight);
+        assertTrue(document.isDirtyData());
+
+        document.storeApplicationData();
+        assertFalse(document.isDirtyData());
+        verify(storageMock).storeWeightList(same(document.getWeightList()), anyString(), eq(Collections.singleton(1)));
+        verify(storageMock, never()).storeSportTypeList(any(SportTypeList.class), anyString());
+        verify(storageMock, never()).storeExerciseList(any(ExerciseList.class), anyString(), anySetOf(Integer.class));
+        verify(storageMock, never()).storeNoteList(any(NoteList.class), anyString(), anySetOf(Integer.class));
+    }
+
+    /**
+     * Test of method storeApplicationData(): the exercises must be stored too when the sport
+     * type list has been modified, the sport type changes are applied to the exercises directly.
+     */
+    @Test
+    public void testStoreApplicationDataSportTypesModified() throws STException {
+        IStorage storageMock = mock(IStorage.class);
+        when(storageMock.readSportTypeList(anyString())).thenReturn(new SportTypeList());
+        when(storageMock.readExerciseList(anyString(), any(SportTypeList.class))).thenReturn(new ExerciseList());
+        when(storageMock.readNoteList(anyString())).thenReturn(new NoteList());
+        when(storageMock.readWeightList(anyString())).thenReturn(new WeightList());
+
+        STDocument document = new STDocumentImpl(mock(STContext.class), storageMock);
+        document.readApplicationData();
+
+        SportType sportType = new SportType(1);
+        sportType.setName("Cycling");
+        document.getSportTypeList().set(sportType);
+        assertTrue(document.isDirtyData());
+
+        document.storeApplicationData();
+        assertFalse(document.isDirtyData());
+        verify(storageMock).storeSportTypeList(same(document.getSportTypeList()), anyString());
+        verify(storageMock).storeExerciseList(same(document.getExerciseList()), anyString(), anySetOf(Integer.class));
+        verify(storageMock, never()).storeNoteList(any(NoteList.class), anyString(), anySetOf(Integer.class));
+        verify(storageMock, never()).storeWeightList(any(WeightList.class), anyString(), anySetOf(Integer.class));
+    }
+
+    /**
+     * Test of method createStoreOperation(): the operation must store copies of the modified lists,
+     * the data must be dirty until the operation has been finished successfully.
+     */
+    @Test
+    public void testCreateStoreOperation() throws STException {
+        IStorage storageMock = mock(IStorage.class);
+        when(storageMock.readSportTypeList(anyString())).thenReturn(new SportTypeList());
+        when(storageMock.readExerciseList(anyString(), any(SportTypeList.class))).thenReturn(new ExerciseList());
+        when(storageMock.readNoteList(anyString())).thenReturn(new NoteList());
+        when(storageMock.readWeightList(anyString())).thenReturn(new WeightList());
+
+        STDocument document = new STDocumentImpl(mock(STContext.class), storageMock);
+        document.readApplicationData();
+        assertNull(document.createStoreOperation());
+
+        Weight weight = new Weight(1);
+        weight.setDateTime(LocalDateTime.of(2015, 1, 10, 12, 0));
+        weight.setValue(70);
+        document.getWeightList().set(weight);
+
+        // the data is unsaved until the operation has been finished
+        STDocument.StoreOperation storeOperation = document.createStoreOperation();
+        assertTrue(document.isDirtyData());
+        assertNull(document.createStoreOperation());
+
+        // modifications after the creation must not be stored by the operation
+        document.getWeightList().removeByID(1);
+        storeOperation.store();
+        ArgumentCaptor<WeightList> weightListCaptor = ArgumentCaptor.forClass(WeightList.class);
+        verify(storageMock).storeWeightList(weightListCaptor.capture(), anyString(), eq(Collections.singleton(1)));
+        assertEquals(1, weightListCaptor.getValue().size());
+        verify(storageMock, never()).storeExerciseList(any(ExerciseList.class), anyString(), anySetOf(Integer.class));
+        assertTrue(document.isDirtyData());
+
+        document.createStoreOperation().store();
+        assertFalse(document.isDirtyData());
+
+        // the failed list must be marked as modified again
+        document.getWeightList().set(weight);
+        doThrow(new STException(STExceptionID.XMLSTORAGE_STORE_WEIGHT_LIST, "Failed to store!"))
+                .when(storageMock).storeWeightList(any(WeightList.class), anyString(), anySetOf(Integer.class));
+        storeOperation = document.createStoreOperation();
+        try {
+            storeOperation.store();
+            fail("The store operation must fail!");
+        } catch (STException e) {
+            assertTrue(document.isDirtyData());
+        }
+    }
 }
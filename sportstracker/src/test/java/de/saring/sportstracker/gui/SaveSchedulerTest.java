@@ -0,0 +1,181 @@
+package de.saring.sportstracker.gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.core.STExceptionID;
+
+/**
+ * This class contains all unit tests for the SaveScheduler class.
+ *
+ * @author Stefan Saring
+ */
+public class SaveSchedulerTest {
+
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private AtomicInteger createdOperationCount;
+    private AtomicInteger storeCount;
+    private STException storeException;
+
+    // the class instance to be tested
+    private SaveScheduler saveScheduler;
+
+    @Before
+    public void setUp() {
+        createdOperationCount = new AtomicInteger();
+        storeCount = new AtomicInteger();
+        storeException = null;
+
+        // the UI executor runs the tasks directly in the calling thread
+        saveScheduler = new SaveScheduler(() -> {
+            createdOperationCount.incrementAndGet();
+            return () -> {
+                if (storeException != null) {
+                    throw storeException;
+                }
+                storeCount.incrementAndGet();
+            };
+        }, Runnable::run, QUIET_PERIOD_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        saveScheduler.shutdown();
+    }
+
+    /**
+     * Tests that multiple save requests in the quiet period are coalesced into one save.
+     */
+    @Test
+    public void testRequestSaveCoalesced() throws InterruptedException {
+        CountDownLatch saveLatch = new CountDownLatch(1);
+        AtomicReference<Throwable> saveResult = new AtomicReference<>(new Throwable());
+        saveScheduler.setScheduledSaveResultHandler(throwable -> {
+            saveResult.set(throwable);
+            saveLatch.countDown();
+        });
+
+        for (int i = 0; i < 5; i++) {
+            saveScheduler.requestSave();
+        }
+        assertEquals(5, saveScheduler.getPendingRequestCount());
+        assertEquals(0, storeCount.get());
+
+        assertTrue(saveLatch.await(5, TimeUnit.SECONDS));
+        assertNull(saveResult.get());
+        assertEquals(1, createdOperationCount.get());
+        assertEquals(1, storeCount.get());
+        assertEquals(0, saveScheduler.getPendingRequestCount());
+        assertEquals(0, saveScheduler.getQueueDepth());
+        assertTrue(saveScheduler.getLastSaveDuration() >= 0);
+        assertTrue(saveScheduler.getLastSaveLatency() >= QUIET_PERIOD_MILLIS);
+    }
+
+    /**
+     * Tests that the immediate save replaces the scheduled save.
+     */
+    @Test
+    public void testSaveNow() throws InterruptedException {
+        saveScheduler.requestSave();
+        saveScheduler.saveNow().join();
+        assertEquals(1, storeCount.get());
+        assertEquals(0, saveScheduler.getPendingRequestCount());
+
+        // the scheduled save must not be executed anymore
+        Thread.sleep(QUIET_PERIOD_MILLIS * 2);
+        assertEquals(1, createdOperationCount.get());
+        assertEquals(1, storeCount.get());
+    }
+
+    /**
+     * Tests the immediate save when the store operation fails.
+     */
+    @Test
+    public void testSaveNowFailed() {
+        storeException = new STException(STExceptionID.XMLSTORAGE_STORE_NOTE_LIST, "Failed to store!");
+
+        try {
+            saveScheduler.saveNow().join();
+            fail("The save must fail!");
+        } catch (CompletionException e) {
+            assertSame(storeException, e.getCause());
+        }
+        assertEquals(0, saveScheduler.getQueueDepth());
+    }
+
+    /**
+     * Tests that no save is executed when there is no store operation (no modified data).
+     */
+    @Test
+    public void testSaveNowNothingToStore() {
+        saveScheduler.shutdown();
+        saveScheduler = new SaveScheduler(() -> null, Runnable::run, QUIET_PERIOD_MILLIS);
+        saveScheduler.saveNow().join();
+        assertEquals(-1, saveScheduler.getLastSaveDuration());
+    }
+
+    /**
+     * Tests that finishing the saves starts the pending save and completes after the save
+     * result has been passed to the result handler.
+     */
+    @Test
+    public void testFinishSaves() {
+        storeException = new STException(STExceptionID.XMLSTORAGE_STORE_NOTE_LIST, "Failed to store!");
+        AtomicReference<Throwable> saveResult = new AtomicReference<>();
+        saveScheduler.setScheduledSaveResultHandler(saveResult::set);
+
+        saveScheduler.requestSave();
+        saveScheduler.finishSaves().join();
+        assertSame(storeException, saveResult.get());
+        assertEquals(1, createdOperationCount.get());
+        assertEquals(0, saveScheduler.getPendingRequestCount());
+        assertEquals(0, saveScheduler.getQueueDepth());
+
+        // nothing to do without pending requests
+        saveScheduler.finishSaves().join();
+        assertEquals(1, createdOperationCount.get());
+    }
+
+    /**
+     * Tests that the pending requests are saved on shutdown and the requests after shutdown are ignored.
+     */
+    @Test
+    public void testShutdown() throws InterruptedException {
+        saveScheduler.requestSave();
+        saveScheduler.shutdown();
+        saveScheduler.finishSaves().join();
+        assertEquals(1, storeCount.get());
+
+        saveScheduler.requestSave();
+        assertEquals(0, saveScheduler.getPendingRequestCount());
+
+        Thread.sleep(QUIET_PERIOD_MILLIS * 2);
+        assertEquals(1, createdOperationCount.get());
+    }
+
+    /**
+     * Tests that the original exception of a failed save will be unwrapped.
+     */
+    @Test
+    public void testUnwrap() {
+        STException exception = new STException(STExceptionID.XMLSTORAGE_STORE_NOTE_LIST, "Failed to store!");
+        assertSame(exception, SaveScheduler.unwrap(new CompletionException(exception)));
+        assertSame(exception, SaveScheduler.unwrap(exception));
+        assertNull(SaveScheduler.unwrap(null));
+    }
+}
@@ -0,0 +1,177 @@
+package de.saring.sportstracker.storage;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.data.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the BinarySnapshotCodec class.
+ *
+ * @author Stefan Saring
+ */
+public class BinarySnapshotCodecTest {
+
+    private static final String SPORTTYPES_SNAPSHOTTEST_XML = "misc/testdata/sport-types-snapshottest.xml";
+    private static final String EXERCISES_SNAPSHOTTEST_XML = "misc/testdata/exercises-snapshottest.xml";
+    private static final String NOTES_SNAPSHOTTEST_XML = "misc/testdata/notes-snapshottest.xml";
+    private static final String WEIGHTS_SNAPSHOTTEST_XML = "misc/testdata/weights-snapshottest.xml";
+
+    private XMLStorage xmlStorage;
+
+    // the class instance to be tested
+    private BinarySnapshotCodec codec;
+
+    /**
+     * This method initializes the environment for testing.
+     */
+    @Before
+    public void setUp() throws IOException {
+        copyFile("misc/testdata/sport-types-valid.xml", SPORTTYPES_SNAPSHOTTEST_XML);
+        copyFile("misc/testdata/exercises-valid.xml", EXERCISES_SNAPSHOTTEST_XML);
+        copyFile("misc/testdata/notes-valid.xml", NOTES_SNAPSHOTTEST_XML);
+        copyFile("misc/testdata/weights-valid.xml", WEIGHTS_SNAPSHOTTEST_XML);
+        xmlStorage = new XMLStorage();
+        codec = new BinarySnapshotCodec();
+    }
+
+    /**
+     * This method removes all temporary files after each test.
+     */
+    @After
+    public void tearDown() {
+        for (String filename : new String[]{SPORTTYPES_SNAPSHOTTEST_XML, EXERCISES_SNAPSHOTTEST_XML,
+                NOTES_SNAPSHOTTEST_XML, WEIGHTS_SNAPSHOTTEST_XML}) {
+            new File(filename).delete();
+            new File(filename + BinarySnapshotCodec.FILE_SUFFIX).delete();
+        }
+    }
+
+    private static void copyFile(String source, String destination) throws IOException {
+        Files.copy(Paths.get(source), Paths.get(destination), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Tests the writing and reading of the snapshots of all lists.
+     */
+    @Test
+    public void testWriteAndReadAllLists() throws STException {
+
+        SportTypeList sportTypes = xmlStorage.readSportTypeList(SPORTTYPES_SNAPSHOTTEST_XML);
+        ExerciseList exercises = xmlStorage.readExerciseList(EXERCISES_SNAPSHOTTEST_XML, sportTypes);
+        NoteList notes = xmlStorage.readNoteList(NOTES_SNAPSHOTTEST_XML);
+        WeightList weights = xmlStorage.readWeightList(WEIGHTS_SNAPSHOTTEST_XML);
+
+        // there are no snapshots before storing
+        assertNull(codec.readSportTypeList(SPORTTYPES_SNAPSHOTTEST_XML));
+        assertNull(codec.readExerciseList(EXERCISES_SNAPSHOTTEST_XML, sportTypes));
+
+        // add a note without comment and texts with special characters and surrounding whitespace
+        Note newNote = new Note(notes.getNewID());
+        newNote.setDateTime(LocalDateTime.of(2016, 5, 2, 18, 30, 15));
+        notes.set(newNote);
+        notes.getAt(0).setComment("\u00dcmlauts and\nline breaks");
+        notes.getAt(1).setComment("  \tComment with whitespace \n");
+        sportTypes.getAt(0).setName(" Cycling  ");
+        exercises.getAt(0).setComment("Exercise comment\n");
+
+        xmlStorage.storeSportTypeList(sportTypes, SPORTTYPES_SNAPSHOTTEST_XML);
+        xmlStorage.storeExerciseList(exercises, EXERCISES_SNAPSHOTTEST_XML);
+        xmlStorage.storeNoteList(notes, NOTES_SNAPSHOTTEST_XML);
+        xmlStorage.storeWeightList(weights, WEIGHTS_SNAPSHOTTEST_XML);
+
+        SportTypeList sportTypesNew = codec.readSportTypeList(SPORTTYPES_SNAPSHOTTEST_XML);
+        ExerciseList exercisesNew = codec.readExerciseList(EXERCISES_SNAPSHOTTEST_XML, sportTypesNew);
+        NoteList notesNew = codec.readNoteList(NOTES_SNAPSHOTTEST_XML);
+        WeightList weightsNew = codec.readWeightList(WEIGHTS_SNAPSHOTTEST_XML);
+
+        // the texts of the snapshot must be normalized like the texts of the XML files
+        assertEquals(new XMLSportTypeList().readSportTypeList(SPORTTYPES_SNAPSHOTTEST_XML).toString(),
+                sportTypesNew.toString());
+        assertEquals(new XMLNoteList().readNoteList(NOTES_SNAPSHOTTEST_XML).toString(), notesNew.toString());
+        assertEquals(new XMLWeightList().readWeightList(WEIGHTS_SNAPSHOTTEST_XML).toString(), weightsNew.toString());
+        assertEquals("Cycling", sportTypesNew.getAt(0).getName());
+        assertEquals("Comment with whitespace", notesNew.getAt(1).getComment());
+        assertEquals("", notesNew.getByID(newNote.getId()).getComment());
+        assertEquals("Exercise comment", exercisesNew.getAt(0).getComment());
+        exercises.getAt(0).setComment("Exercise comment");
+
+        assertEquals(exercises.size(), exercisesNew.size());
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise expected = exercises.getAt(i);
+            Exercise actual = exercisesNew.getAt(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getDateTime(), actual.getDateTime());
+            assertSame(sportTypesNew.getByID(expected.getSportType().getId()), actual.getSportType());
+            assertEquals(expected.getSportSubType(), actual.getSportSubType());
+            assertEquals(expected.getDuration(), actual.getDuration());
+            assertEquals(expected.getIntensity(), actual.getIntensity());
+            assertEquals(expected.getDistance(), actual.getDistance(), 0f);
+            assertEquals(expected.getAvgSpeed(), actual.getAvgSpeed(), 0f);
+            assertEquals(expected.getAvgHeartRate(), actual.getAvgHeartRate());
+            assertEquals(expected.getAscent(), actual.getAscent());
+            assertEquals(expected.getCalories(), actual.getCalories());
+            assertEquals(expected.getHrmFile(), actual.getHrmFile());
+            assertEquals(expected.getEquipment(), actual.getEquipment());
+            assertEquals(expected.getComment(), actual.getComment());
+        }
+    }
+
+    /**
+     * Tests that the snapshot is ignored when the XML file has been modified afterwards.
+     */
+    @Test
+    public void testReadOutdatedSnapshot() throws STException, IOException {
+
+        NoteList notes = xmlStorage.readNoteList(NOTES_SNAPSHOTTEST_XML);
+        xmlStorage.storeNoteList(notes, NOTES_SNAPSHOTTEST_XML);
+        assertNotNull(codec.readNoteList(NOTES_SNAPSHOTTEST_XML));
+
+        Files.write(Paths.get(NOTES_SNAPSHOTTEST_XML), "<!-- edited -->".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertNull(codec.readNoteList(NOTES_SNAPSHOTTEST_XML));
+
+        // the XML storage must read the modified XML file then
+        assertEquals(notes.size(), xmlStorage.readNoteList(NOTES_SNAPSHOTTEST_XML).size());
+    }
+
+    /**
+     * Tests that corrupted snapshots and snapshots of other list types are ignored.
+     */
+    @Test
+    public void testReadInvalidSnapshot() throws STException, IOException {
+
+        WeightList weights = xmlStorage.readWeightList(WEIGHTS_SNAPSHOTTEST_XML);
+        xmlStorage.storeWeightList(weights, WEIGHTS_SNAPSHOTTEST_XML);
+        assertNotNull(codec.readWeightList(WEIGHTS_SNAPSHOTTEST_XML));
+        assertNull(codec.readNoteList(WEIGHTS_SNAPSHOTTEST_XML));
+
+        File fSnapshot = new File(WEIGHTS_SNAPSHOTTEST_XML + BinarySnapshotCodec.FILE_SUFFIX);
+        try (RandomAccessFile rafSnapshot = new RandomAccessFile(fSnapshot, "rw")) {
+            rafSnapshot.seek(rafSnapshot.length() - 2);
+            int lastByte = rafSnapshot.read();
+            rafSnapshot.seek(rafSnapshot.length() - 2);
+            rafSnapshot.write(lastByte ^ 0xFF);
+        }
+        assertNull(codec.readWeightList(WEIGHTS_SNAPSHOTTEST_XML));
+        assertEquals(weights.size(), xmlStorage.readWeightList(WEIGHTS_SNAPSHOTTEST_XML).size());
+
+        try (RandomAccessFile rafSnapshot = new RandomAccessFile(fSnapshot, "rw")) {
+            rafSnapshot.setLength(10);
+        }
+        assertNull(codec.readWeightList(WEIGHTS_SNAPSHOTTEST_XML));
+    }
+}
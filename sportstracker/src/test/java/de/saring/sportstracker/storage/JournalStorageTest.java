@@ -0,0 +1,285 @@
+package de.saring.sportstracker.storage;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.data.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the JournalStorage class.
+ *
+ * @author Stefan Saring
+ */
+public class JournalStorageTest {
+
+    private static final String SPORTTYPES_JOURNALTEST_XML = "misc/testdata/sport-types-journaltest.xml";
+    private static final String EXERCISES_JOURNALTEST_XML = "misc/testdata/exercises-journaltest.xml";
+    private static final String NOTES_JOURNALTEST_XML = "misc/testdata/notes-journaltest.xml";
+    private static final String WEIGHTS_JOURNALTEST_XML = "misc/testdata/weights-journaltest.xml";
+
+    // the class instance to be tested
+    private JournalStorage storage;
+
+    /**
+     * This method initializes the environment for testing, the journal lists are imported
+     * from copies of the valid XML test files.
+     */
+    @Before
+    public void setUp() throws IOException {
+        copyFile("misc/testdata/sport-types-valid.xml", SPORTTYPES_JOURNALTEST_XML);
+        copyFile("misc/testdata/exercises-valid.xml", EXERCISES_JOURNALTEST_XML);
+        copyFile("misc/testdata/notes-valid.xml", NOTES_JOURNALTEST_XML);
+        copyFile("misc/testdata/weights-valid.xml", WEIGHTS_JOURNALTEST_XML);
+        storage = new JournalStorage();
+    }
+
+    /**
+     * This method removes all temporary files after each test.
+     */
+    @After
+    public void tearDown() {
+        for (String filename : new String[]{SPORTTYPES_JOURNALTEST_XML, EXERCISES_JOURNALTEST_XML,
+                NOTES_JOURNALTEST_XML, WEIGHTS_JOURNALTEST_XML}) {
+            new File(filename).delete();
+            new File(filename + EntryJournal.SNAPSHOT_SUFFIX).delete();
+            new File(filename + EntryJournal.JOURNAL_SUFFIX).delete();
+        }
+    }
+
+    private static void copyFile(String source, String destination) throws IOException {
+        Files.copy(Paths.get(source), Paths.get(destination), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Tests the import of all lists from XML files, the storage in the journal snapshots
+     * and the reading of these snapshots afterwards.
+     */
+    @Test
+    public void testImportAndStoreAllLists() throws STException {
+
+        SportTypeList sportTypes = storage.readSportTypeList(SPORTTYPES_JOURNALTEST_XML);
+        ExerciseList exercises = storage.readExerciseList(EXERCISES_JOURNALTEST_XML, sportTypes);
+        NoteList notes = storage.readNoteList(NOTES_JOURNALTEST_XML);
+        WeightList weights = storage.readWeightList(WEIGHTS_JOURNALTEST_XML);
+        assertEquals(2, sportTypes.size());
+        assertEquals(3, exercises.size());
+        assertFalse(new File(EXERCISES_JOURNALTEST_XML + EntryJournal.SNAPSHOT_SUFFIX).exists());
+
+        storage.storeSportTypeList(sportTypes, SPORTTYPES_JOURNALTEST_XML);
+        storage.storeExerciseList(exercises, EXERCISES_JOURNALTEST_XML);
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML);
+        storage.storeWeightList(weights, WEIGHTS_JOURNALTEST_XML);
+        assertTrue(new File(EXERCISES_JOURNALTEST_XML + EntryJournal.SNAPSHOT_SUFFIX).exists());
+        assertFalse(new File(EXERCISES_JOURNALTEST_XML + EntryJournal.JOURNAL_SUFFIX).exists());
+
+        // the XML files must not be used anymore when the snapshots exist
+        new File(EXERCISES_JOURNALTEST_XML).delete();
+
+        JournalStorage storageNew = new JournalStorage();
+        SportTypeList sportTypesNew = storageNew.readSportTypeList(SPORTTYPES_JOURNALTEST_XML);
+        ExerciseList exercisesNew = storageNew.readExerciseList(EXERCISES_JOURNALTEST_XML, sportTypesNew);
+        NoteList notesNew = storageNew.readNoteList(NOTES_JOURNALTEST_XML);
+        WeightList weightsNew = storageNew.readWeightList(WEIGHTS_JOURNALTEST_XML);
+
+        assertEquals(sportTypes.toString(), sportTypesNew.toString());
+        assertEquals(exercises.size(), exercisesNew.size());
+        for (int i = 0; i < exercises.size(); i++) {
+            assertExerciseEquals(exercises.getAt(i), exercisesNew.getAt(i));
+        }
+        assertEquals(notes.toString(), notesNew.toString());
+
+        // the missing weight comment is stored as empty text, like in the XML files
+        assertNull(weights.getByID(3).getComment());
+        assertEquals("", weightsNew.getByID(3).getComment());
+        weights.getByID(3).setComment("");
+        assertEquals(weights.toString(), weightsNew.toString());
+    }
+
+    private static void assertExerciseEquals(Exercise expected, Exercise actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getDateTime(), actual.getDateTime());
+        assertEquals(expected.getSportType().getId(), actual.getSportType().getId());
+        assertEquals(expected.getSportSubType().getId(), actual.getSportSubType().getId());
+        assertEquals(expected.getDuration(), actual.getDuration());
+        assertEquals(expected.getIntensity(), actual.getIntensity());
+        assertEquals(expected.getDistance(), actual.getDistance(), 0f);
+        assertEquals(expected.getAvgSpeed(), actual.getAvgSpeed(), 0f);
+        assertEquals(expected.getAvgHeartRate(), actual.getAvgHeartRate());
+        assertEquals(expected.getAscent(), actual.getAscent());
+        assertEquals(expected.getCalories(), actual.getCalories());
+        assertEquals(expected.getHrmFile(), actual.getHrmFile());
+        assertEquals(expected.getEquipment(), actual.getEquipment());
+        assertEquals(expected.getComment(), actual.getComment());
+    }
+
+    /**
+     * Tests that only the changed entries are appended to the journal on storing.
+     */
+    @Test
+    public void testStoreAppendsChangesOnly() throws STException {
+
+        NoteList notes = storage.readNoteList(NOTES_JOURNALTEST_XML);
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML);
+        assertEquals(0, storage.getJournal(NOTES_JOURNALTEST_XML).getJournalRecordCount());
+
+        // storing the unmodified list must not append anything
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML);
+        assertFalse(new File(NOTES_JOURNALTEST_XML + EntryJournal.JOURNAL_SUFFIX).exists());
+
+        // update the first note, add a new note with special characters and remove the last note
+        Note updatedNote = notes.getAt(0).clone(notes.getAt(0).getId());
+        updatedNote.setComment("Updated comment");
+        notes.set(updatedNote);
+        int removedNoteId = notes.getAt(notes.size() - 1).getId();
+
+        Note newNote = new Note(notes.getNewID());
+        newNote.setDateTime(LocalDateTime.of(2016, 5, 2, 18, 30, 0));
+        newNote.setComment("Line 1\nLine 2\twith tab and \\ backslash");
+        notes.set(newNote);
+        notes.removeByID(removedNoteId);
+
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML);
+        assertEquals(3, storage.getJournal(NOTES_JOURNALTEST_XML).getJournalRecordCount());
+
+        NoteList notesNew = new JournalStorage().readNoteList(NOTES_JOURNALTEST_XML);
+        assertEquals(notes.toString(), notesNew.toString());
+        assertEquals("Line 1\nLine 2\twith tab and \\ backslash", notesNew.getByID(newNote.getId()).getComment());
+    }
+
+    /**
+     * Tests that only the records of the passed modified entries are created on storing,
+     * the removed entries must be detected without them.
+     */
+    @Test
+    public void testStoreModifiedEntriesOnly() throws STException {
+
+        NoteList notes = storage.readNoteList(NOTES_JOURNALTEST_XML);
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML, null);
+
+        Note newNote = new Note(notes.getNewID());
+        newNote.setDateTime(LocalDateTime.of(2016, 5, 2, 18, 30, 0));
+        newNote.setComment("New note");
+        notes.set(newNote);
+        int removedNoteId = notes.getAt(0).getId();
+        notes.removeByID(removedNoteId);
+
+        // the not passed in-place modification must be ignored
+        notes.getAt(0).setComment("Not stored");
+
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML, Collections.singleton(newNote.getId()));
+        assertEquals(2, storage.getJournal(NOTES_JOURNALTEST_XML).getJournalRecordCount());
+
+        NoteList notesNew = new JournalStorage().readNoteList(NOTES_JOURNALTEST_XML);
+        assertEquals(notes.size(), notesNew.size());
+        assertNull(notesNew.getByID(removedNoteId));
+        assertEquals("New note", notesNew.getByID(newNote.getId()).getComment());
+        assertNotEquals("Not stored", notesNew.getAt(0).getComment());
+    }
+
+    /**
+     * Tests that an invalid content at the journal end (e.g. after a failed store) is removed
+     * before appending the next changes, otherwise they would be lost on reading.
+     */
+    @Test
+    public void testStoreAfterInvalidJournalEnd() throws STException, IOException {
+
+        WeightList weights = storage.readWeightList(WEIGHTS_JOURNALTEST_XML);
+        // the missing comment is stored as empty text, like in the XML files
+        weights.getByID(3).setComment("");
+        storage.storeWeightList(weights, WEIGHTS_JOURNALTEST_XML);
+
+        Weight updatedWeight = weights.getAt(0).clone(weights.getAt(0).getId());
+        updatedWeight.setValue(55.5f);
+        weights.set(updatedWeight);
+        storage.storeWeightList(weights, WEIGHTS_JOURNALTEST_XML);
+
+        File fJournal = new File(WEIGHTS_JOURNALTEST_XML + EntryJournal.JOURNAL_SUFFIX);
+        try (RandomAccessFile rafJournal = new RandomAccessFile(fJournal, "rw")) {
+            rafJournal.seek(fJournal.length());
+            rafJournal.write("1a2b3c4d U99\t2016-05-0".getBytes(StandardCharsets.UTF_8));
+        }
+
+        updatedWeight = weights.getAt(1).clone(weights.getAt(1).getId());
+        updatedWeight.setValue(66.6f);
+        weights.set(updatedWeight);
+        storage.storeWeightList(weights, WEIGHTS_JOURNALTEST_XML);
+
+        WeightList weightsNew = new JournalStorage().readWeightList(WEIGHTS_JOURNALTEST_XML);
+        assertEquals(weights.toString(), weightsNew.toString());
+        assertEquals(55.5f, weightsNew.getAt(0).getValue(), 0f);
+        assertEquals(66.6f, weightsNew.getAt(1).getValue(), 0f);
+    }
+
+    /**
+     * Tests that an incomplete record at the journal end (e.g. after a crash while storing)
+     * gets ignored and removed, all the previous changes must be still available.
+     */
+    @Test
+    public void testReadIncompleteJournal() throws STException, IOException {
+
+        WeightList weights = storage.readWeightList(WEIGHTS_JOURNALTEST_XML);
+        // the missing comment is stored as empty text, like in the XML files
+        weights.getByID(3).setComment("");
+        storage.storeWeightList(weights, WEIGHTS_JOURNALTEST_XML);
+
+        Weight updatedWeight = weights.getAt(0).clone(weights.getAt(0).getId());
+        updatedWeight.setValue(55.5f);
+        weights.set(updatedWeight);
+        storage.storeWeightList(weights, WEIGHTS_JOURNALTEST_XML);
+
+        File fJournal = new File(WEIGHTS_JOURNALTEST_XML + EntryJournal.JOURNAL_SUFFIX);
+        long validJournalLength = fJournal.length();
+        try (RandomAccessFile rafJournal = new RandomAccessFile(fJournal, "rw")) {
+            rafJournal.seek(validJournalLength);
+            rafJournal.write("1a2b3c4d U99\t2016-05-0".getBytes(StandardCharsets.UTF_8));
+        }
+
+        WeightList weightsNew = new JournalStorage().readWeightList(WEIGHTS_JOURNALTEST_XML);
+        assertEquals(weights.toString(), weightsNew.toString());
+        assertEquals(55.5f, weightsNew.getAt(0).getValue(), 0f);
+        assertEquals(validJournalLength, fJournal.length());
+    }
+
+    /**
+     * Tests the compaction of the journal into the snapshot.
+     */
+    @Test
+    public void testCompaction() throws STException, IOException {
+
+        NoteList notes = storage.readNoteList(NOTES_JOURNALTEST_XML);
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML);
+
+        notes.removeByID(notes.getAt(0).getId());
+        storage.storeNoteList(notes, NOTES_JOURNALTEST_XML);
+        assertTrue(new File(NOTES_JOURNALTEST_XML + EntryJournal.JOURNAL_SUFFIX).exists());
+
+        storage.getJournal(NOTES_JOURNALTEST_XML).compact();
+        assertFalse(new File(NOTES_JOURNALTEST_XML + EntryJournal.JOURNAL_SUFFIX).exists());
+        assertEquals(0, storage.getJournal(NOTES_JOURNALTEST_XML).getJournalRecordCount());
+
+        NoteList notesNew = new JournalStorage().readNoteList(NOTES_JOURNALTEST_XML);
+        assertEquals(notes.toString(), notesNew.toString());
+    }
+
+    /**
+     * Tests the reading of lists without existing XML or journal files.
+     */
+    @Test
+    public void testReadNotExistingLists() throws STException {
+        assertEquals(0, storage.readNoteList("misc/testdata/notes-xyz.xml").size());
+        assertEquals(0, storage.readWeightList("misc/testdata/weights-xyz.xml").size());
+    }
+}
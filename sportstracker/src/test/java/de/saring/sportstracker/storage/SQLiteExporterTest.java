@@ -1,10 +1,16 @@
 package de.saring.sportstracker.storage;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 
 import javafx.scene.paint.Color;
@@ -63,6 +69,55 @@ public class SQLiteExporterTest {
         assertTrue(Files.exists(exporter.getDatabasePath()));
     }
 
+    /**
+     * Test of method exportToSqlite(boolean) for an incremental export: Only the rows of the modified, added
+     * and removed entries must be written to the existing database. This is checked by modifying the row of an
+     * unchanged entry directly in the database before, this modification must not be overwritten.
+     */
+    @Test
+    public void testExportToSqliteIncremental() throws STException, SQLException {
+
+        // without a previous export the incremental export creates a new database
+        exporter.exportToSqlite(true);
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM EXERCISE"));
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM WEIGHT"));
+
+        executeUpdate("UPDATE EXERCISE SET CALORIES = 999 WHERE ID = 1");
+
+        Exercise newExercise = document.getExerciseList().getByID(1).clone(2);
+        newExercise.setDuration(1800);
+        document.getExerciseList().set(newExercise);
+        document.getNoteList().getByID(1).setComment("Updated comment...");
+        document.getWeightList().removeByID(1);
+
+        exporter.exportToSqlite(true);
+        assertEquals(2, queryInt("SELECT COUNT(*) FROM EXERCISE"));
+        assertEquals(1800, queryInt("SELECT DURATION FROM EXERCISE WHERE ID = 2"));
+        assertEquals(999, queryInt("SELECT CALORIES FROM EXERCISE WHERE ID = 1"));
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM NOTE WHERE COMMENT = 'Updated comment...'"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM WEIGHT"));
+
+        // the full export must overwrite the direct modification
+        exporter.exportToSqlite();
+        assertEquals(0, queryInt("SELECT CALORIES FROM EXERCISE WHERE ID = 1"));
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + exporter.getDatabasePath());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void executeUpdate(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + exporter.getDatabasePath());
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
     private void fillDocumentWithTestData() {
 
         SportSubType sportSubType = new SportSubType(1);
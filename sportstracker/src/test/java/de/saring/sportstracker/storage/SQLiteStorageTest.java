@@ -0,0 +1,269 @@
+package de.saring.sportstracker.storage;
+
+import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.data.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the SQLiteStorage class.
+ *
+ * @author Stefan Saring
+ */
+public class SQLiteStorageTest {
+
+    private Path dataDirectory;
+    private String sportTypesXml;
+    private String exercisesXml;
+    private String notesXml;
+    private String weightsXml;
+
+    // the class instance to be tested
+    private SQLiteStorage storage;
+
+    /**
+     * This method initializes the environment for testing, the lists are imported from copies
+     * of the valid XML test files in a temporary data directory.
+     */
+    @Before
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("st-sqlite-storage-test");
+        sportTypesXml = copyFile("misc/testdata/sport-types-valid.xml", "sport-types.xml");
+        exercisesXml = copyFile("misc/testdata/exercises-valid.xml", "exercises.xml");
+        notesXml = copyFile("misc/testdata/notes-valid.xml", "notes.xml");
+        weightsXml = copyFile("misc/testdata/weights-valid.xml", "weights.xml");
+        storage = new SQLiteStorage();
+    }
+
+    /**
+     * This method removes the temporary data directory after each test.
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private String copyFile(String source, String filename) throws IOException {
+        Path destination = dataDirectory.resolve(filename);
+        Files.copy(Paths.get(source), destination);
+        return destination.toString();
+    }
+
+    /**
+     * Tests the import of all lists from XML files, the storage in the database and the reading
+     * from the database afterwards.
+     */
+    @Test
+    public void testImportAndStoreAllLists() throws STException {
+
+        SportTypeList sportTypes = storage.readSportTypeList(sportTypesXml);
+        ExerciseList exercises = storage.readExerciseList(exercisesXml, sportTypes);
+        NoteList notes = storage.readNoteList(notesXml);
+        WeightList weights = storage.readWeightList(weightsXml);
+        assertEquals(3, exercises.size());
+        assertFalse(Files.exists(SQLiteStorage.getDatabasePath(exercisesXml)));
+
+        storage.storeSportTypeList(sportTypes, sportTypesXml);
+        storage.storeExerciseList(exercises, exercisesXml);
+        storage.storeNoteList(notes, notesXml);
+        storage.storeWeightList(weights, weightsXml);
+        assertTrue(Files.exists(SQLiteStorage.getDatabasePath(exercisesXml)));
+
+        SQLiteStorage storageNew = new SQLiteStorage();
+        SportTypeList sportTypesNew = storageNew.readSportTypeList(sportTypesXml);
+        ExerciseList exercisesNew = storageNew.readExerciseList(exercisesXml, sportTypesNew);
+        NoteList notesNew = storageNew.readNoteList(notesXml);
+        WeightList weightsNew = storageNew.readWeightList(weightsXml);
+
+        assertEquals(sportTypes.toString(), sportTypesNew.toString());
+        assertEquals(notes.toString(), notesNew.toString());
+
+        // the missing weight comment is stored as empty text, like in the XML files
+        assertNull(weights.getByID(3).getComment());
+        assertEquals("", weightsNew.getByID(3).getComment());
+        weights.getByID(3).setComment("");
+        assertEquals(weights.toString(), weightsNew.toString());
+
+        assertEquals(exercises.size(), exercisesNew.size());
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise expected = exercises.getAt(i);
+            Exercise actual = exercisesNew.getAt(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getDateTime(), actual.getDateTime());
+            assertEquals(expected.getSportType(), actual.getSportType());
+            assertEquals(expected.getSportSubType(), actual.getSportSubType());
+            assertEquals(expected.getIntensity(), actual.getIntensity());
+            assertEquals(expected.getDuration(), actual.getDuration());
+            assertEquals(expected.getDistance(), actual.getDistance(), 0f);
+            assertEquals(expected.getAvgSpeed(), actual.getAvgSpeed(), 0f);
+            assertEquals(expected.getAvgHeartRate(), actual.getAvgHeartRate());
+            assertEquals(expected.getAscent(), actual.getAscent());
+            assertEquals(expected.getCalories(), actual.getCalories());
+            assertEquals(expected.getEquipment(), actual.getEquipment());
+        }
+    }
+
+    /**
+     * Tests the storage of the exercise list only (the other lists are unchanged), this creates
+     * the database. All other lists must still be imported from the XML files afterwards.
+     */
+    @Test
+    public void testStoreExerciseListOnly() throws STException {
+
+        SportTypeList sportTypes = storage.readSportTypeList(sportTypesXml);
+        ExerciseList exercises = storage.readExerciseList(exercisesXml, sportTypes);
+        NoteList notes = storage.readNoteList(notesXml);
+        WeightList weights = storage.readWeightList(weightsXml);
+
+        exercises.removeByID(exercises.getAt(0).getId());
+        storage.storeExerciseList(exercises, exercisesXml);
+        assertTrue(Files.exists(SQLiteStorage.getDatabasePath(exercisesXml)));
+
+        SQLiteStorage storageNew = new SQLiteStorage();
+        SportTypeList sportTypesNew = storageNew.readSportTypeList(sportTypesXml);
+        ExerciseList exercisesNew = storageNew.readExerciseList(exercisesXml, sportTypesNew);
+        assertEquals(sportTypes.toString(), sportTypesNew.toString());
+        assertEquals(2, exercisesNew.size());
+        assertEquals(exercises.getAt(0).getId(), exercisesNew.getAt(0).getId());
+        assertEquals(notes.toString(), storageNew.readNoteList(notesXml).toString());
+        assertEquals(weights.toString(), storageNew.readWeightList(weightsXml).toString());
+
+        // the sport type list must be read from the database after storing
+        sportTypes.getByID(1).setName("Cycling (stored)");
+        storageNew.storeSportTypeList(sportTypes, sportTypesXml);
+        assertEquals("Cycling (stored)", new SQLiteStorage().readSportTypeList(sportTypesXml).getByID(1).getName());
+    }
+
+    /**
+     * Tests that the order of the sport type list is kept, it's not the order of the IDs.
+     */
+    @Test
+    public void testStoreSportTypeOrder() throws STException {
+
+        SportTypeList sportTypes = storage.readSportTypeList(sportTypesXml);
+        storage.storeSportTypeList(sportTypes, sportTypesXml);
+
+        SportType sportType1 = sportTypes.getByID(1);
+        SportType sportType2 = sportTypes.getByID(2);
+        sportTypes.clearAndAddAll(Arrays.asList(sportType2, sportType1));
+        storage.storeSportTypeList(sportTypes, sportTypesXml);
+
+        SportTypeList sportTypesNew = new SQLiteStorage().readSportTypeList(sportTypesXml);
+        assertEquals(2, sportTypesNew.getAt(0).getId());
+        assertEquals(1, sportTypesNew.getAt(1).getId());
+    }
+
+    /**
+     * Tests that only the changed rows are written on storing: the rows of unchanged entries
+     * are modified directly in the database before, these modifications must still exist.
+     */
+    @Test
+    public void testStoreChangedRowsOnly() throws STException, SQLException {
+
+        NoteList notes = storage.readNoteList(notesXml);
+        storage.storeNoteList(notes, notesXml);
+        int unchangedNoteId = notes.getAt(notes.size() - 1).getId();
+        executeUpdate("UPDATE NOTE SET COMMENT = 'Modified in database' WHERE ID = " + unchangedNoteId);
+
+        Note updatedNote = notes.getAt(0).clone(notes.getAt(0).getId());
+        updatedNote.setComment("Updated comment");
+        notes.set(updatedNote);
+
+        Note newNote = notes.getAt(0).clone(notes.getNewID());
+        newNote.setComment("New note");
+        notes.set(newNote);
+        storage.storeNoteList(notes, notesXml);
+
+        NoteList notesNew = new SQLiteStorage().readNoteList(notesXml);
+        assertEquals(notes.size(), notesNew.size());
+        assertEquals("Updated comment", notesNew.getByID(updatedNote.getId()).getComment());
+        assertEquals("New note", notesNew.getByID(newNote.getId()).getComment());
+        assertEquals("Modified in database", notesNew.getByID(unchangedNoteId).getComment());
+
+        // removed notes must be deleted in the database
+        notes.removeByID(newNote.getId());
+        storage.storeNoteList(notes, notesXml);
+        assertNull(new SQLiteStorage().readNoteList(notesXml).getByID(newNote.getId()));
+    }
+
+    /**
+     * Tests the reading of exercises for a filter, the query result must be the same as the
+     * result of the exercise list filter.
+     */
+    @Test
+    public void testReadExerciseListForFilter() throws STException {
+
+        SportTypeList sportTypes = storage.readSportTypeList(sportTypesXml);
+        ExerciseList exercises = storage.readExerciseList(exercisesXml, sportTypes);
+        storage.storeSportTypeList(sportTypes, sportTypesXml);
+        storage.storeExerciseList(exercises, exercisesXml);
+
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(LocalDate.of(2000, 1, 1));
+        filter.setDateEnd(LocalDate.of(2030, 12, 31));
+        assertEquals(exercises.size(), storage.readExerciseList(exercisesXml, sportTypes, filter).size());
+
+        filter.setSportType(sportTypes.getByID(1));
+        assertFilterResult(exercises, storage.readExerciseList(exercisesXml, sportTypes, filter), filter);
+
+        filter.setSportType(null);
+        filter.setDateStart(exercises.getAt(1).getDateTime().toLocalDate());
+        filter.setDateEnd(exercises.getAt(1).getDateTime().toLocalDate());
+        assertFilterResult(exercises, storage.readExerciseList(exercisesXml, sportTypes, filter), filter);
+
+        filter.setIntensity(Exercise.IntensityType.INTERVALS);
+        assertFilterResult(exercises, storage.readExerciseList(exercisesXml, sportTypes, filter), filter);
+    }
+
+    /**
+     * Tests the reading of exercises for a filter before the database has been created, the
+     * exercises must be read from the XML file then.
+     */
+    @Test
+    public void testReadExerciseListForFilterWithoutDatabase() throws STException {
+
+        SportTypeList sportTypes = storage.readSportTypeList(sportTypesXml);
+        ExerciseList exercises = storage.readExerciseList(exercisesXml, sportTypes);
+
+        EntryFilter filter = new EntryFilter();
+        filter.setDateStart(LocalDate.of(2000, 1, 1));
+        filter.setDateEnd(LocalDate.of(2030, 12, 31));
+        filter.setSportType(sportTypes.getByID(1));
+        assertFilterResult(exercises, storage.readExerciseList(exercisesXml, sportTypes, filter), filter);
+        assertFalse(Files.exists(SQLiteStorage.getDatabasePath(exercisesXml)));
+    }
+
+    private static void assertFilterResult(ExerciseList exercises, ExerciseList result, EntryFilter filter) {
+        EntryList<Exercise> expected = exercises.getEntriesForFilter(filter);
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getAt(i).getId(), result.getAt(i).getId());
+        }
+    }
+
+    private void executeUpdate(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:sqlite:" + SQLiteStorage.getDatabasePath(notesXml));
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+}
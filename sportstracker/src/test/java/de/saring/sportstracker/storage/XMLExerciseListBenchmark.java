@@ -0,0 +1,156 @@
+package de.saring.sportstracker.storage;
+
+import de.saring.sportstracker.data.Exercise;
+import de.saring.sportstracker.data.ExerciseList;
+import de.saring.sportstracker.data.SportSubType;
+import de.saring.sportstracker.data.SportType;
+import de.saring.sportstracker.data.SportTypeList;
+import org.jdom2.Document;
+import org.jdom2.Element;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Simple benchmark of the exercise list reading for files with 10k and 100k exercises. It
+ * compares the streaming reader (without and with strict XSD validation) with reading a validated
+ * JDOM document, like the exercise list was read before. The allocated bytes are measured for the
+ * reading thread and the threads of the common ForkJoinPool (they create the exercises of the
+ * streaming reader), the separate XSD validation pass is not included. It's not a unit test, start
+ * it by the main() method.
+ *
+ * @author Stefan Saring
+ */
+public class XMLExerciseListBenchmark {
+
+    private static final int[] EXERCISE_COUNTS = {10_000, 100_000};
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        SportTypeList sportTypeList = createSportTypeList();
+
+        for (int exerciseCount : EXERCISE_COUNTS) {
+            File fExercises = File.createTempFile("exercises-benchmark", ".xml");
+            fExercises.deleteOnExit();
+            new XMLExerciseList().storeExerciseList(createExercises(sportTypeList, exerciseCount),
+                    fExercises.getAbsolutePath());
+
+            System.out.printf("%,d exercises (%,d KB):%n", exerciseCount, fExercises.length() / 1024);
+            measure("streaming", () -> new XMLExerciseList(XMLExerciseList.ValidationMode.NONE)
+                    .readExerciseList(fExercises.getAbsolutePath(), sportTypeList));
+            measure("streaming + XSD", () -> new XMLExerciseList(XMLExerciseList.ValidationMode.STRICT)
+                    .readExerciseList(fExercises.getAbsolutePath(), sportTypeList));
+            measure("JDOM + XSD", () -> readExercisesWithJdom(fExercises, sportTypeList));
+        }
+    }
+
+    private static SportTypeList createSportTypeList() {
+        SportType sportType = new SportType(1);
+        sportType.getSportSubTypeList().set(new SportSubType(1));
+        SportTypeList sportTypeList = new SportTypeList();
+        sportTypeList.set(sportType);
+        return sportTypeList;
+    }
+
+    private static ExerciseList createExercises(SportTypeList sportTypeList, int exerciseCount) {
+        SportType sportType = sportTypeList.getByID(1);
+        Random random = new Random(42);
+        LocalDateTime dateTime = LocalDateTime.of(2000, 1, 1, 10, 0);
+        List<Exercise> exercises = new ArrayList<>(exerciseCount);
+
+        for (int i = 1; i <= exerciseCount; i++) {
+            Exercise exercise = new Exercise(i);
+            exercise.setSportType(sportType);
+            exercise.setSportSubType(sportType.getSportSubTypeList().getByID(1));
+            exercise.setDateTime(dateTime.plusHours(i * 6L));
+            exercise.setIntensity(Exercise.IntensityType.NORMAL);
+            exercise.setDistance(random.nextInt(200) + random.nextInt(10) / 10f);
+            exercise.setAvgSpeed(10 + random.nextInt(300) / 10f);
+            exercise.setDuration(600 + random.nextInt(20000));
+            exercise.setAscent(random.nextInt(2000));
+            exercise.setAvgHeartRate(100 + random.nextInt(80));
+            exercise.setComment("Exercise comment " + i);
+            exercises.add(exercise);
+        }
+
+        ExerciseList exerciseList = new ExerciseList();
+        exerciseList.clearAndAddAll(exercises);
+        return exerciseList;
+    }
+
+    /**
+     * Reads the exercises from a validated JDOM document, this was the previous way of
+     * reading the exercise list (the optional values are not read here).
+     */
+    private static List<Exercise> readExercisesWithJdom(File fExercises, SportTypeList sportTypeList)
+            throws Exception {
+        Document document = XMLUtils.getJDOMDocument(fExercises, "exercises.xsd");
+        List<Exercise> exercises = new ArrayList<>();
+
+        for (Element eExercise : document.getRootElement().getChildren("exercise")) {
+            Exercise exercise = new Exercise(Integer.parseInt(eExercise.getChildText("id")));
+            SportType sportType = sportTypeList.getByID(Integer.parseInt(eExercise.getChildText("sport-type-id")));
+            exercise.setSportType(sportType);
+            exercise.setSportSubType(sportType.getSportSubTypeList().getByID(
+                    Integer.parseInt(eExercise.getChildText("sport-subtype-id"))));
+            exercise.setDateTime(LocalDateTime.parse(eExercise.getChildText("date"), XMLUtils.DATE_TIME_FORMAT));
+            exercise.setDuration(Integer.parseInt(eExercise.getChildText("duration")));
+            exercise.setIntensity(Exercise.IntensityType.valueOf(eExercise.getChildText("intensity")));
+            exercise.setDistance(Float.parseFloat(eExercise.getChildText("distance")));
+            exercise.setAvgSpeed(Float.parseFloat(eExercise.getChildText("avg-speed")));
+            exercises.add(exercise);
+        }
+        return exercises;
+    }
+
+    /**
+     * Runs the task for warmup and prints the best execution time and the allocated bytes
+     * of the following rounds.
+     */
+    private static void measure(String name, ReadTask task) throws Exception {
+        task.run();
+        long bestTime = Long.MAX_VALUE;
+        long allocatedBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            Map<Long, Long> startBytes = getAllocatedBytes();
+            long startTime = System.nanoTime();
+            task.run();
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+
+            allocatedBytes = 0;
+            for (Map.Entry<Long, Long> threadBytes : getAllocatedBytes().entrySet()) {
+                allocatedBytes += threadBytes.getValue() - startBytes.getOrDefault(threadBytes.getKey(), 0L);
+            }
+        }
+
+        System.out.printf("  %-16s %8.2f ms, %,8d KB allocated%n", name, bestTime / 1_000_000d,
+                allocatedBytes / 1024);
+    }
+
+    /**
+     * Returns the allocated bytes of the current thread and of the threads of the common
+     * ForkJoinPool, mapped by thread ID.
+     */
+    private static Map<Long, Long> getAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, Long> mAllocatedBytes = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread == Thread.currentThread() || thread.getName().startsWith("ForkJoinPool.commonPool-")) {
+                mAllocatedBytes.put(thread.getId(), threadBean.getThreadAllocatedBytes(thread.getId()));
+            }
+        }
+        return mAllocatedBytes;
+    }
+
+    @FunctionalInterface
+    private interface ReadTask {
+        void run() throws Exception;
+    }
+}
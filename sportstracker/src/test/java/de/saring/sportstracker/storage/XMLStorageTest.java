@@ -1,14 +1,18 @@
 package de.saring.sportstracker.storage;
 
 import de.saring.sportstracker.core.STException;
+import de.saring.sportstracker.core.STExceptionID;
 import de.saring.sportstracker.data.*;
 import de.saring.util.gui.javafx.ColorUtils;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
+import org.xml.sax.SAXException;
 
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -48,6 +52,15 @@ public class XMLStorageTest {
 
     private static void deleteFileIfExists(String filename) {
         new File(filename).delete();
+        new File(filename + BinarySnapshotCodec.FILE_SUFFIX).delete();
+    }
+
+    private static void assertValidXML(String filename, String xsdFilename) {
+        try {
+            XMLUtils.validateXMLFile(new File(filename), xsdFilename);
+        } catch (Exception e) {
+            fail("The XML file '" + filename + "' is not valid: " + e.getMessage());
+        }
     }
 
     /**
@@ -153,6 +166,7 @@ public class XMLStorageTest {
 
         // store the read sport type list to a new file
         storage.storeSportTypeList(sportTypes, SPORTTYPES_WRITETEST_XML);
+        assertValidXML(SPORTTYPES_WRITETEST_XML, "sport-types.xsd");
 
         // read the list from the created file again
         // => compare the content, needs to be same
@@ -316,6 +330,108 @@ public class XMLStorageTest {
         }
     }
 
+    /**
+     * Tests the reading of exercise lists in all XSD validation modes. The file
+     * "exercises-invalid-schema.xml" contains valid exercise data, but does not match
+     * the XSD schema, this can only be detected by the validation.
+     */
+    @Test
+    public void testReadExerciseListValidated() throws Exception {
+        SportTypeList sportTypeList = createSportTypeList();
+        XMLExerciseList xmlExerciseList = new XMLExerciseList(XMLExerciseList.ValidationMode.STRICT);
+
+        ExerciseList exercises = xmlExerciseList.readExerciseList("misc/testdata/exercises-valid.xml", sportTypeList);
+        checkExerciseListContent(exercises);
+
+        try {
+            xmlExerciseList.readExerciseList("misc/testdata/exercises-invalid.xml", sportTypeList);
+            fail();
+        } catch (STException se) {
+            assertEquals(STExceptionID.XMLSTORAGE_READ_EXERCISE_LIST, se.getId());
+        }
+
+        try {
+            xmlExerciseList.readExerciseList("misc/testdata/exercises-invalid-schema.xml", sportTypeList);
+            fail();
+        } catch (STException se) {
+            assertEquals(STExceptionID.XMLSTORAGE_READ_EXERCISE_LIST, se.getId());
+        }
+
+        exercises = new XMLExerciseList(XMLExerciseList.ValidationMode.NONE).readExerciseList(
+                "misc/testdata/exercises-invalid-schema.xml", sportTypeList);
+        checkExerciseListContent(exercises);
+    }
+
+    /**
+     * Tests the reading of exercise lists with the XSD validation in background: the list
+     * must be returned for a file which does not match the XSD schema, the validation
+     * failure must be reported afterwards.
+     */
+    @Test
+    public void testReadExerciseListValidatedInBackground() throws Exception {
+        SportTypeList sportTypeList = createSportTypeList();
+        CompletableFuture<Exception> fValidationFailure = new CompletableFuture<>();
+        XMLExerciseList xmlExerciseList = new XMLExerciseList(
+                XMLExerciseList.ValidationMode.BACKGROUND, fValidationFailure::complete);
+
+        ExerciseList exercises = xmlExerciseList.readExerciseList(
+                "misc/testdata/exercises-invalid-schema.xml", sportTypeList);
+        checkExerciseListContent(exercises);
+        assertTrue(fValidationFailure.get(30, TimeUnit.SECONDS) instanceof SAXException);
+
+        // the default storage validates in background as well
+        checkExerciseListContent(storage.readExerciseList("misc/testdata/exercises-invalid-schema.xml", sportTypeList));
+
+        try {
+            xmlExerciseList.readExerciseList("misc/testdata/exercises-invalid.xml", sportTypeList);
+            fail();
+        } catch (STException se) {
+            assertEquals(STExceptionID.XMLSTORAGE_READ_EXERCISE_LIST, se.getId());
+        }
+    }
+
+    /**
+     * Tests the reading of an exercise list with multiple chunks of exercises, which are created
+     * in background: the exercises must be in file order, the failure of the first invalid
+     * exercise must be reported.
+     */
+    @Test
+    public void testReadExerciseListChunks() throws STException {
+        SportTypeList sportTypeList = createSportTypeList();
+        SportType sportType = sportTypeList.getByID(1);
+        int exerciseCount = XMLExerciseList.EXERCISE_CHUNK_SIZE * 2 + 500;
+
+        ExerciseList exercises = new ExerciseList();
+        for (int i = 1; i <= exerciseCount; i++) {
+            Exercise exercise = new Exercise(i);
+            exercise.setSportType(sportType);
+            exercise.setSportSubType(sportType.getSportSubTypeList().getByID(i == 1500 || i == 2400 ? 2 : 1));
+            exercise.setDateTime(LocalDateTime.of(2010, 1, 1, 10, 0).plusHours(i));
+            exercise.setIntensity(Exercise.IntensityType.NORMAL);
+            exercise.setDistance(i % 100);
+            exercise.setComment("Exercise " + i);
+            exercises.set(exercise);
+        }
+        storage.storeExerciseList(exercises, EXERCISES_WRITETEST_XML);
+
+        XMLExerciseList xmlExerciseList = new XMLExerciseList(XMLExerciseList.ValidationMode.NONE);
+        ExerciseList exercisesRead = xmlExerciseList.readExerciseList(EXERCISES_WRITETEST_XML, sportTypeList);
+        assertEquals(exerciseCount, exercisesRead.size());
+        for (int i = 0; i < exerciseCount; i++) {
+            assertEquals(i + 1, exercisesRead.getAt(i).getId());
+            assertEquals("Exercise " + (i + 1), exercisesRead.getAt(i).getComment());
+        }
+
+        sportType.getSportSubTypeList().removeByID(2);
+        try {
+            xmlExerciseList.readExerciseList(EXERCISES_WRITETEST_XML, sportTypeList);
+            fail();
+        } catch (STException se) {
+            assertEquals(STExceptionID.XMLSTORAGE_READ_EXERCISE_LIST, se.getId());
+            assertTrue(se.getCause().getMessage().contains("ID '1500'"));
+        }
+    }
+
     /**
      * Tests of the appropriate method.
      */
@@ -330,6 +446,7 @@ public class XMLStorageTest {
 
         // store the read exercise list to a new file
         storage.storeExerciseList(exercises, EXERCISES_WRITETEST_XML);
+        assertValidXML(EXERCISES_WRITETEST_XML, "exercises.xsd");
 
         // read the list from the created file again
         // => compare the content, needs to be same
@@ -372,6 +489,7 @@ public class XMLStorageTest {
 
         // store the read sport type list to a new file
         storage.storeNoteList(noteList, NOTES_WRITETEST_XML);
+        assertValidXML(NOTES_WRITETEST_XML, "notes.xsd");
 
         // read the list from the created file again
         // => compare the content, needs to be same
@@ -440,6 +558,7 @@ public class XMLStorageTest {
 
         // store the read sport type list to a new file
         storage.storeWeightList(weightList, WEIGHTS_WRITETEST_XML);
+        assertValidXML(WEIGHTS_WRITETEST_XML, "weights.xsd");
 
         // read the list from the created file again
         // => compare the content, needs to be same
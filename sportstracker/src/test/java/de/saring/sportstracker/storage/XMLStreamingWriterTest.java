@@ -0,0 +1,112 @@
+package de.saring.sportstracker.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * This class contains all unit tests for the XMLStreamingWriter class.
+ *
+ * @author Stefan Saring
+ */
+public class XMLStreamingWriterTest {
+
+    private static final String WRITETEST_XML = "misc/testdata/streaming-writetest.xml";
+    private static final String NL = System.getProperty("line.separator");
+
+    /**
+     * Removes the created file after each test.
+     */
+    @After
+    public void tearDown() {
+        new File(WRITETEST_XML).delete();
+    }
+
+    /**
+     * Tests the written format, it must be the same as the JDOM pretty format used before.
+     */
+    @Test
+    public void testWriteFormat() throws IOException {
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(WRITETEST_XML)) {
+            writer.startElement("list");
+            writer.startElement("entry");
+            writer.addAttribute("flag", "a\"b");
+            writer.addElement("id", "1");
+            writer.addElement("text", "  x < y & z\nnext line ");
+            writer.addElement("empty", null);
+            writer.startElement("color");
+            writer.addAttribute("red", "30");
+            writer.endElement();
+            writer.endElement();
+            writer.endElement();
+        }
+
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + NL +
+                "<list>" + NL +
+                "    <entry flag=\"a&quot;b\">" + NL +
+                "        <id>1</id>" + NL +
+                "        <text>x &lt; y &amp; z" + NL + "next line</text>" + NL +
+                "        <empty />" + NL +
+                "        <color red=\"30\" />" + NL +
+                "    </entry>" + NL +
+                "</list>" + NL;
+        assertEquals(expected, readFile());
+    }
+
+    /**
+     * Tests the writing of an empty root element.
+     */
+    @Test
+    public void testWriteEmptyRoot() throws IOException {
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(WRITETEST_XML)) {
+            writer.startElement("list");
+            writer.endElement();
+        }
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + NL + "<list />" + NL, readFile());
+    }
+
+    /**
+     * Tests the adding of attributes after element content, this must fail.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testAddAttributeAfterContent() throws IOException {
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(WRITETEST_XML)) {
+            writer.startElement("list");
+            writer.addElement("id", "1");
+            writer.addAttribute("flag", "true");
+        }
+    }
+
+    /**
+     * Tests that an incomplete document does not replace the existing XML file and that
+     * the temporary file gets removed.
+     */
+    @Test
+    public void testWriteIncompleteDocument() throws IOException {
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(WRITETEST_XML)) {
+            writer.startElement("list");
+            writer.endElement();
+        }
+
+        try (XMLStreamingWriter writer = new XMLStreamingWriter(WRITETEST_XML)) {
+            writer.startElement("list");
+            writer.addElement("id", "1");
+        }
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + NL + "<list />" + NL, readFile());
+        assertFalse(new File(WRITETEST_XML + XMLStreamingWriter.TEMP_FILE_SUFFIX).exists());
+    }
+
+    private static String readFile() throws IOException {
+        return new String(Files.readAllBytes(Paths.get(WRITETEST_XML)), StandardCharsets.UTF_8);
+    }
+}
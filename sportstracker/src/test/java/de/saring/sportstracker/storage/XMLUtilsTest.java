@@ -0,0 +1,59 @@
+package de.saring.sportstracker.storage;
+
+import org.jdom2.Document;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the XMLUtils class.
+ *
+ * @author Stefan Saring
+ */
+public class XMLUtilsTest {
+
+    /**
+     * Tests that each XSD schema is compiled only once.
+     */
+    @Test
+    public void testGetSchema() throws SAXException {
+        assertSame(XMLUtils.getSchema("notes.xsd"), XMLUtils.getSchema("notes.xsd"));
+        assertNotSame(XMLUtils.getSchema("notes.xsd"), XMLUtils.getSchema("weights.xsd"));
+    }
+
+    /**
+     * Tests the reading of a not existing XSD schema, this must fail.
+     */
+    @Test(expected = SAXException.class)
+    public void testGetSchemaNotExisting() throws SAXException {
+        XMLUtils.getSchema("foo.xsd");
+    }
+
+    /**
+     * Tests the parsing of a valid XML file with schema validation.
+     */
+    @Test
+    public void testGetJDOMDocument() throws Exception {
+        Document document = XMLUtils.getJDOMDocument(new File("misc/testdata/notes-valid.xml"), "notes.xsd");
+        assertEquals("note-list", document.getRootElement().getName());
+    }
+
+    /**
+     * Tests the validation in background of a valid and of an invalid XML file.
+     */
+    @Test
+    public void testValidateXMLFileAsync() {
+        XMLUtils.validateXMLFileAsync(new File("misc/testdata/weights-valid.xml"), "weights.xsd").join();
+
+        try {
+            XMLUtils.validateXMLFileAsync(new File("misc/testdata/weights-invalid.xml"), "weights.xsd").join();
+            fail("The validation of the invalid XML file must fail!");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof SAXException);
+        }
+    }
+}
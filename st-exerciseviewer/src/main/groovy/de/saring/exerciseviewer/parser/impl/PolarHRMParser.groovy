@@ -4,6 +4,7 @@ import de.saring.exerciseviewer.core.EVException
 import de.saring.exerciseviewer.data.*
 import de.saring.exerciseviewer.parser.AbstractExerciseParser
 import de.saring.exerciseviewer.parser.ExerciseParserInfo
+import de.saring.exerciseviewer.parser.SectionLineReader
 import de.saring.util.unitcalc.ConvertUtils
 
 import java.time.LocalDateTime
@@ -23,9 +24,6 @@ class PolarHRMParser extends AbstractExerciseParser {
     /** Informations about this parser. */
     private ExerciseParserInfo info = new ExerciseParserInfo('Polar HRM', ["hrm", "HRM"] as String[])
 
-    /** The list of lines (Strings) of the exercise file. */
-    private def fileContent
-
     /**
      * Returns the informations about this parser implementation.
      * @return the parser informations
@@ -45,29 +43,48 @@ class PolarHRMParser extends AbstractExerciseParser {
      */
     @Override
     EVExercise parseExercise(String filename) throws EVException {
+        SectionLineReader reader = null
         try {
-            fileContent = new File(filename).readLines()
-            return parseExerciseFromContent()
+            reader = SectionLineReader.open(filename)
+            return parseExerciseFromContent(reader)
         }
         catch (Exception e) {
             throw new EVException("Failed to read the HRM exercise file '${filename}' ...", e)
         }
+        finally {
+            reader?.close()
+        }
     }
 
     /**
-     * Parses the exercise data from the file content.
+     * Parses the exercise data from the file content. The lines of all blocks are stored
+     * temporarily, except the lines of the 'HRData' block. The samples are parsed directly
+     * from the file when the 'HRData' block has been reached, so the file content is never
+     * completely in memory. This needs the recording parameters, so the 'HRData' lines are
+     * stored temporarily too when the 'Params' block is located after the samples.
      */
-    private EVExercise parseExerciseFromContent() {
+    private EVExercise parseExerciseFromContent(SectionLineReader reader) {
         // parse basic exercise data
         EVExercise exercise = new EVExercise()
         exercise.fileType = EVExercise.ExerciseFileType.HRM
         exercise.deviceName = 'Polar HRM'
 
+        // read all blocks before the sample data
+        def blocks = [:]
+        def fHRDataFound = readBlocks(reader, blocks, 'HRData')
+
+        // the samples can't be parsed before the 'Params' block => store the lines and read the other blocks
+        List<String> lHRDataBlock = null
+        if (fHRDataFound && !blocks.containsKey('Params')) {
+            lHRDataBlock = reader.readSectionLines()
+            readBlocks(reader, blocks, null)
+        }
+
         //////////////////////////////////////////////////////////////////////
         // parse 'Params' block
 
         // get lines of 'Params' block
-        def lParamsBlock = getBlockLines('Params', true)
+        def lParamsBlock = getBlockLines(blocks, 'Params', true)
 
         // check HRM file version
         def strVersion = getValueFromBlock(lParamsBlock, "Version")
@@ -132,11 +149,34 @@ class PolarHRMParser extends AbstractExerciseParser {
         // ignore Upper1, Lower1, ... Lower3, they're again in block Summary-123        
         // ignore Timer1,Timer2,Timer3, ActiveLimit, MaxHR, RestHR, StartDelay, VO2max, Weight
 
+        //////////////////////////////////////////////////////////////////////
+        // parse 'HRData' block (Sample data)
+
+        // parse each exercise sample line directly from the file
+        def sampleData = new ExerciseSampleData()
+        exercise.sampleData = sampleData
+
+        if (lHRDataBlock != null) {
+            lHRDataBlock.each { line -> parseSample(exercise, sampleData, line, fMetricUnits) }
+        } else if (fHRDataFound) {
+            def line
+            while ((line = reader.nextSectionLine()) != null) {
+                parseSample(exercise, sampleData, line, fMetricUnits)
+            }
+        }
+        if (sampleData.size() == 0) {
+            throw new EVException("Failed to read HRM file, can't find block 'HRData' ...")
+        }
+        sampleData.trimToSize()
+
+        // read all blocks after the sample data (if there are some)
+        readBlocks(reader, blocks, null)
+
         //////////////////////////////////////////////////////////////////////
         // parse 'IntTimes' block (Lap times)
 
         // get lines of 'IntTimes' block (can be empty when 0 laps, e.g. for Polar S510)
-        def lIntTimesBlock = getBlockLines('IntTimes', false)
+        def lIntTimesBlock = getBlockLines(blocks, 'IntTimes', false)
         if (lIntTimesBlock.size() % 5 != 0) {
             throw new EVException("Failed to read HRM file, invalid number of lines in block 'IntTimes' ...")
         }
@@ -249,7 +289,7 @@ class PolarHRMParser extends AbstractExerciseParser {
         // get lines of 'Summary-123' block
         // (mostly 7 lines, 8 lines for Polar CS600, data of last line is unknown)
         // (HRM export of Polar RCX3 does contain 6 lines only)
-        def lSummary123Block = getBlockLines("Summary-123", true)
+        def lSummary123Block = getBlockLines(blocks, "Summary-123", true)
         if (lSummary123Block.size() < 6) {
             throw new EVException("Failed to read HRM file, can't find block 'Summary-123' or block is not valid ...")
         }
@@ -299,7 +339,7 @@ class PolarHRMParser extends AbstractExerciseParser {
         // parse 'Trip' block (Cycling data) (it's not in all files, e.g. on S410 or S610)
 
         // get lines of 'Trip' block
-        def lTripBlock = getBlockLines('Trip', false)
+        def lTripBlock = getBlockLines(blocks, 'Trip', false)
         if (lTripBlock.size() == 8) {
             // parse speed informations
             if (exercise.recordingMode.speed) {
@@ -346,61 +386,6 @@ class PolarHRMParser extends AbstractExerciseParser {
             }
         }
 
-        //////////////////////////////////////////////////////////////////////
-        // parse 'HRData' block (Sample data)
-
-        // get lines of 'HRData' block
-        def lHRDataBlock = getBlockLines('HRData', true)
-
-        // create array of exercise sample
-        exercise.sampleList = new ExerciseSample[lHRDataBlock.size()]
-
-        // parse each exercise sample line
-        for (i in 0..<lHRDataBlock.size()) {
-            def tokenIndex = 0
-            exercise.sampleList[i] = new ExerciseSample()
-            exercise.sampleList[i].timestamp = i * exercise.recordingInterval * 1000L
-
-            // split sample line into parts
-            def currSampleSplitted = lHRDataBlock[i].tokenize('\t')
-
-            // 1. part is heartrate
-            exercise.sampleList[i].heartRate = currSampleSplitted[tokenIndex].toInteger()
-            tokenIndex++
-
-            // next part can be speed, when recorded
-            if ((currSampleSplitted.size() > tokenIndex) &&
-                    (exercise.recordingMode.speed)) {
-                // speed is km/h or m/h * 10
-                def speedX10 = currSampleSplitted[tokenIndex].toInteger()
-                if (!fMetricUnits) {
-                    speedX10 = ConvertUtils.convertMiles2Kilometer(speedX10)
-                }
-
-                exercise.sampleList[i].speed = speedX10 / 10f
-                tokenIndex++
-            }
-
-            // next part can be cadence, when recorded
-            if ((currSampleSplitted.size() > tokenIndex) &&
-                    (exercise.recordingMode.cadence)) {
-                exercise.sampleList[i].cadence = currSampleSplitted[tokenIndex].toInteger()
-                tokenIndex++
-            }
-
-            // next part can be altitude, when recorded
-            if ((currSampleSplitted.size() > tokenIndex) &&
-                    (exercise.recordingMode.altitude)) {
-                def altitude = currSampleSplitted[tokenIndex].toInteger()
-                if (!fMetricUnits) {
-                    altitude = ConvertUtils.convertFeet2Meter(altitude)
-                }
-
-                exercise.sampleList[i].altitude = altitude
-                tokenIndex++
-            }
-        }
-
         // when speed is recorded:
         // - calculate distance for each recorded sample (distance is not recorded for each sample)
         // - find the maximum speed from samples (max speed is stored in HRM files, but often a wrong value)
@@ -408,10 +393,10 @@ class PolarHRMParser extends AbstractExerciseParser {
             def distanceAccum = 0f
             exercise.speed.speedMax = 0f
 
-            for (i in 0..<exercise.sampleList.size()) {
-                exercise.sampleList[i].distance = distanceAccum
-                distanceAccum += (exercise.sampleList[i].speed * exercise.recordingInterval) / 3.6f
-                exercise.speed.speedMax = Math.max(exercise.sampleList[i].speed, exercise.speed.speedMax)
+            for (i in 0..<sampleData.size()) {
+                sampleData.setDistance(i, distanceAccum as int)
+                distanceAccum += (sampleData.getSpeed(i) * exercise.recordingInterval) / 3.6f
+                exercise.speed.speedMax = Math.max(sampleData.getSpeed(i), exercise.speed.speedMax)
             }
         }
 
@@ -419,21 +404,21 @@ class PolarHRMParser extends AbstractExerciseParser {
         def avgHeartrateSum = 0
         exercise.heartRateMax = 0
 
-        for (i in 0..<exercise.sampleList.size()) {
-            avgHeartrateSum += exercise.sampleList[i].heartRate
-            exercise.heartRateMax = Math.max(exercise.sampleList[i].heartRate, exercise.heartRateMax)
+        for (i in 0..<sampleData.size()) {
+            avgHeartrateSum += sampleData.getHeartRate(i)
+            exercise.heartRateMax = Math.max(sampleData.getHeartRate(i), exercise.heartRateMax)
         }
 
         // calculate AVG heartrate
-        exercise.heartRateAVG = Math.round(avgHeartrateSum / (float) exercise.sampleList.size())
+        exercise.heartRateAVG = Math.round(avgHeartrateSum / (float) sampleData.size())
 
         // when altitude is recorded => search minimum altitude of exercise (is not in HRM file)
         if (exercise.recordingMode.altitude) {
             exercise.altitude.altitudeMin = Short.MAX_VALUE
 
-            for (i in 0..<exercise.sampleList.size()) {
+            for (i in 0..<sampleData.size()) {
                 exercise.altitude.altitudeMin = Math.min(
-                        exercise.altitude.altitudeMin, exercise.sampleList[i].altitude)
+                        exercise.altitude.altitudeMin, sampleData.getAltitude(i))
             }
         }
 
@@ -445,14 +430,14 @@ class PolarHRMParser extends AbstractExerciseParser {
             def avgCadenceSum = 0
             def avgCadenceSamples = 0
 
-            for (i in 0..<exercise.sampleList.size()) {
-                if (exercise.sampleList[i].cadence > 0) {
-                    avgCadenceSum += exercise.sampleList[i].cadence
+            for (i in 0..<sampleData.size()) {
+                if (sampleData.getCadence(i) > 0) {
+                    avgCadenceSum += sampleData.getCadence(i)
                     avgCadenceSamples++
                 }
 
                 exercise.cadence.cadenceMax = Math.max(
-                        exercise.sampleList[i].cadence, exercise.cadence.cadenceMax)
+                        sampleData.getCadence(i), exercise.cadence.cadenceMax)
             }
 
             if (avgCadenceSum > 0 && avgCadenceSamples > 0) {
@@ -470,6 +455,76 @@ class PolarHRMParser extends AbstractExerciseParser {
         return exercise
     }
 
+    /**
+     * Parses the specified line of the 'HRData' block and stores the values in a new sample
+     * at the end of the sample data.
+     */
+    private void parseSample(EVExercise exercise, ExerciseSampleData sampleData, String line, boolean fMetricUnits) {
+        def i = sampleData.addSample()
+        def tokenIndex = 0
+        sampleData.setTimestamp(i, i * exercise.recordingInterval * 1000L)
+
+        // split sample line into parts
+        def currSampleSplitted = line.tokenize('\t')
+
+        // 1. part is heartrate
+        sampleData.setHeartRate(i, currSampleSplitted[tokenIndex].toInteger() as short)
+        tokenIndex++
+
+        // next part can be speed, when recorded
+        if ((currSampleSplitted.size() > tokenIndex) &&
+                (exercise.recordingMode.speed)) {
+            // speed is km/h or m/h * 10
+            def speedX10 = currSampleSplitted[tokenIndex].toInteger()
+            if (!fMetricUnits) {
+                speedX10 = ConvertUtils.convertMiles2Kilometer(speedX10)
+            }
+
+            sampleData.setSpeed(i, (speedX10 / 10f) as float)
+            tokenIndex++
+        }
+
+        // next part can be cadence, when recorded
+        if ((currSampleSplitted.size() > tokenIndex) &&
+                (exercise.recordingMode.cadence)) {
+            sampleData.setCadence(i, currSampleSplitted[tokenIndex].toInteger() as short)
+            tokenIndex++
+        }
+
+        // next part can be altitude, when recorded
+        if ((currSampleSplitted.size() > tokenIndex) &&
+                (exercise.recordingMode.altitude)) {
+            def altitude = currSampleSplitted[tokenIndex].toInteger()
+            if (!fMetricUnits) {
+                altitude = ConvertUtils.convertFeet2Meter(altitude)
+            }
+
+            sampleData.setAltitude(i, altitude as short)
+            tokenIndex++
+        }
+    }
+
+    /**
+     * Reads all blocks of the exercise file until the block with the specified name has been
+     * reached (or until the end of the file when the name is null). The lines of the read blocks
+     * are stored in the passed map by block name. Only the first block of each name is stored,
+     * the lines of 'HRData' blocks are never stored, the samples are parsed directly.
+     *
+     * @return true when the block with the specified name has been reached
+     */
+    private boolean readBlocks(SectionLineReader reader, Map blocks, String stopBlockName) {
+        def blockName
+        while ((blockName = reader.nextSection()) != null) {
+            if (blockName == stopBlockName) {
+                return true
+            }
+            if (blockName != 'HRData' && !blocks.containsKey(blockName)) {
+                blocks[blockName] = reader.readSectionLines()
+            }
+        }
+        return false
+    }
+
     /**
      * This method returns the list of all content lines of the specified
      * block in the exercise file (e.g. when blockName="Params" it returns
@@ -478,28 +533,8 @@ class PolarHRMParser extends AbstractExerciseParser {
      * When the fRequired flag is true and nothing was found then a EVException 
      * will be thrown.
      */
-    private def getBlockLines(blockName, fRequired) throws EVException {
-        def strBlockLine = "[$blockName]"
-        def lFoundLines = []
-        def fFound = false
-
-        // process all lines of exercise file
-        for (line in fileContent) {
-
-            // is this line the start of the block ?
-            if (line.startsWith(strBlockLine)) {
-                fFound = true
-                continue
-            }
-
-            // add lines and stop when this is the line the end of the block
-            if (fFound) {
-                if (line.length() == 0 || line.startsWith('[')) {
-                    break
-                }
-                lFoundLines << line
-            }
-        }
+    private def getBlockLines(Map blocks, blockName, fRequired) throws EVException {
+        def lFoundLines = blocks[blockName] ?: []
 
         if (fRequired && lFoundLines.size() == 0) {
             throw new EVException("Failed to read HRM file, can't find block '$blockName' ...")
@@ -2,10 +2,11 @@ package de.saring.exerciseviewer.parser.impl
 
 import de.saring.exerciseviewer.core.EVException
 import de.saring.exerciseviewer.data.EVExercise
-import de.saring.exerciseviewer.data.ExerciseSample
+import de.saring.exerciseviewer.data.ExerciseSampleData
 import de.saring.exerciseviewer.data.RecordingMode
 import de.saring.exerciseviewer.parser.AbstractExerciseParser
 import de.saring.exerciseviewer.parser.ExerciseParserInfo
+import de.saring.exerciseviewer.parser.SectionLineReader
 
 import java.time.LocalDateTime
 
@@ -25,9 +26,6 @@ class SmartsyncCSVParser extends AbstractExerciseParser {
     /** Informations about this parser. */
     private ExerciseParserInfo info = new ExerciseParserInfo('Smartsync CSV', ["csv", "CSV"] as String[])
 
-    /** The list of lines (Strings) of the exercise file. */
-    private def fileContent
-
     /**
      * Returns the informations about this parser implementation.
      * @return the parser informations
@@ -47,19 +45,23 @@ class SmartsyncCSVParser extends AbstractExerciseParser {
      */
     @Override
     EVExercise parseExercise(String filename) throws EVException {
+        SectionLineReader reader = null
         try {
-            fileContent = new File(filename).readLines()
-            return parseExerciseFromContent()
+            reader = SectionLineReader.open(filename)
+            return parseExerciseFromContent(reader)
         }
         catch (Exception e) {
             throw new EVException("Failed to read the CSV activity file '${filename}' ...", e)
         }
+        finally {
+            reader?.close()
+        }
     }
 
     /**
-     * Parses the exercise data from the file content.
+     * Parses the exercise data from the file content, the lines are read one by one.
      */
-    private EVExercise parseExerciseFromContent() {
+    private EVExercise parseExerciseFromContent(SectionLineReader reader) {
         // parse basic exercise data
         EVExercise exercise = new EVExercise()
         exercise.fileType = EVExercise.ExerciseFileType.SSCSV // FIXME
@@ -75,15 +77,15 @@ class SmartsyncCSVParser extends AbstractExerciseParser {
         def exeMinute = 0
         def exeSecond = 0
 
-        // create array of exercise sample
-        def sampleList = []
+        // create sample data, the timestamps are computed when the recording interval is known
+        def sampleData = new ExerciseSampleData()
 
-        for (line in fileContent) {
+        def line
+        while ((line = reader.nextLine()) != null) {
             // most frequent element first
             if (line.startsWith(",")) {
-                ExerciseSample exeSample = new ExerciseSample()
-                exeSample.heartRate = line.substring(1).toInteger()
-                sampleList.add(exeSample)
+                def index = sampleData.addSample()
+                sampleData.setHeartRate(index, line.substring(1).toInteger() as short)
             } else if (line.startsWith("Name,")) {
                 // not supported in EVExercise
             } else if (line.startsWith("Description,")) {
@@ -113,25 +115,26 @@ class SmartsyncCSVParser extends AbstractExerciseParser {
 
         exercise.dateTime = LocalDateTime.of(exeYear, exeMonth, exeDay, exeHour, exeMinute, exeSecond)
 
-        exercise.sampleList = sampleList
+        sampleData.trimToSize()
+        exercise.sampleData = sampleData
 
-        exercise.duration = (sampleList.size - 1) * exercise.recordingInterval * 10
+        exercise.duration = (sampleData.size() - 1) * exercise.recordingInterval * 10
 
         // compute average/maximum heartrate of exercise (not in HRM file)
         def avgHeartrateSum = 0
         exercise.heartRateMax = 0
 
-        for (i in 0..<exercise.sampleList.size()) {
-            avgHeartrateSum += exercise.sampleList[i].heartRate
-            exercise.heartRateMax = Math.max(exercise.sampleList[i].heartRate, exercise.heartRateMax)
+        for (i in 0..<sampleData.size()) {
+            avgHeartrateSum += sampleData.getHeartRate(i)
+            exercise.heartRateMax = Math.max(sampleData.getHeartRate(i), exercise.heartRateMax)
         }
 
         // calculate AVG heartrate
-        exercise.heartRateAVG = Math.round(avgHeartrateSum / (float) exercise.sampleList.size())
+        exercise.heartRateAVG = Math.round(avgHeartrateSum / (float) sampleData.size())
 
         // compute timestamps for all recorded exercise samples
-        for (i in 0..sampleList.size - 1) {
-            sampleList[i].timestamp = i * exercise.recordingInterval * 1000L
+        for (i in 0..<sampleData.size()) {
+            sampleData.setTimestamp(i, i * exercise.recordingInterval * 1000L)
         }
 
         // done :-)
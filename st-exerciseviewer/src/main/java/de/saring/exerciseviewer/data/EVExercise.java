@@ -95,7 +95,11 @@ public final class EVExercise {
      */
     private Lap[] lapList;
     /**
-     * Array containing the data of all recorded samples (for each interval) of exercise.
+     * The data of all recorded samples (for each interval) of exercise.
+     */
+    private ExerciseSampleData sampleData;
+    /**
+     * Array of the views on all recorded samples, it's created on demand for getSampleList().
      */
     private ExerciseSample[] sampleList;
 
@@ -271,12 +275,39 @@ public final class EVExercise {
         this.lapList = lapList;
     }
 
+    public ExerciseSampleData getSampleData() {
+        return sampleData;
+    }
+
+    public void setSampleData(ExerciseSampleData sampleData) {
+        this.sampleData = sampleData;
+        this.sampleList = null;
+    }
+
+    /**
+     * Returns the array of all recorded samples. The samples are views on the sample data,
+     * so getSampleData() should be preferred for processing all samples.
+     *
+     * @return array of samples or null when there is no sample data
+     */
     public ExerciseSample[] getSampleList() {
+        if (sampleData == null) {
+            return null;
+        }
+        if (sampleList == null || sampleList.length != sampleData.size()) {
+            sampleList = sampleData.getSamples();
+        }
         return sampleList;
     }
 
+    /**
+     * Sets the recorded samples, the sample values will be stored in a new sample data object.
+     * The passed samples are views on this sample data afterwards.
+     *
+     * @param sampleList array of samples (can be null)
+     */
     public void setSampleList(ExerciseSample[] sampleList) {
-        this.sampleList = sampleList;
+        setSampleData(sampleList == null ? null : ExerciseSampleData.of(sampleList));
     }
 
     /**
@@ -289,23 +320,23 @@ public final class EVExercise {
     public void repairSamples() {
         // is all the required speed data available ?
         if ((this.speed == null) || (this.speed.getDistance() == 0) ||
-                (this.sampleList == null) || (this.sampleList.length == 0)) {
+                (this.sampleData == null) || (this.sampleData.size() == 0)) {
             return;
         }
 
         // it's possible that there are not recorded samples for the whole exercise time
         // (e.g. connection problems) => in this case we can't repair the sample distances
-        if (this.sampleList.length < (duration / 10 / recordingInterval)) {
+        int sampleCount = this.sampleData.size();
+        if (sampleCount < (duration / 10 / recordingInterval)) {
             return;
         }
 
         // calculate relation of exercise distance to last sample distance
-        ExerciseSample lastSample = this.sampleList[this.sampleList.length - 1];
-        double fRelation = lastSample.getDistance() / (double) this.speed.getDistance();
+        double fRelation = this.sampleData.getDistance(sampleCount - 1) / (double) this.speed.getDistance();
 
         // process all samples and recalculate the sample distance in relation to exercise distance 
-        for (ExerciseSample sample : this.sampleList) {
-            sample.setDistance((int) Math.round(sample.getDistance() / fRelation));
+        for (int i = 0; i < sampleCount; i++) {
+            this.sampleData.setDistance(i, (int) Math.round(this.sampleData.getDistance(i) / fRelation));
         }
     }
 
@@ -342,8 +373,10 @@ public final class EVExercise {
             Stream.of(this.lapList).forEach(sBuilder::append);
         }
 
-        if (this.sampleList != null) {
-            Stream.of(this.sampleList).forEach(sBuilder::append);
+        if (this.sampleData != null) {
+            for (int i = 0; i < this.sampleData.size(); i++) {
+                sBuilder.append(this.sampleData.getSample(i));
+            }
         }
 
         return sBuilder.toString();
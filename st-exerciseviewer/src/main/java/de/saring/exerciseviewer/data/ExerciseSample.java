@@ -4,6 +4,10 @@ package de.saring.exerciseviewer.data;
 /**
  * This class contains all data recorded each interval. The altitude, speed,
  * cadence and power is optional and may be not recorded.
+ * <p/>
+ * The values are stored in an ExerciseSampleData object, the samples of an exercise
+ * are views on the sample data of the exercise. New created samples are using their
+ * own sample data, until they are added to an exercise.
  *
  * @author Stefan Saring
  * @version 1.0
@@ -11,100 +15,139 @@ package de.saring.exerciseviewer.data;
 public final class ExerciseSample {
 
     /**
-     * Timestamp since exercise start of this sample (in 1/1000 sec).
-     */
-    private long timestamp;
-    /**
-     * Heartrate at record moment.
+     * The sample data containing the values of this sample.
      */
-    private short heartRate;
+    private ExerciseSampleData data;
     /**
-     * Altitude at record moment.
+     * The index of this sample in the sample data.
      */
-    private short altitude;
+    private int index;
+
     /**
-     * Speed at record moment (in km/h).
+     * Creates a new sample with default values (0, no position).
      */
-    private float speed;
+    public ExerciseSample() {
+        data = new ExerciseSampleData(1);
+        index = data.addSample();
+    }
+
     /**
-     * Cadence at record moment (in rpm).
+     * Creates the view on the specified sample of the sample data.
+     *
+     * @param data the sample data
+     * @param index the sample index
      */
-    private short cadence;
-    /**
-     * Distance at record moment (in meters).
-     */
-    private int distance;
+    ExerciseSample(ExerciseSampleData data, int index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    ExerciseSampleData getData() {
+        return data;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
     /**
-     * Temperature at record moment (in degrees celcius, optional). (Relevant for HAC4.)
+     * Attaches this sample to the specified sample data, the values are accessed there.
+     *
+     * @param data the sample data
+     * @param index the sample index
      */
-    private short temperature;
+    void attach(ExerciseSampleData data, int index) {
+        this.data = data;
+        this.index = index;
+    }
+
     /**
-     * The geographical location of this sample in the exercise track (optional).
+     * Timestamp since exercise start of this sample (in 1/1000 sec).
      */
-    private Position position;
-
     public long getTimestamp() {
-        return timestamp;
+        return data.getTimestamp(index);
     }
 
     public void setTimestamp(long timestamp) {
-        this.timestamp = timestamp;
+        data.setTimestamp(index, timestamp);
     }
 
+    /**
+     * Heartrate at record moment.
+     */
     public short getHeartRate() {
-        return heartRate;
+        return data.getHeartRate(index);
     }
 
     public void setHeartRate(short heartRate) {
-        this.heartRate = heartRate;
+        data.setHeartRate(index, heartRate);
     }
 
+    /**
+     * Altitude at record moment.
+     */
     public short getAltitude() {
-        return altitude;
+        return data.getAltitude(index);
     }
 
     public void setAltitude(short altitude) {
-        this.altitude = altitude;
+        data.setAltitude(index, altitude);
     }
 
+    /**
+     * Speed at record moment (in km/h).
+     */
     public float getSpeed() {
-        return speed;
+        return data.getSpeed(index);
     }
 
     public void setSpeed(float speed) {
-        this.speed = speed;
+        data.setSpeed(index, speed);
     }
 
+    /**
+     * Cadence at record moment (in rpm).
+     */
     public short getCadence() {
-        return cadence;
+        return data.getCadence(index);
     }
 
     public void setCadence(short cadence) {
-        this.cadence = cadence;
+        data.setCadence(index, cadence);
     }
 
+    /**
+     * Distance at record moment (in meters).
+     */
     public int getDistance() {
-        return distance;
+        return data.getDistance(index);
     }
 
     public void setDistance(int distance) {
-        this.distance = distance;
+        data.setDistance(index, distance);
     }
 
+    /**
+     * Temperature at record moment (in degrees celcius, optional). (Relevant for HAC4.)
+     */
     public short getTemperature() {
-        return temperature;
+        return data.getTemperature(index);
     }
 
     public void setTemperature(short temperature) {
-        this.temperature = temperature;
+        data.setTemperature(index, temperature);
     }
 
+    /**
+     * The geographical location of this sample in the exercise track (optional).
+     * A new Position object is returned on each call.
+     */
     public Position getPosition() {
-        return position;
+        return data.getPosition(index);
     }
 
     public void setPosition(Position position) {
-        this.position = position;
+        data.setPosition(index, position);
     }
 
     @Override
@@ -112,14 +155,14 @@ public final class ExerciseSample {
         StringBuilder sBuilder = new StringBuilder();
 
         sBuilder.append(ExerciseSample.class.getName()).append(":\n");
-        sBuilder.append(" [timestamp=").append(this.timestamp).append("\n");
-        sBuilder.append("  heartRate=").append(this.heartRate).append("\n");
-        sBuilder.append("  altitude=").append(this.altitude).append("\n");
-        sBuilder.append("  speed=").append(this.speed).append("\n");
-        sBuilder.append("  cadence=").append(this.cadence).append("\n");
-        sBuilder.append("  distance=").append(this.distance).append("\n");
-        sBuilder.append("  temperature=").append(this.temperature).append("\n");
-        sBuilder.append("  position=").append(this.position).append("]\n");
+        sBuilder.append(" [timestamp=").append(getTimestamp()).append("\n");
+        sBuilder.append("  heartRate=").append(getHeartRate()).append("\n");
+        sBuilder.append("  altitude=").append(getAltitude()).append("\n");
+        sBuilder.append("  speed=").append(getSpeed()).append("\n");
+        sBuilder.append("  cadence=").append(getCadence()).append("\n");
+        sBuilder.append("  distance=").append(getDistance()).append("\n");
+        sBuilder.append("  temperature=").append(getTemperature()).append("\n");
+        sBuilder.append("  position=").append(getPosition()).append("]\n");
 
         return sBuilder.toString();
     }
@@ -0,0 +1,344 @@
+package de.saring.exerciseviewer.data;
+
+import java.util.Arrays;
+
+/**
+ * This class contains the data of all samples recorded in an exercise. The sample values are
+ * stored in primitive arrays (one array for each value type) instead of one object for each
+ * sample, this saves a lot of memory for long recordings and speeds up the processing of all
+ * samples (e.g. in diagrams). The samples are accessed by their index, the ExerciseSample
+ * objects returned by getSample() are views on the stored data.
+ * <p/>
+ * The position arrays are created for the first sample with a position only, samples without
+ * position contain NaN as latitude and longitude.
+ *
+ * @author Stefan Saring
+ */
+public final class ExerciseSampleData {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int size;
+
+    private long[] timestamps;
+    private short[] heartRates;
+    private short[] altitudes;
+    private float[] speeds;
+    private short[] cadences;
+    private int[] distances;
+    private short[] temperatures;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    /**
+     * Creates an empty sample data object with the default capacity.
+     */
+    public ExerciseSampleData() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty sample data object for the specified number of samples. The capacity
+     * will be increased automatically when more samples are added.
+     *
+     * @param capacity initial capacity (number of samples)
+     */
+    public ExerciseSampleData(int capacity) {
+        timestamps = new long[capacity];
+        heartRates = new short[capacity];
+        altitudes = new short[capacity];
+        speeds = new float[capacity];
+        cadences = new short[capacity];
+        distances = new int[capacity];
+        temperatures = new short[capacity];
+    }
+
+    /**
+     * Creates the sample data object with the values of the specified samples. The samples
+     * will be views on the created sample data afterwards, so changes of the samples are
+     * stored in the created object and the previous sample values are not used anymore.
+     *
+     * @param samples the samples
+     * @return the created sample data
+     */
+    public static ExerciseSampleData of(ExerciseSample[] samples) {
+        ExerciseSampleData sampleData = new ExerciseSampleData(samples.length);
+        for (ExerciseSample sample : samples) {
+            int index = sampleData.addSample();
+            sampleData.copySample(sample.getData(), sample.getIndex(), index);
+            sample.attach(sampleData, index);
+        }
+        return sampleData;
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return number of samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a new sample with default values (0, no position) at the end.
+     *
+     * @return the index of the new sample
+     */
+    public int addSample() {
+        if (size == timestamps.length) {
+            ensureCapacity(Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        if (latitudes != null) {
+            latitudes[size] = Double.NaN;
+            longitudes[size] = Double.NaN;
+        }
+        return size++;
+    }
+
+    /**
+     * Adds the specified number of new samples with default values (0, no position) at the end.
+     *
+     * @param count number of samples to add
+     */
+    public void addSamples(int count) {
+        ensureCapacity(size + count);
+        if (latitudes != null) {
+            Arrays.fill(latitudes, size, size + count, Double.NaN);
+            Arrays.fill(longitudes, size, size + count, Double.NaN);
+        }
+        size += count;
+    }
+
+    /**
+     * Reduces the capacity to the current number of samples, should be called when all samples
+     * were added.
+     */
+    public void trimToSize() {
+        if (size < timestamps.length) {
+            resize(size);
+        }
+    }
+
+    /**
+     * Returns a view on the sample with the specified index.
+     *
+     * @param index sample index
+     * @return the sample view
+     */
+    public ExerciseSample getSample(int index) {
+        checkIndex(index);
+        return new ExerciseSample(this, index);
+    }
+
+    /**
+     * Returns views on all samples.
+     *
+     * @return array of the sample views
+     */
+    public ExerciseSample[] getSamples() {
+        ExerciseSample[] samples = new ExerciseSample[size];
+        for (int i = 0; i < size; i++) {
+            samples[i] = new ExerciseSample(this, i);
+        }
+        return samples;
+    }
+
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    public void setTimestamp(int index, long timestamp) {
+        checkIndex(index);
+        timestamps[index] = timestamp;
+    }
+
+    public short getHeartRate(int index) {
+        checkIndex(index);
+        return heartRates[index];
+    }
+
+    public void setHeartRate(int index, short heartRate) {
+        checkIndex(index);
+        heartRates[index] = heartRate;
+    }
+
+    public short getAltitude(int index) {
+        checkIndex(index);
+        return altitudes[index];
+    }
+
+    public void setAltitude(int index, short altitude) {
+        checkIndex(index);
+        altitudes[index] = altitude;
+    }
+
+    public float getSpeed(int index) {
+        checkIndex(index);
+        return speeds[index];
+    }
+
+    public void setSpeed(int index, float speed) {
+        checkIndex(index);
+        speeds[index] = speed;
+    }
+
+    public short getCadence(int index) {
+        checkIndex(index);
+        return cadences[index];
+    }
+
+    public void setCadence(int index, short cadence) {
+        checkIndex(index);
+        cadences[index] = cadence;
+    }
+
+    public int getDistance(int index) {
+        checkIndex(index);
+        return distances[index];
+    }
+
+    public void setDistance(int index, int distance) {
+        checkIndex(index);
+        distances[index] = distance;
+    }
+
+    public short getTemperature(int index) {
+        checkIndex(index);
+        return temperatures[index];
+    }
+
+    public void setTemperature(int index, short temperature) {
+        checkIndex(index);
+        temperatures[index] = temperature;
+    }
+
+    /**
+     * Returns true when the sample with the specified index contains a position.
+     *
+     * @param index sample index
+     * @return true when a position is available
+     */
+    public boolean hasPosition(int index) {
+        checkIndex(index);
+        return latitudes != null && !Double.isNaN(latitudes[index]);
+    }
+
+    /**
+     * Returns the latitude of the sample position.
+     *
+     * @param index sample index
+     * @return the latitude or NaN when the sample has no position
+     */
+    public double getLatitude(int index) {
+        checkIndex(index);
+        return latitudes == null ? Double.NaN : latitudes[index];
+    }
+
+    /**
+     * Returns the longitude of the sample position.
+     *
+     * @param index sample index
+     * @return the longitude or NaN when the sample has no position
+     */
+    public double getLongitude(int index) {
+        checkIndex(index);
+        return longitudes == null ? Double.NaN : longitudes[index];
+    }
+
+    /**
+     * Returns the position of the sample, a new Position object is created on each call.
+     *
+     * @param index sample index
+     * @return the position or null when the sample has no position
+     */
+    public Position getPosition(int index) {
+        return hasPosition(index) ? new Position(latitudes[index], longitudes[index]) : null;
+    }
+
+    /**
+     * Sets the position of the sample.
+     *
+     * @param index sample index
+     * @param latitude the latitude in degrees
+     * @param longitude the longitude in degrees
+     */
+    public void setPosition(int index, double latitude, double longitude) {
+        checkIndex(index);
+        if (latitudes == null) {
+            createPositionArrays();
+        }
+        latitudes[index] = latitude;
+        longitudes[index] = longitude;
+    }
+
+    /**
+     * Sets the position of the sample.
+     *
+     * @param index sample index
+     * @param position the position or null for removing the position
+     */
+    public void setPosition(int index, Position position) {
+        if (position != null) {
+            setPosition(index, position.getLatitude(), position.getLongitude());
+        } else if (hasPosition(index)) {
+            latitudes[index] = Double.NaN;
+            longitudes[index] = Double.NaN;
+        }
+    }
+
+    /**
+     * Copies all values of the specified sample to the sample of this object.
+     */
+    private void copySample(ExerciseSampleData source, int sourceIndex, int index) {
+        timestamps[index] = source.timestamps[sourceIndex];
+        heartRates[index] = source.heartRates[sourceIndex];
+        altitudes[index] = source.altitudes[sourceIndex];
+        speeds[index] = source.speeds[sourceIndex];
+        cadences[index] = source.cadences[sourceIndex];
+        distances[index] = source.distances[sourceIndex];
+        temperatures[index] = source.temperatures[sourceIndex];
+        if (source.hasPosition(sourceIndex)) {
+            setPosition(index, source.latitudes[sourceIndex], source.longitudes[sourceIndex]);
+        }
+    }
+
+    private void createPositionArrays() {
+        latitudes = new double[timestamps.length];
+        longitudes = new double[timestamps.length];
+        Arrays.fill(latitudes, Double.NaN);
+        Arrays.fill(longitudes, Double.NaN);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > timestamps.length) {
+            resize(capacity);
+        }
+    }
+
+    private void resize(int capacity) {
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        heartRates = Arrays.copyOf(heartRates, capacity);
+        altitudes = Arrays.copyOf(altitudes, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        cadences = Arrays.copyOf(cadences, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        temperatures = Arrays.copyOf(temperatures, capacity);
+        if (latitudes != null) {
+            int oldCapacity = latitudes.length;
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            if (capacity > oldCapacity) {
+                Arrays.fill(latitudes, oldCapacity, capacity, Double.NaN);
+                Arrays.fill(longitudes, oldCapacity, capacity, Double.NaN);
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package de.saring.exerciseviewer.gui;
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.core.EVOptions;
 import de.saring.exerciseviewer.data.EVExercise;
-import de.saring.exerciseviewer.parser.ExerciseParser;
 import de.saring.exerciseviewer.parser.ExerciseParserFactory;
 
 /**
@@ -31,8 +30,7 @@ public class EVDocument {
      */
     public void openExerciseFile(String filename) throws EVException {
 
-        ExerciseParser parser = ExerciseParserFactory.getParser(filename);
-        exercise = parser.parseExercise(filename);
+        exercise = ExerciseParserFactory.parseExercise(filename);
         exerciseFilename = filename;
     }
 
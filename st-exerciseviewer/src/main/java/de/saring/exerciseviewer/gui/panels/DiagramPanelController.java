@@ -39,7 +39,7 @@ import org.jfree.ui.RectangleAnchor;
 import org.jfree.ui.TextAnchor;
 
 import de.saring.exerciseviewer.data.EVExercise;
-import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSampleData;
 import de.saring.exerciseviewer.data.HeartRateLimit;
 import de.saring.exerciseviewer.data.Lap;
 import de.saring.exerciseviewer.gui.EVContext;
@@ -196,21 +196,21 @@ public class DiagramPanelController extends AbstractPanelController {
         }
 
         // fill data series with all recorded exercise samples
-        if (exercise.getSampleList() != null) {
-            for (int i = 0; i < exercise.getSampleList().length; i++) {
+        final ExerciseSampleData sampleData = exercise.getSampleData();
+        if (sampleData != null) {
+            for (int i = 0; i < sampleData.size(); i++) {
 
-                final ExerciseSample sample = exercise.getSampleList()[i];
-                final Number valueLeft = getSampleValue(axisTypeLeft, sample);
-                final Number valueRight = getSampleValue(axisTypeRight, sample);
+                final Number valueLeft = getSampleValue(axisTypeLeft, sampleData, i);
+                final Number valueRight = getSampleValue(axisTypeRight, sampleData, i);
 
                 if (fDomainAxisTime) {
                     // calculate current second
-                    final int timeSeconds = (int) (sample.getTimestamp() / 1000);
+                    final int timeSeconds = (int) (sampleData.getTimestamp(i) / 1000);
                     final Second second = createJFreeChartSecond(timeSeconds);
                     fillDataInTimeSeries((TimeSeries) sLeft, (TimeSeries) sRight, second, valueLeft, valueRight);
                 } else {
                     // get current distance of this sample
-                    double fDistance = sample.getDistance() / 1000f;
+                    double fDistance = sampleData.getDistance(i) / 1000f;
                     if (getContext().getFormatUtils().getUnitSystem() != FormatUtils.UnitSystem.Metric) {
                         fDistance = ConvertUtils.convertKilometer2Miles(fDistance, false);
                     }
@@ -473,24 +473,25 @@ public class DiagramPanelController extends AbstractPanelController {
      * also converts the value to the current unit system and speed view.
      *
      * @param axisType the axis type to be displayed
-     * @param sample the exercise sample to display
+     * @param sampleData the exercise sample data
+     * @param index the index of the exercise sample to display
      * @return the requested value
      */
-    private Number getSampleValue(AxisType axisType, ExerciseSample sample) {
+    private Number getSampleValue(AxisType axisType, ExerciseSampleData sampleData, int index) {
 
         final FormatUtils formatUtils = getContext().getFormatUtils();
 
         switch (axisType) {
             case HEARTRATE:
-                return sample.getHeartRate();
+                return sampleData.getHeartRate(index);
             case ALTITUDE:
                 if (formatUtils.getUnitSystem() == FormatUtils.UnitSystem.Metric) {
-                    return sample.getAltitude();
+                    return sampleData.getAltitude(index);
                 } else {
-                    return ConvertUtils.convertMeter2Feet(sample.getAltitude());
+                    return ConvertUtils.convertMeter2Feet(sampleData.getAltitude(index));
                 }
             case SPEED:
-                float speed = sample.getSpeed();
+                float speed = sampleData.getSpeed(index);
                 if (formatUtils.getUnitSystem() != FormatUtils.UnitSystem.Metric) {
                     speed = (float) ConvertUtils.convertKilometer2Miles(speed, false);
                 }
@@ -502,12 +503,12 @@ public class DiagramPanelController extends AbstractPanelController {
                 }
                 return speed;
             case CADENCE:
-                return sample.getCadence();
+                return sampleData.getCadence(index);
             case TEMPERATURE:
                 if (formatUtils.getUnitSystem() == FormatUtils.UnitSystem.Metric) {
-                    return sample.getTemperature();
+                    return sampleData.getTemperature(index);
                 } else {
-                    return ConvertUtils.convertCelsius2Fahrenheit(sample.getTemperature());
+                    return ConvertUtils.convertCelsius2Fahrenheit(sampleData.getTemperature(index));
                 }
             default:
                 return 0;
@@ -34,6 +34,7 @@ import org.jxmapviewer.viewer.GeoPosition;
 
 import de.saring.exerciseviewer.data.EVExercise;
 import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSampleData;
 import de.saring.exerciseviewer.data.Lap;
 import de.saring.exerciseviewer.data.Position;
 import de.saring.exerciseviewer.gui.EVContext;
@@ -181,7 +182,7 @@ public class TrackPanelController extends AbstractPanelController {
     }
 
     private void setupTrackPositionSlider() {
-        slPosition.setMax(getDocument().getExercise().getSampleList().length - 1);
+        slPosition.setMax(getDocument().getExercise().getSampleData().size() - 1);
 
         // on track position slider changes: update position marker in the map viewer and display tooltip with details
         slPosition.valueProperty().addListener((observable, oldValue, newValue) -> {
@@ -402,10 +403,10 @@ public class TrackPanelController extends AbstractPanelController {
     private List<GeoPosition> createSampleGeoPositionList(EVExercise exercise) {
         ArrayList<GeoPosition> geoPositions = new ArrayList<>();
 
-        for (ExerciseSample exerciseSample : exercise.getSampleList()) {
-            Position pos = exerciseSample.getPosition();
-            if (pos != null) {
-                geoPositions.add(new GeoPosition(pos.getLatitude(), pos.getLongitude()));
+        ExerciseSampleData sampleData = exercise.getSampleData();
+        for (int i = 0; i < sampleData.size(); i++) {
+            if (sampleData.hasPosition(i)) {
+                geoPositions.add(new GeoPosition(sampleData.getLatitude(i), sampleData.getLongitude(i)));
             }
         }
         return geoPositions;
@@ -434,12 +435,11 @@ public class TrackPanelController extends AbstractPanelController {
     }
 
     private GeoPosition getGeoPositionForExerciseSample(final int sampleIndex) {
-        final EVExercise exercise = getDocument().getExercise();
-        final Position samplePosition = exercise.getSampleList()[sampleIndex].getPosition();
+        final ExerciseSampleData sampleData = getDocument().getExercise().getSampleData();
 
         // some exercise samples don't have position data
-        if (samplePosition != null) {
-            return new GeoPosition(samplePosition.getLatitude(), samplePosition.getLongitude());
+        if (sampleData.hasPosition(sampleIndex)) {
+            return new GeoPosition(sampleData.getLatitude(sampleIndex), sampleData.getLongitude(sampleIndex));
         }
         return null;
     }
@@ -507,12 +507,11 @@ public class TrackPanelController extends AbstractPanelController {
     private int getSampleIndexNearbyGeoPos(GeoPosition geoPos, double latitudeBuffer, double longitudeBuffer) {
         EVExercise exercise = getDocument().getExercise();
 
-        for (int i = 0; i < exercise.getSampleList().length; i++) {
-            ExerciseSample sample = exercise.getSampleList()[i];
-            Position samplePos = sample.getPosition();
-
-            if (samplePos != null && Math.abs(samplePos.getLatitude() - geoPos.getLatitude()) < latitudeBuffer
-                    && Math.abs(samplePos.getLongitude() - geoPos.getLongitude()) < longitudeBuffer) {
+        ExerciseSampleData sampleData = exercise.getSampleData();
+        for (int i = 0; i < sampleData.size(); i++) {
+            if (sampleData.hasPosition(i)
+                    && Math.abs(sampleData.getLatitude(i) - geoPos.getLatitude()) < latitudeBuffer
+                    && Math.abs(sampleData.getLongitude(i) - geoPos.getLongitude()) < longitudeBuffer) {
                 return i;
             }
         }
@@ -528,7 +527,7 @@ public class TrackPanelController extends AbstractPanelController {
     private String createToolTipText(int sampleIndex) {
 
         EVExercise exercise = getDocument().getExercise();
-        ExerciseSample sample = exercise.getSampleList()[sampleIndex];
+        ExerciseSample sample = exercise.getSampleData().getSample(sampleIndex);
         FormatUtils formatUtils = getContext().getFormatUtils();
 
         StringBuilder sb = new StringBuilder();
@@ -6,8 +6,6 @@ import de.saring.exerciseviewer.data.Lap;
 import de.saring.util.unitcalc.CalculationUtils;
 
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,40 +19,6 @@ import java.util.List;
  */
 public abstract class AbstractExerciseParser implements ExerciseParser {
 
-    /**
-     * This is a helper method for all parser implementations, which reads
-     * the specified binary exercise file into a int buffer.
-     * The reason for integers in the buffer is: byte values are -128 to 127,
-     * int values are converted to 0 to 255, this makes parsing much easier.
-     *
-     * @param filename filename of exercise file to read
-     * @return byte buffer with the file content
-     * @throws EVException thrown on read problems
-     */
-    protected int[] readFileToByteArray(String filename) throws EVException {
-        File file = new File(filename);
-
-        // open exercise file and create buffer with same length
-        try (FileInputStream fiStream = new FileInputStream(file)) {
-            int fileLength = (int) file.length();
-            byte[] byteBuffer = new byte[fileLength];
-            int[] intBuffer = new int[fileLength];
-
-            // read all bytes to buffer
-            if (fiStream.read(byteBuffer) != fileLength) {
-                throw new Exception("Failed to read complete file content ...");
-            }
-
-            // convert signed byte buffer to int buffer
-            for (int i = 0; i < fileLength; i++) {
-                intBuffer[i] = unsignedByteToInt(byteBuffer[i]);
-            }
-            return intBuffer;
-        } catch (Exception e) {
-            throw new EVException("Failed to read binary content from exercise file '" + filename + "' ...", e);
-        }
-    }
-
     /**
      * This is a helper method for all parser implementations, which reads
      * the specified text-based exercise file into an array of strings
@@ -82,17 +46,6 @@ public abstract class AbstractExerciseParser implements ExerciseParser {
         }
     }
 
-    /**
-     * This helper method converts the unisgned byte value (0..255) to the
-     * appropriate int value. It's usefull for reading binary file content.
-     *
-     * @param value unsigned byte value
-     * @return appropriate int value
-     */
-    private int unsignedByteToInt(byte value) {
-        return value & 0xff;
-    }
-
 
     /**
      * This helper method calculates the average speed for all laps of the
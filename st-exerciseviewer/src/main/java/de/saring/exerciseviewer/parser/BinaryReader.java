@@ -0,0 +1,174 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader for the content of binary exercise files. The content is accessed directly in a
+ * ByteBuffer (memory-mapped for large files), there is no conversion into other arrays.
+ * All accessors are using absolute offsets and return unsigned values, multi-byte values
+ * are stored in little-endian order (as in the Polar and HAC4 files).
+ *
+ * @author Stefan Saring
+ */
+public final class BinaryReader {
+
+    /** Files with at least this size will be memory-mapped, smaller files are read to heap. */
+    private static final long MEMORY_MAP_THRESHOLD = 1024 * 1024;
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a reader for the content of the specified buffer (from position to limit).
+     *
+     * @param buffer the buffer
+     */
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates a reader for the specified byte array, the array is not copied.
+     *
+     * @param data the binary data
+     * @return the reader
+     */
+    public static BinaryReader wrap(byte[] data) {
+        return new BinaryReader(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Creates a reader for the content of the specified file.
+     *
+     * @param filename name of the file
+     * @return the reader
+     * @throws EVException thrown on read problems
+     */
+    public static BinaryReader readFile(String filename) throws EVException {
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The file is too large ...");
+            }
+
+            if (size >= MEMORY_MAP_THRESHOLD) {
+                return new BinaryReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Failed to read complete file content ...");
+                }
+            }
+            buffer.flip();
+            return new BinaryReader(buffer);
+        } catch (IOException e) {
+            throw new EVException("Failed to read binary content from exercise file '" + filename + "' ...", e);
+        }
+    }
+
+    /**
+     * Returns the length of the binary data.
+     *
+     * @return number of bytes
+     */
+    public int length() {
+        return buffer.limit();
+    }
+
+    /**
+     * Returns a reader for the specified part of the binary data, the data is not copied.
+     *
+     * @param offset offset of the part
+     * @param length length of the part
+     * @return the reader of the part
+     */
+    public BinaryReader slice(int offset, int length) {
+        ByteBuffer part = buffer.duplicate();
+        part.limit(offset + length).position(offset);
+        return new BinaryReader(part);
+    }
+
+    /**
+     * Returns the unsigned byte value (0..255) at the specified offset.
+     *
+     * @param offset byte offset
+     * @return the value
+     */
+    public int getUnsignedByte(int offset) {
+        return buffer.get(offset) & 0xff;
+    }
+
+    /**
+     * Returns the unsigned little-endian 16 bit value at the specified offset.
+     *
+     * @param offset offset of the low byte
+     * @return the value
+     */
+    public int getUnsignedShort(int offset) {
+        return buffer.getShort(offset) & 0xffff;
+    }
+
+    /**
+     * Returns the unsigned little-endian 32 bit value at the specified offset.
+     *
+     * @param offset offset of the lowest byte
+     * @return the value
+     */
+    public long getUnsignedInt(int offset) {
+        return buffer.getInt(offset) & 0xffffffffL;
+    }
+
+    /**
+     * Returns the value of the BCD (binary coded decimal) byte at the specified offset.
+     *
+     * @param offset byte offset
+     * @return the decimal value (0..99 for valid BCD bytes)
+     */
+    public int getBCD(int offset) {
+        return decodeBCD(getUnsignedByte(offset));
+    }
+
+    /**
+     * Returns the value of the specified bits of the byte at the specified offset.
+     *
+     * @param offset byte offset
+     * @param firstBit index of the lowest bit (0..7)
+     * @param bitCount number of bits
+     * @return the value of the bits
+     */
+    public int getBits(int offset, int firstBit, int bitCount) {
+        return (getUnsignedByte(offset) >> firstBit) & ((1 << bitCount) - 1);
+    }
+
+    /**
+     * Returns true when the specified bit of the byte at the specified offset is set.
+     *
+     * @param offset byte offset
+     * @param bit index of the bit (0..7)
+     * @return true when the bit is set
+     */
+    public boolean isBitSet(int offset, int bit) {
+        return getBits(offset, bit, 1) == 1;
+    }
+
+    /**
+     * Decodes the BCD (binary coded decimal) byte value to the decimal value.
+     *
+     * @param value the BCD byte value
+     * @return the decimal value
+     */
+    public static int decodeBCD(int value) {
+        // (upper 4 bits * 10) + lower 4 bits
+        return ((value >> 4) * 10) + (value & 0x0f);
+    }
+}
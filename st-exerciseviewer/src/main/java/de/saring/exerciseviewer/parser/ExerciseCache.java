@@ -0,0 +1,216 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory aware cache for parsed exercises, so reopening an exercise file does not need to parse
+ * it again. The exercises are mapped by the absolute path, size and modification time of the
+ * file, so a modified file will always be parsed again.
+ * <p/>
+ * The cache contains a limited number of the recently used exercises. They are referenced by
+ * soft references, so the garbage collector can remove them when memory gets low. The cached
+ * exercises are shared by all users and therefore must not be modified.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseCache {
+
+    /** Default maximum number of cached exercises. */
+    public static final int DEFAULT_MAX_ENTRIES = 10;
+
+    private final int maxEntries;
+
+    /** Map of the cached exercises, ordered by access (least recently used first). */
+    private final Map<Key, SoftReference<EVExercise>> entries;
+
+    /** The persistent cache used for exercises missing in this cache (can be null). */
+    private volatile ExerciseDiskCache diskCache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a new cache with the default maximum number of exercises.
+     */
+    public ExerciseCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a new cache with the specified maximum number of exercises.
+     *
+     * @param maxEntries maximum number of cached exercises (must be greater than 0)
+     */
+    public ExerciseCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum number of entries must be greater than 0!");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, SoftReference<EVExercise>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SoftReference<EVExercise>> eldest) {
+                return size() > ExerciseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Sets the persistent cache, which will be used for the exercises missing in this cache.
+     *
+     * @param diskCache the disk cache or null for parsing missing exercises directly
+     */
+    public void setDiskCache(ExerciseDiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    /**
+     * Returns the exercise of the specified file. It will be taken from the cache when the file
+     * has not been modified since the last parsing. Otherwise the file gets parsed by the
+     * specified parser (or read from the disk cache, when set) and the exercise gets stored
+     * in the cache.
+     *
+     * @param filename name of the exercise file
+     * @param parser the parser for the exercise file
+     * @return the parsed exercise
+     * @throws EVException thrown on read/parse problems
+     */
+    public EVExercise getExercise(String filename, ExerciseParser parser) throws EVException {
+        Key key = createKey(filename);
+        if (key != null) {
+            EVExercise exercise = lookup(key);
+            if (exercise != null) {
+                hitCount.incrementAndGet();
+                return exercise;
+            }
+        }
+
+        missCount.incrementAndGet();
+        ExerciseDiskCache currentDiskCache = diskCache;
+        EVExercise exercise = currentDiskCache != null ?
+                currentDiskCache.getExercise(filename, parser) : parser.parseExercise(filename);
+
+        // don't cache the exercise when the file has been modified while parsing
+        if (key != null && key.equals(createKey(filename))) {
+            synchronized (entries) {
+                entries.put(key, new SoftReference<>(exercise));
+            }
+        }
+        return exercise;
+    }
+
+    /**
+     * Returns the number of exercises returned from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of exercises which needed to be parsed.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of cache entries, this includes the entries of exercises which were
+     * already removed by the garbage collector.
+     *
+     * @return number of cache entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all exercises from the cache, the hit and miss counts will be kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private EVExercise lookup(Key key) {
+        synchronized (entries) {
+            SoftReference<EVExercise> reference = entries.get(key);
+            if (reference == null) {
+                return null;
+            }
+
+            EVExercise exercise = reference.get();
+            if (exercise == null) {
+                // the exercise has been removed by the garbage collector
+                entries.remove(key);
+            }
+            return exercise;
+        }
+    }
+
+    /**
+     * Creates the cache key for the specified exercise file.
+     *
+     * @param filename name of the exercise file
+     * @return the key or null when the file attributes can't be read (the file can't be cached)
+     */
+    private static Key createKey(String filename) {
+        try {
+            Path path = Paths.get(filename).toAbsolutePath().normalize();
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new Key(path, attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Key of the cached exercises, it identifies the content of the exercise file.
+     */
+    private static final class Key {
+
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        Key(Path path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return size == key.size && lastModified == key.lastModified && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified);
+        }
+    }
+}
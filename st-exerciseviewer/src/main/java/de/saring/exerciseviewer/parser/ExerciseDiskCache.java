@@ -0,0 +1,580 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.data.ExerciseAltitude;
+import de.saring.exerciseviewer.data.ExerciseCadence;
+import de.saring.exerciseviewer.data.ExerciseSampleData;
+import de.saring.exerciseviewer.data.ExerciseSpeed;
+import de.saring.exerciseviewer.data.ExerciseTemperature;
+import de.saring.exerciseviewer.data.HeartRateLimit;
+import de.saring.exerciseviewer.data.Lap;
+import de.saring.exerciseviewer.data.LapAltitude;
+import de.saring.exerciseviewer.data.LapSpeed;
+import de.saring.exerciseviewer.data.LapTemperature;
+import de.saring.exerciseviewer.data.Position;
+import de.saring.exerciseviewer.data.RecordingMode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent cache for parsed exercises, so exercise files don't need to be parsed again
+ * after restarting the application. Each parsed exercise is stored in a compact binary file
+ * in the cache directory, the file name is the SHA-256 hash of the exercise file content.
+ * The cache entries also contain the class name and the version of the parser, they will be
+ * ignored and replaced when the parser has been changed.
+ * <p/>
+ * The cache size on disk is limited, the least recently used entries will be deleted when the
+ * limit has been exceeded (the modification time of the entry files is the last access time).
+ * <p/>
+ * Entry format (big endian): magic number, format version, parser class name and version,
+ * exercise data. Nullable objects are prefixed by a presence flag, nullable arrays by their
+ * length (-1 for null).
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseDiskCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ExerciseDiskCache.class.getName());
+
+    /** Default maximum size of all cache entries in bytes. */
+    public static final long DEFAULT_MAX_SIZE = 100L * 1024 * 1024;
+
+    /** Suffix of the cache entry files. */
+    static final String FILE_SUFFIX = ".evc";
+
+    private static final int MAGIC = 0x45564358; // "EVCX"
+    private static final short FORMAT_VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxSize;
+
+    /**
+     * Creates a new disk cache with the default maximum size.
+     *
+     * @param directory the directory of the cache entries (will be created when missing)
+     */
+    public ExerciseDiskCache(Path directory) {
+        this(directory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new disk cache.
+     *
+     * @param directory the directory of the cache entries (will be created when missing)
+     * @param maxSize maximum size of all cache entries in bytes
+     */
+    public ExerciseDiskCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the exercise of the specified file. It will be read from the cache when there is
+     * a valid entry for the file content and the parser. Otherwise the file gets parsed by the
+     * specified parser and the exercise gets stored in the cache. Cache problems are logged only,
+     * the file will be parsed then.
+     *
+     * @param filename name of the exercise file
+     * @param parser the parser for the exercise file
+     * @return the parsed exercise
+     * @throws EVException thrown on read/parse problems
+     */
+    public EVExercise getExercise(String filename, ExerciseParser parser) throws EVException {
+        Path entryPath = null;
+        try {
+            entryPath = directory.resolve(computeFileHash(Paths.get(filename)) + FILE_SUFFIX);
+            EVExercise exercise = readEntry(entryPath, parser);
+            if (exercise != null) {
+                return exercise;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to read cached exercise for file '" + filename + "'!", e);
+        }
+
+        EVExercise exercise = parser.parseExercise(filename);
+
+        if (entryPath != null) {
+            try {
+                writeEntry(entryPath, parser, exercise);
+                evictEntries();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to store cached exercise for file '" + filename + "'!", e);
+            }
+        }
+        return exercise;
+    }
+
+    /**
+     * Deletes all cache entries.
+     *
+     * @throws IOException on deletion problems
+     */
+    public synchronized void clear() throws IOException {
+        for (Path entry : listEntries()) {
+            Files.deleteIfExists(entry);
+        }
+    }
+
+    private static String computeFileHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported!", e);
+        }
+
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, length);
+            }
+        }
+
+        StringBuilder sbHash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sbHash.append(String.format("%02x", b));
+        }
+        return sbHash.toString();
+    }
+
+    /**
+     * Reads the exercise from the specified cache entry and marks it as recently used.
+     *
+     * @return the exercise or null when there is no entry for the parser
+     */
+    private EVExercise readEntry(Path entryPath, ExerciseParser parser) throws IOException {
+        EVExercise exercise;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(entryPath), BUFFER_SIZE))) {
+
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION
+                    || !in.readUTF().equals(parser.getClass().getName())
+                    || in.readInt() != parser.getVersion()) {
+                return null;
+            }
+            exercise = readExercise(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        try {
+            Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // the entry has been evicted meanwhile
+        }
+        return exercise;
+    }
+
+    /**
+     * Writes the exercise to a temporary file first, which replaces the entry afterwards.
+     * So there are never incomplete entries, also when multiple threads write the same entry.
+     */
+    private void writeEntry(Path entryPath, ExerciseParser parser, EVExercise exercise) throws IOException {
+        Files.createDirectories(directory);
+        Path tempPath = Files.createTempFile(directory, "entry", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempPath), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeUTF(parser.getClass().getName());
+                out.writeInt(parser.getVersion());
+                writeExercise(out, exercise);
+            }
+
+            try {
+                Files.move(tempPath, entryPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, entryPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache size is within the limit.
+     */
+    private synchronized void evictEntries() throws IOException {
+        List<Path> entries = listEntries();
+        Map<Path, FileTime> accessTimes = new HashMap<>();
+        long totalSize = 0;
+        for (Path entry : entries) {
+            totalSize += Files.size(entry);
+            accessTimes.put(entry, Files.getLastModifiedTime(entry));
+        }
+
+        entries.sort(Comparator.comparing(accessTimes::get));
+        for (Path entry : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            totalSize -= Files.size(entry);
+            Files.deleteIfExists(entry);
+        }
+    }
+
+    private List<Path> listEntries() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+                stream.forEach(entries::add);
+            }
+        }
+        return entries;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // exercise encoding
+
+    private static void writeExercise(DataOutputStream out, EVExercise exercise) throws IOException {
+        writeString(out, exercise.getFileType() == null ? null : exercise.getFileType().name());
+        writeString(out, exercise.getDeviceName());
+        writeDateTime(out, exercise.getDateTime());
+        writeString(out, exercise.getType());
+        writeRecordingMode(out, exercise.getRecordingMode());
+        out.writeInt(exercise.getDuration());
+        out.writeShort(exercise.getRecordingInterval());
+        out.writeShort(exercise.getHeartRateAVG());
+        out.writeShort(exercise.getHeartRateMax());
+
+        ExerciseSpeed speed = exercise.getSpeed();
+        out.writeBoolean(speed != null);
+        if (speed != null) {
+            out.writeFloat(speed.getSpeedAVG());
+            out.writeFloat(speed.getSpeedMax());
+            out.writeInt(speed.getDistance());
+        }
+
+        ExerciseCadence cadence = exercise.getCadence();
+        out.writeBoolean(cadence != null);
+        if (cadence != null) {
+            out.writeShort(cadence.getCadenceAVG());
+            out.writeShort(cadence.getCadenceMax());
+        }
+
+        ExerciseAltitude altitude = exercise.getAltitude();
+        out.writeBoolean(altitude != null);
+        if (altitude != null) {
+            out.writeShort(altitude.getAltitudeMin());
+            out.writeShort(altitude.getAltitudeAVG());
+            out.writeShort(altitude.getAltitudeMax());
+            out.writeInt(altitude.getAscent());
+        }
+
+        ExerciseTemperature temperature = exercise.getTemperature();
+        out.writeBoolean(temperature != null);
+        if (temperature != null) {
+            out.writeShort(temperature.getTemperatureMin());
+            out.writeShort(temperature.getTemperatureAVG());
+            out.writeShort(temperature.getTemperatureMax());
+        }
+
+        out.writeInt(exercise.getEnergy());
+        out.writeInt(exercise.getEnergyTotal());
+        out.writeInt(exercise.getSumExerciseTime());
+        out.writeInt(exercise.getSumRideTime());
+        out.writeInt(exercise.getOdometer());
+
+        HeartRateLimit[] heartRateLimits = exercise.getHeartRateLimits();
+        out.writeInt(heartRateLimits == null ? -1 : heartRateLimits.length);
+        if (heartRateLimits != null) {
+            for (HeartRateLimit limit : heartRateLimits) {
+                out.writeShort(limit.getLowerHeartRate());
+                out.writeShort(limit.getUpperHeartRate());
+                out.writeInt(limit.getTimeBelow());
+                out.writeInt(limit.getTimeWithin());
+                out.writeInt(limit.getTimeAbove());
+                out.writeBoolean(limit.isAbsoluteRange());
+            }
+        }
+
+        Lap[] laps = exercise.getLapList();
+        out.writeInt(laps == null ? -1 : laps.length);
+        if (laps != null) {
+            for (Lap lap : laps) {
+                writeLap(out, lap);
+            }
+        }
+
+        ExerciseSampleData sampleData = exercise.getSampleData();
+        out.writeInt(sampleData == null ? -1 : sampleData.size());
+        if (sampleData != null) {
+            for (int i = 0; i < sampleData.size(); i++) {
+                out.writeLong(sampleData.getTimestamp(i));
+                out.writeShort(sampleData.getHeartRate(i));
+                out.writeShort(sampleData.getAltitude(i));
+                out.writeFloat(sampleData.getSpeed(i));
+                out.writeShort(sampleData.getCadence(i));
+                out.writeInt(sampleData.getDistance(i));
+                out.writeShort(sampleData.getTemperature(i));
+                out.writeBoolean(sampleData.hasPosition(i));
+                if (sampleData.hasPosition(i)) {
+                    out.writeDouble(sampleData.getLatitude(i));
+                    out.writeDouble(sampleData.getLongitude(i));
+                }
+            }
+        }
+    }
+
+    private static void writeRecordingMode(DataOutputStream out, RecordingMode mode) throws IOException {
+        out.writeBoolean(mode != null);
+        if (mode != null) {
+            out.writeBoolean(mode.isAltitude());
+            out.writeBoolean(mode.isSpeed());
+            out.writeBoolean(mode.isCadence());
+            out.writeBoolean(mode.isPower());
+            out.writeByte(mode.getBikeNumber());
+            out.writeBoolean(mode.isTemperature());
+            out.writeBoolean(mode.isLocation());
+            out.writeBoolean(mode.isIntervalExercise());
+            out.writeBoolean(mode.isHeartRate());
+        }
+    }
+
+    private static void writeLap(DataOutputStream out, Lap lap) throws IOException {
+        out.writeInt(lap.getTimeSplit());
+        out.writeShort(lap.getHeartRateSplit());
+        out.writeShort(lap.getHeartRateAVG());
+        out.writeShort(lap.getHeartRateMax());
+
+        LapSpeed speed = lap.getSpeed();
+        out.writeBoolean(speed != null);
+        if (speed != null) {
+            out.writeFloat(speed.getSpeedEnd());
+            out.writeFloat(speed.getSpeedAVG());
+            out.writeInt(speed.getDistance());
+            out.writeShort(speed.getCadence());
+        }
+
+        LapAltitude altitude = lap.getAltitude();
+        out.writeBoolean(altitude != null);
+        if (altitude != null) {
+            out.writeShort(altitude.getAltitude());
+            out.writeInt(altitude.getAscent());
+        }
+
+        LapTemperature temperature = lap.getTemperature();
+        out.writeBoolean(temperature != null);
+        if (temperature != null) {
+            out.writeShort(temperature.getTemperature());
+        }
+
+        writePosition(out, lap.getPositionSplit());
+    }
+
+    private static void writePosition(DataOutputStream out, Position position) throws IOException {
+        out.writeBoolean(position != null);
+        if (position != null) {
+            out.writeDouble(position.getLatitude());
+            out.writeDouble(position.getLongitude());
+        }
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        out.writeBoolean(dateTime != null);
+        if (dateTime != null) {
+            out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(dateTime.getNano());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // exercise decoding
+
+    private static EVExercise readExercise(DataInputStream in) throws IOException {
+        EVExercise exercise = new EVExercise();
+        String fileType = readString(in);
+        exercise.setFileType(fileType == null ? null : EVExercise.ExerciseFileType.valueOf(fileType));
+        exercise.setDeviceName(readString(in));
+        exercise.setDateTime(readDateTime(in));
+        exercise.setType(readString(in));
+        exercise.setRecordingMode(readRecordingMode(in));
+        exercise.setDuration(in.readInt());
+        exercise.setRecordingInterval(in.readShort());
+        exercise.setHeartRateAVG(in.readShort());
+        exercise.setHeartRateMax(in.readShort());
+
+        if (in.readBoolean()) {
+            ExerciseSpeed speed = new ExerciseSpeed();
+            speed.setSpeedAVG(in.readFloat());
+            speed.setSpeedMax(in.readFloat());
+            speed.setDistance(in.readInt());
+            exercise.setSpeed(speed);
+        }
+
+        if (in.readBoolean()) {
+            ExerciseCadence cadence = new ExerciseCadence();
+            cadence.setCadenceAVG(in.readShort());
+            cadence.setCadenceMax(in.readShort());
+            exercise.setCadence(cadence);
+        }
+
+        if (in.readBoolean()) {
+            ExerciseAltitude altitude = new ExerciseAltitude();
+            altitude.setAltitudeMin(in.readShort());
+            altitude.setAltitudeAVG(in.readShort());
+            altitude.setAltitudeMax(in.readShort());
+            altitude.setAscent(in.readInt());
+            exercise.setAltitude(altitude);
+        }
+
+        if (in.readBoolean()) {
+            ExerciseTemperature temperature = new ExerciseTemperature();
+            temperature.setTemperatureMin(in.readShort());
+            temperature.setTemperatureAVG(in.readShort());
+            temperature.setTemperatureMax(in.readShort());
+            exercise.setTemperature(temperature);
+        }
+
+        exercise.setEnergy(in.readInt());
+        exercise.setEnergyTotal(in.readInt());
+        exercise.setSumExerciseTime(in.readInt());
+        exercise.setSumRideTime(in.readInt());
+        exercise.setOdometer(in.readInt());
+
+        int limitCount = in.readInt();
+        if (limitCount >= 0) {
+            HeartRateLimit[] heartRateLimits = new HeartRateLimit[limitCount];
+            for (int i = 0; i < limitCount; i++) {
+                HeartRateLimit limit = new HeartRateLimit();
+                limit.setLowerHeartRate(in.readShort());
+                limit.setUpperHeartRate(in.readShort());
+                limit.setTimeBelow(in.readInt());
+                limit.setTimeWithin(in.readInt());
+                limit.setTimeAbove(in.readInt());
+                limit.setAbsoluteRange(in.readBoolean());
+                heartRateLimits[i] = limit;
+            }
+            exercise.setHeartRateLimits(heartRateLimits);
+        }
+
+        int lapCount = in.readInt();
+        if (lapCount >= 0) {
+            Lap[] laps = new Lap[lapCount];
+            for (int i = 0; i < lapCount; i++) {
+                laps[i] = readLap(in);
+            }
+            exercise.setLapList(laps);
+        }
+
+        int sampleCount = in.readInt();
+        if (sampleCount >= 0) {
+            ExerciseSampleData sampleData = new ExerciseSampleData(sampleCount);
+            sampleData.addSamples(sampleCount);
+            for (int i = 0; i < sampleCount; i++) {
+                sampleData.setTimestamp(i, in.readLong());
+                sampleData.setHeartRate(i, in.readShort());
+                sampleData.setAltitude(i, in.readShort());
+                sampleData.setSpeed(i, in.readFloat());
+                sampleData.setCadence(i, in.readShort());
+                sampleData.setDistance(i, in.readInt());
+                sampleData.setTemperature(i, in.readShort());
+                if (in.readBoolean()) {
+                    sampleData.setPosition(i, in.readDouble(), in.readDouble());
+                }
+            }
+            exercise.setSampleData(sampleData);
+        }
+        return exercise;
+    }
+
+    private static RecordingMode readRecordingMode(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        RecordingMode mode = new RecordingMode();
+        mode.setAltitude(in.readBoolean());
+        mode.setSpeed(in.readBoolean());
+        mode.setCadence(in.readBoolean());
+        mode.setPower(in.readBoolean());
+        mode.setBikeNumber(in.readByte());
+        mode.setTemperature(in.readBoolean());
+        mode.setLocation(in.readBoolean());
+        mode.setIntervalExercise(in.readBoolean());
+        mode.setHeartRate(in.readBoolean());
+        return mode;
+    }
+
+    private static Lap readLap(DataInputStream in) throws IOException {
+        Lap lap = new Lap();
+        lap.setTimeSplit(in.readInt());
+        lap.setHeartRateSplit(in.readShort());
+        lap.setHeartRateAVG(in.readShort());
+        lap.setHeartRateMax(in.readShort());
+
+        if (in.readBoolean()) {
+            LapSpeed speed = new LapSpeed();
+            speed.setSpeedEnd(in.readFloat());
+            speed.setSpeedAVG(in.readFloat());
+            speed.setDistance(in.readInt());
+            speed.setCadence(in.readShort());
+            lap.setSpeed(speed);
+        }
+
+        if (in.readBoolean()) {
+            LapAltitude altitude = new LapAltitude();
+            altitude.setAltitude(in.readShort());
+            altitude.setAscent(in.readInt());
+            lap.setAltitude(altitude);
+        }
+
+        if (in.readBoolean()) {
+            LapTemperature temperature = new LapTemperature();
+            temperature.setTemperature(in.readShort());
+            lap.setTemperature(temperature);
+        }
+
+        lap.setPositionSplit(readPosition(in));
+        return lap;
+    }
+
+    private static Position readPosition(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Position(in.readDouble(), in.readDouble()) : null;
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
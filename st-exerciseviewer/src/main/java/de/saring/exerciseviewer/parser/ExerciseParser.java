@@ -29,4 +29,15 @@ public interface ExerciseParser {
      * @throws Exception all kind of other runtime exeptions when parsing unsupported files (e.g. NullPointerException)
      */
     public EVExercise parseExercise(String filename) throws EVException;
+
+    /**
+     * Returns the version of this parser implementation. It needs to be increased when the
+     * parser creates different exercises than before for the same file (e.g. after bug fixes),
+     * so the exercises of the previous version stored in the disk cache will be parsed again.
+     *
+     * @return the parser version
+     */
+    public default int getVersion() {
+        return 1;
+    }
 }
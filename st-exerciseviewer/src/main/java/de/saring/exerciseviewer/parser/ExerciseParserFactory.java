@@ -1,7 +1,9 @@
 package de.saring.exerciseviewer.parser;
 
 import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
@@ -35,12 +37,18 @@ public class ExerciseParserFactory {
      */
     private final ServiceLoader<ExerciseParser> exerciseParserLoader;
 
+    /**
+     * The cache of the exercises parsed by this factory.
+     */
+    private final ExerciseCache exerciseCache;
+
     /**
      * Creates a new instance of ExerciseParserFactory and loads all
      * ExerciseParser implementations available in the classpath.
      */
     private ExerciseParserFactory() {
         exerciseParserLoader = ServiceLoader.load(ExerciseParser.class);
+        exerciseCache = new ExerciseCache();
     }
 
     /**
@@ -67,6 +75,42 @@ public class ExerciseParserFactory {
         throw new EVException("No parser has been found for filename '" + filename + "' ...");
     }
 
+    /**
+     * Parses the specified exercise file by using the appropriate exercise parser.
+     * The parsed exercise will be taken from the exercise cache when the file has not
+     * been modified since the last parsing. The returned exercise is shared and must
+     * not be modified.
+     *
+     * @param filename name of the exercise file to parse
+     * @return the parsed exercise
+     * @throws EVException when no proper parser has been found or on read/parse problems
+     */
+    public static EVExercise parseExercise(String filename) throws EVException {
+        ExerciseParser parser = getParser(filename);
+        return instance.exerciseCache.getExercise(filename, parser);
+    }
+
+    /**
+     * Returns the cache of the exercises parsed by this factory (e.g. for the hit and miss counts).
+     *
+     * @return the exercise cache
+     */
+    public static ExerciseCache getExerciseCache() {
+        createInstance();
+        return instance.exerciseCache;
+    }
+
+    /**
+     * Sets the directory of the persistent exercise cache, so the parsed exercises will also
+     * be available after restarting the application. The disk cache is disabled by default.
+     *
+     * @param directory the cache directory or null for disabling the disk cache
+     */
+    public static void setDiskCacheDirectory(Path directory) {
+        createInstance();
+        instance.exerciseCache.setDiskCache(directory == null ? null : new ExerciseDiskCache(directory));
+    }
+
     /**
      * Returns the list of all ExerciseParserInfo objects for all available parser
      * implementations (useful e.g. for File Open dialogs for list of suffixes).
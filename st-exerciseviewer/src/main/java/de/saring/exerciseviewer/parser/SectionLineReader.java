@@ -0,0 +1,154 @@
+package de.saring.exerciseviewer.parser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming line reader for text-based exercise files. The lines are read one by one, so the
+ * parsers don't need to keep the complete file content in memory.
+ * <p/>
+ * The reader also supports files which are structured in sections (e.g. the Polar HRM format).
+ * A section starts with a header line "[Name]" and contains all following lines until the next
+ * empty line, the next header line or the end of the file. Lines outside of sections are
+ * skipped when searching for the next section.
+ *
+ * @author Stefan Saring
+ */
+public final class SectionLineReader implements Closeable {
+
+    private final BufferedReader reader;
+
+    /** Header line of the next section, which has already been read at the end of the previous section. */
+    private String pendingHeaderLine;
+
+    /** Name of the current section, null when the reader is not in a section. */
+    private String currentSection;
+
+    /**
+     * Creates a reader for the content of the specified reader.
+     *
+     * @param reader the reader of the text content
+     */
+    public SectionLineReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Creates a reader for the content of the specified text file.
+     *
+     * @param filename name of the file
+     * @return the reader
+     * @throws IOException thrown when the file can't be opened
+     */
+    public static SectionLineReader open(String filename) throws IOException {
+        return new SectionLineReader(new FileReader(filename));
+    }
+
+    /**
+     * Returns the next line of the file, sections are ignored here. This can be used for files
+     * without sections.
+     *
+     * @return the next line or null at the end of the file
+     * @throws IOException thrown on read problems
+     */
+    public String nextLine() throws IOException {
+        currentSection = null;
+        if (pendingHeaderLine != null) {
+            String line = pendingHeaderLine;
+            pendingHeaderLine = null;
+            return line;
+        }
+        return reader.readLine();
+    }
+
+    /**
+     * Moves to the start of the next section, all remaining lines of the current section are
+     * skipped.
+     *
+     * @return the name of the next section or null at the end of the file
+     * @throws IOException thrown on read problems
+     */
+    public String nextSection() throws IOException {
+        String line;
+        while ((line = nextLine()) != null) {
+            String sectionName = getSectionName(line);
+            if (sectionName != null) {
+                currentSection = sectionName;
+                return sectionName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the current section.
+     *
+     * @return the section name or null when the reader is not in a section
+     */
+    public String getCurrentSection() {
+        return currentSection;
+    }
+
+    /**
+     * Returns the next line of the current section.
+     *
+     * @return the next line or null at the end of the section
+     * @throws IOException thrown on read problems
+     */
+    public String nextSectionLine() throws IOException {
+        if (currentSection == null) {
+            return null;
+        }
+
+        String line = reader.readLine();
+        if (line == null || line.isEmpty()) {
+            currentSection = null;
+            return null;
+        }
+        if (line.startsWith("[")) {
+            currentSection = null;
+            pendingHeaderLine = line;
+            return null;
+        }
+        return line;
+    }
+
+    /**
+     * Returns all remaining lines of the current section. This should only be used for small
+     * sections, large sections should be processed line by line.
+     *
+     * @return list of the section lines (can be empty)
+     * @throws IOException thrown on read problems
+     */
+    public List<String> readSectionLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = nextSectionLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Returns the section name when the line is a section header line ("[Name]").
+     */
+    private static String getSectionName(String line) {
+        if (line.startsWith("[")) {
+            int endIndex = line.indexOf(']');
+            if (endIndex > 0) {
+                return line.substring(1, endIndex);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package de.saring.exerciseviewer.parser;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * Streaming reader for XML-based exercise files, it's a small wrapper of the StAX XMLStreamReader.
+ * The elements are processed in one forward pass, there is no XML tree in memory. The parsers
+ * navigate through the elements by using nextChildElement() and need to consume each child
+ * element completely, either by readText() or skipElement() or by processing its children.
+ * <p/>
+ * All element and attribute names are local names, the namespaces are ignored (like in the
+ * previous XmlSlurper based parsers).
+ *
+ * @author Stefan Saring
+ */
+public final class XmlElementReader implements AutoCloseable {
+
+    private final XMLStreamReader reader;
+
+    /**
+     * Creates a reader for the XML content of the specified stream and moves to the start of
+     * the root element. The stream will not be closed by this reader.
+     *
+     * @param inputStream the stream of the XML content
+     * @throws XMLStreamException thrown on XML problems
+     */
+    public XmlElementReader(InputStream inputStream) throws XMLStreamException {
+        // a new factory is used for each file, so the parsers can be used by multiple threads
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        reader = xmlInputFactory.createXMLStreamReader(inputStream);
+        reader.nextTag();
+    }
+
+    /**
+     * Returns the local name of the current element.
+     *
+     * @return the element name
+     */
+    public String getLocalName() {
+        return reader.getLocalName();
+    }
+
+    /**
+     * Returns the value of the specified attribute of the current element.
+     *
+     * @param localName local name of the attribute
+     * @return the attribute value or null when the attribute does not exist
+     */
+    public String getAttributeValue(String localName) {
+        return reader.getAttributeValue(null, localName);
+    }
+
+    /**
+     * Moves to the start of the next child element of the current element.
+     *
+     * @return true when a child element has been found, false when the end of the current
+     * element has been reached instead
+     * @throws XMLStreamException thrown on XML problems
+     */
+    public boolean nextChildElement() throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the current element including all its child elements.
+     *
+     * @throws XMLStreamException thrown on XML problems
+     */
+    public void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Returns the trimmed text of the current element, it must not contain child elements.
+     *
+     * @return the element text
+     * @throws XMLStreamException thrown on XML problems
+     */
+    public String readText() throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        reader.close();
+    }
+}
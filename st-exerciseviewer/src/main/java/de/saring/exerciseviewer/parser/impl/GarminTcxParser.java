@@ -0,0 +1,500 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.*;
+import de.saring.exerciseviewer.parser.AbstractExerciseParser;
+import de.saring.exerciseviewer.parser.ExerciseParserInfo;
+import de.saring.exerciseviewer.parser.XmlElementReader;
+import de.saring.util.Date310Utils;
+import de.saring.util.unitcalc.CalculationUtils;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ExerciseParser implementation for reading Garmin TCX v2 exercise files (XML-based).
+ * Documentation about the format can be found at the Garmin website
+ * ( http://developer.garmin.com/schemas/tcx/v2/ ).
+ * <p/>
+ * The file is read by a StAX stream reader in one forward pass, the laps and samples are
+ * created while reading, there is no complete XML tree in memory.
+ *
+ * @author Stefan Saring
+ * @version 2.0
+ */
+public class GarminTcxParser extends AbstractExerciseParser {
+
+    /**
+     * Informations about this parser.
+     */
+    private final ExerciseParserInfo info = new ExerciseParserInfo("Garmin TCX", new String[]{"tcx", "TCX"});
+
+    @Override
+    public ExerciseParserInfo getInfo() {
+        return info;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public EVExercise parseExercise(String filename) throws EVException {
+
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(filename));
+             XmlElementReader reader = new XmlElementReader(inputStream)) {
+            return new TcxReader(reader).parseExercise();
+        } catch (Exception e) {
+            throw new EVException("Failed to read the Garmin TCX exercise file '" + filename + "' ...", e);
+        }
+    }
+
+    /**
+     * Reader for the content of one TCX file, it contains the state of the parsing process.
+     */
+    private static class TcxReader {
+
+        private final XmlElementReader reader;
+
+        private final EVExercise exercise = new EVExercise();
+        private final ExerciseSampleData sampleData = new ExerciseSampleData();
+        private final List<Lap> laps = new ArrayList<>();
+        private String creatorName;
+
+        private long exerciseDateTimeMillis;
+        private int trackpointCount = 0;
+        private double altitudeMetersTotal = 0;
+        private int cadenceCount = 0;
+        private long cadenceSum = 0;
+        private int totalTimeGapBetweenLaps = 0;
+        private long lastTrackpointTimestamp = 0;
+
+        // state of the current lap
+        private Lap evLap;
+        private int lapTrackpointCount;
+        private double lapAscentMeters;
+        private long previousTrackpointTimestamp;
+        private double previousTrackpointDistanceMeters;
+        private double previousTrackpointAltitudeMeters;
+
+        TcxReader(XmlElementReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Parses the exercise from the TCX file content.
+         */
+        EVExercise parseExercise() throws XMLStreamException, EVException {
+
+            // parse basic exercise data
+            exercise.setFileType(EVExercise.ExerciseFileType.GARMIN_TCX);
+            exercise.setRecordingInterval(EVExercise.DYNAMIC_RECORDING_INTERVAL);
+            exercise.setRecordingMode(new RecordingMode());
+            exercise.getRecordingMode().setSpeed(true);
+            exercise.setSpeed(new ExerciseSpeed());
+
+            // process all activities in the root element (TrainingCenterDatabase)
+            while (reader.nextChildElement()) {
+                if ("Activities".equals(reader.getLocalName())) {
+                    while (reader.nextChildElement()) {
+                        if ("Activity".equals(reader.getLocalName())) {
+                            parseActivity();
+                        } else {
+                            reader.skipElement();
+                        }
+                    }
+                } else {
+                    reader.skipElement();
+                }
+            }
+
+            if (exercise.getDateTime() == null) {
+                throw new EVException("The TCX file does not contain an activity ...");
+            }
+
+            // parse device model name, it's always an Garmin
+            exercise.setDeviceName("Garmin " + (creatorName == null ? "" : creatorName));
+
+            sampleData.trimToSize();
+            exercise.setLapList(laps.toArray(new Lap[laps.size()]));
+            exercise.setSampleData(sampleData);
+
+            calculateAvgSpeed();
+            calculateAvgHeartrate();
+            calculateAvgAltitude();
+            return exercise;
+        }
+
+        private void parseActivity() throws XMLStreamException, EVException {
+            while (reader.nextChildElement()) {
+                switch (reader.getLocalName()) {
+                    case "Id":
+                        String id = reader.readText();
+                        if (exercise.getDateTime() == null) {
+                            exercise.setDateTime(parseDateTime(id));
+                            exerciseDateTimeMillis = Date310Utils.getMilliseconds(exercise.getDateTime());
+                        }
+                        break;
+                    case "Lap":
+                        // no summary data, everything is stored in laps
+                        parseLap();
+                        break;
+                    case "Creator":
+                        parseCreator();
+                        break;
+                    default:
+                        reader.skipElement();
+                }
+            }
+        }
+
+        private void parseCreator() throws XMLStreamException {
+            while (reader.nextChildElement()) {
+                if ("Name".equals(reader.getLocalName()) && creatorName == null) {
+                    creatorName = reader.readText();
+                } else {
+                    reader.skipElement();
+                }
+            }
+        }
+
+        /**
+         * Parses the lap and all its trackpoints. The lap summary is computed at the end of the
+         * lap, because the lap duration depends on the time of the last trackpoint.
+         */
+        private void parseLap() throws XMLStreamException, EVException {
+            if (exercise.getDateTime() == null) {
+                throw new EVException("The activity ID (date and time) must be specified before the laps ...");
+            }
+
+            String startTime = reader.getAttributeValue("StartTime");
+            if (startTime == null) {
+                throw new EVException("The lap start time is missing ...");
+            }
+            long lapStartMillis = Date310Utils.getMilliseconds(parseDateTime(startTime));
+
+            // compute the total time gap between all laps
+            if (lastTrackpointTimestamp > 0) {
+                totalTimeGapBetweenLaps += lapStartMillis - lastTrackpointTimestamp;
+            }
+
+            evLap = new Lap();
+            evLap.setSpeed(new LapSpeed());
+            lapTrackpointCount = 0;
+            lapAscentMeters = 0;
+            previousTrackpointTimestamp = Long.MIN_VALUE;
+            previousTrackpointDistanceMeters = Double.MIN_VALUE;
+            previousTrackpointAltitudeMeters = Double.MIN_VALUE;
+
+            String distanceMeters = null;
+            String calories = null;
+
+            while (reader.nextChildElement()) {
+                switch (reader.getLocalName()) {
+                    case "DistanceMeters":
+                        distanceMeters = reader.readText();
+                        break;
+                    case "Calories":
+                        calories = reader.readText();
+                        break;
+                    case "AverageHeartRateBpm":
+                        evLap.setHeartRateAVG((short) parseInt(readValue(), "AverageHeartRateBpm"));
+                        break;
+                    case "MaximumHeartRateBpm":
+                        evLap.setHeartRateMax((short) parseInt(readValue(), "MaximumHeartRateBpm"));
+                        exercise.setHeartRateMax((short) Math.max(evLap.getHeartRateMax(), exercise.getHeartRateMax()));
+                        break;
+                    case "Track":
+                        while (reader.nextChildElement()) {
+                            if ("Trackpoint".equals(reader.getLocalName())) {
+                                parseTrackpoint();
+                            } else {
+                                reader.skipElement();
+                            }
+                        }
+                        break;
+                    default:
+                        reader.skipElement();
+                }
+            }
+
+            if (lapTrackpointCount == 0) {
+                throw new EVException("The lap does not contain any trackpoints ...");
+            }
+
+            // stored lap duration in XML is often wrong, needs to be calculated:
+            // "Last TrackPoint of Lap".Time - Lap.StartTime
+            double lapDurationSeconds = (lastTrackpointTimestamp - lapStartMillis) / 1000d;
+            double lapDistanceMeters = parseDouble(distanceMeters, "DistanceMeters");
+            exercise.setDuration((int) (exercise.getDuration() + Math.round(lapDurationSeconds * 10)));
+            evLap.setTimeSplit(exercise.getDuration());
+            exercise.getSpeed().setDistance((int) (exercise.getSpeed().getDistance() + Math.round(lapDistanceMeters)));
+            evLap.getSpeed().setDistance(exercise.getSpeed().getDistance());
+            exercise.setEnergy(exercise.getEnergy() + parseInt(calories, "Calories"));
+
+            // stored maximum lap speed in XML is wrong, will be calculated
+
+            // calculate average speed of lap
+            evLap.getSpeed().setSpeedAVG(CalculationUtils.calculateAvgSpeed(
+                    (float) (lapDistanceMeters / 1000f), (int) Math.round(lapDurationSeconds)));
+
+            // store position of last sample as lap split position
+            evLap.setPositionSplit(sampleData.getPosition(sampleData.size() - 1));
+            laps.add(evLap);
+        }
+
+        /**
+         * Parses the trackpoint and stores it as a new sample.
+         */
+        private void parseTrackpoint() throws XMLStreamException, EVException {
+            String time = null;
+            String latitude = null;
+            String longitude = null;
+            boolean hasPosition = false;
+            String altitudeMeters = null;
+            String distanceMeters = null;
+            String heartRate = null;
+            String cadence = null;
+
+            while (reader.nextChildElement()) {
+                switch (reader.getLocalName()) {
+                    case "Time":
+                        time = reader.readText();
+                        break;
+                    case "Position":
+                        hasPosition = true;
+                        while (reader.nextChildElement()) {
+                            if ("LatitudeDegrees".equals(reader.getLocalName())) {
+                                latitude = reader.readText();
+                            } else if ("LongitudeDegrees".equals(reader.getLocalName())) {
+                                longitude = reader.readText();
+                            } else {
+                                reader.skipElement();
+                            }
+                        }
+                        break;
+                    case "AltitudeMeters":
+                        altitudeMeters = reader.readText();
+                        break;
+                    case "DistanceMeters":
+                        distanceMeters = reader.readText();
+                        break;
+                    case "HeartRateBpm":
+                        heartRate = readValue();
+                        if (heartRate == null) {
+                            throw new EVException("The trackpoint heartrate value is missing ...");
+                        }
+                        break;
+                    case "Cadence":
+                        cadence = reader.readText();
+                        break;
+                    default:
+                        reader.skipElement();
+                }
+            }
+
+            trackpointCount++;
+            lapTrackpointCount++;
+            int index = sampleData.addSample();
+
+            // calculate sample timestamp (time gap between laps must be substracted here)
+            if (time == null) {
+                throw new EVException("The trackpoint time is missing ...");
+            }
+            long tpMillis = Date310Utils.getMilliseconds(parseDateTime(time));
+            lastTrackpointTimestamp = tpMillis;
+            sampleData.setTimestamp(index, tpMillis - exerciseDateTimeMillis - totalTimeGapBetweenLaps);
+
+            if (hasPosition) {
+                exercise.getRecordingMode().setLocation(true);
+                sampleData.setPosition(index,
+                        parseDouble(latitude, "LatitudeDegrees"), parseDouble(longitude, "LongitudeDegrees"));
+            }
+
+            if (heartRate != null) {
+                short tpHeartRate = (short) parseInt(heartRate, "HeartRateBpm");
+                sampleData.setHeartRate(index, tpHeartRate);
+                evLap.setHeartRateSplit(tpHeartRate);
+            }
+
+            // get distance data (some trackpoints might not have distance data!)
+            if (distanceMeters != null) {
+                parseTrackpointDistance(index, tpMillis, parseDouble(distanceMeters, "DistanceMeters"));
+            }
+
+            // get optional altitude data
+            if (altitudeMeters != null) {
+                parseTrackpointAltitude(index, parseDouble(altitudeMeters, "AltitudeMeters"));
+            }
+
+            // get optional cadence data
+            if (cadence != null) {
+                parseTrackpointCadence(index, (short) parseInt(cadence, "Cadence"));
+            }
+        }
+
+        private void parseTrackpointDistance(int index, long tpMillis, double tpDistanceMeters) {
+            sampleData.setDistance(index, (int) Math.round(tpDistanceMeters));
+
+            // calculate speed between current and previous trackpoint
+            float speed = 0;
+            if (previousTrackpointTimestamp > Long.MIN_VALUE) {
+                long tpTimestampDiff = tpMillis - previousTrackpointTimestamp;
+                // sometimes computed difference is < 0 => impossible, use 0 instead
+                double tpDistanceDiff = Math.max(tpDistanceMeters - previousTrackpointDistanceMeters, 0d);
+
+                speed = CalculationUtils.calculateAvgSpeed(
+                        (float) (tpDistanceDiff / 1000f), (int) Math.round(tpTimestampDiff / 1000d));
+            }
+            sampleData.setSpeed(index, speed);
+            previousTrackpointTimestamp = tpMillis;
+            previousTrackpointDistanceMeters = tpDistanceMeters;
+
+            evLap.getSpeed().setSpeedEnd(speed);
+            exercise.getSpeed().setSpeedMax(Math.max(speed, exercise.getSpeed().getSpeedMax()));
+        }
+
+        private void parseTrackpointAltitude(int index, double tpAltitude) {
+            sampleData.setAltitude(index, (short) Math.round(tpAltitude));
+            altitudeMetersTotal += Math.round(tpAltitude);
+
+            // create altitude objects for exercise and current lap if not done yet
+            ExerciseAltitude altitude = exercise.getAltitude();
+            if (altitude == null) {
+                altitude = new ExerciseAltitude();
+                exercise.setAltitude(altitude);
+                exercise.getRecordingMode().setAltitude(true);
+
+                altitude.setAltitudeMin(Short.MAX_VALUE);
+                altitude.setAltitudeMax(Short.MIN_VALUE);
+                altitude.setAscent(0);
+            }
+
+            if (evLap.getAltitude() == null) {
+                evLap.setAltitude(new LapAltitude());
+            }
+            evLap.getAltitude().setAltitude((short) Math.round(tpAltitude));
+
+            altitude.setAltitudeMin((short) Math.min(tpAltitude, altitude.getAltitudeMin()));
+            altitude.setAltitudeMax((short) Math.max(tpAltitude, altitude.getAltitudeMax()));
+
+            // calculate lap ascent (need to use double precision here)
+            if (previousTrackpointAltitudeMeters > Double.MIN_VALUE &&
+                    tpAltitude > previousTrackpointAltitudeMeters) {
+                double tpAscent = tpAltitude - previousTrackpointAltitudeMeters;
+                lapAscentMeters += tpAscent;
+                evLap.getAltitude().setAscent((int) Math.round(lapAscentMeters));
+            }
+            previousTrackpointAltitudeMeters = tpAltitude;
+        }
+
+        private void parseTrackpointCadence(int index, short tpCadence) {
+            sampleData.setCadence(index, tpCadence);
+            evLap.getSpeed().setCadence(tpCadence);
+
+            // create cadence object for exercise if not done yet
+            ExerciseCadence cadence = exercise.getCadence();
+            if (cadence == null) {
+                cadence = new ExerciseCadence();
+                exercise.setCadence(cadence);
+                exercise.getRecordingMode().setCadence(true);
+            }
+
+            // compute max and average cadence
+            cadence.setCadenceMax((short) Math.max(tpCadence, cadence.getCadenceMax()));
+            if (tpCadence > 0) {
+                cadenceSum += tpCadence;
+                cadence.setCadenceAVG((short) Math.round(cadenceSum / (double) ++cadenceCount));
+            }
+        }
+
+        private void calculateAvgSpeed() {
+            exercise.getSpeed().setSpeedAVG(CalculationUtils.calculateAvgSpeed(
+                    (float) (exercise.getSpeed().getDistance() / 1000d), (int) Math.round(exercise.getDuration() / 10d)));
+        }
+
+        /**
+         * Calculates the average heartrate for the exercise (if available). It's computed
+         * as the average of all laps average heartrates. Laps without heartrate data will be ignored.
+         */
+        private void calculateAvgHeartrate() {
+            long totalHeartRateSum = 0;
+            int previousLapTimeSplit = 0;
+            int totalHeartRateDuration = 0;
+
+            for (Lap lap : laps) {
+                int lapDuration = lap.getTimeSplit() - previousLapTimeSplit;
+                previousLapTimeSplit = lap.getTimeSplit();
+
+                if (lap.getHeartRateAVG() > 0) {
+                    totalHeartRateDuration += lapDuration;
+                    totalHeartRateSum += lap.getHeartRateAVG() * lapDuration;
+                }
+            }
+
+            if (totalHeartRateSum > 0) {
+                exercise.setHeartRateAVG((short) Math.round(totalHeartRateSum / (double) totalHeartRateDuration));
+            }
+        }
+
+        private void calculateAvgAltitude() {
+            // calculate average altitude and total ascent (if recorded)
+            if (exercise.getAltitude() != null) {
+                exercise.getAltitude().setAltitudeAVG((short) Math.round(altitudeMetersTotal / trackpointCount));
+
+                for (Lap lap : laps) {
+                    if (lap.getAltitude() != null) {
+                        exercise.getAltitude().setAscent(exercise.getAltitude().getAscent() + lap.getAltitude().getAscent());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the text of the child element 'Value' of the current element (used for
+         * heartrate values) or null when there is no such element.
+         */
+        private String readValue() throws XMLStreamException {
+            String value = null;
+            while (reader.nextChildElement()) {
+                if ("Value".equals(reader.getLocalName()) && value == null) {
+                    value = reader.readText();
+                } else {
+                    reader.skipElement();
+                }
+            }
+            return value;
+        }
+
+        private static int parseInt(String text, String name) throws EVException {
+            if (text == null) {
+                throw new EVException("The value of '" + name + "' is missing ...");
+            }
+            return Integer.parseInt(text);
+        }
+
+        private static double parseDouble(String text, String name) throws EVException {
+            if (text == null) {
+                throw new EVException("The value of '" + name + "' is missing ...");
+            }
+            return Double.parseDouble(text);
+        }
+
+        /**
+         * Parses the date time in ISO format specified in the passed text and returns the appropriate LocalDateTime.
+         */
+        private static LocalDateTime parseDateTime(String dateTimeText) {
+            // remove the suffix 'Z' if contained in the passed text, can't be ignored by ISO_LOCAL_DATE_TIME
+            String dateTimeTextFixed = dateTimeText.endsWith("Z") ?
+                    dateTimeText.substring(0, dateTimeText.length() - 1) : dateTimeText;
+            return LocalDateTime.parse(dateTimeTextFixed, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+    }
+}
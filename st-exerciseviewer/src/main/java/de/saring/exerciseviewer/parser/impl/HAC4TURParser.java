@@ -3,12 +3,12 @@ package de.saring.exerciseviewer.parser.impl;
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.*;
 import de.saring.exerciseviewer.parser.AbstractExerciseParser;
+import de.saring.exerciseviewer.parser.BinaryReader;
 import de.saring.exerciseviewer.parser.ExerciseParserInfo;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -53,7 +53,7 @@ public class HAC4TURParser extends AbstractExerciseParser {
      * Private inner class which is used for reading samples from the file.
      */
     private static class Sample {
-        private int[] contents = new int[20];
+        private final BinaryReader contents;
         private int distance = 0;
         private int altitude;
         private int heartRate;
@@ -65,8 +65,8 @@ public class HAC4TURParser extends AbstractExerciseParser {
          * Construct a new sample with the sample bytes. This will initialize
          * all sample values.
          */
-        public Sample(int[] contents) throws EVException {
-            if (contents.length != 20) {
+        public Sample(BinaryReader contents) throws EVException {
+            if (contents.length() != 20) {
                 throw new EVException("Length of a sample should be 20 bytes!");
             }
             this.contents = contents;
@@ -125,41 +125,27 @@ public class HAC4TURParser extends AbstractExerciseParser {
         }
 
         private long calculateTime() {
-            int[] timeBytes = Arrays.copyOfRange(contents, 0, 0 + 4);
-            return (timeBytes[0] & 0xff)
-                    + ((timeBytes[1] << 8) & 0xff00)
-                    + ((timeBytes[2] << 16) & 0xff0000)
-                    + ((timeBytes[3] << 24) & 0xff000000);
+            return contents.getUnsignedInt(0);
         }
 
         private int calculateDistance() {
-            int[] distanceBytes = Arrays.copyOfRange(contents, 8, 8 + 4);
-            int distance = 0;
-            for (int theByte = 0; theByte < distanceBytes.length; theByte++) {
-                distance += distanceBytes[theByte] * (int) Math.pow(2, theByte * 8);
-            }
-            return distance;
+            return (int) contents.getUnsignedInt(8);
         }
 
         private int calculateAltitude() {
-            int[] altitudeBytes = Arrays.copyOfRange(contents, 12, 12 + 2);
-            int altitude = 0;
-            for (int theByte = 0; theByte < altitudeBytes.length; theByte++) {
-                altitude += altitudeBytes[theByte] * (int) Math.pow(2, theByte * 8);
-            }
-            return altitude;
+            return contents.getUnsignedShort(12);
         }
 
         private int calculateHeartRate() {
-            return contents[14];
+            return contents.getUnsignedByte(14);
         }
 
         private int calculateCadence() {
-            return contents[15];
+            return contents.getUnsignedByte(15);
         }
 
         private int calculateTemperature() {
-            return contents[16];
+            return contents.getUnsignedByte(16);
         }
 
         @Override
@@ -176,7 +162,7 @@ public class HAC4TURParser extends AbstractExerciseParser {
     }
 
     private String[] fileContents;
-    private int[] fileContentsBytes;
+    private BinaryReader fileContentsBytes;
     private int nrOfLinesInNote;
     private int sampleInterval;
 
@@ -192,7 +178,7 @@ public class HAC4TURParser extends AbstractExerciseParser {
         // we'll need both as the tur file contains both text (header)
         // and binary (samples) information.
         fileContents = readFileToStringArray(filename);
-        fileContentsBytes = readFileToByteArray(filename);
+        fileContentsBytes = BinaryReader.readFile(filename);
 
         // Create a new exercise file and give it the right type
         EVExercise exercise = new EVExercise();
@@ -241,7 +227,7 @@ public class HAC4TURParser extends AbstractExerciseParser {
         exercise.setRecordingInterval((short) sampleInterval);
 
         // read all samples
-        exercise.setSampleList(readSamples(
+        exercise.setSampleData(readSamples(
                 FilePosition.NR_SAMPLES + nrOfLinesInNote,
                 FilePosition.BEGIN_SAMPLES + nrOfLinesInNote));
 
@@ -273,9 +259,10 @@ public class HAC4TURParser extends AbstractExerciseParser {
         int ascent = 0;
         long total = 0;
         short prevAlt = Short.MAX_VALUE;
+        ExerciseSampleData sampleData = exercise.getSampleData();
 
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            short alt = sample.getAltitude();
+        for (int i = 0; i < sampleData.size(); i++) {
+            short alt = sampleData.getAltitude(i);
 
             // update values
             min = Math.min(alt, min);
@@ -290,7 +277,7 @@ public class HAC4TURParser extends AbstractExerciseParser {
         ExerciseAltitude ea = new ExerciseAltitude();
         ea.setAltitudeMin((short) min);
         ea.setAltitudeMax((short) max);
-        ea.setAltitudeAVG((short) (total / exercise.getSampleList().length));
+        ea.setAltitudeAVG((short) (total / sampleData.size()));
         ea.setAscent(ascent);
         return ea;
     }
@@ -301,16 +288,17 @@ public class HAC4TURParser extends AbstractExerciseParser {
     private ExerciseCadence calculateCadence(EVExercise exercise) {
         int maximum = Integer.MIN_VALUE;
         long total = 0;
+        ExerciseSampleData sampleData = exercise.getSampleData();
 
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            short cadence = sample.getCadence();
+        for (int i = 0; i < sampleData.size(); i++) {
+            short cadence = sampleData.getCadence(i);
             maximum = Math.max(cadence, maximum);
             total += cadence;
         }
 
         ExerciseCadence ec = new ExerciseCadence();
         ec.setCadenceMax((short) maximum);
-        ec.setCadenceAVG((short) (total / exercise.getSampleList().length));
+        ec.setCadenceAVG((short) (total / sampleData.size()));
         return ec;
     }
 
@@ -323,19 +311,21 @@ public class HAC4TURParser extends AbstractExerciseParser {
         int nrMovingIntervals = 0; // nr of intervals bike was moving
         float speedAVG = 0.0f;
         int previousDistance = 0;
+        ExerciseSampleData sampleData = exercise.getSampleData();
 
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            if (sample.getDistance() > previousDistance) {
+        for (int i = 0; i < sampleData.size(); i++) {
+            int distance = sampleData.getDistance(i);
+            float speed = sampleData.getSpeed(i);
+            if (distance > previousDistance) {
                 nrMovingIntervals++;
-                speedAVG = speedAVG + ((sample.getSpeed() - speedAVG) / nrMovingIntervals);
+                speedAVG = speedAVG + ((speed - speedAVG) / nrMovingIntervals);
             }
-            max = Math.max(max, sample.getSpeed());
-            previousDistance = sample.getDistance();
+            max = Math.max(max, speed);
+            previousDistance = distance;
         }
 
         ExerciseSpeed es = new ExerciseSpeed();
-        int sampleCount = exercise.getSampleList().length;
-        es.setDistance(exercise.getSampleList()[sampleCount - 1].getDistance());
+        es.setDistance(sampleData.getDistance(sampleData.size() - 1));
         es.setSpeedAVG(speedAVG);
         es.setSpeedMax(max);
         return es;
@@ -348,17 +338,19 @@ public class HAC4TURParser extends AbstractExerciseParser {
         int min = Integer.MAX_VALUE;
         int max = Integer.MIN_VALUE;
         long total = 0;
+        ExerciseSampleData sampleData = exercise.getSampleData();
 
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            min = Math.min(min, sample.getTemperature());
-            max = Math.max(max, sample.getTemperature());
-            total += sample.getTemperature();
+        for (int i = 0; i < sampleData.size(); i++) {
+            short temperature = sampleData.getTemperature(i);
+            min = Math.min(min, temperature);
+            max = Math.max(max, temperature);
+            total += temperature;
         }
 
         ExerciseTemperature et = new ExerciseTemperature();
         et.setTemperatureMax((short) max);
         et.setTemperatureMin((short) min);
-        et.setTemperatureAVG((short) (total / exercise.getSampleList().length));
+        et.setTemperatureAVG((short) (total / sampleData.size()));
         return et;
     }
 
@@ -374,9 +366,10 @@ public class HAC4TURParser extends AbstractExerciseParser {
         int intervalsBelow = 0;
         int intervalsBetween = 0;
         int intervalsAbove = 0;
+        ExerciseSampleData sampleData = exercise.getSampleData();
 
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            short hr = sample.getHeartRate();
+        for (int i = 0; i < sampleData.size(); i++) {
+            short hr = sampleData.getHeartRate(i);
             max = Math.max(max, hr);
 
             if (hr < lower) {
@@ -404,26 +397,27 @@ public class HAC4TURParser extends AbstractExerciseParser {
      * a Lap object with values from the complete exercise.
      */
     private Lap[] getLaps(EVExercise exercise) {
-        ExerciseSample lastSample = exercise.getSampleList()[exercise.getSampleList().length - 1];
+        ExerciseSampleData sampleData = exercise.getSampleData();
+        int lastIndex = sampleData.size() - 1;
 
         Lap lap = new Lap();
         lap.setTimeSplit(exercise.getDuration());
-        lap.setHeartRateSplit(lastSample.getHeartRate());
+        lap.setHeartRateSplit(sampleData.getHeartRate(lastIndex));
         lap.setHeartRateMax(exercise.getHeartRateMax());
         lap.setHeartRateAVG(exercise.getHeartRateAVG());
 
         lap.setAltitude(new LapAltitude());
-        lap.getAltitude().setAltitude(lastSample.getAltitude());
+        lap.getAltitude().setAltitude(sampleData.getAltitude(lastIndex));
         lap.getAltitude().setAscent(exercise.getAltitude().getAscent());
 
         lap.setSpeed(new LapSpeed());
-        lap.getSpeed().setCadence(lastSample.getCadence());
+        lap.getSpeed().setCadence(sampleData.getCadence(lastIndex));
         lap.getSpeed().setDistance(exercise.getSpeed().getDistance());
-        lap.getSpeed().setSpeedEnd(lastSample.getSpeed());
+        lap.getSpeed().setSpeedEnd(sampleData.getSpeed(lastIndex));
         lap.getSpeed().setSpeedAVG(exercise.getSpeed().getSpeedAVG());
 
         lap.setTemperature(new LapTemperature());
-        lap.getTemperature().setTemperature(lastSample.getTemperature());
+        lap.getTemperature().setTemperature(sampleData.getTemperature(lastIndex));
 
         return new Lap[]{lap};
     }
@@ -441,10 +435,8 @@ public class HAC4TURParser extends AbstractExerciseParser {
             lengthUntilSamples += fileContents[i].length() + 1;
 
         // start reading samples
-        int[] firstSampleBytes = Arrays.copyOfRange(fileContentsBytes, lengthUntilSamples, lengthUntilSamples + 20);
-        int[] secondSampleBytes = Arrays.copyOfRange(fileContentsBytes, lengthUntilSamples + 20, lengthUntilSamples + 40);
-        Sample firstSample = new Sample(firstSampleBytes);
-        Sample secondSample = new Sample(secondSampleBytes);
+        Sample firstSample = new Sample(getSampleBytes(lengthUntilSamples));
+        Sample secondSample = new Sample(getSampleBytes(lengthUntilSamples + 20));
         return (int) (secondSample.getTime() - firstSample.getTime());
     }
 
@@ -455,9 +447,9 @@ public class HAC4TURParser extends AbstractExerciseParser {
      *
      * @param fpNrSamples file position for the number of samples
      * @param fpBeginSamples file position for the begin of sample data
-     * @return the created array of exercise samples
+     * @return the created exercise sample data
      */
-    private ExerciseSample[] readSamples(int fpNrSamples, int fpBeginSamples) throws EVException {
+    private ExerciseSampleData readSamples(int fpNrSamples, int fpBeginSamples) throws EVException {
 
         int nrSamples = readInteger(fpNrSamples);
         // find length of all strings to this point
@@ -470,29 +462,38 @@ public class HAC4TURParser extends AbstractExerciseParser {
         List<Sample> samples = new ArrayList<>();
         for (int i = 0; i < nrSamples; i++) {
             int startFrom = lengthUntilSamples + (i * 20);
-            int[] sampleBytes = Arrays.copyOfRange(fileContentsBytes, startFrom, startFrom + 20);
-            samples.add(new Sample(sampleBytes));
+            samples.add(new Sample(getSampleBytes(startFrom)));
         }
 
-        ExerciseSample[] eSamples = new ExerciseSample[nrSamples];
+        ExerciseSampleData sampleData = new ExerciseSampleData(nrSamples);
+        sampleData.addSamples(nrSamples);
         int previousDistance = 0;
         long firstTimestamp = nrSamples > 0 ? samples.get(0).getTime() : 0;
 
         for (int i = 0; i < nrSamples; i++) {
             Sample sample = samples.get(i);
-            eSamples[i] = new ExerciseSample();
-            eSamples[i].setTimestamp((sample.getTime() - firstTimestamp) * 1000L);
-            eSamples[i].setHeartRate((short) sample.getHeartRate());
-            eSamples[i].setAltitude((short) sample.getAltitude());
-            eSamples[i].setCadence((short) sample.getCadence());
+            sampleData.setTimestamp(i, (sample.getTime() - firstTimestamp) * 1000L);
+            sampleData.setHeartRate(i, (short) sample.getHeartRate());
+            sampleData.setAltitude(i, (short) sample.getAltitude());
+            sampleData.setCadence(i, (short) sample.getCadence());
             int distanceDiff = sample.getDistance() - previousDistance;
             previousDistance = sample.getDistance();
-            eSamples[i].setDistance(sample.getDistance() * 10);
-            eSamples[i].setSpeed(((float) distanceDiff / (float) sampleInterval) * (float) 3.6 * 10f);
-            eSamples[i].setTemperature((short) sample.getTemperature());
+            sampleData.setDistance(i, sample.getDistance() * 10);
+            sampleData.setSpeed(i, ((float) distanceDiff / (float) sampleInterval) * (float) 3.6 * 10f);
+            sampleData.setTemperature(i, (short) sample.getTemperature());
         }
 
-        return eSamples;
+        return sampleData;
+    }
+
+    /**
+     * Returns the 20 bytes of the sample at the specified file offset, the data is not copied.
+     */
+    private BinaryReader getSampleBytes(int offset) throws EVException {
+        if (offset + 20 > fileContentsBytes.length()) {
+            throw new EVException("The exercise file does not contain all sample data ...");
+        }
+        return fileContentsBytes.slice(offset, 20);
     }
 
     /**
@@ -3,6 +3,7 @@ package de.saring.exerciseviewer.parser.impl;
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.*;
 import de.saring.exerciseviewer.parser.AbstractExerciseParser;
+import de.saring.exerciseviewer.parser.BinaryReader;
 import de.saring.exerciseviewer.parser.ExerciseParserInfo;
 
 import java.time.LocalDateTime;
@@ -47,7 +48,7 @@ public class PolarF6RawParser extends AbstractExerciseParser {
     /**
      * The binary data of the exercise file.
      */
-    private int[] fileContent;
+    private BinaryReader fileContent;
 
     @Override
     public ExerciseParserInfo getInfo() {
@@ -56,8 +57,8 @@ public class PolarF6RawParser extends AbstractExerciseParser {
 
     @Override
     public EVExercise parseExercise(String filename) throws EVException {
-        // read binary file content to array
-        fileContent = readFileToByteArray(filename);
+        // read binary file content
+        fileContent = BinaryReader.readFile(filename);
 
         // create an PVExercise object from this data and set file type
         EVExercise exercise = new EVExercise();
@@ -65,40 +66,40 @@ public class PolarF6RawParser extends AbstractExerciseParser {
         exercise.setDeviceName("Polar F Series");
 
         // check wheter the read data fits the expected data length
-        if (fileContent.length != F6_EXERCISE_FILE_LENGTH && fileContent.length != F11_EXERCISE_FILE_LENGTH) {
+        if (fileContent.length() != F6_EXERCISE_FILE_LENGTH && fileContent.length() != F11_EXERCISE_FILE_LENGTH) {
             throw new EVException("The exercise file is not valid, the file length is not correct ...");
         }
 
         // read the exercise name
         StringBuilder exerciseName = new StringBuilder();
         int i = 0;
-        while ((fileContent[i] & 0x80) != 0x80 && i < 8) {
-            exerciseName.append(decodeChar(fileContent[i]));
+        while (!fileContent.isBitSet(i, 7) && i < 8) {
+            exerciseName.append(decodeChar(fileContent.getUnsignedByte(i)));
             i++;
         }
-        exerciseName.append(String.valueOf(fileContent[i] - 0x80));
+        exerciseName.append(String.valueOf(fileContent.getUnsignedByte(i) - 0x80));
         exercise.setType(exerciseName.toString());
 
         // read the exercise date
-        int dateDay = fileContent[8];
-        int dateMonth = fileContent[9];
-        int dateYear = 2000 + fileContent[10];
-        int dateSeconds = decodeBCD(fileContent[11]);
-        int dateMinutes = decodeBCD(fileContent[12]);
-        int dateHours = decodeBCD(fileContent[13]);
+        int dateDay = fileContent.getUnsignedByte(8);
+        int dateMonth = fileContent.getUnsignedByte(9);
+        int dateYear = 2000 + fileContent.getUnsignedByte(10);
+        int dateSeconds = fileContent.getBCD(11);
+        int dateMinutes = fileContent.getBCD(12);
+        int dateHours = fileContent.getBCD(13);
 
         // add exercise to the calendar
         exercise.setDateTime(LocalDateTime.of(dateYear, dateMonth, dateDay, dateHours, dateMinutes, dateSeconds));
 
         // get duration
-        int durationSeconds = decodeBCD(fileContent[14]);
-        int durationMinutes = decodeBCD(fileContent[15]);
-        int durationHours = decodeBCD(fileContent[16]);
+        int durationSeconds = fileContent.getBCD(14);
+        int durationMinutes = fileContent.getBCD(15);
+        int durationHours = fileContent.getBCD(16);
         exercise.setDuration((durationHours * 60 * 60 * 10) + (durationMinutes * 60 * 10) + durationSeconds * 10);
 
         // get heartrate data
-        exercise.setHeartRateAVG((short) fileContent[17]);
-        exercise.setHeartRateMax((short) fileContent[18]);
+        exercise.setHeartRateAVG((short) fileContent.getUnsignedByte(17));
+        exercise.setHeartRateMax((short) fileContent.getUnsignedByte(18));
 
         // decode recording mode (heartrate is always recorded)
         // (not available in F6/F11 files)
@@ -126,33 +127,31 @@ public class PolarF6RawParser extends AbstractExerciseParser {
         exercise.getHeartRateLimits()[3].setAbsoluteRange(false);
 
         // get energy (in kCal)
-        int energyLowByte = fileContent[19];
-        int energyHighByte = fileContent[20];
-        exercise.setEnergy(energyLowByte + (energyHighByte << 8));
+        exercise.setEnergy(fileContent.getUnsignedShort(19));
 
         // set an empty LapList and SampleList
         exercise.setLapList(new Lap[0]);
-        exercise.setSampleList(new ExerciseSample[0]);
+        exercise.setSampleData(new ExerciseSampleData(0));
 
         // Note: the following data is appended from the totals section to each
         // exercise by the f6-split-tool to enhance the ExerciseViewer display
 
         // set the offset if the file is a 50 byte F11 file
         int offset = 0;
-        if (fileContent.length == F11_EXERCISE_FILE_LENGTH) {
+        if (fileContent.length() == F11_EXERCISE_FILE_LENGTH) {
             offset = 1;
         }
 
         // get the total exercise time
-        int cumWorkoutSeconds = decodeBCD(fileContent[43 + offset]);
-        int cumWorkoutMinutes = decodeBCD(fileContent[44 + offset]);
-        int cumWorkoutHours = decodeBCD(fileContent[45 + offset]);
+        int cumWorkoutSeconds = fileContent.getBCD(43 + offset);
+        int cumWorkoutMinutes = fileContent.getBCD(44 + offset);
+        int cumWorkoutHours = fileContent.getBCD(45 + offset);
         exercise.setSumExerciseTime((cumWorkoutHours * 60) + cumWorkoutMinutes + (cumWorkoutSeconds / 60));
 
         // get total energy
-        int energyTotalPart1 = decodeBCD(fileContent[46 + offset]);
-        int energyTotalPart2 = decodeBCD(fileContent[47 + offset]);
-        int energyTotalPart3 = decodeBCD(fileContent[48 + offset]);
+        int energyTotalPart1 = fileContent.getBCD(46 + offset);
+        int energyTotalPart2 = fileContent.getBCD(47 + offset);
+        int energyTotalPart3 = fileContent.getBCD(48 + offset);
         exercise.setEnergyTotal((energyTotalPart3 * 10000) + (energyTotalPart2 * 100) + energyTotalPart1);
 
         return exercise;
@@ -276,17 +275,6 @@ public class PolarF6RawParser extends AbstractExerciseParser {
         return cDecoded;
     }
 
-    /**
-     * Decodes a BCD "byte" (in Polar format) to normal int value.
-     *
-     * @param value BCD "byte" to decode
-     * @return normal int value of BCD value
-     */
-    private int decodeBCD(int value) {
-        // (upper 4 bits * 10) + lower 4 bits
-        return ((value >> 4) * 10) + (value & 0x0f);
-    }
-
     /**
      * This method decodes the data for a HeartRateLimit object (limits and times
      * below, within and above) and returns it.
@@ -297,12 +285,12 @@ public class PolarF6RawParser extends AbstractExerciseParser {
      */
     private HeartRateLimit decodeHeartRateLimit(int offsetLimits, int offsetTimes) {
         HeartRateLimit hrLimit = new HeartRateLimit();
-        hrLimit.setLowerHeartRate((short) fileContent[offsetLimits + 0]);
-        hrLimit.setUpperHeartRate((short) fileContent[offsetLimits + 1]);
+        hrLimit.setLowerHeartRate((short) fileContent.getUnsignedByte(offsetLimits + 0));
+        hrLimit.setUpperHeartRate((short) fileContent.getUnsignedByte(offsetLimits + 1));
 
-        int hrLimitWithinSecs = decodeBCD(fileContent[offsetTimes]);
-        hrLimitWithinSecs += decodeBCD(fileContent[offsetTimes + 1]) * 60;
-        hrLimitWithinSecs += decodeBCD(fileContent[offsetTimes + 2]) * 60 * 60;
+        int hrLimitWithinSecs = fileContent.getBCD(offsetTimes);
+        hrLimitWithinSecs += fileContent.getBCD(offsetTimes + 1) * 60;
+        hrLimitWithinSecs += fileContent.getBCD(offsetTimes + 2) * 60 * 60;
         hrLimit.setTimeWithin(hrLimitWithinSecs);
 
         return hrLimit;
@@ -3,6 +3,7 @@ package de.saring.exerciseviewer.parser.impl;
 import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.*;
 import de.saring.exerciseviewer.parser.AbstractExerciseParser;
+import de.saring.exerciseviewer.parser.BinaryReader;
 import de.saring.exerciseviewer.parser.ExerciseParserInfo;
 import de.saring.util.unitcalc.ConvertUtils;
 
@@ -37,7 +38,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
     /**
      * The binary data of the exercise file.
      */
-    private int[] fileContent;
+    private BinaryReader fileContent;
 
     @Override
     public ExerciseParserInfo getInfo() {
@@ -46,12 +47,12 @@ public class PolarSRawParser extends AbstractExerciseParser {
 
     @Override
     public EVExercise parseExercise(String filename) throws EVException {
-        // read binary file content to array
-        fileContent = readFileToByteArray(filename);
+        // read binary file content
+        fileContent = BinaryReader.readFile(filename);
 
         // is the SRD file coming from an Polar S610 ?
         // => then we need on many places special handling, because the data is located on other places
-        boolean fS610 = (fileContent[34] == 0) && (fileContent[36] == 251);
+        boolean fS610 = (fileContent.getUnsignedByte(34) == 0) && (fileContent.getUnsignedByte(36) == 251);
 
         // create an PVExercise object from this data and set file type
         EVExercise exercise = new EVExercise();
@@ -63,50 +64,50 @@ public class PolarSRawParser extends AbstractExerciseParser {
         exercise.setDeviceName("Polar S6xx/S7xx Series");
 
         // get bytes in file
-        int bytesInFile = (fileContent[1] * 0x100) + fileContent[0];
-        if (bytesInFile != fileContent.length) {
+        int bytesInFile = fileContent.getUnsignedShort(0);
+        if (bytesInFile != fileContent.length()) {
             throw new EVException("The exercise file is not valid, the file length is not correct ...");
         }
 
         // get exercise type (label)
         StringBuilder sbExerciseLabel = new StringBuilder();
         for (int i = 0; i < 7; i++) {
-            sbExerciseLabel.append(decodeChar(fileContent[i + 3]));
+            sbExerciseLabel.append(decodeChar(fileContent.getUnsignedByte(i + 3)));
         }
         exercise.setType(sbExerciseLabel.toString());
 
         // get exercise date
-        int dateSeconds = decodeBCD(fileContent[10]);
-        int dateMinutes = decodeBCD(fileContent[11]);
-        int dateHours = decodeBCD(fileContent[12] & 0x7f);
-        int dateDay = decodeBCD(fileContent[13] & 0x7f);
-        int dateYear = 2000 + decodeBCD(fileContent[14]);
-        int dateMonth = fileContent[15] & 0x0f;
+        int dateSeconds = fileContent.getBCD(10);
+        int dateMinutes = fileContent.getBCD(11);
+        int dateHours = BinaryReader.decodeBCD(fileContent.getBits(12, 0, 7));
+        int dateDay = BinaryReader.decodeBCD(fileContent.getBits(13, 0, 7));
+        int dateYear = 2000 + fileContent.getBCD(14);
+        int dateMonth = fileContent.getUnsignedByte(15) & 0x0f;
 
         // when bit 7 of byte 12 is set, then the hour is in PM mode
-        if (dateHours < 12 && (fileContent[12] & 0x80) == 0x80) {
+        if (dateHours < 12 && fileContent.isBitSet(12, 7)) {
             dateHours += 12;
         }
 
         exercise.setDateTime(LocalDateTime.of(dateYear, dateMonth, dateDay, dateHours, dateMinutes, dateSeconds));
 
         // get duration
-        int durationTenthSeconds = (fileContent[15] >> 4);
-        int durationSeconds = decodeBCD(fileContent[16]);
-        int durationMinutes = decodeBCD(fileContent[17]);
-        int durationHours = decodeBCD(fileContent[18]);
+        int durationTenthSeconds = (fileContent.getUnsignedByte(15) >> 4);
+        int durationSeconds = fileContent.getBCD(16);
+        int durationMinutes = fileContent.getBCD(17);
+        int durationHours = fileContent.getBCD(18);
         exercise.setDuration((durationHours * 60 * 60 * 10) + (durationMinutes * 60 * 10) + durationSeconds * 10 + durationTenthSeconds);
 
         // get heartrate data
-        exercise.setHeartRateAVG((short) fileContent[19]);
-        exercise.setHeartRateMax((short) fileContent[20]);
+        exercise.setHeartRateAVG((short) fileContent.getUnsignedByte(19));
+        exercise.setHeartRateMax((short) fileContent.getUnsignedByte(20));
 
         // get number of laps
-        int numberOfLaps = decodeBCD(fileContent[21]);
+        int numberOfLaps = fileContent.getBCD(21);
 
         // get unit format from bit 1 of byte 25
         // => 0 = metric, 1 = english
-        boolean fMetricUnits = (fileContent[25] & 0x02) == 0x00;
+        boolean fMetricUnits = !fileContent.isBitSet(25, 1);
 
         // decode recording mode (heartrate is always recorded)
         // (not available on S610 files)
@@ -114,11 +115,11 @@ public class PolarSRawParser extends AbstractExerciseParser {
         exercise.setRecordingMode(recMode);
 
         if (!fS610) {
-            boolean fBike2 = (fileContent[26] & 0x20) == 0x20;
-            boolean fBike1 = (fileContent[26] & 0x10) == 0x10;
-            recMode.setPower((fileContent[26] & 0x08) == 0x08);
-            recMode.setCadence((fileContent[26] & 0x04) == 0x04);
-            recMode.setAltitude((fileContent[26] & 0x02) == 0x02);
+            boolean fBike2 = fileContent.isBitSet(26, 5);
+            boolean fBike1 = fileContent.isBitSet(26, 4);
+            recMode.setPower(fileContent.isBitSet(26, 3));
+            recMode.setCadence(fileContent.isBitSet(26, 2));
+            recMode.setAltitude(fileContent.isBitSet(26, 1));
 
             if (!fBike1 && !fBike2) {
                 recMode.setSpeed(false);
@@ -136,7 +137,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
         // get recording interval
         short recInterval = 0;
         int indexRecInt = getProperIndex(27, 26, fS610);
-        switch (fileContent[indexRecInt] & 15) {
+        switch (fileContent.getUnsignedByte(indexRecInt) & 15) {
             case 0:
                 recInterval = 5;
                 break;
@@ -147,13 +148,13 @@ public class PolarSRawParser extends AbstractExerciseParser {
                 recInterval = 60;
                 break;
             default:
-                throw new EVException("Recording interval '" + fileContent[indexRecInt] + "' not valid ...");
+                throw new EVException("Recording interval '" + fileContent.getUnsignedByte(indexRecInt) + "' not valid ...");
         }
         exercise.setRecordingInterval(recInterval);
 
         // does the heartrate ranges are specified by absolute or percentual values?
         // the bit 4 of byte 27 (or 26 for S610) is 0 for absolute and 1 for percentual ranges
-        boolean fHeartRateRangeAbsolute = (fileContent[indexRecInt] & 0x10) == 0;
+        boolean fHeartRateRangeAbsolute = (fileContent.getUnsignedByte(indexRecInt) & 0x10) == 0;
 
         // get the number of samples recorded.  floor of (seconds / hertz).
         // Watch seems to always record a last entry, even partial seconds: +1;
@@ -172,36 +173,36 @@ public class PolarSRawParser extends AbstractExerciseParser {
 
         // get energy (in kCal)
         int indexEnergyStart = getProperIndex(70, 69, fS610);
-        int energyPart1 = decodeBCD(fileContent[indexEnergyStart + 0]);
-        int energyPart2 = decodeBCD(fileContent[indexEnergyStart + 1]);
-        int energyPart3 = decodeBCD(fileContent[indexEnergyStart + 2]);
+        int energyPart1 = fileContent.getBCD(indexEnergyStart + 0);
+        int energyPart2 = fileContent.getBCD(indexEnergyStart + 1);
+        int energyPart3 = fileContent.getBCD(indexEnergyStart + 2);
         exercise.setEnergy((energyPart1 + (energyPart2 * 100) + (energyPart3 * 10000)) / 10);
 
         // get total energy (in kCal)
         int indexTotalEnergyStart = getProperIndex(73, 72, fS610);
-        int energyTotalPart1 = decodeBCD(fileContent[indexTotalEnergyStart + 0]);
-        int energyTotalPart2 = decodeBCD(fileContent[indexTotalEnergyStart + 1]);
-        int energyTotalPart3 = decodeBCD(fileContent[indexTotalEnergyStart + 2]);
+        int energyTotalPart1 = fileContent.getBCD(indexTotalEnergyStart + 0);
+        int energyTotalPart2 = fileContent.getBCD(indexTotalEnergyStart + 1);
+        int energyTotalPart3 = fileContent.getBCD(indexTotalEnergyStart + 2);
         exercise.setEnergyTotal(energyTotalPart1 + (energyTotalPart2 * 100) + (energyTotalPart3 * 10000));
 
         // get cumulative workout time
         int indexCumWorkoutStart = getProperIndex(76, 75, fS610);
-        int cumWorkoutPart1 = decodeBCD(fileContent[indexCumWorkoutStart + 0]);
-        int cumWorkoutPart2 = decodeBCD(fileContent[indexCumWorkoutStart + 1]);
-        int cumWorkoutPart3 = decodeBCD(fileContent[indexCumWorkoutStart + 2]);
+        int cumWorkoutPart1 = fileContent.getBCD(indexCumWorkoutStart + 0);
+        int cumWorkoutPart2 = fileContent.getBCD(indexCumWorkoutStart + 1);
+        int cumWorkoutPart3 = fileContent.getBCD(indexCumWorkoutStart + 2);
         exercise.setSumExerciseTime(cumWorkoutPart3 + (cumWorkoutPart1 * 60) + (cumWorkoutPart2 * 60 * 100));
 
         if (!fS610) {
             // get cumulative ride time
-            int cumRidePart1 = decodeBCD(fileContent[79]);
-            int cumRidePart2 = decodeBCD(fileContent[80]);
-            int cumRidePart3 = decodeBCD(fileContent[81]);
+            int cumRidePart1 = fileContent.getBCD(79);
+            int cumRidePart2 = fileContent.getBCD(80);
+            int cumRidePart3 = fileContent.getBCD(81);
             exercise.setSumRideTime(cumRidePart3 + (cumRidePart1 * 60) + (cumRidePart2 * 60 * 100));
 
             // get odometer
-            int odometerPart1 = decodeBCD(fileContent[82]);
-            int odometerPart2 = decodeBCD(fileContent[83]);
-            int odometerPart3 = decodeBCD(fileContent[84]);
+            int odometerPart1 = fileContent.getBCD(82);
+            int odometerPart2 = fileContent.getBCD(83);
+            int odometerPart3 = fileContent.getBCD(84);
             int odometer = odometerPart1 + (odometerPart2 * 100) + (odometerPart3 * 10000);
             if (fMetricUnits) {
                 exercise.setOdometer(odometer);
@@ -216,7 +217,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
             exercise.setSpeed(speed);
 
             // get exercise distance (in 1/10th of km)
-            int distance = (fileContent[85] + (fileContent[86] << 8)) * 100;
+            int distance = fileContent.getUnsignedShort(85) * 100;
             if (fMetricUnits) {
                 speed.setDistance(distance);
             } else {
@@ -224,8 +225,8 @@ public class PolarSRawParser extends AbstractExerciseParser {
             }
 
             // get AVG speed
-            int avgSpeedPart1 = fileContent[87];
-            int avgSpeedPart2 = (fileContent[88] & 0x0f);
+            int avgSpeedPart1 = fileContent.getUnsignedByte(87);
+            int avgSpeedPart2 = (fileContent.getUnsignedByte(88) & 0x0f);
             float avgSpeed = ((avgSpeedPart2 << 8) | avgSpeedPart1) / 16f;
             if (fMetricUnits) {
                 speed.setSpeedAVG(avgSpeed);
@@ -234,8 +235,8 @@ public class PolarSRawParser extends AbstractExerciseParser {
             }
 
             // get max speed
-            int maxSpeedPart1 = fileContent[88] >> 4;
-            int maxSpeedPart2 = fileContent[89];
+            int maxSpeedPart1 = fileContent.getUnsignedByte(88) >> 4;
+            int maxSpeedPart2 = fileContent.getUnsignedByte(89);
             float maxSpeed = ((maxSpeedPart2 << 4) | maxSpeedPart1) / 16f;
             if (fMetricUnits) {
                 speed.setSpeedMax(maxSpeed);
@@ -248,18 +249,18 @@ public class PolarSRawParser extends AbstractExerciseParser {
         if (recMode.isCadence()) {
             ExerciseCadence cadence = new ExerciseCadence();
             exercise.setCadence(cadence);
-            cadence.setCadenceAVG((short) fileContent[90]);
-            cadence.setCadenceMax((short) fileContent[91]);
+            cadence.setCadenceAVG((short) fileContent.getUnsignedByte(90));
+            cadence.setCadenceMax((short) fileContent.getUnsignedByte(91));
         }
 
         // get altitude data of exercise (if recorded)
         if (recMode.isAltitude()) {
             ExerciseAltitude altitude = new ExerciseAltitude();
             exercise.setAltitude(altitude);
-            altitude.setAltitudeMin(decodeAltitude(fileContent[92], fileContent[93]));
-            altitude.setAltitudeAVG(decodeAltitude(fileContent[94], fileContent[95]));
-            altitude.setAltitudeMax(decodeAltitude(fileContent[96], fileContent[97]));
-            altitude.setAscent(fileContent[101] + (fileContent[102] << 8));
+            altitude.setAltitudeMin(decodeAltitude(fileContent.getUnsignedByte(92), fileContent.getUnsignedByte(93)));
+            altitude.setAltitudeAVG(decodeAltitude(fileContent.getUnsignedByte(94), fileContent.getUnsignedByte(95)));
+            altitude.setAltitudeMax(decodeAltitude(fileContent.getUnsignedByte(96), fileContent.getUnsignedByte(97)));
+            altitude.setAscent(fileContent.getUnsignedShort(101));
 
             if (!fMetricUnits) {
                 altitude.setAltitudeMin((short) ConvertUtils.convertFeet2Meter(altitude.getAltitudeMin()));
@@ -271,9 +272,9 @@ public class PolarSRawParser extends AbstractExerciseParser {
             // get temperature data of exercise (only available, when altitude recorded)
             ExerciseTemperature temperature = new ExerciseTemperature();
             exercise.setTemperature(temperature);
-            temperature.setTemperatureMin(decodeTemperature(fileContent[98], fMetricUnits));
-            temperature.setTemperatureAVG(decodeTemperature(fileContent[99], fMetricUnits));
-            temperature.setTemperatureMax(decodeTemperature(fileContent[100], fMetricUnits));
+            temperature.setTemperatureMin(decodeTemperature(fileContent.getUnsignedByte(98), fMetricUnits));
+            temperature.setTemperatureAVG(decodeTemperature(fileContent.getUnsignedByte(99), fMetricUnits));
+            temperature.setTemperatureMax(decodeTemperature(fileContent.getUnsignedByte(100), fMetricUnits));
         }
 
 
@@ -316,16 +317,16 @@ public class PolarSRawParser extends AbstractExerciseParser {
             exercise.getLapList()[i] = lap;
 
             // get lap split time (in 1/10th seconds)
-            int bLapEndHour = fileContent[lapOffset + 2];
-            int bLapEndMinute = fileContent[lapOffset + 1] & 0x3f;
-            int bLapEndSecond = fileContent[lapOffset] & 0x3f;
-            int bLapEndTenthSecond = ((fileContent[lapOffset + 1] & 0xc0) >> 4) | ((fileContent[lapOffset] & 0xc0) >> 6);
+            int bLapEndHour = fileContent.getUnsignedByte(lapOffset + 2);
+            int bLapEndMinute = fileContent.getUnsignedByte(lapOffset + 1) & 0x3f;
+            int bLapEndSecond = fileContent.getUnsignedByte(lapOffset) & 0x3f;
+            int bLapEndTenthSecond = ((fileContent.getUnsignedByte(lapOffset + 1) & 0xc0) >> 4) | ((fileContent.getUnsignedByte(lapOffset) & 0xc0) >> 6);
             lap.setTimeSplit(bLapEndTenthSecond + (bLapEndSecond * 10) + (bLapEndMinute * 60 * 10) + (bLapEndHour * 60 * 60 * 10));
 
             // get heartrate data of lap
-            lap.setHeartRateSplit((short) (fileContent[lapOffset + 3]));
-            lap.setHeartRateAVG((short) (fileContent[lapOffset + 4]));
-            lap.setHeartRateMax((short) (fileContent[lapOffset + 5]));
+            lap.setHeartRateSplit((short) (fileContent.getUnsignedByte(lapOffset + 3)));
+            lap.setHeartRateAVG((short) (fileContent.getUnsignedByte(lapOffset + 4)));
+            lap.setHeartRateMax((short) (fileContent.getUnsignedByte(lapOffset + 5)));
             lapOffset += 6;
 
             // get altitude related data of lap (if recorded)
@@ -334,7 +335,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
                 lap.setTemperature(new LapTemperature());
 
                 // get altitude at end of the lap (has on offset of 512)
-                short lapEndAltitude = (short) (fileContent[lapOffset] + (fileContent[lapOffset + 1] << 8) - 512);
+                short lapEndAltitude = (short) (fileContent.getUnsignedShort(lapOffset) - 512);
                 if (fMetricUnits) {
                     // metric units: meters without modification
                     lap.getAltitude().setAltitude(lapEndAltitude);
@@ -344,7 +345,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
                 }
 
                 // get ascent of the lap
-                int lapAscent = (fileContent[lapOffset + 2] + (fileContent[lapOffset + 3] << 8));
+                int lapAscent = fileContent.getUnsignedShort(lapOffset + 2);
                 if (fMetricUnits) {
                     lap.getAltitude().setAscent(lapAscent);
                 } else {
@@ -354,10 +355,10 @@ public class PolarSRawParser extends AbstractExerciseParser {
                 // get temperature at end of the lap
                 if (fMetricUnits) {
                     // metric units: offset from -10 C
-                    lap.getTemperature().setTemperature((short) (fileContent[lapOffset + 4] - 10));
+                    lap.getTemperature().setTemperature((short) (fileContent.getUnsignedByte(lapOffset + 4) - 10));
                 } else {
                     // english units: offset from 14 F
-                    lap.getTemperature().setTemperature(ConvertUtils.convertFahrenheit2Celsius((short) (fileContent[lapOffset + 4] + 14)));
+                    lap.getTemperature().setTemperature(ConvertUtils.convertFahrenheit2Celsius((short) (fileContent.getUnsignedByte(lapOffset + 4) + 14)));
                 }
 
                 lapOffset += 5;
@@ -369,7 +370,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
 
                 // get cadence at end of the lap (if recorded)
                 if (recMode.isCadence()) {
-                    lap.getSpeed().setCadence((short) fileContent[lapOffset]);
+                    lap.getSpeed().setCadence((short) fileContent.getUnsignedByte(lapOffset));
                     lapOffset += 1;
                 }
 
@@ -379,7 +380,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
                 }
 
                 // get lap distance (in 1/10th of km)
-                int lapDistance = (fileContent[lapOffset] + (fileContent[lapOffset + 1] << 8)) * 100;
+                int lapDistance = fileContent.getUnsignedShort(lapOffset) * 100;
                 if (fMetricUnits) {
                     lap.getSpeed().setDistance(lapDistance);
                 } else {
@@ -387,7 +388,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
                 }
 
                 // get lap speed
-                float lapEndSpeed = ((float) (fileContent[lapOffset + 2] + ((fileContent[lapOffset + 3] & 0xf0) << 4)) / 16);
+                float lapEndSpeed = ((float) (fileContent.getUnsignedByte(lapOffset + 2) + ((fileContent.getUnsignedByte(lapOffset + 3) & 0xf0) << 4)) / 16);
                 if (fMetricUnits) {
                     lap.getSpeed().setSpeedEnd(lapEndSpeed);
                 } else {
@@ -404,30 +405,30 @@ public class PolarSRawParser extends AbstractExerciseParser {
         // get offset of first sample (the first sample is most recent - reverse order)
         int sampleOffset = indexLapsStart + (numberOfLaps * lapSize);
 
-        // create sample list
-        exercise.setSampleList(new ExerciseSample[numberOfSamples]);
+        // create sample data
+        ExerciseSampleData sampleData = new ExerciseSampleData(numberOfSamples);
+        sampleData.addSamples(numberOfSamples);
+        exercise.setSampleData(sampleData);
 
         // process all recorded samples
         for (int i = 0; i < numberOfSamples; i++) {
             // store sample in list in reverse order
             int sampleIndex = numberOfSamples - i - 1;
-            ExerciseSample exeSample = new ExerciseSample();
-            exeSample.setTimestamp(sampleIndex * exercise.getRecordingInterval() * 1000L);
-            exercise.getSampleList()[sampleIndex] = exeSample;
+            sampleData.setTimestamp(sampleIndex, sampleIndex * exercise.getRecordingInterval() * 1000L);
 
             // get sample heartrate
-            exeSample.setHeartRate((short) fileContent[sampleOffset]);
+            sampleData.setHeartRate(sampleIndex, (short) fileContent.getUnsignedByte(sampleOffset));
             sampleOffset++;
 
             // get sample altitude (if recorded) - (has on offset of 512)
             if (recMode.isAltitude()) {
-                short sampleAltitude = (short) (fileContent[sampleOffset] + ((fileContent[sampleOffset + 1] & 0x1f) << 8) - 512);
+                short sampleAltitude = (short) (fileContent.getUnsignedByte(sampleOffset) + (fileContent.getBits(sampleOffset + 1, 0, 5) << 8) - 512);
                 if (fMetricUnits) {
                     // metric units: meters without modification
-                    exeSample.setAltitude(sampleAltitude);
+                    sampleData.setAltitude(sampleIndex, sampleAltitude);
                 } else {
                     // english units: multiples of 5 feets
-                    exeSample.setAltitude((short) ConvertUtils.convertFeet2Meter(sampleAltitude * 5));
+                    sampleData.setAltitude(sampleIndex, (short) ConvertUtils.convertFeet2Meter(sampleAltitude * 5));
                 }
                 sampleOffset += 2;
             }
@@ -440,11 +441,11 @@ public class PolarSRawParser extends AbstractExerciseParser {
                 }
 
                 // get sample speed
-                float sampleSpeed = (float) (((fileContent[sampleOffset] & 0xe0) << 3) + fileContent[sampleOffset + 1]) / 16f;
+                float sampleSpeed = (float) (((fileContent.getUnsignedByte(sampleOffset) & 0xe0) << 3) + fileContent.getUnsignedByte(sampleOffset + 1)) / 16f;
                 if (fMetricUnits) {
-                    exeSample.setSpeed(sampleSpeed);
+                    sampleData.setSpeed(sampleIndex, sampleSpeed);
                 } else {
-                    exeSample.setSpeed((float) ConvertUtils.convertMiles2Kilometer(sampleSpeed));
+                    sampleData.setSpeed(sampleIndex, (float) ConvertUtils.convertMiles2Kilometer(sampleSpeed));
                 }
                 sampleOffset += 2;
 
@@ -455,7 +456,7 @@ public class PolarSRawParser extends AbstractExerciseParser {
 
                 // get sample cadence (if recorded)
                 if (recMode.isCadence()) {
-                    exeSample.setCadence((short) fileContent[sampleOffset]);
+                    sampleData.setCadence(sampleIndex, (short) fileContent.getUnsignedByte(sampleOffset));
                     sampleOffset++;
                 }
             }
@@ -468,10 +469,10 @@ public class PolarSRawParser extends AbstractExerciseParser {
             double distanceAccum = 0f;
 
             // process all recorded samples
-            for (ExerciseSample exeSample : exercise.getSampleList()) {
+            for (int i = 0; i < numberOfSamples; i++) {
                 // compute sample distance (it's not recorded)
-                exeSample.setDistance((int) distanceAccum);
-                distanceAccum += (exeSample.getSpeed() * recInterval) / 3.6f;
+                sampleData.setDistance(i, (int) distanceAccum);
+                distanceAccum += (sampleData.getSpeed(i) * recInterval) / 3.6f;
             }
         }
 
@@ -603,17 +604,6 @@ public class PolarSRawParser extends AbstractExerciseParser {
         return cDecoded;
     }
 
-    /**
-     * Decodes a BCD "byte" (in Polar format) to normal int value.
-     *
-     * @param value BCD "byte" to decode
-     * @return normal int value of BCD value
-     */
-    private int decodeBCD(int value) {
-        // (upper 4 bits * 10) + lower 4 bits
-        return ((value >> 4) * 10) + (value & 0x0f);
-    }
-
     /**
      * This helper method is only for easy switching between the S710 and S610
      * exercise indexes while parsing.
@@ -641,22 +631,22 @@ public class PolarSRawParser extends AbstractExerciseParser {
      */
     private HeartRateLimit decodeHeartRateLimit(int offsetLimits, int offsetTimes) {
         HeartRateLimit hrLimit = new HeartRateLimit();
-        hrLimit.setLowerHeartRate((short) fileContent[offsetLimits + 0]);
-        hrLimit.setUpperHeartRate((short) fileContent[offsetLimits + 1]);
+        hrLimit.setLowerHeartRate((short) fileContent.getUnsignedByte(offsetLimits + 0));
+        hrLimit.setUpperHeartRate((short) fileContent.getUnsignedByte(offsetLimits + 1));
 
-        int hrLimitBelowSecs = decodeBCD(fileContent[offsetTimes + 0]);
-        hrLimitBelowSecs += decodeBCD(fileContent[offsetTimes + 1]) * 60;
-        hrLimitBelowSecs += decodeBCD(fileContent[offsetTimes + 2]) * 60 * 60;
+        int hrLimitBelowSecs = fileContent.getBCD(offsetTimes + 0);
+        hrLimitBelowSecs += fileContent.getBCD(offsetTimes + 1) * 60;
+        hrLimitBelowSecs += fileContent.getBCD(offsetTimes + 2) * 60 * 60;
         hrLimit.setTimeBelow(hrLimitBelowSecs);
 
-        int hrLimitWithinSecs = decodeBCD(fileContent[offsetTimes + 3]);
-        hrLimitWithinSecs += decodeBCD(fileContent[offsetTimes + 4]) * 60;
-        hrLimitWithinSecs += decodeBCD(fileContent[offsetTimes + 5]) * 60 * 60;
+        int hrLimitWithinSecs = fileContent.getBCD(offsetTimes + 3);
+        hrLimitWithinSecs += fileContent.getBCD(offsetTimes + 4) * 60;
+        hrLimitWithinSecs += fileContent.getBCD(offsetTimes + 5) * 60 * 60;
         hrLimit.setTimeWithin(hrLimitWithinSecs);
 
-        int hrLimitAboveSecs = decodeBCD(fileContent[offsetTimes + 6]);
-        hrLimitAboveSecs += decodeBCD(fileContent[offsetTimes + 7]) * 60;
-        hrLimitAboveSecs += decodeBCD(fileContent[offsetTimes + 8]) * 60 * 60;
+        int hrLimitAboveSecs = fileContent.getBCD(offsetTimes + 6);
+        hrLimitAboveSecs += fileContent.getBCD(offsetTimes + 7) * 60;
+        hrLimitAboveSecs += fileContent.getBCD(offsetTimes + 8) * 60 * 60;
         hrLimit.setTimeAbove(hrLimitAboveSecs);
 
         return hrLimit;
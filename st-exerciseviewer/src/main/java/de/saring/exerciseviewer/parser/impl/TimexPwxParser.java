@@ -629,18 +629,18 @@ public class TimexPwxParser extends AbstractExerciseParser {
     private EVExercise parseWorkoutSamples(EVExercise exercise, Node workoutNode) {
         // obtain all the sample data.
         int totalSamples = countNodeItems(workoutNode, "sample");
-        int currentSampleNumber = 0;
         float lastDistance = 0;
         boolean distanceinsample = false;
         boolean firstsample = true;
-        exercise.setSampleList(new ExerciseSample[totalSamples]);
+        ExerciseSampleData sampleData = new ExerciseSampleData(totalSamples);
+        exercise.setSampleData(sampleData);
         double lastOffset = 0;
         double currentOffset = 0;
         Position lastPosition = new Position(0, 0);
         NodeList children = workoutNode.getChildNodes();
         NodeList sampleChildren = null;
         String childName;
-        ExerciseSample lastSample = new ExerciseSample(); // Stop the jitters... assumes no
+        short lastHeartRate = 0; // Stop the jitters... assumes no
         Double latitude = 0.0, longitude = 0.0;
         double belowZone[] = {0, 0, 0, 0, 0, 0};
         double inZone[] = {0, 0, 0, 0, 0, 0};
@@ -649,7 +649,7 @@ public class TimexPwxParser extends AbstractExerciseParser {
         for (int i = 0; i < istop; i++) {
             childName = children.item(i).getNodeName();
             if (childName.equals("sample")) {
-                ExerciseSample sample = new ExerciseSample();
+                int index = sampleData.addSample();
                 sampleChildren = children.item(i).getChildNodes();
                 int jstop = sampleChildren.getLength();
                 for (int j = 0; j < jstop; j++) {
@@ -658,58 +658,59 @@ public class TimexPwxParser extends AbstractExerciseParser {
                         if (currentOffset != 0)
                             lastOffset = currentOffset;
                         currentOffset = Double.valueOf(sampleChildren.item(j).getTextContent());
-                        sample.setTimestamp((long) (1000 * currentOffset));
+                        sampleData.setTimestamp(index, (long) (1000 * currentOffset));
                     } else if (childName.equals("hr")) {
-                        sample.setHeartRate(Short.valueOf(sampleChildren.item(j).getTextContent()));
+                        sampleData.setHeartRate(index, Short.valueOf(sampleChildren.item(j).getTextContent()));
                     } else if (childName.equals("spd")) {
-                        sample.setSpeed((float) 3.6 * Float.valueOf(sampleChildren.item(j).getTextContent()).floatValue());
+                        sampleData.setSpeed(index, (float) 3.6 * Float.valueOf(sampleChildren.item(j).getTextContent()).floatValue());
                     } else if (childName.equals("pwr")) {
                         // Not implemented in ExerciseSample class
                     } else if (childName.equals("torq")) {
                         // Not implemented in ExerciseSample class
                     } else if (childName.equals("cad")) {
-                        sample.setCadence(Short.valueOf(sampleChildren.item(j).getTextContent()));
+                        sampleData.setCadence(index, Short.valueOf(sampleChildren.item(j).getTextContent()));
                         exercise.getRecordingMode().setCadence(true);
                     } else if (childName.equals("dist")) {
                         double dist = Double.valueOf(sampleChildren.item(j).getTextContent());
-                        sample.setDistance((int) Math.round(dist));
+                        sampleData.setDistance(index, (int) Math.round(dist));
                         distanceinsample = true;
                     } else if (childName.equals("lat")) {
                         latitude = Double.valueOf(sampleChildren.item(j).getTextContent());
                     } else if (childName.equals("lon")) {
                         longitude = Double.valueOf(sampleChildren.item(j).getTextContent());
                     } else if (childName.equals("alt")) {
-                        sample.setAltitude(Float.valueOf(sampleChildren.item(j).getTextContent()).shortValue());
+                        sampleData.setAltitude(index, Float.valueOf(sampleChildren.item(j).getTextContent()).shortValue());
                     } else if (childName.equals("temp")) {
-                        sample.setTemperature(Float.valueOf(sampleChildren.item(j).getTextContent()).shortValue());
+                        sampleData.setTemperature(index, Float.valueOf(sampleChildren.item(j).getTextContent()).shortValue());
                     } else if (childName.equals("time")) {
                         // Not implemented in ExerciseSample
                     }
                 }
-                sample.setPosition(new Position(latitude, longitude));
+                Position position = new Position(latitude, longitude);
+                sampleData.setPosition(index, position);
                 if (firstsample) {
-                    lastPosition = sample.getPosition();
+                    lastPosition = position;
                     firstsample = false;
                 }
                 if (!distanceinsample) {
-                    lastDistance += getDistanceFromPositions(lastPosition, sample.getPosition());
-                    sample.setDistance((int) lastDistance);
-                    lastPosition = sample.getPosition();
+                    lastDistance += getDistanceFromPositions(lastPosition, position);
+                    sampleData.setDistance(index, (int) lastDistance);
+                    lastPosition = position;
                 }
                 // Eliminates the jitters of 0bpm samples... assumes that heart rate won't change instantiously by much and
                 // that there will only be the occasional missed heart beat.  Also fixes the laps not adding up.
-                if (sample.getHeartRate() == 0)
-                    sample.setHeartRate(lastSample.getHeartRate());
+                if (sampleData.getHeartRate(index) == 0)
+                    sampleData.setHeartRate(index, lastHeartRate);
                 else
-                    lastSample.setHeartRate(sample.getHeartRate());
-                exercise.getSampleList()[currentSampleNumber++] = sample;
+                    lastHeartRate = sampleData.getHeartRate(index);
 
                 // update Zone information
+                short heartRate = sampleData.getHeartRate(index);
                 if (exercise.getHeartRateLimits() != null) {
                     for (int j = 0; j < 6; j++) {
-                        if (sample.getHeartRate() > exercise.getHeartRateLimits()[j].getUpperHeartRate()) {
+                        if (heartRate > exercise.getHeartRateLimits()[j].getUpperHeartRate()) {
                             aboveZone[j] += (currentOffset - lastOffset);
-                        } else if (sample.getHeartRate() < exercise.getHeartRateLimits()[j].getLowerHeartRate()) {
+                        } else if (heartRate < exercise.getHeartRateLimits()[j].getLowerHeartRate()) {
                             belowZone[j] += (currentOffset - lastOffset);
                         } else {
                             inZone[j] += (currentOffset - lastOffset);
@@ -732,7 +733,7 @@ public class TimexPwxParser extends AbstractExerciseParser {
 
         // some models (e.g. Timex Ironman Run Trainer) don't contain statistic date (avg, max, ...)
         // => compute the missing data   
-        if (exercise.getSampleList().length > 0) {
+        if (sampleData.size() > 0) {
             computeHeartrateStatisticIfMissing(exercise);
             computeSpeedStatisticIfMissing(exercise);
             computeAltitudeStatisticIfMissing(exercise);
@@ -797,12 +798,14 @@ public class TimexPwxParser extends AbstractExerciseParser {
     private void computeHeartrateStatisticIfMissing(EVExercise exercise) {
         if (exercise.getHeartRateAVG() == 0) {
             double sumHeartrate = 0;
+            ExerciseSampleData sampleData = exercise.getSampleData();
 
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                sumHeartrate += sample.getHeartRate();
-                exercise.setHeartRateMax((short) Math.max(exercise.getHeartRateMax(), sample.getHeartRate()));
+            for (int i = 0; i < sampleData.size(); i++) {
+                short heartRate = sampleData.getHeartRate(i);
+                sumHeartrate += heartRate;
+                exercise.setHeartRateMax((short) Math.max(exercise.getHeartRateMax(), heartRate));
             }
-            exercise.setHeartRateAVG((short) Math.round(sumHeartrate / (double) exercise.getSampleList().length));
+            exercise.setHeartRateAVG((short) Math.round(sumHeartrate / (double) sampleData.size()));
         }
     }
 
@@ -812,13 +815,13 @@ public class TimexPwxParser extends AbstractExerciseParser {
             ExerciseSpeed exSpeed = new ExerciseSpeed();
             exSpeed.setSpeedMax(Float.MIN_VALUE);
             exercise.setSpeed(exSpeed);
+            ExerciseSampleData sampleData = exercise.getSampleData();
 
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                exSpeed.setSpeedMax(Math.max(exSpeed.getSpeedMax(), sample.getSpeed()));
+            for (int i = 0; i < sampleData.size(); i++) {
+                exSpeed.setSpeedMax(Math.max(exSpeed.getSpeedMax(), sampleData.getSpeed(i)));
             }
 
-            ExerciseSample lastSample = exercise.getSampleList()[exercise.getSampleList().length - 1];
-            exSpeed.setDistance(lastSample.getDistance());
+            exSpeed.setDistance(sampleData.getDistance(sampleData.size() - 1));
             exSpeed.setSpeedAVG(CalculationUtils.calculateAvgSpeed(
                     exSpeed.getDistance() / 1000f,
                     Math.round(exercise.getDuration() / 10f)));
@@ -835,18 +838,20 @@ public class TimexPwxParser extends AbstractExerciseParser {
 
             double sumAltitude = 0;
             short previousAltitude = Short.MAX_VALUE;
+            ExerciseSampleData sampleData = exercise.getSampleData();
 
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                sumAltitude += sample.getAltitude();
-                exAltitude.setAltitudeMin((short) Math.min(exAltitude.getAltitudeMin(), sample.getAltitude()));
-                exAltitude.setAltitudeMax((short) Math.max(exAltitude.getAltitudeMax(), sample.getAltitude()));
+            for (int i = 0; i < sampleData.size(); i++) {
+                short altitude = sampleData.getAltitude(i);
+                sumAltitude += altitude;
+                exAltitude.setAltitudeMin((short) Math.min(exAltitude.getAltitudeMin(), altitude));
+                exAltitude.setAltitudeMax((short) Math.max(exAltitude.getAltitudeMax(), altitude));
 
-                if (previousAltitude < sample.getAltitude()) {
-                    exAltitude.setAscent(exAltitude.getAscent() + (sample.getAltitude() - previousAltitude));
+                if (previousAltitude < altitude) {
+                    exAltitude.setAscent(exAltitude.getAscent() + (altitude - previousAltitude));
                 }
-                previousAltitude = sample.getAltitude();
+                previousAltitude = altitude;
             }
-            exAltitude.setAltitudeAVG((short) Math.round(sumAltitude / (double) exercise.getSampleList().length));
+            exAltitude.setAltitudeAVG((short) Math.round(sumAltitude / (double) sampleData.size()));
         }
     }
 }
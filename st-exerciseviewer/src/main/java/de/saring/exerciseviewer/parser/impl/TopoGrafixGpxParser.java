@@ -0,0 +1,393 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.*;
+import de.saring.exerciseviewer.parser.AbstractExerciseParser;
+import de.saring.exerciseviewer.parser.ExerciseParserInfo;
+import de.saring.exerciseviewer.parser.XmlElementReader;
+import de.saring.util.Date310Utils;
+import de.saring.util.unitcalc.CalculationUtils;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * ExerciseParser implementation for reading TopoGrafix GPX v1.1 exercise files (XML-based).
+ * Documentation about the format can be found at the TopoGrafix website
+ * ( http://www.topografix.com/gpx.asp ).
+ * <p/>
+ * The file is read by a StAX stream reader in one forward pass, so also huge tracks can be
+ * parsed. The trackpoints are stored directly in the sample data, the distance and speed of
+ * each sample and the altitude, speed and heartrate summaries are computed while reading.
+ *
+ * @author Stefan Saring
+ * @author Alex Wulms
+ * @version 3.0
+ */
+public class TopoGrafixGpxParser extends AbstractExerciseParser {
+
+    /**
+     * Informations about this parser.
+     */
+    private final ExerciseParserInfo info = new ExerciseParserInfo("TopoGrafix GPX", new String[]{"gpx", "GPX"});
+
+    private static final double DEGREE_TO_RADIAN_DIVIDER = 57.29577951d;
+    private static final double EARTH_RADIUS_IN_METER = 6371000d;
+
+    @Override
+    public ExerciseParserInfo getInfo() {
+        return info;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public EVExercise parseExercise(String filename) throws EVException {
+
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(filename));
+             XmlElementReader reader = new XmlElementReader(inputStream)) {
+            return new GpxReader(reader).parseExercise();
+        } catch (Exception e) {
+            throw new EVException("Failed to read the TopoGrafix GPX exercise file '" + filename + "' ...", e);
+        }
+    }
+
+    /**
+     * Reader for the content of one GPX file, it contains the state of the parsing process
+     * and the summary values computed so far.
+     */
+    private static class GpxReader {
+
+        private final XmlElementReader reader;
+
+        private final EVExercise exercise = new EVExercise();
+        private final ExerciseSampleData sampleData = new ExerciseSampleData();
+
+        // state for distance and speed calculation
+        private float totalDistanceInMeter = 0f;
+        private double prevLatitude;
+        private double prevLongitude;
+        private long prevTimestamp = -1;
+
+        // altitude summary
+        private short altitudeMin = Short.MAX_VALUE;
+        private short altitudeMax = Short.MIN_VALUE;
+        private long altitudeSum = 0;
+        private short previousAltitude;
+        private int ascent = 0;
+
+        // speed and heartrate summary
+        private float speedMax = 0;
+        private long heartRateSum = 0;
+        private short heartRateMax = Short.MIN_VALUE;
+
+        GpxReader(XmlElementReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Parses the exercise from the GPX file content.
+         */
+        EVExercise parseExercise() throws XMLStreamException, EVException {
+            exercise.setFileType(EVExercise.ExerciseFileType.GPX);
+            exercise.setDeviceName("Garmin GPX");
+            exercise.setRecordingInterval(EVExercise.DYNAMIC_RECORDING_INTERVAL);
+            exercise.setRecordingMode(new RecordingMode());
+            exercise.getRecordingMode().setLocation(true);
+
+            exercise.setHeartRateLimits(new HeartRateLimit[0]);
+            exercise.setLapList(new Lap[0]);
+
+            // parse all trackpoints in all tracks and track segments under the "gpx" element
+            while (reader.nextChildElement()) {
+                switch (reader.getLocalName()) {
+                    case "metadata":
+                        parseMetadata();
+                        break;
+                    case "trk":
+                        while (reader.nextChildElement()) {
+                            if ("trkseg".equals(reader.getLocalName())) {
+                                while (reader.nextChildElement()) {
+                                    if ("trkpt".equals(reader.getLocalName())) {
+                                        parseTrackpoint();
+                                    } else {
+                                        reader.skipElement();
+                                    }
+                                }
+                            } else {
+                                reader.skipElement();
+                            }
+                        }
+                        break;
+                    default:
+                        reader.skipElement();
+                }
+            }
+
+            sampleData.trimToSize();
+            exercise.setSampleData(sampleData);
+
+            if (exercise.getRecordingMode().isAltitude()) {
+                storeAltitudeSummary();
+            }
+            if (exercise.getDateTime() != null) {
+                calculateDuration();
+            }
+            if (exercise.getRecordingMode().isSpeed()) {
+                storeSpeedSummary();
+            }
+            if (exercise.getRecordingMode().isHeartRate()) {
+                storeHeartRateSummary();
+            }
+            return exercise;
+        }
+
+        /**
+         * Parses the optional exercise date and time of the metadata element. The metadata
+         * are located before the tracks in GPX files.
+         */
+        private void parseMetadata() throws XMLStreamException {
+            while (reader.nextChildElement()) {
+                if ("time".equals(reader.getLocalName())) {
+                    String time = reader.readText();
+                    if (exercise.getDateTime() == null) {
+                        exercise.setDateTime(parseDateTime(time));
+                    }
+                } else {
+                    reader.skipElement();
+                }
+            }
+        }
+
+        /**
+         * Parses the trackpoint, stores it as a new sample and updates the summary values.
+         */
+        private void parseTrackpoint() throws XMLStreamException, EVException {
+            String latitude = reader.getAttributeValue("lat");
+            String longitude = reader.getAttributeValue("lon");
+            if (latitude == null || longitude == null) {
+                throw new EVException("The trackpoint position is missing ...");
+            }
+
+            String elevation = null;
+            String time = null;
+            String heartRateGarmin = null;
+            String heartRateHolux = null;
+
+            while (reader.nextChildElement()) {
+                switch (reader.getLocalName()) {
+                    case "ele":
+                        elevation = reader.readText();
+                        break;
+                    case "time":
+                        time = reader.readText();
+                        break;
+                    case "extensions":
+                        while (reader.nextChildElement()) {
+                            if ("TrackPointExtension".equals(reader.getLocalName())) {
+                                // heartrate in Garmin Oregon format
+                                while (reader.nextChildElement()) {
+                                    if ("hr".equals(reader.getLocalName())) {
+                                        heartRateGarmin = reader.readText();
+                                    } else {
+                                        reader.skipElement();
+                                    }
+                                }
+                            } else if ("bpm".equals(reader.getLocalName())) {
+                                // heartrate in Holux FunTrek 130 pro format
+                                heartRateHolux = reader.readText();
+                            } else {
+                                reader.skipElement();
+                            }
+                        }
+                        break;
+                    default:
+                        reader.skipElement();
+                }
+            }
+
+            int index = sampleData.addSample();
+            double sampleLatitude = Double.parseDouble(latitude);
+            double sampleLongitude = Double.parseDouble(longitude);
+            sampleData.setPosition(index, sampleLatitude, sampleLongitude);
+
+            // get altitude (optional)
+            if (elevation != null) {
+                exercise.getRecordingMode().setAltitude(true);
+                sampleData.setAltitude(index, (short) Math.round(Double.parseDouble(elevation)));
+            }
+
+            // get timestamp and calculate sample time offset (optional)
+            if (time != null) {
+                LocalDateTime timestampSample = parseDateTime(time);
+
+                // store first timestamp as exercise start time when missing
+                // or when exercise timestamp larger then (first) track time stamp
+                // (In some GPX files track metadata is missing, while in some other
+                //  GPX file, the time stamp in the meta data is the time the track
+                //  was saved -thus after the exercise- and not the time the track
+                //  was started)
+                if (exercise.getDateTime() == null || exercise.getDateTime().isAfter(timestampSample)) {
+                    exercise.setDateTime(timestampSample);
+                }
+                sampleData.setTimestamp(index, Date310Utils.getMilliseconds(timestampSample) -
+                        Date310Utils.getMilliseconds(exercise.getDateTime()));
+            }
+
+            if (heartRateGarmin != null) {
+                exercise.getRecordingMode().setHeartRate(true);
+                sampleData.setHeartRate(index, Short.parseShort(heartRateGarmin));
+            }
+            if (heartRateHolux != null) {
+                exercise.getRecordingMode().setHeartRate(true);
+                sampleData.setHeartRate(index, Short.parseShort(heartRateHolux));
+            }
+
+            calculateDistanceAndSpeed(index, sampleLatitude, sampleLongitude);
+            updateSummaries(index);
+        }
+
+        /**
+         * Calculates the distance and speed for the sample point, based on the GPS coordinates
+         * and timestamp of this and the previous sample.
+         * <p/>
+         * Speed and distance tags do not seem to be part of GPX standard.
+         * Some GPS devices do log for example the speed but they don't
+         * indicate the unit used, like km/h our mile/hour and as such,
+         * those speed data are useless anyway.
+         */
+        private void calculateDistanceAndSpeed(int index, double latitude, double longitude) {
+            double distanceInMeter = 0;
+            if (index > 0) {
+                // Calculate distance based on GPS coordinates, using haversine formula
+                double dLat = (latitude - prevLatitude) / DEGREE_TO_RADIAN_DIVIDER;
+                double dLon = (longitude - prevLongitude) / DEGREE_TO_RADIAN_DIVIDER;
+                double prevLat = prevLatitude / DEGREE_TO_RADIAN_DIVIDER;
+                double currLat = latitude / DEGREE_TO_RADIAN_DIVIDER;
+                double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2) * Math.cos(prevLat) * Math.cos(currLat);
+                distanceInMeter = EARTH_RADIUS_IN_METER * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+                totalDistanceInMeter += distanceInMeter;
+            }
+            sampleData.setDistance(index, (int) totalDistanceInMeter);
+            prevLatitude = latitude;
+            prevLongitude = longitude;
+
+            long timestamp = sampleData.getTimestamp(index);
+            if (prevTimestamp != -1) {
+                // Calculate speed. Don't use CalculateUtils.calculateAvgSpeed, because
+                // that one gives 'infinity' when rounded time-difference is 0
+                // (e.g. when two timestamps are less then 500 milliseconds apart)
+                // Note that timestamps are in milliseconds
+                // Note that speed is in km/h
+                long deltaTime = timestamp - prevTimestamp;
+                // Note that deltaTime can be 0, either when GPX file contains two
+                // consecutive points with same timestamp or when it does not contain
+                // any timestamps at all. In both cases, speed will be set to 0 for
+                // the sample
+                if (deltaTime != 0) {
+                    exercise.getRecordingMode().setSpeed(true);
+                    sampleData.setSpeed(index, (float) (3600 * distanceInMeter / deltaTime));
+                }
+            }
+            // else: first sample point; speed not known yet. Assume person did not start
+            // the training yet and is standing still
+            prevTimestamp = timestamp;
+        }
+
+        /**
+         * Updates the altitude, speed and heartrate summary values with the values of the
+         * specified sample. The values are only stored in the exercise at the end when the
+         * appropriate data has been recorded.
+         */
+        private void updateSummaries(int index) {
+            short altitude = sampleData.getAltitude(index);
+            if (index == 0) {
+                previousAltitude = altitude;
+            }
+            altitudeMin = (short) Math.min(altitude, altitudeMin);
+            altitudeMax = (short) Math.max(altitude, altitudeMax);
+            altitudeSum += altitude;
+            if (previousAltitude < altitude) {
+                ascent += altitude - previousAltitude;
+            }
+            previousAltitude = altitude;
+
+            float speed = sampleData.getSpeed(index);
+            if (speed > speedMax) {
+                speedMax = speed;
+            }
+
+            short heartRate = sampleData.getHeartRate(index);
+            heartRateSum += heartRate;
+            if (heartRate > heartRateMax) {
+                heartRateMax = heartRate;
+            }
+        }
+
+        /**
+         * Stores the min, avg and max altitude and the ascent of the exercise.
+         */
+        private void storeAltitudeSummary() {
+            ExerciseAltitude altitude = new ExerciseAltitude();
+            exercise.setAltitude(altitude);
+            altitude.setAltitudeMin(altitudeMin);
+            altitude.setAltitudeMax(altitudeMax);
+            altitude.setAscent(ascent);
+            altitude.setAltitudeAVG((short) Math.round(altitudeSum / (double) sampleData.size()));
+        }
+
+        /**
+         * Calculates the exercise duration (only when samples contain timestamps).
+         */
+        private void calculateDuration() {
+            int sampleCount = sampleData.size();
+            if (sampleCount > 0) {
+                long lastSampleTimestamp = sampleData.getTimestamp(sampleCount - 1);
+                if (lastSampleTimestamp > 0) {
+                    exercise.setDuration((int) (lastSampleTimestamp / 100));
+                }
+            }
+        }
+
+        /**
+         * Stores the speed summary (only when samples contain timestamps, from which speed is derived).
+         */
+        private void storeSpeedSummary() {
+            ExerciseSpeed speed = new ExerciseSpeed();
+            exercise.setSpeed(speed);
+            speed.setSpeedMax(speedMax);
+
+            // determine total distance and average speed
+            int lastIndex = sampleData.size() - 1;
+            speed.setDistance(sampleData.getDistance(lastIndex));
+            speed.setSpeedAVG(CalculationUtils.calculateAvgSpeed(
+                    (float) (speed.getDistance() / 1000d), (int) Math.round(sampleData.getTimestamp(lastIndex) / 1000d)));
+        }
+
+        /**
+         * Stores the heart rate summary data of the exercise (only when samples contain heart rate data).
+         */
+        private void storeHeartRateSummary() {
+            exercise.setHeartRateMax(heartRateMax);
+            exercise.setHeartRateAVG((short) Math.round(heartRateSum / (double) sampleData.size()));
+        }
+
+        /**
+         * Parses the date time in ISO format specified in the passed text and returns the appropriate LocalDateTime.
+         */
+        private static LocalDateTime parseDateTime(String dateTimeText) {
+            // remove the suffix 'Z' if contained in the passed text, can't be ignored by ISO_LOCAL_DATE_TIME
+            String dateTimeTextFixed = dateTimeText.endsWith("Z") ?
+                    dateTimeText.substring(0, dateTimeText.length() - 1) : dateTimeText;
+            return LocalDateTime.parse(dateTimeTextFixed, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+    }
+}
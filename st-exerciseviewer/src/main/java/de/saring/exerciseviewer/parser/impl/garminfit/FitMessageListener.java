@@ -3,7 +3,7 @@ package de.saring.exerciseviewer.parser.impl.garminfit;
 import java.lang.reflect.Modifier;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 import com.garmin.fit.DateTime;
 import com.garmin.fit.DeviceInfoMesg;
@@ -20,7 +20,7 @@ import de.saring.exerciseviewer.core.EVException;
 import de.saring.exerciseviewer.data.EVExercise;
 import de.saring.exerciseviewer.data.ExerciseAltitude;
 import de.saring.exerciseviewer.data.ExerciseCadence;
-import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSampleData;
 import de.saring.exerciseviewer.data.ExerciseSpeed;
 import de.saring.exerciseviewer.data.ExerciseTemperature;
 import de.saring.exerciseviewer.data.Lap;
@@ -48,9 +48,9 @@ class FitMessageListener implements MesgListener {
      */
     private final List<FitLap> lFitLaps = new LinkedList<>();
     /**
-     * List of created exercise samples (collected in a LinkedList and not in EVExercise array, much faster).
+     * Data of the created exercise samples.
      */
-    private final List<ExerciseSample> lSamples = new LinkedList<>();
+    private final ExerciseSampleData sampleData = new ExerciseSampleData();
     /**
      * Flag for availability of temperature data.
      */
@@ -194,42 +194,41 @@ class FitMessageListener implements MesgListener {
      */
     private void readRecordMessage(RecordMesg mesg) {
 
-        ExerciseSample sample = new ExerciseSample();
-        lSamples.add(sample);
+        int index = sampleData.addSample();
 
         // sample timestamp must be the offset from start time, will be corrected later
         // (in some cases the timestamp is missing and will be read from the next Length message)
         DateTime timestamp = mesg.getTimestamp();
         if (timestamp != null) {
-            sample.setTimestamp(timestamp.getDate().getTime());
+            sampleData.setTimestamp(index, timestamp.getDate().getTime());
         }
 
         if (mesg.getHeartRate() != null) {
-            sample.setHeartRate(mesg.getHeartRate());
+            sampleData.setHeartRate(index, mesg.getHeartRate());
         }
         if (mesg.getDistance() != null) {
-            sample.setDistance(Math.round(mesg.getDistance()));
+            sampleData.setDistance(index, Math.round(mesg.getDistance()));
         }
         if (mesg.getSpeed() != null) {
-            sample.setSpeed(
+            sampleData.setSpeed(index,
                     ConvertUtils.convertMeterPerSecond2KilometerPerHour(mesg.getSpeed()));
         }
         if (mesg.getAltitude() != null) {
-            sample.setAltitude((short) Math.round(mesg.getAltitude()));
+            sampleData.setAltitude(index, (short) Math.round(mesg.getAltitude()));
         }
         if (mesg.getCadence() != null) {
-            sample.setCadence(mesg.getCadence());
+            sampleData.setCadence(index, mesg.getCadence());
         }
 
         if (mesg.getPositionLat() != null && mesg.getPositionLong() != null) {
-            sample.setPosition(new Position(
+            sampleData.setPosition(index,
                     ConvertUtils.convertSemicircle2Degree(mesg.getPositionLat()),
-                    ConvertUtils.convertSemicircle2Degree(mesg.getPositionLong())));
+                    ConvertUtils.convertSemicircle2Degree(mesg.getPositionLong()));
         }
 
         if (mesg.getTemperature() != null) {
             temperatureAvailable = true;
-            sample.setTemperature(mesg.getTemperature());
+            sampleData.setTemperature(index, mesg.getTemperature());
         }
     }
 
@@ -247,8 +246,7 @@ class FitMessageListener implements MesgListener {
         long totalElapsedTime = Math.round(mesg.getTotalElapsedTime().doubleValue() * 1000d);
         long endTimestamp = startTimestamp + totalElapsedTime;
 
-        ExerciseSample lastSample = lSamples.get(lSamples.size() - 1);
-        lastSample.setTimestamp(endTimestamp);
+        sampleData.setTimestamp(sampleData.size() - 1, endTimestamp);
     }
 
     /**
@@ -298,10 +296,11 @@ class FitMessageListener implements MesgListener {
      */
     private void storeSamples() {
         long startTime = Date310Utils.getMilliseconds(exercise.getDateTime());
-        for (ExerciseSample sample : lSamples) {
-            sample.setTimestamp(sample.getTimestamp() - startTime);
+        for (int i = 0; i < sampleData.size(); i++) {
+            sampleData.setTimestamp(i, sampleData.getTimestamp(i) - startTime);
         }
-        exercise.setSampleList(lSamples.toArray(new ExerciseSample[lSamples.size()]));
+        sampleData.trimToSize();
+        exercise.setSampleData(sampleData);
     }
 
     /**
@@ -323,25 +322,25 @@ class FitMessageListener implements MesgListener {
             lap.setTimeSplit((int) ((lapSplitDateTimeMillis - startTime) / 100));
 
             // get all the missing lap data from the sample at lap end time
-            ExerciseSample sampleAtLapEnd = getExerciseSampleForLapEnd(lap);
-            lap.setHeartRateSplit(sampleAtLapEnd.getHeartRate());
+            int sampleIndexAtLapEnd = getSampleIndexForLapEnd(lap);
+            lap.setHeartRateSplit(sampleData.getHeartRate(sampleIndexAtLapEnd));
 
             if (lap.getSpeed() != null) {
                 // fix lap distance, it must be the distance from exercise start (FIT stores from Lap start)
                 lapDistanceSum += lap.getSpeed().getDistance();
                 lap.getSpeed().setDistance(lapDistanceSum);
 
-                lap.getSpeed().setSpeedEnd(sampleAtLapEnd.getSpeed());
-                lap.getSpeed().setCadence(sampleAtLapEnd.getCadence());
+                lap.getSpeed().setSpeedEnd(sampleData.getSpeed(sampleIndexAtLapEnd));
+                lap.getSpeed().setCadence(sampleData.getCadence(sampleIndexAtLapEnd));
             }
 
             if (lap.getAltitude() != null) {
-                lap.getAltitude().setAltitude(sampleAtLapEnd.getAltitude());
+                lap.getAltitude().setAltitude(sampleData.getAltitude(sampleIndexAtLapEnd));
             }
 
             if (temperatureAvailable) {
                 lap.setTemperature(new LapTemperature());
-                lap.getTemperature().setTemperature(sampleAtLapEnd.getTemperature());
+                lap.getTemperature().setTemperature(sampleData.getTemperature(sampleIndexAtLapEnd));
             }
         }
 
@@ -349,24 +348,24 @@ class FitMessageListener implements MesgListener {
     }
 
     /**
-     * Returns the closest ExerciseSample for the lap end time.
+     * Returns the index of the closest sample for the lap end time.
      *
      * @param lap the lap for search
-     * @return the closest ExerciseSample
+     * @return the index of the closest sample
      */
-    private ExerciseSample getExerciseSampleForLapEnd(Lap lap) {
+    private int getSampleIndexForLapEnd(Lap lap) {
         long lapSplitTimestamp = lap.getTimeSplit() * 100L;
-        ExerciseSample closestSample = null;
+        int closestSampleIndex = -1;
         long closestTimeDistance = Long.MAX_VALUE;
 
-        for (ExerciseSample sample : exercise.getSampleList()) {
-            long timeDistance = Math.abs(sample.getTimestamp() - lapSplitTimestamp);
+        for (int i = 0; i < sampleData.size(); i++) {
+            long timeDistance = Math.abs(sampleData.getTimestamp(i) - lapSplitTimestamp);
             if (timeDistance < closestTimeDistance) {
                 closestTimeDistance = timeDistance;
-                closestSample = sample;
+                closestSampleIndex = i;
             }
         }
-        return closestSample;
+        return closestSampleIndex;
     }
 
     /**
@@ -374,22 +373,23 @@ class FitMessageListener implements MesgListener {
      */
     private void calculateAltitudeSummary() {
         if (exercise.getRecordingMode().isAltitude() &&
-                exercise.getSampleList().length > 0) {
+                sampleData.size() > 0) {
 
             short altMin = Short.MAX_VALUE;
             short altMax = Short.MIN_VALUE;
             int altitudeSum = 0;
 
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                altMin = (short) Math.min(sample.getAltitude(), altMin);
-                altMax = (short) Math.max(sample.getAltitude(), altMax);
-                altitudeSum += sample.getAltitude();
+            for (int i = 0; i < sampleData.size(); i++) {
+                short altitude = sampleData.getAltitude(i);
+                altMin = (short) Math.min(altitude, altMin);
+                altMax = (short) Math.max(altitude, altMax);
+                altitudeSum += altitude;
             }
 
             exercise.getAltitude().setAltitudeMin(altMin);
             exercise.getAltitude().setAltitudeMax(altMax);
             exercise.getAltitude().setAltitudeAVG(
-                    (short) (Math.round(altitudeSum / (double) exercise.getSampleList().length)));
+                    (short) (Math.round(altitudeSum / (double) sampleData.size())));
         }
     }
 
@@ -405,16 +405,17 @@ class FitMessageListener implements MesgListener {
             short tempMax = Short.MIN_VALUE;
             int temperatureSum = 0;
 
-            for (ExerciseSample sample : exercise.getSampleList()) {
-                tempMin = (short) Math.min(sample.getTemperature(), tempMin);
-                tempMax = (short) Math.max(sample.getTemperature(), tempMax);
-                temperatureSum += sample.getTemperature();
+            for (int i = 0; i < sampleData.size(); i++) {
+                short temperature = sampleData.getTemperature(i);
+                tempMin = (short) Math.min(temperature, tempMin);
+                tempMax = (short) Math.max(temperature, tempMax);
+                temperatureSum += temperature;
             }
 
             exercise.getTemperature().setTemperatureMin(tempMin);
             exercise.getTemperature().setTemperatureMax(tempMax);
             exercise.getTemperature().setTemperatureAVG(
-                    (short) (Math.round(temperatureSum / (double) exercise.getSampleList().length)));
+                    (short) (Math.round(temperatureSum / (double) sampleData.size())));
         }
     }
 
@@ -472,8 +473,8 @@ class FitMessageListener implements MesgListener {
 	private void calculateMissingMaxSpeed() {
         if (exercise.getSpeed().getSpeedMax() < 0.01) {
 
-            Stream.of(exercise.getSampleList()) //
-                .mapToDouble(sample -> sample.getSpeed()) //
+            IntStream.range(0, sampleData.size()) //
+                .mapToDouble(sampleData::getSpeed) //
                 .max() //
                 .ifPresent(maxSpeed -> exercise.getSpeed().setSpeedMax((float) maxSpeed));
         }
@@ -485,8 +486,8 @@ class FitMessageListener implements MesgListener {
     private void calculateMissingHeartRateAVG() {
 		if (exercise.getHeartRateAVG() == 0) {
 
-            Stream.of(exercise.getSampleList()) //
-                    .mapToDouble(sample -> sample.getHeartRate()) //
+            IntStream.range(0, sampleData.size()) //
+                    .mapToDouble(sampleData::getHeartRate) //
                     .average() //
                     .ifPresent(avgHeartRate -> exercise.setHeartRateAVG((short) Math.round(avgHeartRate)));
 		}
@@ -498,8 +499,8 @@ class FitMessageListener implements MesgListener {
 	private void calculateMissingHeartRateMax() {
         if (exercise.getHeartRateMax() == 0) {
 
-            Stream.of(exercise.getSampleList()) //
-                    .mapToInt(sample -> sample.getHeartRate()) //
+            IntStream.range(0, sampleData.size()) //
+                    .map(sampleData::getHeartRate) //
                     .max() //
                     .ifPresent(maxHeartRate -> exercise.setHeartRateMax((short) maxHeartRate));
         }
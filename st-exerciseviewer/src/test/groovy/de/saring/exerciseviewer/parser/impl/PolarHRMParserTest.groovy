@@ -392,4 +392,36 @@ class PolarHRMParserTest extends GroovyTestCase {
         assertEquals(exercise.sampleList[169].cadence, 0)
         assertEquals(exercise.sampleList[169].distance, 0)
     }
+
+    /**
+     * This method tests the parser with an exercise file where the sample data is located
+     * before the 'Params' block, the result must be the same as for the original file.
+     */
+    void testParseExerciseWithSamplesBeforeParams() {
+        def originalFile = new File('misc/testdata/s710/running-metric.hrm')
+        def content = originalFile.text
+        def hrDataIndex = content.indexOf('[HRData]')
+
+        def reorderedFile = File.createTempFile('running-metric-reordered', '.hrm')
+        reorderedFile.deleteOnExit()
+        reorderedFile.text = content.substring(hrDataIndex).trim() + '\n\n' + content.substring(0, hrDataIndex)
+
+        def original = parser.parseExercise(originalFile.path)
+        def exercise = parser.parseExercise(reorderedFile.path)
+
+        assertEquals(original.dateTime, exercise.dateTime)
+        assertEquals(original.duration, exercise.duration)
+        assertEquals(original.recordingInterval, exercise.recordingInterval)
+        assertEquals(original.heartRateAVG, exercise.heartRateAVG)
+        assertEquals(original.heartRateMax, exercise.heartRateMax)
+        assertEquals(original.altitude.altitudeAVG, exercise.altitude.altitudeAVG)
+        assertEquals(original.lapList.size(), exercise.lapList.size())
+        assertEquals(170, exercise.sampleList.size())
+
+        for (i in 0..<170) {
+            assertEquals(original.sampleList[i].timestamp, exercise.sampleList[i].timestamp)
+            assertEquals(original.sampleList[i].heartRate, exercise.sampleList[i].heartRate)
+            assertEquals(original.sampleList[i].altitude, exercise.sampleList[i].altitude)
+        }
+    }
 }
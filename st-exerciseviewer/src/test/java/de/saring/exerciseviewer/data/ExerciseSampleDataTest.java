@@ -0,0 +1,128 @@
+package de.saring.exerciseviewer.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the ExerciseSampleData class.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseSampleDataTest {
+
+    /**
+     * Tests the adding of samples, the capacity must be increased automatically.
+     */
+    @Test
+    public void testAddSample() {
+        ExerciseSampleData sampleData = new ExerciseSampleData(2);
+        for (int i = 0; i < 1000; i++) {
+            int index = sampleData.addSample();
+            assertEquals(i, index);
+            sampleData.setTimestamp(index, i * 1000L);
+            sampleData.setHeartRate(index, (short) (i % 200));
+            sampleData.setDistance(index, i * 5);
+        }
+        sampleData.trimToSize();
+
+        assertEquals(1000, sampleData.size());
+        assertEquals(999000L, sampleData.getTimestamp(999));
+        assertEquals(199, sampleData.getHeartRate(999));
+        assertEquals(4995, sampleData.getDistance(999));
+        assertFalse(sampleData.hasPosition(500));
+    }
+
+    /**
+     * Tests the storage of positions, they are optional for each sample.
+     */
+    @Test
+    public void testPositions() {
+        ExerciseSampleData sampleData = new ExerciseSampleData(1);
+        sampleData.addSamples(3);
+        assertNull(sampleData.getPosition(0));
+        assertTrue(Double.isNaN(sampleData.getLatitude(0)));
+
+        sampleData.setPosition(1, 51.05, 13.74);
+        int index = sampleData.addSample();
+        assertTrue(sampleData.hasPosition(1));
+        assertFalse(sampleData.hasPosition(0));
+        assertFalse(sampleData.hasPosition(index));
+        assertEquals(51.05, sampleData.getPosition(1).getLatitude(), 0d);
+        assertEquals(13.74, sampleData.getLongitude(1), 0d);
+
+        sampleData.setPosition(1, null);
+        assertFalse(sampleData.hasPosition(1));
+    }
+
+    /**
+     * Tests that the samples are views on the sample data.
+     */
+    @Test
+    public void testSampleViews() {
+        ExerciseSampleData sampleData = new ExerciseSampleData();
+        sampleData.addSamples(2);
+
+        ExerciseSample sample = sampleData.getSample(1);
+        sample.setSpeed(12.5f);
+        sample.setAltitude((short) 230);
+        sample.setPosition(new Position(1.5, 2.5));
+        assertEquals(12.5f, sampleData.getSpeed(1), 0f);
+        assertEquals(230, sampleData.getAltitude(1));
+        assertEquals(2.5, sampleData.getLongitude(1), 0d);
+
+        sampleData.setCadence(1, (short) 90);
+        assertEquals(90, sampleData.getSamples()[1].getCadence());
+    }
+
+    /**
+     * Tests the creation of sample data from separate samples, these samples must be views on
+     * the created sample data afterwards.
+     */
+    @Test
+    public void testOf() {
+        ExerciseSample sample1 = new ExerciseSample();
+        sample1.setHeartRate((short) 120);
+        ExerciseSample sample2 = new ExerciseSample();
+        sample2.setTemperature((short) 21);
+        sample2.setPosition(new Position(3.5, 4.5));
+
+        ExerciseSampleData sampleData = ExerciseSampleData.of(new ExerciseSample[]{sample1, sample2});
+        assertEquals(2, sampleData.size());
+        assertEquals(120, sampleData.getHeartRate(0));
+        assertEquals(21, sampleData.getTemperature(1));
+        assertEquals(3.5, sampleData.getLatitude(1), 0d);
+        assertFalse(sampleData.hasPosition(0));
+
+        sample1.setHeartRate((short) 130);
+        assertEquals(130, sampleData.getHeartRate(0));
+    }
+
+    /**
+     * Tests the compatibility of the sample list in the exercise.
+     */
+    @Test
+    public void testExerciseSampleList() {
+        EVExercise exercise = new EVExercise();
+        assertNull(exercise.getSampleList());
+
+        ExerciseSample sample = new ExerciseSample();
+        sample.setDistance(100);
+        exercise.setSampleList(new ExerciseSample[]{sample});
+        assertEquals(1, exercise.getSampleData().size());
+
+        exercise.getSampleList()[0].setDistance(200);
+        assertEquals(200, sample.getDistance());
+        assertEquals(200, exercise.getSampleData().getDistance(0));
+    }
+
+    /**
+     * Tests that invalid sample indexes are rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidIndex() {
+        ExerciseSampleData sampleData = new ExerciseSampleData(10);
+        sampleData.addSample();
+        sampleData.getHeartRate(1);
+    }
+}
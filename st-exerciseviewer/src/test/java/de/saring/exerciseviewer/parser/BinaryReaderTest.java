@@ -0,0 +1,92 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the BinaryReader class.
+ *
+ * @author Stefan Saring
+ */
+public class BinaryReaderTest {
+
+    private static final byte[] DATA = {(byte) 0x85, 0x12, (byte) 0xfe, (byte) 0xff, 0x34, 0x12, 0x00, (byte) 0x80};
+
+    /**
+     * Tests the reading of unsigned values in little-endian order.
+     */
+    @Test
+    public void testUnsignedValues() {
+        BinaryReader reader = BinaryReader.wrap(DATA);
+        assertEquals(8, reader.length());
+        assertEquals(0x85, reader.getUnsignedByte(0));
+        assertEquals(0xfffe, reader.getUnsignedShort(2));
+        assertEquals(0x1234, reader.getUnsignedShort(4));
+        assertEquals(0x80001234L, reader.getUnsignedInt(4));
+    }
+
+    /**
+     * Tests the decoding of BCD values and bits.
+     */
+    @Test
+    public void testBCDAndBits() {
+        BinaryReader reader = BinaryReader.wrap(DATA);
+        assertEquals(85, reader.getBCD(0));
+        assertEquals(12, reader.getBCD(1));
+        assertEquals(59, BinaryReader.decodeBCD(0x59));
+        assertEquals(0x05, reader.getBits(0, 0, 4));
+        assertEquals(0x08, reader.getBits(0, 4, 4));
+        assertTrue(reader.isBitSet(0, 7));
+        assertFalse(reader.isBitSet(0, 6));
+    }
+
+    /**
+     * Tests that slices are using the offsets relative to the slice start.
+     */
+    @Test
+    public void testSlice() {
+        BinaryReader slice = BinaryReader.wrap(DATA).slice(4, 3);
+        assertEquals(3, slice.length());
+        assertEquals(0x1234, slice.getUnsignedShort(0));
+        assertEquals(0x00, slice.getUnsignedByte(2));
+        assertEquals(0x12, slice.slice(1, 2).getUnsignedByte(0));
+    }
+
+    /**
+     * Tests that no data can be read outside of a slice.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSliceOutOfBounds() {
+        BinaryReader.wrap(DATA).slice(4, 3).getUnsignedByte(3);
+    }
+
+    /**
+     * Tests the reading of a file.
+     */
+    @Test
+    public void testReadFile() throws EVException, IOException {
+        Path file = Files.createTempFile("st-binary-reader-test", ".bin");
+        try {
+            Files.write(file, DATA);
+            BinaryReader reader = BinaryReader.readFile(file.toString());
+            assertEquals(DATA.length, reader.length());
+            assertEquals(0x8000, reader.getUnsignedShort(6));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests the reading of a missing file, this must fail.
+     */
+    @Test(expected = EVException.class)
+    public void testReadFileMissing() throws EVException {
+        BinaryReader.readFile("misc/testdata/missing-file.bin");
+    }
+}
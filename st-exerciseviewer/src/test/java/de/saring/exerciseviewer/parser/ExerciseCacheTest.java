@@ -0,0 +1,145 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the ExerciseCache class.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseCacheTest {
+
+    private Path exerciseFile;
+    private int parseCount;
+    private ExerciseParser parser;
+
+    // the class instance to be tested
+    private ExerciseCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        exerciseFile = Files.createTempFile("st-exercise-cache-test", ".tst");
+        Files.write(exerciseFile, new byte[]{1, 2, 3});
+
+        parseCount = 0;
+        parser = new ExerciseParser() {
+            @Override
+            public ExerciseParserInfo getInfo() {
+                return new ExerciseParserInfo("Test", new String[]{"tst"});
+            }
+
+            @Override
+            public EVExercise parseExercise(String filename) throws EVException {
+                parseCount++;
+                return new EVExercise();
+            }
+        };
+        cache = new ExerciseCache(2);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(exerciseFile);
+    }
+
+    /**
+     * Tests that an unmodified exercise file gets parsed only once.
+     */
+    @Test
+    public void testGetExerciseCached() throws EVException {
+        EVExercise exercise = cache.getExercise(exerciseFile.toString(), parser);
+        assertSame(exercise, cache.getExercise(exerciseFile.toString(), parser));
+        assertSame(exercise, cache.getExercise(exerciseFile.toAbsolutePath().toString(), parser));
+
+        assertEquals(1, parseCount);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Tests that a modified exercise file gets parsed again.
+     */
+    @Test
+    public void testGetExerciseModified() throws EVException, IOException {
+        EVExercise exercise = cache.getExercise(exerciseFile.toString(), parser);
+
+        Files.write(exerciseFile, new byte[]{1, 2, 3, 4});
+        EVExercise exerciseModified = cache.getExercise(exerciseFile.toString(), parser);
+        assertNotSame(exercise, exerciseModified);
+
+        Files.setLastModifiedTime(exerciseFile, FileTime.fromMillis(
+                Files.getLastModifiedTime(exerciseFile).toMillis() - 10000));
+        assertNotSame(exerciseModified, cache.getExercise(exerciseFile.toString(), parser));
+
+        assertEquals(3, parseCount);
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    /**
+     * Tests that the least recently used exercise gets removed when the cache is full.
+     */
+    @Test
+    public void testGetExerciseEvictLeastRecentlyUsed() throws EVException, IOException {
+        Path exerciseFile2 = Files.createTempFile("st-exercise-cache-test", ".tst");
+        Path exerciseFile3 = Files.createTempFile("st-exercise-cache-test", ".tst");
+        try {
+            cache.getExercise(exerciseFile.toString(), parser);
+            cache.getExercise(exerciseFile2.toString(), parser);
+            cache.getExercise(exerciseFile.toString(), parser);
+            cache.getExercise(exerciseFile3.toString(), parser);
+            assertEquals(2, cache.size());
+            assertEquals(3, parseCount);
+
+            // exercise 2 has been removed, exercise 1 is still cached
+            cache.getExercise(exerciseFile.toString(), parser);
+            assertEquals(3, parseCount);
+            cache.getExercise(exerciseFile2.toString(), parser);
+            assertEquals(4, parseCount);
+            assertEquals(2, cache.getHitCount());
+            assertEquals(4, cache.getMissCount());
+        } finally {
+            Files.deleteIfExists(exerciseFile2);
+            Files.deleteIfExists(exerciseFile3);
+        }
+    }
+
+    /**
+     * Tests that missing exercise files are not cached and the parser failure is passed.
+     */
+    @Test
+    public void testGetExerciseMissingFile() throws IOException {
+        Files.delete(exerciseFile);
+        ExerciseParser failingParser = new ExerciseParser() {
+            @Override
+            public ExerciseParserInfo getInfo() {
+                return parser.getInfo();
+            }
+
+            @Override
+            public EVExercise parseExercise(String filename) throws EVException {
+                throw new EVException("File not found!");
+            }
+        };
+
+        try {
+            cache.getExercise(exerciseFile.toString(), failingParser);
+            fail("The parsing must fail!");
+        } catch (EVException e) {
+            assertEquals(1, cache.getMissCount());
+            assertEquals(0, cache.size());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package de.saring.exerciseviewer.parser;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.data.ExerciseAltitude;
+import de.saring.exerciseviewer.data.ExerciseCadence;
+import de.saring.exerciseviewer.data.ExerciseSample;
+import de.saring.exerciseviewer.data.ExerciseSpeed;
+import de.saring.exerciseviewer.data.ExerciseTemperature;
+import de.saring.exerciseviewer.data.HeartRateLimit;
+import de.saring.exerciseviewer.data.Lap;
+import de.saring.exerciseviewer.data.LapAltitude;
+import de.saring.exerciseviewer.data.LapSpeed;
+import de.saring.exerciseviewer.data.LapTemperature;
+import de.saring.exerciseviewer.data.Position;
+import de.saring.exerciseviewer.data.RecordingMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the ExerciseDiskCache class.
+ *
+ * @author Stefan Saring
+ */
+public class ExerciseDiskCacheTest {
+
+    private Path tempDirectory;
+    private Path cacheDirectory;
+    private Path exerciseFile;
+
+    private int parseCount;
+    private int parserVersion;
+    private ExerciseParser parser;
+
+    // the class instance to be tested
+    private ExerciseDiskCache diskCache;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDirectory = Files.createTempDirectory("st-exercise-disk-cache-test");
+        cacheDirectory = tempDirectory.resolve("cache");
+        exerciseFile = tempDirectory.resolve("exercise.tst");
+        Files.write(exerciseFile, new byte[]{1, 2, 3});
+
+        parseCount = 0;
+        parserVersion = 1;
+        parser = new ExerciseParser() {
+            @Override
+            public ExerciseParserInfo getInfo() {
+                return new ExerciseParserInfo("Test", new String[]{"tst"});
+            }
+
+            @Override
+            public EVExercise parseExercise(String filename) throws EVException {
+                parseCount++;
+                return createExercise();
+            }
+
+            @Override
+            public int getVersion() {
+                return parserVersion;
+            }
+        };
+        diskCache = new ExerciseDiskCache(cacheDirectory);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Tests that the exercise read from the cache contains the same data as the parsed exercise.
+     */
+    @Test
+    public void testGetExerciseCached() throws EVException {
+        EVExercise exercise = diskCache.getExercise(exerciseFile.toString(), parser);
+        assertEquals(1, parseCount);
+
+        EVExercise exerciseCached = new ExerciseDiskCache(cacheDirectory).getExercise(exerciseFile.toString(), parser);
+        assertEquals(1, parseCount);
+        assertNotSame(exercise, exerciseCached);
+        assertEquals(exercise.toString(), exerciseCached.toString());
+    }
+
+    /**
+     * Tests that an exercise without optional data is also cached properly.
+     */
+    @Test
+    public void testGetExerciseCachedEmpty() throws EVException {
+        ExerciseParser emptyParser = new ExerciseParser() {
+            @Override
+            public ExerciseParserInfo getInfo() {
+                return parser.getInfo();
+            }
+
+            @Override
+            public EVExercise parseExercise(String filename) throws EVException {
+                parseCount++;
+                return new EVExercise();
+            }
+        };
+
+        EVExercise exercise = diskCache.getExercise(exerciseFile.toString(), emptyParser);
+        EVExercise exerciseCached = diskCache.getExercise(exerciseFile.toString(), emptyParser);
+        assertEquals(1, parseCount);
+        assertEquals(exercise.toString(), exerciseCached.toString());
+    }
+
+    /**
+     * Tests that the exercise gets parsed again when the file content or the parser has changed.
+     */
+    @Test
+    public void testGetExerciseInvalidated() throws EVException, IOException {
+        diskCache.getExercise(exerciseFile.toString(), parser);
+
+        Files.write(exerciseFile, new byte[]{1, 2, 4});
+        diskCache.getExercise(exerciseFile.toString(), parser);
+        assertEquals(2, parseCount);
+
+        parserVersion = 2;
+        diskCache.getExercise(exerciseFile.toString(), parser);
+        assertEquals(3, parseCount);
+        diskCache.getExercise(exerciseFile.toString(), parser);
+        assertEquals(3, parseCount);
+    }
+
+    /**
+     * Tests that the least recently used entries are deleted when the size limit has been exceeded.
+     */
+    @Test
+    public void testGetExerciseEvictLeastRecentlyUsed() throws EVException, IOException {
+        diskCache.getExercise(exerciseFile.toString(), parser);
+        long entrySize = getCacheSize();
+        Path entry1 = getCacheEntries().get(0);
+        diskCache = new ExerciseDiskCache(cacheDirectory, entrySize * 2);
+
+        Path exerciseFile2 = tempDirectory.resolve("exercise2.tst");
+        Path exerciseFile3 = tempDirectory.resolve("exercise3.tst");
+        Files.write(exerciseFile2, new byte[]{2});
+        Files.write(exerciseFile3, new byte[]{3});
+
+        diskCache.getExercise(exerciseFile2.toString(), parser);
+        List<Path> entries = getCacheEntries();
+        entries.remove(entry1);
+        Path entry2 = entries.get(0);
+
+        // set the access times directly (the file system time resolution can be one second):
+        // exercise 2 has been accessed before exercise 1
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(entry2, FileTime.fromMillis(now - 20_000));
+        Files.setLastModifiedTime(entry1, FileTime.fromMillis(now - 10_000));
+        diskCache.getExercise(exerciseFile3.toString(), parser);
+        assertEquals(3, parseCount);
+        assertEquals(entrySize * 2, getCacheSize());
+
+        // exercise 2 has been deleted, exercise 1 is still cached
+        diskCache.getExercise(exerciseFile.toString(), parser);
+        assertEquals(3, parseCount);
+        diskCache.getExercise(exerciseFile2.toString(), parser);
+        assertEquals(4, parseCount);
+    }
+
+    /**
+     * Tests that a corrupt cache entry is ignored and the file gets parsed instead.
+     */
+    @Test
+    public void testGetExerciseCorruptEntry() throws EVException, IOException {
+        diskCache.getExercise(exerciseFile.toString(), parser);
+        try (Stream<Path> entries = Files.list(cacheDirectory)) {
+            Path entry = entries.findFirst().get();
+            Files.write(entry, new byte[]{0x45, 0x56});
+        }
+
+        EVExercise exercise = diskCache.getExercise(exerciseFile.toString(), parser);
+        assertEquals(2, parseCount);
+        assertEquals(createExercise().toString(), exercise.toString());
+    }
+
+    private List<Path> getCacheEntries() throws IOException {
+        try (Stream<Path> entries = Files.list(cacheDirectory)) {
+            return entries.collect(Collectors.toList());
+        }
+    }
+
+    private long getCacheSize() throws IOException {
+        try (Stream<Path> entries = Files.list(cacheDirectory)) {
+            return entries.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static EVExercise createExercise() {
+        EVExercise exercise = new EVExercise();
+        exercise.setFileType(EVExercise.ExerciseFileType.GARMIN_FIT);
+        exercise.setDeviceName("Garmin Test");
+        exercise.setDateTime(LocalDateTime.of(2015, 6, 21, 9, 30, 15));
+        exercise.setType("Running");
+        exercise.setDuration(36000);
+        exercise.setRecordingInterval(EVExercise.DYNAMIC_RECORDING_INTERVAL);
+        exercise.setHeartRateAVG((short) 142);
+        exercise.setHeartRateMax((short) 181);
+        exercise.setEnergy(650);
+        exercise.setEnergyTotal(120000);
+        exercise.setSumExerciseTime(3000);
+        exercise.setSumRideTime(1200);
+        exercise.setOdometer(4500);
+
+        RecordingMode recordingMode = new RecordingMode();
+        recordingMode.setHeartRate(true);
+        recordingMode.setSpeed(true);
+        recordingMode.setAltitude(true);
+        recordingMode.setLocation(true);
+        recordingMode.setBikeNumber((byte) 2);
+        exercise.setRecordingMode(recordingMode);
+
+        ExerciseSpeed speed = new ExerciseSpeed();
+        speed.setSpeedAVG(12.5f);
+        speed.setSpeedMax(18.25f);
+        speed.setDistance(10500);
+        exercise.setSpeed(speed);
+
+        ExerciseCadence cadence = new ExerciseCadence();
+        cadence.setCadenceAVG((short) 85);
+        cadence.setCadenceMax((short) 102);
+        exercise.setCadence(cadence);
+
+        ExerciseAltitude altitude = new ExerciseAltitude();
+        altitude.setAltitudeMin((short) -5);
+        altitude.setAltitudeAVG((short) 120);
+        altitude.setAltitudeMax((short) 310);
+        altitude.setAscent(480);
+        exercise.setAltitude(altitude);
+
+        ExerciseTemperature temperature = new ExerciseTemperature();
+        temperature.setTemperatureMin((short) 12);
+        temperature.setTemperatureAVG((short) 17);
+        temperature.setTemperatureMax((short) 23);
+        exercise.setTemperature(temperature);
+
+        HeartRateLimit heartRateLimit = new HeartRateLimit();
+        heartRateLimit.setLowerHeartRate((short) 130);
+        heartRateLimit.setUpperHeartRate((short) 160);
+        heartRateLimit.setTimeBelow(300);
+        heartRateLimit.setTimeWithin(2800);
+        heartRateLimit.setTimeAbove(500);
+        heartRateLimit.setAbsoluteRange(false);
+        exercise.setHeartRateLimits(new HeartRateLimit[]{heartRateLimit});
+
+        Lap lap = new Lap();
+        lap.setTimeSplit(18000);
+        lap.setHeartRateSplit((short) 150);
+        lap.setHeartRateAVG((short) 140);
+        lap.setHeartRateMax((short) 175);
+        LapSpeed lapSpeed = new LapSpeed();
+        lapSpeed.setSpeedEnd(11.5f);
+        lapSpeed.setSpeedAVG(12.25f);
+        lapSpeed.setDistance(5000);
+        lapSpeed.setCadence((short) 84);
+        lap.setSpeed(lapSpeed);
+        LapAltitude lapAltitude = new LapAltitude();
+        lapAltitude.setAltitude((short) 215);
+        lapAltitude.setAscent(230);
+        lap.setAltitude(lapAltitude);
+        LapTemperature lapTemperature = new LapTemperature();
+        lapTemperature.setTemperature((short) 19);
+        lap.setTemperature(lapTemperature);
+        lap.setPositionSplit(new Position(51.0541, 13.7412));
+        exercise.setLapList(new Lap[]{lap, new Lap()});
+
+        ExerciseSample[] samples = new ExerciseSample[3];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = new ExerciseSample();
+            samples[i].setTimestamp(i * 1000L);
+            samples[i].setHeartRate((short) (120 + i));
+            samples[i].setAltitude((short) (100 + i));
+            samples[i].setSpeed(10.5f + i);
+            samples[i].setCadence((short) (80 + i));
+            samples[i].setDistance(i * 3);
+            samples[i].setTemperature((short) (15 + i));
+        }
+        samples[1].setPosition(new Position(51.05, 13.74));
+        exercise.setSampleList(samples);
+        return exercise;
+    }
+}
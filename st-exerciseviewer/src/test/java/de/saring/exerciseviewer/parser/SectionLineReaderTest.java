@@ -0,0 +1,110 @@
+package de.saring.exerciseviewer.parser;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the SectionLineReader class.
+ *
+ * @author Stefan Saring
+ */
+public class SectionLineReaderTest {
+
+    private static final String CONTENT =
+            "[Params]\n" +
+            "Version=106\n" +
+            "Interval=5\n" +
+            "\n" +
+            "[Note]\n" +
+            "first note line\n" +
+            "\n" +
+            "line outside of section\n" +
+            "[IntTimes]\n" +
+            "[Trip]\n" +
+            "1234\r\n" +
+            "5678\r\n" +
+            "[HRData]\n" +
+            "120\t250\n" +
+            "121\t251\n";
+
+    /**
+     * Tests the reading of all sections and their lines.
+     */
+    @Test
+    public void testReadSections() throws IOException {
+        try (SectionLineReader reader = new SectionLineReader(new StringReader(CONTENT))) {
+            assertEquals("Params", reader.nextSection());
+            assertEquals("Params", reader.getCurrentSection());
+            assertEquals(Arrays.asList("Version=106", "Interval=5"), reader.readSectionLines());
+            assertNull(reader.getCurrentSection());
+
+            assertEquals("Note", reader.nextSection());
+            assertEquals("IntTimes", reader.nextSection());
+            assertTrue(reader.readSectionLines().isEmpty());
+
+            assertEquals("Trip", reader.nextSection());
+            assertEquals(Arrays.asList("1234", "5678"), reader.readSectionLines());
+
+            assertEquals("HRData", reader.nextSection());
+            assertEquals("120\t250", reader.nextSectionLine());
+            assertEquals("121\t251", reader.nextSectionLine());
+            assertNull(reader.nextSectionLine());
+            assertNull(reader.nextSection());
+        }
+    }
+
+    /**
+     * Tests that the remaining lines of a section are skipped when moving to the next section.
+     */
+    @Test
+    public void testSkipSectionLines() throws IOException {
+        try (SectionLineReader reader = new SectionLineReader(new StringReader(CONTENT))) {
+            assertEquals("Params", reader.nextSection());
+            assertEquals("Version=106", reader.nextSectionLine());
+            assertEquals("Note", reader.nextSection());
+            assertEquals("IntTimes", reader.nextSection());
+            assertEquals("Trip", reader.nextSection());
+            assertEquals("1234", reader.nextSectionLine());
+            assertEquals("HRData", reader.nextSection());
+            assertNull(reader.nextSection());
+        }
+    }
+
+    /**
+     * Tests the reading of all lines without sections.
+     */
+    @Test
+    public void testReadLines() throws IOException {
+        try (SectionLineReader reader = new SectionLineReader(new StringReader("Date,04/19/2008\nHeartRate\n,71\n"))) {
+            assertEquals("Date,04/19/2008", reader.nextLine());
+            assertEquals("HeartRate", reader.nextLine());
+            assertEquals(",71", reader.nextLine());
+            assertNull(reader.nextLine());
+            assertNull(reader.nextSectionLine());
+        }
+    }
+
+    /**
+     * Tests that the lines after the end of a section are returned by nextLine(), also when
+     * the section has been ended by the header line of the next section.
+     */
+    @Test
+    public void testReadLineAfterSection() throws IOException {
+        try (SectionLineReader reader = new SectionLineReader(new StringReader(CONTENT))) {
+            assertEquals("Params", reader.nextSection());
+            assertEquals("Note", reader.nextSection());
+            assertEquals(Arrays.asList("first note line"), reader.readSectionLines());
+            assertEquals("line outside of section", reader.nextLine());
+            assertEquals("[IntTimes]", reader.nextLine());
+
+            assertEquals("Trip", reader.nextSection());
+            assertEquals(2, reader.readSectionLines().size());
+            assertEquals("[HRData]", reader.nextLine());
+        }
+    }
+}
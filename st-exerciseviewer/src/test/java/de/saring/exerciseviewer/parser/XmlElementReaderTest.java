@@ -0,0 +1,84 @@
+package de.saring.exerciseviewer.parser;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the XmlElementReader class.
+ *
+ * @author Stefan Saring
+ */
+public class XmlElementReaderTest {
+
+    private static final String CONTENT =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<gpx xmlns=\"http://www.topografix.com/GPX/1/1\" xmlns:ext=\"http://example.com/ext\">\n" +
+            "  <metadata><time>2010-08-10T17:27:47Z</time><link href=\"http://example.com\"/></metadata>\n" +
+            "  <trk>\n" +
+            "    <trkpt lat=\"51.05\" lon=\"13.83\"><ele> 236.0 </ele><ext:hr>120</ext:hr></trkpt>\n" +
+            "  </trk>\n" +
+            "</gpx>\n";
+
+    /**
+     * Tests the navigation through all child elements and the reading of texts and attributes.
+     */
+    @Test
+    public void testReadElements() throws XMLStreamException {
+        try (XmlElementReader reader = createReader()) {
+            assertEquals("gpx", reader.getLocalName());
+
+            assertTrue(reader.nextChildElement());
+            assertEquals("metadata", reader.getLocalName());
+            assertTrue(reader.nextChildElement());
+            assertEquals("time", reader.getLocalName());
+            assertEquals("2010-08-10T17:27:47Z", reader.readText());
+            assertTrue(reader.nextChildElement());
+            assertEquals("link", reader.getLocalName());
+            assertEquals("http://example.com", reader.getAttributeValue("href"));
+            assertFalse(reader.nextChildElement());
+            assertFalse(reader.nextChildElement());
+
+            assertTrue(reader.nextChildElement());
+            assertEquals("trk", reader.getLocalName());
+            assertTrue(reader.nextChildElement());
+            assertEquals("trkpt", reader.getLocalName());
+            assertEquals("51.05", reader.getAttributeValue("lat"));
+            assertNull(reader.getAttributeValue("time"));
+            assertTrue(reader.nextChildElement());
+            assertEquals("236.0", reader.readText());
+            assertTrue(reader.nextChildElement());
+            assertEquals("hr", reader.getLocalName());
+            assertEquals("120", reader.readText());
+            assertFalse(reader.nextChildElement());
+            assertFalse(reader.nextChildElement());
+
+            assertFalse(reader.nextChildElement());
+        }
+    }
+
+    /**
+     * Tests that skipElement() skips the current element including all its children.
+     */
+    @Test
+    public void testSkipElement() throws XMLStreamException {
+        try (XmlElementReader reader = createReader()) {
+            assertTrue(reader.nextChildElement());
+            assertEquals("metadata", reader.getLocalName());
+            reader.skipElement();
+
+            assertTrue(reader.nextChildElement());
+            assertEquals("trk", reader.getLocalName());
+            reader.skipElement();
+            assertFalse(reader.nextChildElement());
+        }
+    }
+
+    private static XmlElementReader createReader() throws XMLStreamException {
+        return new XmlElementReader(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,81 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import de.saring.exerciseviewer.parser.ExerciseParser;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Simple benchmark of the parse throughput of the binary exercise parsers (Polar S-Series raw,
+ * HSR, F6/F11 and HAC4 TUR) for the exercise files in misc/testdata. The files are small, so
+ * each file is parsed multiple times per round. The allocated bytes are measured for the
+ * parsing thread only. It's not a unit test, start it by the main() method in the directory
+ * of the st-exerciseviewer module.
+ *
+ * @author Stefan Saring
+ */
+public class BinaryParserBenchmark {
+
+    private static final int PARSES_PER_FILE = 500;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        measure("Polar S-Series raw", new PolarSRawParser(),
+                "misc/testdata/s610/ma_br_20040912T072607.srd",
+                "misc/testdata/s625x/20080224T113030-percentual_ranges.srd",
+                "misc/testdata/s710/cycling-english.srd",
+                "misc/testdata/s710/cycling-metric.srd",
+                "misc/testdata/s710/running-metric.srd",
+                "misc/testdata/s725/cycling-metric.srd",
+                "misc/testdata/s725/nospeed-metric.srd");
+        measure("Polar HSR", new PolarHsrRawParser(),
+                "misc/testdata/s510/cycling-metric.hsr",
+                "misc/testdata/s510/running-interval-metric.hsr");
+        measure("Polar F6/F11 raw", new PolarF6RawParser(),
+                "misc/testdata/f6-test.frd",
+                "misc/testdata/f11-test.frd");
+        measure("HAC4 TUR", new HAC4TURParser(),
+                "misc/testdata/hac4/pailheres.tur",
+                "misc/testdata/hac4/hac5.tur");
+    }
+
+    /**
+     * Parses all files for warmup and prints the throughput of the best of the following rounds
+     * and the allocated bytes per parsed file.
+     */
+    private static void measure(String name, ExerciseParser parser, String... filenames) throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long bytesPerRound = 0;
+        for (String filename : filenames) {
+            bytesPerRound += new File(filename).length() * PARSES_PER_FILE;
+        }
+        int parsesPerRound = filenames.length * PARSES_PER_FILE;
+
+        parseAll(parser, filenames);
+        long bestTime = Long.MAX_VALUE;
+        long allocatedBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+            long startTime = System.nanoTime();
+            parseAll(parser, filenames);
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+            allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+        }
+
+        double seconds = bestTime / 1_000_000_000d;
+        System.out.printf("%-20s %,9.0f files/s %8.2f MB/s %,8d KB allocated per file%n", name,
+                parsesPerRound / seconds, bytesPerRound / seconds / (1024 * 1024),
+                allocatedBytes / parsesPerRound / 1024);
+    }
+
+    private static void parseAll(ExerciseParser parser, String[] filenames) throws Exception {
+        for (String filename : filenames) {
+            for (int i = 0; i < PARSES_PER_FILE; i++) {
+                parser.parseExercise(filename);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import de.saring.exerciseviewer.parser.ExerciseParser;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Simple benchmark of the Garmin TCX parser for the test files in misc/testdata/garmin-tcx and
+ * for created files with 10k and 100k trackpoints (1000 trackpoints per lap). The allocated
+ * bytes are measured for the parsing thread only. It's not a unit test, start it by the main()
+ * method in the directory of the st-exerciseviewer module.
+ *
+ * @author Stefan Saring
+ */
+public class GarminTcxParserBenchmark {
+
+    private static final int[] TRACKPOINT_COUNTS = {10_000, 100_000};
+    private static final int TRACKPOINTS_PER_LAP = 1000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        ExerciseParser parser = new GarminTcxParser();
+
+        for (String filename : new String[]{
+                "misc/testdata/garmin-tcx/Edge705-Running-Heartrate-2Laps.tcx",
+                "misc/testdata/garmin-tcx/Forerunner305-Running-NoHeartrate-1Lap.tcx"}) {
+            measure(parser, new File(filename), new File(filename).getName());
+        }
+
+        for (int trackpointCount : TRACKPOINT_COUNTS) {
+            File fTcx = File.createTempFile("tcx-benchmark", ".tcx");
+            fTcx.deleteOnExit();
+            writeTcxFile(fTcx, trackpointCount);
+            measure(parser, fTcx, String.format("%,d trackpoints", trackpointCount));
+        }
+    }
+
+    /**
+     * Writes a TCX file with the specified number of trackpoints, all of them contain a
+     * position, altitude, distance, heartrate and cadence.
+     */
+    private static void writeTcxFile(File file, int trackpointCount) throws Exception {
+        LocalDateTime startTime = LocalDateTime.of(2009, 12, 9, 6, 54, 25);
+
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\" ?>");
+            writer.println("<TrainingCenterDatabase " +
+                    "xmlns=\"http://www.garmin.com/xmlschemas/TrainingCenterDatabase/v2\">");
+            writer.println("  <Activities>");
+            writer.println("    <Activity Sport=\"Biking\">");
+            writer.println("      <Id>" + startTime + "Z</Id>");
+
+            for (int lapStart = 0; lapStart < trackpointCount; lapStart += TRACKPOINTS_PER_LAP) {
+                int lapEnd = Math.min(trackpointCount, lapStart + TRACKPOINTS_PER_LAP);
+                writer.println("      <Lap StartTime=\"" + startTime.plusSeconds(lapStart) + "Z\">");
+                writer.println("        <TotalTimeSeconds>" + (lapEnd - lapStart) + "</TotalTimeSeconds>");
+                writer.println("        <DistanceMeters>" + (lapEnd - lapStart) * 5 + "</DistanceMeters>");
+                writer.println("        <MaximumSpeed>10.085000</MaximumSpeed>");
+                writer.println("        <Calories>50</Calories>");
+                writer.println("        <AverageHeartRateBpm><Value>150</Value></AverageHeartRateBpm>");
+                writer.println("        <MaximumHeartRateBpm><Value>170</Value></MaximumHeartRateBpm>");
+                writer.println("        <Intensity>Active</Intensity>");
+                writer.println("        <TriggerMethod>Manual</TriggerMethod>");
+                writer.println("        <Track>");
+
+                for (int i = lapStart; i < lapEnd; i++) {
+                    writer.println("          <Trackpoint>");
+                    writer.println("            <Time>" + startTime.plusSeconds(i + 1) + "Z</Time>");
+                    writer.println("            <Position>");
+                    writer.println(String.format(Locale.US,
+                            "              <LatitudeDegrees>%.6f</LatitudeDegrees>", 51.045824 + i * 0.00002));
+                    writer.println(String.format(Locale.US,
+                            "              <LongitudeDegrees>%.6f</LongitudeDegrees>", 13.809552 + i * 0.00003));
+                    writer.println("            </Position>");
+                    writer.println(String.format(Locale.US,
+                            "            <AltitudeMeters>%.3f</AltitudeMeters>", 100 + (i % 500) * 0.2));
+                    writer.println(String.format(Locale.US,
+                            "            <DistanceMeters>%.3f</DistanceMeters>", i * 5d));
+                    writer.println("            <HeartRateBpm><Value>" + (120 + i % 50) + "</Value></HeartRateBpm>");
+                    writer.println("            <Cadence>" + (80 + i % 20) + "</Cadence>");
+                    writer.println("          </Trackpoint>");
+                }
+
+                writer.println("        </Track>");
+                writer.println("      </Lap>");
+            }
+
+            writer.println("    </Activity>");
+            writer.println("  </Activities>");
+            writer.println("</TrainingCenterDatabase>");
+        }
+    }
+
+    /**
+     * Parses the file multiple times for warmup and prints the best parse time and the
+     * allocated bytes of the following rounds.
+     */
+    private static void measure(ExerciseParser parser, File file, String name) throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            parser.parseExercise(file.getPath());
+        }
+        long bestTime = Long.MAX_VALUE;
+        long allocatedBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+            long startTime = System.nanoTime();
+            parser.parseExercise(file.getPath());
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+            allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+        }
+
+        double seconds = bestTime / 1_000_000_000d;
+        System.out.printf("%-44s %,7d KB %9.2f ms %8.2f MB/s %,10d KB allocated%n", name,
+                file.length() / 1024, bestTime / 1_000_000d, file.length() / seconds / (1024 * 1024),
+                allocatedBytes / 1024);
+    }
+}
@@ -0,0 +1,228 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.parser.ExerciseParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the GarminTcxParser class.
+ *
+ * @author Stefan Saring
+ */
+public class GarminTcxParserTest {
+
+    /**
+     * Instance to be tested.
+     */
+    private ExerciseParser parser;
+
+    /**
+     * This method initializes the environment for testing.
+     */
+    @Before
+    public void setUp() {
+        parser = new GarminTcxParser();
+    }
+
+    /**
+     * This method must fail on parsing an exerise file which doesn't exists.
+     */
+    @Test(expected = EVException.class)
+    public void testParseExerciseMissingFile() throws EVException {
+        parser.parseExercise("misc/testdata/garmin-tcx/unknown-file.tcx");
+    }
+
+    /**
+     * This test parses a TCX file from a Garmin Forerunner 305 (Running, no heartrate data, 1 lap).
+     */
+    @Test
+    public void testForerunner305_Running_NoHeartrate_1Lap() throws EVException {
+
+        EVExercise exercise = parser.parseExercise("misc/testdata/garmin-tcx/Forerunner305-Running-NoHeartrate-1Lap.tcx");
+        assertEquals(EVExercise.ExerciseFileType.GARMIN_TCX, exercise.getFileType());
+        assertEquals("Garmin Forerunner305", exercise.getDeviceName());
+        assertEquals(EVExercise.DYNAMIC_RECORDING_INTERVAL, exercise.getRecordingInterval());
+        assertTrue(exercise.getRecordingMode().isAltitude());
+        assertTrue(exercise.getRecordingMode().isSpeed());
+        assertFalse(exercise.getRecordingMode().isCadence());
+        assertTrue(exercise.getRecordingMode().isLocation());
+        assertEquals(LocalDateTime.of(2007, 8, 7, 2, 42, 41), exercise.getDateTime());
+        assertEquals((39 * 60 + 5) * 10, exercise.getDuration());
+
+        // heart rates
+        assertEquals((short) 0, exercise.getHeartRateAVG());
+        assertEquals((short) 0, exercise.getHeartRateMax());
+        assertEquals(285, exercise.getEnergy());
+
+        // heartrate limits not available in TCX files
+        assertNull(exercise.getHeartRateLimits());
+
+        // distance & speed & odometer
+        assertEquals(8349, exercise.getSpeed().getDistance());
+        assertEquals(72.284d, exercise.getSpeed().getSpeedMax(), 0.001d);
+        assertEquals(12.817d, exercise.getSpeed().getSpeedAVG(), 0.001d);
+
+        // altitude
+        assertEquals(-4, exercise.getAltitude().getAltitudeMin());
+        assertEquals((short) 8, exercise.getAltitude().getAltitudeAVG());
+        assertEquals((short) 21, exercise.getAltitude().getAltitudeMax());
+        assertEquals(149, exercise.getAltitude().getAscent());
+
+        // cadence
+        assertNull(exercise.getCadence());
+
+        // lap data
+        assertEquals(1, exercise.getLapList().length);
+
+        assertEquals((39 * 60 + 5) * 10, exercise.getLapList()[0].getTimeSplit());
+        assertEquals((short) 0, exercise.getLapList()[0].getHeartRateSplit());
+        assertEquals((short) 0, exercise.getLapList()[0].getHeartRateAVG());
+        assertEquals((short) 0, exercise.getLapList()[0].getHeartRateMax());
+        assertEquals(8349, exercise.getLapList()[0].getSpeed().getDistance());
+        assertEquals(12.8164d, exercise.getLapList()[0].getSpeed().getSpeedAVG(), 0.001d);
+        assertEquals(0f, exercise.getLapList()[0].getSpeed().getSpeedEnd(), 0f);
+        assertEquals((short) 0, exercise.getLapList()[0].getSpeed().getCadence());
+        assertEquals((short) 10, exercise.getLapList()[0].getAltitude().getAltitude());
+        assertEquals(149, exercise.getLapList()[0].getAltitude().getAscent());
+        assertEquals(37.8765614d, exercise.getLapList()[0].getPositionSplit().getLatitude(), 0.001d);
+        assertEquals(-122.4601646d, exercise.getLapList()[0].getPositionSplit().getLongitude(), 0.001d);
+
+        // sample data
+        assertEquals(379, exercise.getSampleList().length);
+
+        assertEquals(0 * 1000L, exercise.getSampleList()[0].getTimestamp());
+        assertEquals(37.8959665d, exercise.getSampleList()[0].getPosition().getLatitude(), 0.001d);
+        assertEquals(-122.4896709d, exercise.getSampleList()[0].getPosition().getLongitude(), 0.001d);
+        assertEquals((short) 0, exercise.getSampleList()[0].getHeartRate());
+        assertEquals((short) 4, exercise.getSampleList()[0].getAltitude());
+        assertEquals(0f, exercise.getSampleList()[0].getSpeed(), 0f);
+        assertEquals((short) 0, exercise.getSampleList()[0].getCadence());
+        assertEquals(0, exercise.getSampleList()[0].getDistance());
+
+        assertEquals(129 * 1000L, exercise.getSampleList()[20].getTimestamp());
+        assertEquals(37.8943428d, exercise.getSampleList()[20].getPosition().getLatitude(), 0.001d);
+        assertEquals(-122.4870681d, exercise.getSampleList()[20].getPosition().getLongitude(), 0.001d);
+        assertEquals((short) 0, exercise.getSampleList()[20].getHeartRate());
+        assertEquals((short) 6, exercise.getSampleList()[20].getAltitude());
+        assertEquals(5.9811f, exercise.getSampleList()[20].getSpeed(), 0.001f);
+        assertEquals((short) 0, exercise.getSampleList()[20].getCadence());
+        assertEquals(301, exercise.getSampleList()[20].getDistance());
+
+        assertEquals(((39 * 60) + 5) * 1000L, exercise.getSampleList()[378].getTimestamp());
+        assertEquals(37.8765614d, exercise.getSampleList()[378].getPosition().getLatitude(), 0.001d);
+        assertEquals(-122.4601646d, exercise.getSampleList()[378].getPosition().getLongitude(), 0.001d);
+        assertEquals((short) 0, exercise.getSampleList()[378].getHeartRate());
+        assertEquals((short) 10, exercise.getSampleList()[378].getAltitude());
+        // speed must be 0 (corrected, because distance is decreased in the last sample)
+        assertEquals(0, exercise.getSampleList()[378].getSpeed(), 0.001f);
+        assertEquals((short) 0, exercise.getSampleList()[378].getCadence());
+        assertEquals(8349, exercise.getSampleList()[378].getDistance());
+    }
+
+    /**
+     * This test parses a TCX file from a Garmin Edge 705 (Running, heartrate data, 2 laps).
+     */
+    @Test
+    public void testEdge705_Running_Heartrate_2Laps() throws EVException {
+
+        EVExercise exercise = parser.parseExercise("misc/testdata/garmin-tcx/Edge705-Running-Heartrate-2Laps.tcx");
+        assertEquals(EVExercise.ExerciseFileType.GARMIN_TCX, exercise.getFileType());
+        assertEquals("Garmin EDGE705", exercise.getDeviceName());
+        assertEquals(EVExercise.DYNAMIC_RECORDING_INTERVAL, exercise.getRecordingInterval());
+        assertTrue(exercise.getRecordingMode().isAltitude());
+        assertTrue(exercise.getRecordingMode().isSpeed());
+        assertTrue(exercise.getRecordingMode().isCadence());
+        assertTrue(exercise.getRecordingMode().isLocation());
+        assertEquals(LocalDateTime.of(2009, 12, 9, 6, 54, 25), exercise.getDateTime());
+        assertEquals(6086 * 10, exercise.getDuration());
+
+        // heart rates
+        assertEquals((short) 157, exercise.getHeartRateAVG());
+        assertEquals((short) 173, exercise.getHeartRateMax());
+        assertEquals(2251, exercise.getEnergy());
+
+        // heartrate limits not available in TCX files
+        assertNull(exercise.getHeartRateLimits());
+
+        // distance & speed & odometer
+        assertEquals(18990, exercise.getSpeed().getDistance());
+        assertEquals(164.425d, exercise.getSpeed().getSpeedMax(), 0.001d);
+        assertEquals(11.232d, exercise.getSpeed().getSpeedAVG(), 0.001d);
+
+        // altitude
+        assertEquals((short) 94, exercise.getAltitude().getAltitudeMin());
+        assertEquals((short) 115, exercise.getAltitude().getAltitudeAVG());
+        assertEquals((short) 153, exercise.getAltitude().getAltitudeMax());
+        assertEquals(388, exercise.getAltitude().getAscent());
+
+        // cadence
+        assertEquals((short) 88, exercise.getCadence().getCadenceAVG());
+        assertEquals((short) 90, exercise.getCadence().getCadenceMax());
+
+        // lap data
+        assertEquals(2, exercise.getLapList().length);
+
+        assertEquals((56 * 60 + 20) * 10, exercise.getLapList()[0].getTimeSplit());
+        assertEquals((short) 168, exercise.getLapList()[0].getHeartRateSplit());
+        assertEquals((short) 158, exercise.getLapList()[0].getHeartRateAVG());
+        assertEquals((short) 173, exercise.getLapList()[0].getHeartRateMax());
+        assertEquals(10618, exercise.getLapList()[0].getSpeed().getDistance());
+        assertEquals(11.310d, exercise.getLapList()[0].getSpeed().getSpeedAVG(), 0.001d);
+        assertEquals((short) 135, exercise.getLapList()[0].getAltitude().getAltitude());
+        assertEquals(213, exercise.getLapList()[0].getAltitude().getAscent());
+        assertEquals(9.009, exercise.getLapList()[0].getSpeed().getSpeedEnd(), 0.001d);
+        assertEquals((short) 86, exercise.getLapList()[0].getSpeed().getCadence());
+        assertEquals(51.030515d, exercise.getLapList()[0].getPositionSplit().getLatitude(), 0.001d);
+        assertEquals(13.730152d, exercise.getLapList()[0].getPositionSplit().getLongitude(), 0.001d);
+
+        assertEquals(((56 * 60 + 20) + (45 * 60 + 6)) * 10, exercise.getLapList()[1].getTimeSplit());
+        assertEquals((short) 160, exercise.getLapList()[1].getHeartRateSplit());
+        assertEquals((short) 155, exercise.getLapList()[1].getHeartRateAVG());
+        assertEquals((short) 166, exercise.getLapList()[1].getHeartRateMax());
+        assertEquals(10618 + 8372, exercise.getLapList()[1].getSpeed().getDistance());
+        assertEquals(11.138d, exercise.getLapList()[1].getSpeed().getSpeedAVG(), 0.001d);
+        assertEquals(12.568, exercise.getLapList()[1].getSpeed().getSpeedEnd(), 0.01);
+        assertEquals((short) 112, exercise.getLapList()[1].getAltitude().getAltitude());
+        assertEquals(175, exercise.getLapList()[1].getAltitude().getAscent());
+        assertEquals((short) 0, exercise.getLapList()[1].getSpeed().getCadence());
+        assertEquals(51.045960d, exercise.getLapList()[1].getPositionSplit().getLatitude(), 0.001d);
+        assertEquals(13.809391d, exercise.getLapList()[1].getPositionSplit().getLongitude(), 0.001d);
+
+        // sample data
+        assertEquals(1254, exercise.getSampleList().length);
+
+        assertEquals(1 * 1000L, exercise.getSampleList()[0].getTimestamp());
+        assertEquals(51.045824d, exercise.getSampleList()[0].getPosition().getLatitude(), 0.001d);
+        assertEquals(13.809552d, exercise.getSampleList()[0].getPosition().getLongitude(), 0.001d);
+        assertEquals((short) 81, exercise.getSampleList()[0].getHeartRate());
+        assertEquals((short) 110, exercise.getSampleList()[0].getAltitude());
+        assertEquals(0f, exercise.getSampleList()[0].getSpeed(), 0f);
+        assertEquals((short) 90, exercise.getSampleList()[0].getCadence());
+        assertEquals(0, exercise.getSampleList()[0].getDistance());
+
+        assertEquals(72 * 1000L, exercise.getSampleList()[20].getTimestamp());
+        assertEquals(51.044963d, exercise.getSampleList()[20].getPosition().getLatitude(), 0.001d);
+        assertEquals(13.807715d, exercise.getSampleList()[20].getPosition().getLongitude(), 0.001d);
+        assertEquals((short) 121, exercise.getSampleList()[20].getHeartRate());
+        assertEquals((short) 108, exercise.getSampleList()[20].getAltitude());
+        assertEquals(13.739f, exercise.getSampleList()[20].getSpeed(), 0.001f);
+        assertEquals((short) 88, exercise.getSampleList()[20].getCadence());
+        assertEquals(168, exercise.getSampleList()[20].getDistance());
+
+        // last sample of last lap
+        assertEquals(6086 * 1000L, exercise.getSampleList()[1253].getTimestamp());
+        assertEquals(51.045960d, exercise.getSampleList()[1253].getPosition().getLatitude(), 0.001d);
+        assertEquals(13.809391d, exercise.getSampleList()[1253].getPosition().getLongitude(), 0.001d);
+        assertEquals((short) 160, exercise.getSampleList()[1253].getHeartRate());
+        assertEquals((short) 112, exercise.getSampleList()[1253].getAltitude());
+        assertEquals(12.5676f, exercise.getSampleList()[1253].getSpeed(), 0.001f);
+        assertEquals((short) 0, exercise.getSampleList()[1253].getCadence());
+        assertEquals(18990, exercise.getSampleList()[1253].getDistance());
+    }
+}
@@ -0,0 +1,104 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import de.saring.exerciseviewer.parser.ExerciseParser;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Simple benchmark of the TopoGrafix GPX parser for the test files in misc/testdata/gpx and
+ * for created multi-day tracks with 10k and 100k trackpoints. The allocated bytes are measured
+ * for the parsing thread only. It's not a unit test, start it by the main() method in the
+ * directory of the st-exerciseviewer module.
+ *
+ * @author Stefan Saring
+ */
+public class TopoGrafixGpxParserBenchmark {
+
+    private static final int[] TRACKPOINT_COUNTS = {10_000, 100_000};
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        ExerciseParser parser = new TopoGrafixGpxParser();
+
+        for (String filename : new String[]{
+                "misc/testdata/gpx/bike-tour-garmin-oregon-with-heartrate.gpx",
+                "misc/testdata/gpx/bike-tour-gpsies.gpx",
+                "misc/testdata/gpx/bike-tour-holux-funtrek-130-pro-with-heartrate.gpx",
+                "misc/testdata/gpx/bike-tour-track_only.gpx"}) {
+            measure(parser, new File(filename), new File(filename).getName());
+        }
+
+        for (int trackpointCount : TRACKPOINT_COUNTS) {
+            File fGpx = File.createTempFile("gpx-benchmark", ".gpx");
+            fGpx.deleteOnExit();
+            writeGpxFile(fGpx, trackpointCount);
+            measure(parser, fGpx, String.format("%,d trackpoints", trackpointCount));
+        }
+    }
+
+    /**
+     * Writes a GPX file with the specified number of trackpoints in the format of the Garmin
+     * Oregon, all of them contain a position, elevation, time and heartrate. There is a new
+     * track segment for each 10k trackpoints.
+     */
+    private static void writeGpxFile(File file, int trackpointCount) throws Exception {
+        LocalDateTime startTime = LocalDateTime.of(2012, 3, 2, 6, 53, 51);
+
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\" ?>");
+            writer.println("<gpx creator=\"Oregon 450\" version=\"1.1\" " +
+                    "xmlns=\"http://www.topografix.com/GPX/1/1\" " +
+                    "xmlns:gpxtpx=\"http://www.garmin.com/xmlschemas/TrackPointExtension/v1\">");
+            writer.println("<metadata><time>" + startTime + "Z</time></metadata>");
+            writer.println("<trk><name>Multi-day tour</name><trkseg>");
+
+            for (int i = 0; i < trackpointCount; i++) {
+                if (i > 0 && i % 10_000 == 0) {
+                    writer.println("</trkseg><trkseg>");
+                }
+                writer.println(String.format(Locale.US,
+                        "<trkpt lat=\"%.6f\" lon=\"%.6f\"><ele>%.2f</ele><time>%sZ</time><extensions>" +
+                                "<gpxtpx:TrackPointExtension><gpxtpx:hr>%d</gpxtpx:hr>" +
+                                "</gpxtpx:TrackPointExtension></extensions></trkpt>",
+                        50.823521 + i * 0.00002, 4.672067 + i * 0.00003, 50 + (i % 500) * 0.2,
+                        startTime.plusSeconds(i * 3L), 120 + i % 50));
+            }
+
+            writer.println("</trkseg></trk>");
+            writer.println("</gpx>");
+        }
+    }
+
+    /**
+     * Parses the file multiple times for warmup and prints the best parse time and the
+     * allocated bytes of the following rounds.
+     */
+    private static void measure(ExerciseParser parser, File file, String name) throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            parser.parseExercise(file.getPath());
+        }
+        long bestTime = Long.MAX_VALUE;
+        long allocatedBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+            long startTime = System.nanoTime();
+            parser.parseExercise(file.getPath());
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+            allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+        }
+
+        double seconds = bestTime / 1_000_000_000d;
+        System.out.printf("%-52s %,7d KB %9.2f ms %8.2f MB/s %,10d KB allocated%n", name,
+                file.length() / 1024, bestTime / 1_000_000d, file.length() / seconds / (1024 * 1024),
+                allocatedBytes / 1024);
+    }
+}
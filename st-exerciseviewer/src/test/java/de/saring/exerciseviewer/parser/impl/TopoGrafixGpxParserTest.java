@@ -0,0 +1,287 @@
+package de.saring.exerciseviewer.parser.impl;
+
+import de.saring.exerciseviewer.core.EVException;
+import de.saring.exerciseviewer.data.EVExercise;
+import de.saring.exerciseviewer.parser.ExerciseParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains all unit tests for the TopoGrafixGpxParser class.
+ *
+ * @author Stefan Saring
+ */
+public class TopoGrafixGpxParserTest {
+
+    /**
+     * Instance to be tested.
+     */
+    private ExerciseParser parser;
+
+    /**
+     * This method initializes the environment for testing.
+     */
+    @Before
+    public void setUp() {
+        parser = new TopoGrafixGpxParser();
+    }
+
+    /**
+     * This method must fail on parsing an exerise file which doesn't exists.
+     */
+    @Test(expected = EVException.class)
+    public void testParseExerciseMissingFile() throws EVException {
+        parser.parseExercise("misc/testdata/gpx/unknown-file.gpx");
+    }
+
+    /**
+     * This test parses a GPX file for a bike tour created by GPSies.com.
+     * It contains track (location), time and altitude data.
+     */
+    @Test
+    public void testGpxBikeTour() throws EVException {
+
+        EVExercise exercise = parser.parseExercise("misc/testdata/gpx/bike-tour-gpsies.gpx");
+
+        // check basic exercise data
+        assertEquals(EVExercise.ExerciseFileType.GPX, exercise.getFileType());
+        assertEquals("Garmin GPX", exercise.getDeviceName());
+        assertEquals(EVExercise.DYNAMIC_RECORDING_INTERVAL, exercise.getRecordingInterval());
+        assertTrue(exercise.getRecordingMode().isAltitude());
+        assertTrue(exercise.getRecordingMode().isSpeed());
+        assertFalse(exercise.getRecordingMode().isHeartRate());
+        assertFalse(exercise.getRecordingMode().isCadence());
+        assertFalse(exercise.getRecordingMode().isPower());
+        assertFalse(exercise.getRecordingMode().isTemperature());
+        assertTrue(exercise.getRecordingMode().isLocation());
+        assertFalse(exercise.getRecordingMode().isIntervalExercise());
+
+        // Check exercise time and duration
+        assertEquals(LocalDateTime.of(2010, 8, 10, 17, 27, 47), exercise.getDateTime());
+        assertEquals(((47 * 60) + 6) * 10, exercise.getDuration());
+
+        // check altitude data
+        assertEquals((short) 236, exercise.getAltitude().getAltitudeMin());
+        assertEquals((short) 270, exercise.getAltitude().getAltitudeAVG());
+        assertEquals((short) 315, exercise.getAltitude().getAltitudeMax());
+        assertEquals(245, exercise.getAltitude().getAscent());
+
+        // check speed summary data
+        assertEquals(39.38832f, exercise.getSpeed().getSpeedMax(), 0f);
+        assertEquals(16484, exercise.getSpeed().getDistance());
+        assertEquals(20.998724f, exercise.getSpeed().getSpeedAVG(), 0f);
+
+        // check sample data
+        assertEquals(199, exercise.getSampleList().length);
+
+        assertEquals(0L, exercise.getSampleList()[0].getTimestamp());
+        assertEquals(51.05423620d, exercise.getSampleList()[0].getPosition().getLatitude(), 0.00001d);
+        assertEquals(13.83243080d, exercise.getSampleList()[0].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 236, exercise.getSampleList()[0].getAltitude());
+        assertEquals(0f, exercise.getSampleList()[0].getSpeed(), 0f);
+        assertEquals((short) 0, exercise.getSampleList()[0].getHeartRate());
+        assertEquals((short) 0, exercise.getSampleList()[0].getCadence());
+        assertEquals(0, exercise.getSampleList()[0].getDistance());
+
+        assertEquals(77000L, exercise.getSampleList()[10].getTimestamp());
+        assertEquals(51.05160000d, exercise.getSampleList()[10].getPosition().getLatitude(), 0.00001d);
+        assertEquals(13.82978000d, exercise.getSampleList()[10].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 255, exercise.getSampleList()[10].getAltitude());
+        assertEquals(22.800179f, exercise.getSampleList()[10].getSpeed(), 0f);
+
+        assertEquals(2826000L, exercise.getSampleList()[198].getTimestamp());
+        assertEquals(51.01730000d, exercise.getSampleList()[198].getPosition().getLatitude(), 0.00001d);
+        assertEquals(13.95372000d, exercise.getSampleList()[198].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 243, exercise.getSampleList()[198].getAltitude());
+        assertEquals(21.250275f, exercise.getSampleList()[198].getSpeed(), 0f);
+    }
+
+    /**
+     * This test parses a GPX file for a bike tour created by Garmin Oregon with heart rate monitor.
+     * It contains track (location), time, altitude and heart rate data.
+     */
+    @Test
+    public void testGpxGarminOregonHeartRateBikeTour() throws EVException {
+        EVExercise exercise = parser.parseExercise("misc/testdata/gpx/bike-tour-garmin-oregon-with-heartrate.gpx");
+
+        // check basic exercise data
+        assertEquals(EVExercise.ExerciseFileType.GPX, exercise.getFileType());
+        assertEquals("Garmin GPX", exercise.getDeviceName());
+        assertEquals(EVExercise.DYNAMIC_RECORDING_INTERVAL, exercise.getRecordingInterval());
+        assertTrue(exercise.getRecordingMode().isAltitude());
+        assertTrue(exercise.getRecordingMode().isSpeed());
+        assertTrue(exercise.getRecordingMode().isHeartRate());
+        assertFalse(exercise.getRecordingMode().isCadence());
+        assertFalse(exercise.getRecordingMode().isPower());
+        assertFalse(exercise.getRecordingMode().isTemperature());
+        assertTrue(exercise.getRecordingMode().isLocation());
+        assertFalse(exercise.getRecordingMode().isIntervalExercise());
+
+        // Check exercise time and duration
+        assertEquals(LocalDateTime.of(2012, 3, 2, 6, 53, 51), exercise.getDateTime());
+        assertEquals(6090, exercise.getDuration());
+
+        // check altitude data
+        assertEquals((short) 32, exercise.getAltitude().getAltitudeMin());
+        assertEquals((short) 41, exercise.getAltitude().getAltitudeAVG());
+        assertEquals((short) 53, exercise.getAltitude().getAltitudeMax());
+        assertEquals(41, exercise.getAltitude().getAscent());
+
+        // check speed summary data
+        assertEquals(37.978153f, exercise.getSpeed().getSpeedMax(), 0f);
+        assertEquals(4494, exercise.getSpeed().getDistance());
+        assertEquals(26.565517f, exercise.getSpeed().getSpeedAVG(), 0f);
+
+        // check heartRate data
+        assertEquals((short) 152, exercise.getHeartRateAVG());
+        assertEquals((short) 169, exercise.getHeartRateMax());
+
+        // check sample data
+        assertEquals(204, exercise.getSampleList().length);
+
+        assertEquals(0L, exercise.getSampleList()[0].getTimestamp());
+        assertEquals(50.823521d, exercise.getSampleList()[0].getPosition().getLatitude(), 0.00001d);
+        assertEquals(4.672067d, exercise.getSampleList()[0].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 52, exercise.getSampleList()[0].getAltitude());
+        assertEquals(0f, exercise.getSampleList()[0].getSpeed(), 0f);
+        assertEquals((short) 158, exercise.getSampleList()[0].getHeartRate());
+        assertEquals((short) 0, exercise.getSampleList()[0].getCadence());
+        assertEquals(0, exercise.getSampleList()[0].getDistance());
+
+        assertEquals(303000L, exercise.getSampleList()[101].getTimestamp());
+        assertEquals(50.816284d, exercise.getSampleList()[101].getPosition().getLatitude(), 0.00001d);
+        assertEquals(4.65173d, exercise.getSampleList()[101].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 45, exercise.getSampleList()[101].getAltitude());
+        assertEquals(36.26108f, exercise.getSampleList()[101].getSpeed(), 0f);
+        assertEquals((short) 156, exercise.getSampleList()[101].getHeartRate());
+
+        assertEquals(609000L, exercise.getSampleList()[203].getTimestamp());
+        assertEquals(50.802288d, exercise.getSampleList()[203].getPosition().getLatitude(), 0.00001d);
+        assertEquals(4.639261d, exercise.getSampleList()[203].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 33, exercise.getSampleList()[203].getAltitude());
+        assertEquals(32.644943f, exercise.getSampleList()[203].getSpeed(), 0f);
+        assertEquals((short) 154, exercise.getSampleList()[203].getHeartRate());
+    }
+
+    /**
+     * This test parses a GPX file for a bike tour created by Holux FunTrek 130 pro with heart rate monitor.
+     * It contains track (location), time, altitude and heart rate data.
+     * Note that first version of the test file is derived from a Garmin Oregon track file, which has been
+     * manually patched to be aligned with the example shown in feature request 3432983
+     */
+    @Test
+    public void testGpxHoluxFunTrek130ProHeartRateBikeTour() throws EVException {
+        EVExercise exercise = parser.parseExercise("misc/testdata/gpx/bike-tour-holux-funtrek-130-pro-with-heartrate.gpx");
+
+        // check basic exercise data
+        assertEquals(EVExercise.ExerciseFileType.GPX, exercise.getFileType());
+        assertEquals("Garmin GPX", exercise.getDeviceName());
+        assertEquals(EVExercise.DYNAMIC_RECORDING_INTERVAL, exercise.getRecordingInterval());
+        assertTrue(exercise.getRecordingMode().isAltitude());
+        assertTrue(exercise.getRecordingMode().isSpeed());
+        assertTrue(exercise.getRecordingMode().isHeartRate());
+        assertFalse(exercise.getRecordingMode().isCadence());
+        assertFalse(exercise.getRecordingMode().isPower());
+        assertFalse(exercise.getRecordingMode().isTemperature());
+        assertTrue(exercise.getRecordingMode().isLocation());
+        assertFalse(exercise.getRecordingMode().isIntervalExercise());
+
+        // Check exercise time and duration
+        assertEquals(LocalDateTime.of(2011, 11, 3, 9, 9, 25), exercise.getDateTime());
+        assertEquals(1780, exercise.getDuration());
+
+        // check altitude data
+        assertEquals((short) 212, exercise.getAltitude().getAltitudeMin());
+        assertEquals((short) 221, exercise.getAltitude().getAltitudeAVG());
+        assertEquals((short) 226, exercise.getAltitude().getAltitudeMax());
+        assertEquals(22, exercise.getAltitude().getAscent());
+
+        // check speed summary data
+        assertEquals(39.3484f, exercise.getSpeed().getSpeedMax(), 0f);
+        assertEquals(1055, exercise.getSpeed().getDistance());
+        assertEquals(21.337078f, exercise.getSpeed().getSpeedAVG(), 0f);
+
+        // check heartRate data
+        assertEquals((short) 140, exercise.getHeartRateAVG());
+        assertEquals((short) 166, exercise.getHeartRateMax());
+
+        // check sample data
+        assertEquals(179, exercise.getSampleList().length);
+
+        assertEquals(0L, exercise.getSampleList()[0].getTimestamp());
+        assertEquals(49.990125d, exercise.getSampleList()[0].getPosition().getLatitude(), 0.00001d);
+        assertEquals(36.34850472d, exercise.getSampleList()[0].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 224, exercise.getSampleList()[0].getAltitude());
+        assertEquals(0f, exercise.getSampleList()[0].getSpeed(), 0f);
+        assertEquals((short) 81, exercise.getSampleList()[0].getHeartRate());
+        assertEquals((short) 0, exercise.getSampleList()[0].getCadence());
+        assertEquals(0, exercise.getSampleList()[0].getDistance());
+
+        assertEquals(90000L, exercise.getSampleList()[90].getTimestamp());
+        assertEquals(49.98855833d, exercise.getSampleList()[90].getPosition().getLatitude(), 0.00001d);
+        assertEquals(36.34222333d, exercise.getSampleList()[90].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 220, exercise.getSampleList()[90].getAltitude());
+        assertEquals(25.607729f, exercise.getSampleList()[90].getSpeed(), 0f);
+        assertEquals((short) 157, exercise.getSampleList()[90].getHeartRate());
+
+        assertEquals(178000L, exercise.getSampleList()[178].getTimestamp());
+        assertEquals(49.98728833d, exercise.getSampleList()[178].getPosition().getLatitude(), 0.00001d);
+        assertEquals(36.33563333d, exercise.getSampleList()[178].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 212, exercise.getSampleList()[178].getAltitude());
+        assertEquals(38.86589f, exercise.getSampleList()[178].getSpeed(), 0f);
+        assertEquals((short) 165, exercise.getSampleList()[178].getHeartRate());
+    }
+
+    /**
+     * This test parses a GPX file, which contains just the track (location) data.
+     */
+    @Test
+    public void testGpxBikeTourLocationDataOnly() throws EVException {
+
+        EVExercise exercise = parser.parseExercise("misc/testdata/gpx/bike-tour-track_only.gpx");
+
+        // check basic exercise data
+        assertEquals(EVExercise.ExerciseFileType.GPX, exercise.getFileType());
+        assertEquals("Garmin GPX", exercise.getDeviceName());
+        assertEquals(EVExercise.DYNAMIC_RECORDING_INTERVAL, exercise.getRecordingInterval());
+        assertFalse(exercise.getRecordingMode().isAltitude());
+        assertFalse(exercise.getRecordingMode().isHeartRate());
+        assertFalse(exercise.getRecordingMode().isSpeed());
+        assertFalse(exercise.getRecordingMode().isCadence());
+        assertFalse(exercise.getRecordingMode().isPower());
+        assertFalse(exercise.getRecordingMode().isTemperature());
+        assertTrue(exercise.getRecordingMode().isLocation());
+        assertFalse(exercise.getRecordingMode().isIntervalExercise());
+
+        // check exercise time and duration
+        assertNull(exercise.getDateTime());
+        assertEquals(0, exercise.getDuration());
+        assertNull(exercise.getAltitude());
+
+        // check sample data
+        assertEquals(142, exercise.getSampleList().length);
+
+        assertEquals(0L, exercise.getSampleList()[0].getTimestamp());
+        assertEquals(51.41659034d, exercise.getSampleList()[0].getPosition().getLatitude(), 0.00001d);
+        assertEquals(14.94992411d, exercise.getSampleList()[0].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 0, exercise.getSampleList()[0].getHeartRate());
+        assertEquals((short) 0, exercise.getSampleList()[0].getAltitude());
+        assertEquals(0f, exercise.getSampleList()[0].getSpeed(), 0f);
+        assertEquals((short) 0, exercise.getSampleList()[0].getCadence());
+        assertEquals(0, exercise.getSampleList()[0].getDistance());
+
+        assertEquals(0L, exercise.getSampleList()[10].getTimestamp());
+        assertEquals(51.4178715d, exercise.getSampleList()[10].getPosition().getLatitude(), 0.00001d);
+        assertEquals(14.94420463d, exercise.getSampleList()[10].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 0, exercise.getSampleList()[10].getAltitude());
+
+        assertEquals(0L, exercise.getSampleList()[141].getTimestamp());
+        assertEquals(51.32114d, exercise.getSampleList()[141].getPosition().getLatitude(), 0.00001d);
+        assertEquals(14.99391d, exercise.getSampleList()[141].getPosition().getLongitude(), 0.00001d);
+        assertEquals((short) 0, exercise.getSampleList()[141].getAltitude());
+    }
+}
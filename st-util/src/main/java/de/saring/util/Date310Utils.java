@@ -105,4 +105,15 @@ public final class Date310Utils {
     public static long localDateTimeToUnixTime(final LocalDateTime dateTime) {
         return dateTime.toInstant(ZoneOffset.UTC).getEpochSecond();
     }
+
+    /**
+     * Converts the specified Unix time (the number of seconds since 1970-01-01 00:00:00 UTC) to a LocalDateTime.
+     * It's the reverse operation of localDateTimeToUnixTime().
+     *
+     * @param unixTime Unix time
+     * @return the LocalDateTime object (JSR 310)
+     */
+    public static LocalDateTime unixTimeToLocalDateTime(final long unixTime) {
+        return LocalDateTime.ofEpochSecond(unixTime, 0, ZoneOffset.UTC);
+    }
 }
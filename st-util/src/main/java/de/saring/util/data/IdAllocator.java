@@ -0,0 +1,112 @@
+package de.saring.util.data;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tracks the IDs in use of an IdObjectList and provides the lowest unused
+ * positive ID without scanning all list entries. It stores the highest used ID
+ * (the watermark) and all ranges of unused IDs below of it (the gaps). In
+ * most cases the IDs are used without gaps, so the lowest unused ID is just
+ * the ID after the watermark.
+ *
+ * @author Stefan Saring
+ */
+final class IdAllocator {
+
+    /**
+     * The highest ID in use, 0 when no ID is used.
+     */
+    private int maxUsedId;
+
+    /**
+     * Ranges of unused IDs below the highest used ID. Key is the first unused
+     * ID of the range, value is the last unused ID of the range (inclusive).
+     */
+    private final TreeMap<Integer, Integer> mFreeRanges = new TreeMap<>();
+
+    /**
+     * Returns the lowest positive ID which is not in use.
+     *
+     * @return the lowest unused ID
+     */
+    int getLowestUnusedId() {
+        return mFreeRanges.isEmpty() ? maxUsedId + 1 : mFreeRanges.firstKey();
+    }
+
+    /**
+     * Marks the specified ID as used.
+     *
+     * @param id the ID which is in use now (must not be used yet)
+     */
+    void idAdded(int id) {
+        if (id > maxUsedId) {
+            if (id > maxUsedId + 1) {
+                mFreeRanges.put(maxUsedId + 1, id - 1);
+            }
+            maxUsedId = id;
+        } else {
+            // the ID is inside of a free range => split this range
+            Map.Entry<Integer, Integer> range = mFreeRanges.floorEntry(id);
+            if (range == null || range.getValue() < id) {
+                throw new IllegalStateException("The ID " + id + " is already in use!");
+            }
+
+            mFreeRanges.remove(range.getKey());
+            if (range.getKey() < id) {
+                mFreeRanges.put(range.getKey(), id - 1);
+            }
+            if (range.getValue() > id) {
+                mFreeRanges.put(id + 1, range.getValue());
+            }
+        }
+    }
+
+    /**
+     * Marks the specified ID as unused.
+     *
+     * @param id the ID which is not in use anymore (must be in use before)
+     */
+    void idRemoved(int id) {
+        if (id == maxUsedId) {
+            // lower the watermark, the free range below becomes part of the unused area above
+            Map.Entry<Integer, Integer> lastRange = mFreeRanges.lastEntry();
+            if (lastRange != null && lastRange.getValue() == id - 1) {
+                mFreeRanges.remove(lastRange.getKey());
+                maxUsedId = lastRange.getKey() - 1;
+            } else {
+                maxUsedId = id - 1;
+            }
+        } else {
+            // add a new free range, merge it with the adjacent free ranges
+            int rangeStart = id;
+            int rangeEnd = id;
+
+            Map.Entry<Integer, Integer> lowerRange = mFreeRanges.lowerEntry(id);
+            if (lowerRange != null && lowerRange.getValue() == id - 1) {
+                rangeStart = lowerRange.getKey();
+            }
+
+            Integer higherRangeEnd = mFreeRanges.remove(id + 1);
+            if (higherRangeEnd != null) {
+                rangeEnd = higherRangeEnd;
+            }
+
+            mFreeRanges.put(rangeStart, rangeEnd);
+        }
+    }
+
+    /**
+     * Resets the allocator, afterwards only the specified IDs are in use.
+     *
+     * @param usedIds collection of all used IDs (must not contain duplicates)
+     */
+    void reset(Collection<Integer> usedIds) {
+        maxUsedId = 0;
+        mFreeRanges.clear();
+
+        // the IDs need to be added in ascending order, so the gaps can be created by the watermark
+        usedIds.stream().sorted().forEach(this::idAdded);
+    }
+}
@@ -1,9 +1,10 @@
 package de.saring.util.data;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * This list extends IdObjectList and contains unique instances of IdDateObject
@@ -21,7 +22,9 @@ public class IdDateObjectList<T extends IdDateObject> extends IdObjectList<T> {
      * Stores the specified IdDateObject object in list. It will be inserted
      * into the correct list position, so that all IdDateObject's are sorted
      * ascending by date. When there's allready an IdDateObject object with the
-     * same ID then the old IdDateObject will be removed from list before.
+     * same ID then the old IdDateObject will be removed from list before. The old
+     * IdDateObject will be replaced directly when the new one has the same list
+     * position, so the following entries don't need to be moved.
      *
      * @param t IdDateObject instance to store (must not be null and must have a
      *            date)
@@ -30,25 +33,59 @@ public class IdDateObjectList<T extends IdDateObject> extends IdObjectList<T> {
     public void set(T t) {
         validateEntry(t);
 
-        // remove the object in the list if it's allready stored (same ID)
-        getIDObjects().remove(t);
-
         try {
-            // insert the object by date order (or add it to the end)
-            for (int i = 0; i < getIDObjects().size(); i++) {
-                IdDateObject temp = getIDObjects().get(i);
+            T oldEntry = getByID(t.getId());
+            if (oldEntry == null) {
+                // insert the object by date order behind all entries with the same date (or add it to the end)
+                insertEntry(findFirstIndexAfter(t.getDateTime(), -1), t);
+            } else {
+                // the position of the object in the list without the old entry (same ID)
+                int oldIndex = indexOf(oldEntry);
+                int newIndex = findFirstIndexAfter(t.getDateTime(), oldIndex);
 
-                if (t.getDateTime().isBefore(temp.getDateTime())) {
-                    getIDObjects().add(i, t);
-                    return;
+                if (newIndex == oldIndex) {
+                    replaceEntryAt(oldIndex, t);
+                } else {
+                    removeEntryAt(oldIndex);
+                    insertEntry(newIndex, t);
                 }
             }
-            getIDObjects().add(t);
         } finally {
             notifyAllListChangelisteners(t);
         }
     }
 
+    /**
+     * Returns the index of the specified object in the list or -1 if it is not
+     * contained. The position is searched by the date of the stored object,
+     * the list will only be scanned when the date of the stored object has been
+     * modified after storing.
+     *
+     * @param t the object to lookup in the list
+     * @return the index of the object or -1
+     */
+    @Override
+    public int indexOf(T t) {
+        if (!contains(t)) {
+            return -1;
+        }
+
+        T storedEntry = getByID(t.getId());
+        List<T> entries = getIDObjects();
+        for (int i = findFirstIndexAtOrAfter(storedEntry.getDateTime()); i < entries.size(); i++) {
+            T entry = entries.get(i);
+            if (entry == storedEntry) {
+                return i;
+            }
+            if (!entry.getDateTime().equals(storedEntry.getDateTime())) {
+                break;
+            }
+        }
+
+        // the date of the stored entry has been modified, it's not at the sorted position
+        return super.indexOf(t);
+    }
+
     /**
      * Clears this IdDateObjectList and adds all IdDateObjects of the passed list.
      * This list will be sorted afterwards, ascending by date. Finally all registered
@@ -62,9 +99,9 @@ public class IdDateObjectList<T extends IdDateObject> extends IdObjectList<T> {
         Objects.requireNonNull(entries, "List of IdDateObjects must not be null!");
         entries.forEach(entry -> validateEntry(entry));
 
-        getIDObjects().clear();
-        getIDObjects().addAll(entries);
-        getIDObjects().sort((entry1, entry2) -> entry1.getDateTime().compareTo(entry2.getDateTime()));
+        List<T> sortedEntries = new ArrayList<>(entries);
+        sortedEntries.sort((entry1, entry2) -> entry1.getDateTime().compareTo(entry2.getDateTime()));
+        replaceAllEntries(sortedEntries);
 
         notifyAllListChangelisteners(null);
     }
@@ -86,10 +123,51 @@ public class IdDateObjectList<T extends IdDateObject> extends IdObjectList<T> {
             throw new IllegalArgumentException("Start date is after end date!");
         }
 
-        return stream().filter(dateObject -> {
-            LocalDate doDate = dateObject.getDateTime().toLocalDate();
-            return !doDate.isBefore(dStart) && !doDate.isAfter(dEnd);
-        }).collect(Collectors.toList());
+        int indexStart = findFirstIndexAtOrAfter(dStart.atStartOfDay());
+        int indexEnd = findFirstIndexAtOrAfter(dEnd.plusDays(1).atStartOfDay());
+        return new ArrayList<>(getIDObjects().subList(indexStart, Math.max(indexStart, indexEnd)));
+    }
+
+    /**
+     * Returns the index of the first entry with a datetime equal or after the
+     * specified datetime by using binary search.
+     *
+     * @param dateTime datetime to search for
+     * @return the index of the first entry or the list size when there is no such entry
+     */
+    private int findFirstIndexAtOrAfter(LocalDateTime dateTime) {
+        return binarySearch(dateTime, false, -1);
+    }
+
+    /**
+     * Returns the index of the first entry with a datetime after the specified
+     * datetime by using binary search. The entry at the excluded index will be
+     * ignored, the returned index is the index in the list without this entry then.
+     *
+     * @param dateTime datetime to search for
+     * @param excludedIndex index of the entry to ignore or -1 for searching all entries
+     * @return the index of the first entry or the list size when there is no such entry
+     */
+    private int findFirstIndexAfter(LocalDateTime dateTime, int excludedIndex) {
+        return binarySearch(dateTime, true, excludedIndex);
+    }
+
+    private int binarySearch(LocalDateTime dateTime, boolean skipEqualDates, int excludedIndex) {
+        List<T> entries = getIDObjects();
+        int low = 0;
+        int high = excludedIndex < 0 ? entries.size() : entries.size() - 1;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int entryIndex = excludedIndex >= 0 && middle >= excludedIndex ? middle + 1 : middle;
+            int compareResult = entries.get(entryIndex).getDateTime().compareTo(dateTime);
+            if (compareResult < 0 || (skipEqualDates && compareResult == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
     @Override
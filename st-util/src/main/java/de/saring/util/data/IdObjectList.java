@@ -1,7 +1,12 @@
 package de.saring.util.data;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 /**
@@ -23,6 +28,39 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
      */
     private final List<T> lIdObjects = new ArrayList<>();
 
+    /**
+     * Read-only view of the internal list for subclasses, it must not be modified directly.
+     */
+    private final List<T> lIdObjectsView = Collections.unmodifiableList(lIdObjects);
+
+    /**
+     * Index of all stored IdObjects by their ID, needs to be consistent with the list content.
+     * It's used for fast lookups by ID, the list itself is needed for the object order.
+     */
+    private final Map<Integer, T> mIdIndex = new HashMap<>();
+
+    /**
+     * Index of the list positions of the stored IdObjects by their ID. It's used for finding
+     * the position without scanning the list. Only the positions of the first
+     * mPositionIndexValidCount list entries are valid. Replacements and appends to the end of
+     * the list keep the positions, inserts and removals in the middle shift the positions of
+     * all following entries, so the valid range gets shortened then. The rest of the index
+     * will be updated on the next request.
+     */
+    private final Map<Integer, Integer> mPositionIndex = new HashMap<>();
+
+    /**
+     * Number of list entries (from the list start) with a valid position in mPositionIndex.
+     */
+    private int mPositionIndexValidCount;
+
+    /**
+     * Tracker of the used IDs for the fast creation of new unique IDs. It will
+     * be created on the first request of a new ID, it's null before and after
+     * replacing all entries (many lists never need new IDs, e.g. filter results).
+     */
+    private IdAllocator idAllocator;
+
     /**
      * List of listeners which will be notified on each list content change.
      */
@@ -35,8 +73,7 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
      * @return the IdObject object or null
      */
     public T getByID(int id) {
-        Optional<T> oIdObject = stream().filter(o -> o.getId() == id).findFirst();
-        return oIdObject.orElse(null);
+        return mIdIndex.get(id);
     }
 
     /**
@@ -58,7 +95,16 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
      * @return the index of the object or -1
      */
     public int indexOf(T t) {
-        return lIdObjects.indexOf(t);
+        if (!contains(t)) {
+            return -1;
+        }
+
+        Integer position = mPositionIndex.get(t.getId());
+        if (position == null || position >= mPositionIndexValidCount) {
+            updatePositionIndex();
+            position = mPositionIndex.get(t.getId());
+        }
+        return position;
     }
 
     /**
@@ -68,7 +114,7 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
      * @return true if the list contains the specified object
      */
     public boolean contains(T t) {
-        return lIdObjects.contains(t);
+        return t != null && t.equals(mIdIndex.get(t.getId()));
     }
 
     /**
@@ -82,13 +128,13 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
         validateEntry(t);
 
         try {
-            int index = lIdObjects.indexOf(t);
-            if (index >= 0) {
+            T oldIdObject = mIdIndex.get(t.getId());
+            if (oldIdObject != null) {
                 // replace old IdObject if there is one with the ID of the new one
-                this.lIdObjects.set(index, t);
+                replaceEntryAt(indexOf(oldIdObject), t);
             } else {
                 // the object has a new ID => add to end of list
-                this.lIdObjects.add(t);
+                insertEntry(lIdObjects.size(), t);
             }
         } finally {
             notifyAllListChangelisteners(t);
@@ -106,8 +152,7 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
         Objects.requireNonNull(entries, "List of IdObjects must not be null!");
         entries.forEach(entry -> validateEntry(entry));
 
-        lIdObjects.clear();
-        lIdObjects.addAll(entries);
+        replaceAllEntries(entries);
 
         notifyAllListChangelisteners(null);
     }
@@ -122,7 +167,7 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
 
         T t = getByID(id);
         if (t != null) {
-            boolean removed = this.lIdObjects.remove(t);
+            boolean removed = removeEntry(t);
             if (removed) {
                 notifyAllListChangelisteners(null);
             }
@@ -132,21 +177,17 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
     }
 
     /**
-     * This method returns an unique ID, which is not in use yet.
+     * This method returns an unique ID, which is not in use yet. It's always
+     * the lowest unused positive ID.
      *
      * @return a new unused ID
      */
     public int getNewID() {
-        Set<? super Integer> hsIDs = stream()
-                .map(T::getId)
-                .collect(Collectors.toSet());
-
-        // find first unused ID
-        int newID = 1;
-        while (hsIDs.contains(newID)) {
-            newID++;
+        if (idAllocator == null) {
+            idAllocator = new IdAllocator();
+            idAllocator.reset(mIdIndex.keySet());
         }
-        return newID;
+        return idAllocator.getLowestUnusedId();
     }
 
     /**
@@ -165,7 +206,7 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
      */
     @Override
     public Iterator<T> iterator() {
-        return lIdObjects.iterator();
+        return lIdObjectsView.iterator();
     }
 
     /**
@@ -212,12 +253,125 @@ public class IdObjectList<T extends IdObject> implements Iterable<T> {
 
     /**
      * Returns the internal list of IdObject. Only subclasses can directly
-     * access this list.
+     * access this list. The returned list is read-only, subclasses need to use
+     * the methods insertEntry(), replaceEntryAt(), removeEntry(), removeEntryAt()
+     * and replaceAllEntries() for modifications, so the ID index stays consistent.
      *
-     * @return the internal list of IdObject
+     * @return the internal list of IdObject (read-only)
      */
     protected List<T> getIDObjects() {
-        return lIdObjects;
+        return lIdObjectsView;
+    }
+
+    /**
+     * Inserts the specified IdObject at the specified position of the internal
+     * list and adds it to the ID index. The registered listeners will not be
+     * notified, this needs to be done by the caller.
+     *
+     * @param index the list position for insertion
+     * @param t the IdObject to insert (must not be stored in the list yet)
+     */
+    protected void insertEntry(int index, T t) {
+        if (index == lIdObjects.size() && mPositionIndexValidCount == index) {
+            mPositionIndex.put(t.getId(), index);
+            mPositionIndexValidCount++;
+        } else {
+            mPositionIndexValidCount = Math.min(mPositionIndexValidCount, index);
+        }
+
+        lIdObjects.add(index, t);
+        mIdIndex.put(t.getId(), t);
+        if (idAllocator != null) {
+            idAllocator.idAdded(t.getId());
+        }
+    }
+
+    /**
+     * Replaces the IdObject at the specified position of the internal list by
+     * the specified IdObject with the same ID. The list positions don't change,
+     * so this is the fastest way for updating an entry. The registered listeners
+     * will not be notified, this needs to be done by the caller.
+     *
+     * @param index the list position of the IdObject to replace
+     * @param t the new IdObject, it must have the same ID as the replaced one
+     */
+    protected void replaceEntryAt(int index, T t) {
+        T oldIdObject = lIdObjects.get(index);
+        if (oldIdObject.getId() != t.getId()) {
+            throw new IllegalArgumentException("The replaced IdObject must have the same ID!");
+        }
+
+        lIdObjects.set(index, t);
+        mIdIndex.put(t.getId(), t);
+    }
+
+    /**
+     * Removes the specified IdObject from the internal list and from the ID
+     * index. The registered listeners will not be notified, this needs to be
+     * done by the caller.
+     *
+     * @param t the IdObject to remove
+     * @return true when the IdObject was removed
+     */
+    protected boolean removeEntry(T t) {
+        int index = indexOf(t);
+        if (index < 0) {
+            return false;
+        }
+
+        removeEntryAt(index);
+        return true;
+    }
+
+    /**
+     * Removes the IdObject at the specified position from the internal list and
+     * from the ID index. The registered listeners will not be notified, this
+     * needs to be done by the caller.
+     *
+     * @param index the list position of the IdObject to remove
+     * @return the removed IdObject
+     */
+    protected T removeEntryAt(int index) {
+        T t = lIdObjects.remove(index);
+        mIdIndex.remove(t.getId());
+        mPositionIndex.remove(t.getId());
+        mPositionIndexValidCount = Math.min(mPositionIndexValidCount, index);
+        if (idAllocator != null) {
+            idAllocator.idRemoved(t.getId());
+        }
+        return t;
+    }
+
+    /**
+     * Replaces the content of the internal list by the specified entries and
+     * rebuilds the ID index. The entries are stored in the passed order. The
+     * registered listeners will not be notified, this needs to be done by the
+     * caller.
+     *
+     * @param entries list of IdObjects to store
+     */
+    protected void replaceAllEntries(final List<T> entries) {
+        lIdObjects.clear();
+        lIdObjects.addAll(entries);
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+        mIdIndex.clear();
+        lIdObjects.forEach(entry -> mIdIndex.put(entry.getId(), entry));
+        mPositionIndex.clear();
+        mPositionIndexValidCount = 0;
+        idAllocator = null;
+    }
+
+    /**
+     * Updates the positions in the position index for all entries behind the valid range.
+     */
+    private void updatePositionIndex() {
+        for (int i = mPositionIndexValidCount; i < lIdObjects.size(); i++) {
+            mPositionIndex.put(lIdObjects.get(i).getId(), i);
+        }
+        mPositionIndexValidCount = lIdObjects.size();
     }
 
     /**
@@ -132,6 +132,16 @@ public class Date310UtilsTest {
                 LocalDateTime.of(2016, 4, 21, 15, 45, 0)));
     }
 
+    /**
+     * Tests the method unixTimeToLocalDateTime().
+     */
+    @Test
+    public void testUnixTimeToLocalDateTime() {
+
+        assertEquals(LocalDateTime.of(1970, 1, 1, 0, 0, 0), Date310Utils.unixTimeToLocalDateTime(0L));
+        assertEquals(LocalDateTime.of(2016, 4, 21, 15, 45, 0), Date310Utils.unixTimeToLocalDateTime(1461253500L));
+    }
+
     private Date createDate(int year, int month, int day, int hour, int minute, int second) {
         final Calendar calendar = Calendar.getInstance();
         calendar.clear();
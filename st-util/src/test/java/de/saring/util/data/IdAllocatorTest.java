@@ -0,0 +1,113 @@
+package de.saring.util.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests of class IdAllocator.
+ *
+ * @author Stefan Saring
+ */
+public class IdAllocatorTest {
+
+    /**
+     * The instance to test.
+     */
+    private IdAllocator allocator;
+
+    @Before
+    public void setUp() {
+        allocator = new IdAllocator();
+    }
+
+    /**
+     * Test of getLowestUnusedId(): must return 1 when no ID is in use.
+     */
+    @Test
+    public void getLowestUnusedIdEmpty() {
+        assertEquals(1, allocator.getLowestUnusedId());
+    }
+
+    /**
+     * Test of idAdded(): the lowest unused ID must be found when IDs are added in any order.
+     */
+    @Test
+    public void idAdded() {
+        allocator.idAdded(1);
+        allocator.idAdded(2);
+        assertEquals(3, allocator.getLowestUnusedId());
+
+        allocator.idAdded(6);
+        assertEquals(3, allocator.getLowestUnusedId());
+
+        allocator.idAdded(4);
+        assertEquals(3, allocator.getLowestUnusedId());
+
+        allocator.idAdded(3);
+        assertEquals(5, allocator.getLowestUnusedId());
+
+        allocator.idAdded(5);
+        assertEquals(7, allocator.getLowestUnusedId());
+    }
+
+    /**
+     * Test of idAdded(): must fail when the ID is already in use.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void idAddedTwice() {
+        allocator.idAdded(1);
+        allocator.idAdded(3);
+        allocator.idAdded(3);
+    }
+
+    /**
+     * Test of idRemoved(): the removed IDs must be reused, gaps must be merged.
+     */
+    @Test
+    public void idRemoved() {
+        allocator.reset(Arrays.asList(1, 2, 3, 4, 5, 6));
+
+        allocator.idRemoved(4);
+        assertEquals(4, allocator.getLowestUnusedId());
+
+        allocator.idRemoved(2);
+        assertEquals(2, allocator.getLowestUnusedId());
+
+        allocator.idRemoved(3);
+        assertEquals(2, allocator.getLowestUnusedId());
+
+        allocator.idAdded(2);
+        assertEquals(3, allocator.getLowestUnusedId());
+
+        // removal of the highest ID must merge with the free range below
+        allocator.idRemoved(6);
+        allocator.idRemoved(5);
+        allocator.idAdded(3);
+        assertEquals(4, allocator.getLowestUnusedId());
+        allocator.idAdded(4);
+        assertEquals(5, allocator.getLowestUnusedId());
+    }
+
+    /**
+     * Test of reset(): only the passed IDs must be in use afterwards.
+     */
+    @Test
+    public void reset() {
+        allocator.idAdded(1);
+        allocator.idAdded(2);
+
+        allocator.reset(Arrays.asList(7, 3, 1, 4));
+        assertEquals(2, allocator.getLowestUnusedId());
+
+        allocator.idAdded(2);
+        assertEquals(5, allocator.getLowestUnusedId());
+
+        allocator.idAdded(5);
+        allocator.idAdded(6);
+        assertEquals(8, allocator.getLowestUnusedId());
+    }
+}
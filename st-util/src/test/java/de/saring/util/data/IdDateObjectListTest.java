@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -74,6 +75,93 @@ public class IdDateObjectListTest {
         checkDateOrder();
     }
 
+    /**
+     * Test of set(): a new object with the same datetime as an existing one must be
+     * added behind the existing one.
+     */
+    @Test
+    public void testSetAddSameDateTime() {
+        list.set(new DateNameObject(4, LocalDateTime.of(2009, 02, 05, 21, 30, 0), "four"));
+        list.set(new DateNameObject(5, LocalDateTime.of(2009, 02, 05, 21, 30, 0), "five"));
+        assertEquals(5, list.size());
+        assertEquals("one", list.getAt(1).getName());
+        assertEquals("four", list.getAt(2).getName());
+        assertEquals("five", list.getAt(3).getName());
+        assertEquals("three", list.getAt(4).getName());
+    }
+
+    /**
+     * Test of set(): a replaced object with the same datetime as the following entry must
+     * be moved behind this entry, like new objects with the same datetime.
+     */
+    @Test
+    public void testSetReplaceSameDateTime() {
+        list.set(new DateNameObject(4, LocalDateTime.of(2009, 02, 05, 21, 30, 0), "four"));
+        list.set(new DateNameObject(1, LocalDateTime.of(2009, 02, 05, 21, 30, 0), "one-new"));
+        assertEquals(4, list.size());
+        assertEquals("four", list.getAt(1).getName());
+        assertEquals("one-new", list.getAt(2).getName());
+        assertEquals(2, list.indexOf(list.getByID(1)));
+        assertEquals(1, list.indexOf(list.getByID(4)));
+    }
+
+    /**
+     * Test of set(): a replaced object with a modified datetime, which doesn't change the
+     * order, must keep its position, all other entries must not be moved.
+     */
+    @Test
+    public void testSetReplaceKeepsPosition() {
+        DateNameObject oneNew = new DateNameObject(1, LocalDateTime.of(2009, 02, 06, 8, 0, 0), "one-new");
+        list.set(oneNew);
+
+        assertEquals(3, list.size());
+        assertEquals("two", list.getAt(0).getName());
+        assertSame(oneNew, list.getAt(1));
+        assertEquals("three", list.getAt(2).getName());
+        assertEquals(1, list.indexOf(oneNew));
+        checkDateOrder();
+    }
+
+    /**
+     * Test of indexOf(): the positions of objects with modified dates (not found by the
+     * date search) must be correct after inserts, replacements and removals in the middle
+     * of the list.
+     */
+    @Test
+    public void testIndexOfModifiedDatesAfterModifications() {
+        for (int i = 4; i <= 20; i++) {
+            list.set(new DateNameObject(i, LocalDateTime.of(2009, 03, i, 10, 0, 0), "entry" + i));
+        }
+        list.getByID(20).setDateTime(LocalDateTime.of(2001, 01, 01, 10, 0, 0));
+        assertEquals(19, list.indexOf(list.getByID(20)));
+
+        list.set(new DateNameObject(21, LocalDateTime.of(2009, 01, 01, 10, 0, 0), "entry21"));
+        list.set(new DateNameObject(10, LocalDateTime.of(2009, 03, 25, 10, 0, 0), "entry10-new"));
+        list.removeByID(5);
+        list.set(new DateNameObject(7, LocalDateTime.of(2009, 03, 7, 12, 0, 0), "entry7-new"));
+        list.getByID(15).setDateTime(LocalDateTime.of(2001, 01, 01, 10, 0, 0));
+
+        for (int i = 0; i < list.size(); i++) {
+            DateNameObject entry = list.getAt(i);
+            assertEquals(i, list.indexOf(entry));
+        }
+        assertEquals(-1, list.indexOf(new DateNameObject(5, LocalDateTime.of(2009, 03, 5, 10, 0, 0), "entry5")));
+    }
+
+    /**
+     * Test of indexOf(): must find the objects, also when the date of a stored
+     * object has been modified without storing it again.
+     */
+    @Test
+    public void testIndexOf() {
+        assertEquals(0, list.indexOf(new DateNameObject(2, LocalDateTime.of(2008, 12, 11, 20, 30, 0), "two")));
+        assertEquals(2, list.indexOf(list.getByID(3)));
+        assertEquals(-1, list.indexOf(new DateNameObject(4, LocalDateTime.of(2009, 02, 05, 21, 30, 0), "four")));
+
+        list.getByID(3).setDateTime(LocalDateTime.of(2001, 01, 01, 10, 0, 0));
+        assertEquals(2, list.indexOf(list.getByID(3)));
+    }
+
     /**
      * Test of method clearAndAddAll(). The previous list content must be removed, the
      * list must contain only the new entries, sorted by date.
@@ -155,6 +243,17 @@ public class IdDateObjectListTest {
         assertEquals("one", lFound.get(0).getName());
     }
 
+    /**
+     * Test of getEntriesInDateRange(): must find no entries when the date range
+     * is between, before or after the stored entries.
+     */
+    @Test
+    public void testGetEntriesInDateRangeFindNone() {
+        assertEquals(0, list.getEntriesInDateRange(LocalDate.of(2009, 2, 6), LocalDate.of(2009, 2, 6)).size());
+        assertEquals(0, list.getEntriesInDateRange(LocalDate.of(2008, 1, 1), LocalDate.of(2008, 12, 10)).size());
+        assertEquals(0, list.getEntriesInDateRange(LocalDate.of(2009, 2, 8), LocalDate.of(2010, 1, 1)).size());
+    }
+
     /**
      * Test of getEntriesInDateRange(): must fail when one of the dates is null.
      */
@@ -0,0 +1,111 @@
+package de.saring.util.data;
+
+import de.saring.util.data.IdDateObjectListTest.DateNameObject;
+import de.saring.util.data.IdObjectListTest.NameObject;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simple benchmark of the IdObjectList for loading, ID lookups and replacements with 1k, 10k
+ * and 100k entries. The lookups are compared with a linear scan of the list, which was used
+ * before the ID index existed. The replacements are also measured for an IdDateObjectList,
+ * the replaced entries keep their dates there (like edited exercises). It's not a unit test,
+ * start it by the main() method.
+ *
+ * @author Stefan Saring
+ */
+public class IdObjectListBenchmark {
+
+    private static final int[] ENTRY_COUNTS = {1_000, 10_000, 100_000};
+    private static final int OPERATION_COUNT = 10_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        for (int entryCount : ENTRY_COUNTS) {
+            List<NameObject> entries = createEntries(entryCount);
+            int[] lookupIds = createLookupIds(entryCount);
+
+            double loadTime = measure(() -> {
+                IdObjectList<NameObject> list = new IdObjectList<>();
+                entries.forEach(list::set);
+            });
+
+            IdObjectList<NameObject> list = new IdObjectList<>();
+            list.clearAndAddAll(entries);
+
+            double lookupTime = measure(() -> {
+                for (int id : lookupIds) {
+                    list.getByID(id);
+                }
+            });
+            double scanTime = measure(() -> {
+                for (int id : lookupIds) {
+                    list.stream().filter(entry -> entry.getId() == id).findFirst();
+                }
+            });
+            double replaceTime = measure(() -> {
+                for (int id : lookupIds) {
+                    list.set(new NameObject(id, "replaced"));
+                }
+            });
+
+            IdDateObjectList<DateNameObject> dateList = new IdDateObjectList<>();
+            dateList.clearAndAddAll(createDateEntries(entryCount));
+
+            double dateReplaceTime = measure(() -> {
+                for (int id : lookupIds) {
+                    DateNameObject entry = dateList.getByID(id);
+                    dateList.set(new DateNameObject(id, entry.getDateTime(), "replaced"));
+                    dateList.indexOf(entry);
+                }
+            });
+
+            System.out.printf("%,7d entries: load %8.2f ms, %,d lookups %8.2f ms (linear scan %9.2f ms), " +
+                    "%,d replacements %8.2f ms (date list with indexOf() %8.2f ms)%n", entryCount, loadTime,
+                    OPERATION_COUNT, lookupTime, scanTime, OPERATION_COUNT, replaceTime, dateReplaceTime);
+        }
+    }
+
+    private static List<NameObject> createEntries(int entryCount) {
+        List<NameObject> entries = new ArrayList<>(entryCount);
+        for (int i = 1; i <= entryCount; i++) {
+            entries.add(new NameObject(i, "entry " + i));
+        }
+        return entries;
+    }
+
+    private static List<DateNameObject> createDateEntries(int entryCount) {
+        LocalDateTime dateTime = LocalDateTime.of(2000, 1, 1, 10, 0);
+        List<DateNameObject> entries = new ArrayList<>(entryCount);
+        for (int i = 1; i <= entryCount; i++) {
+            entries.add(new DateNameObject(i, dateTime.plusHours(i * 6L), "entry " + i));
+        }
+        return entries;
+    }
+
+    private static int[] createLookupIds(int entryCount) {
+        Random random = new Random(42);
+        int[] ids = new int[OPERATION_COUNT];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextInt(entryCount) + 1;
+        }
+        return ids;
+    }
+
+    /**
+     * Runs the task for warmup and returns the best execution time of the following rounds in milliseconds.
+     */
+    private static double measure(Runnable task) {
+        task.run();
+        long bestTime = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startTime = System.nanoTime();
+            task.run();
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+        }
+        return bestTime / 1_000_000d;
+    }
+}
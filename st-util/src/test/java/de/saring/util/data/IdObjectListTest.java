@@ -158,6 +158,69 @@ public class IdObjectListTest {
         assertEquals(2, list.size());
     }
 
+    /**
+     * Tests that the lookups by ID are still consistent after all kinds of list modifications.
+     */
+    @Test
+    public void getByIDAfterModifications() {
+
+        // replaced entry must be returned and must keep the list position
+        NameObject zwei = new NameObject(2, "zwei");
+        list.set(zwei);
+        assertSame(zwei, list.getByID(2));
+        assertEquals(1, list.indexOf(zwei));
+
+        // removed entry must not be found anymore
+        list.removeByID(1);
+        assertNull(list.getByID(1));
+        assertFalse(list.contains(new NameObject(1, "one")));
+        assertEquals(-1, list.indexOf(new NameObject(1, "one")));
+        assertEquals(0, list.indexOf(zwei));
+
+        // only the new entries must be found after clearAndAddAll()
+        ArrayList<NameObject> tempEntries = new ArrayList<>();
+        tempEntries.add(new NameObject(5, "five"));
+        tempEntries.add(new NameObject(6, "six"));
+        list.clearAndAddAll(tempEntries);
+
+        assertNull(list.getByID(2));
+        assertNull(list.getByID(3));
+        assertEquals("five", list.getByID(5).getName());
+        assertEquals("six", list.getByID(6).getName());
+        assertTrue(list.contains(new NameObject(6, "six")));
+    }
+
+    /**
+     * Tests that the list positions are still correct after replacements, appends and removals
+     * at the end and in the middle of the list.
+     */
+    @Test
+    public void indexOfAfterModifications() {
+        assertEquals(2, list.indexOf(new NameObject(3, "three")));
+
+        // replacement and append at the end
+        list.set(new NameObject(2, "zwei"));
+        list.set(new NameObject(4, "four"));
+        assertEquals(1, list.indexOf(new NameObject(2, "zwei")));
+        assertEquals(3, list.indexOf(new NameObject(4, "four")));
+
+        // removal at the end
+        list.removeByID(4);
+        assertEquals(-1, list.indexOf(new NameObject(4, "four")));
+        assertEquals(2, list.indexOf(new NameObject(3, "three")));
+
+        // removal in the middle, the following entries must be moved
+        list.removeByID(1);
+        assertEquals(0, list.indexOf(new NameObject(2, "zwei")));
+        assertEquals(1, list.indexOf(new NameObject(3, "three")));
+
+        // replacement after the removal must keep the position
+        NameObject drei = new NameObject(3, "drei");
+        list.set(drei);
+        assertEquals(1, list.indexOf(drei));
+        assertSame(drei, list.getAt(1));
+    }
+
     /**
      * Test of getNewID method, of class IdObjectList.
      */
@@ -175,6 +238,30 @@ public class IdObjectListTest {
         // remove ID 2 from list => next needs to be 2
         list.removeByID(2);
         assertEquals(2, list.getNewID());
+
+        // add ID 2 again => next needs to be 5 again
+        list.set(new NameObject(2, "two"));
+        assertEquals(5, list.getNewID());
+    }
+
+    /**
+     * Test of getNewID method after clearAndAddAll(), only the new entries must be considered.
+     */
+    @Test
+    public void getNewIDAfterClearAndAddAll() {
+
+        ArrayList<NameObject> tempEntries = new ArrayList<>();
+        tempEntries.add(new NameObject(3, "three"));
+        tempEntries.add(new NameObject(1, "one"));
+        list.clearAndAddAll(tempEntries);
+        assertEquals(2, list.getNewID());
+
+        // remove ID 3 => next needs to be still 2
+        list.removeByID(3);
+        assertEquals(2, list.getNewID());
+
+        list.set(new NameObject(2, "two"));
+        assertEquals(3, list.getNewID());
     }
 
     /**